@@ -4,6 +4,7 @@ import com.tagtraum.perf.gcviewer.ctrl.impl.GCViewerGuiController;
 import com.tagtraum.perf.gcviewer.exp.DataWriter;
 import com.tagtraum.perf.gcviewer.exp.DataWriterType;
 import com.tagtraum.perf.gcviewer.exp.impl.DataWriterFactory;
+import com.tagtraum.perf.gcviewer.exp.impl.ModelDiffDataWriter;
 import com.tagtraum.perf.gcviewer.imp.DataReaderException;
 import com.tagtraum.perf.gcviewer.imp.DataReaderFacade;
 import com.tagtraum.perf.gcviewer.model.GCModel;
@@ -14,6 +15,8 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -64,13 +67,14 @@ public class GCViewer {
         else if (argsParser.getArgumentCount() >= 2) {
             LOGGER.info("GCViewer command line mode");
             GCResource gcResource = argsParser.getGcResource();
+            GCResource baselineGcResource = argsParser.getBaselineGcResource();
             String summaryFilePath = argsParser.getSummaryFilePath();
             String chartFilePath = argsParser.getChartFilePath();
             DataWriterType type = argsParser.getType();
 
             //export summary:
             try {
-                export(gcResource, summaryFilePath, chartFilePath, type);
+                export(gcResource, baselineGcResource, summaryFilePath, chartFilePath, type);
                 LOGGER.info("export completed successfully");
                 return EXIT_OK;
             }
@@ -85,19 +89,33 @@ public class GCViewer {
         }
     }
 
-    private void export(GCResource gcResource, String summaryFilePath, String chartFilePath, DataWriterType type)
+    private void export(GCResource gcResource, GCResource baselineGcResource, String summaryFilePath, String chartFilePath, DataWriterType type)
             throws IOException, DataReaderException {
         
         DataReaderFacade dataReaderFacade = new DataReaderFacade();
         GCModel model = dataReaderFacade.loadModel(gcResource);
+        GCModel baselineModel = null;
+        try {
+            Map<String, Object> configuration = new HashMap<>();
+            if (baselineGcResource != null) {
+                baselineModel = dataReaderFacade.loadModel(baselineGcResource);
+                configuration.put(ModelDiffDataWriter.BASELINE_MODEL, baselineModel);
+            }
 
-        exportType(model, summaryFilePath, type);
-        if (chartFilePath != null)
-            renderChart(model, chartFilePath);
+            exportType(model, summaryFilePath, type, configuration);
+            if (chartFilePath != null)
+                renderChart(model, chartFilePath);
+        }
+        finally {
+            model.close();
+            if (baselineModel != null) {
+                baselineModel.close();
+            }
+        }
     }
 
-    private void exportType(GCModel model, String summaryFilePath, DataWriterType type) throws IOException {
-        try (DataWriter summaryWriter = DataWriterFactory.getDataWriter(new File(summaryFilePath), type)) {
+    private void exportType(GCModel model, String summaryFilePath, DataWriterType type, Map<String, Object> configuration) throws IOException {
+        try (DataWriter summaryWriter = DataWriterFactory.getDataWriter(new File(summaryFilePath), type, configuration)) {
             summaryWriter.write(model);
         }
     }
@@ -115,8 +133,9 @@ public class GCViewer {
         System.out.println("java -jar gcviewer.jar [<gc-log-file|url>];[<gc-log-file|url>];[...] [<export.csv>] -> cmdline: loads given files as series of rotated logfiles and writes report to <export.csv>");
         System.out.println("java -jar gcviewer.jar [<gc-log-file>] [<export.csv>] [<chart.png>] -> cmdline: writes report to <export.csv> and renders gc chart to <chart.png>");
         System.out.println("java -jar gcviewer.jar [<gc-log-file|url>];[<gc-log-file|url>];[...] [<export.csv>] [<chart.png>] -> cmdline: loads given files as series of rotated logfiles and writes report to <export.csv> and renders gc chart to <chart.png>");
-        System.out.println("java -jar gcviewer.jar [<gc-log-file|url>] [<export.csv>] [<chart.png>] [-t <SUMMARY, CSV, CSV_TS, PLAIN, SIMPLE>]");
-        System.out.println("java -jar gcviewer.jar [<gc-log-file|url>];[<gc-log-file|url>];[...] [<export.csv>] [<chart.png>] [-t <SUMMARY, CSV, CSV_TS, PLAIN, SIMPLE>]");
+        System.out.println("java -jar gcviewer.jar [<gc-log-file|url>] [<export.csv>] [<chart.png>] [-t <SUMMARY, CSV, CSV_TS, PLAIN, SIMPLE, SLIDING_WINDOW, ANOMALIES, SIZING>]");
+        System.out.println("java -jar gcviewer.jar [<gc-log-file|url>];[<gc-log-file|url>];[...] [<export.csv>] [<chart.png>] [-t <SUMMARY, CSV, CSV_TS, PLAIN, SIMPLE, SLIDING_WINDOW, ANOMALIES, SIZING>]");
+        System.out.println("java -jar gcviewer.jar [<gc-log-file|url>] [<export.csv>] -t DIFF -b [<baseline-gc-log-file|url>] -> cmdline: writes differences to the baseline log file to <export.csv>");
     }
 
 }
@@ -23,6 +23,7 @@ public class GCViewerArgsParser {
     private int argumentCount;
     private String chartFilePath;
     private String gcFile;
+    private String baselineGcFile;
     private String summaryFilePath;
     private DataWriterType type = DataWriterType.SUMMARY;
     
@@ -35,6 +36,19 @@ public class GCViewerArgsParser {
     }
 
     public GCResource getGcResource() {
+        return toGcResource(gcFile);
+    }
+
+    /**
+     * @return resource of the baseline model given with <code>-b</code> (to be compared with the
+     * {@link #getGcResource() gc resource} in the {@link DataWriterType#DIFF} export) or
+     * <code>null</code>, if none was given
+     */
+    public GCResource getBaselineGcResource() {
+        return baselineGcFile != null ? toGcResource(baselineGcFile) : null;
+    }
+
+    private GCResource toGcResource(String gcFile) {
         List<String> files = Arrays.asList(gcFile.split(";"));
         List<GCResource> resources = files.stream().map(GcResourceFile::new).collect(Collectors.toList());
         if (resources.isEmpty())
@@ -78,6 +92,16 @@ public class GCViewerArgsParser {
             argsList.remove(typeIdx);
         }
 
+        int baselineIdx = argsList.indexOf("-b");
+        if (baselineIdx != -1 && argsList.size() > (baselineIdx + 1)) {
+            baselineGcFile = argsList.get(baselineIdx + 1);
+            argsList.remove(baselineIdx);
+            argsList.remove(baselineIdx);
+        }
+        else if (baselineIdx != -1) {
+            argsList.remove(baselineIdx);
+        }
+
         argumentCount = argsList.size();
         gcFile = safeGetArgument(argsList, ARG_POS_GCFILE);
         summaryFilePath = safeGetArgument(argsList, ARG_POS_SUMMARY_FILE);
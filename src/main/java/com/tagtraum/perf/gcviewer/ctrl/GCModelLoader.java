@@ -1,5 +1,6 @@
 package com.tagtraum.perf.gcviewer.ctrl;
 
+import com.tagtraum.perf.gcviewer.imp.DataReaderFacade;
 import com.tagtraum.perf.gcviewer.model.GCResource;
 
 import java.beans.PropertyChangeEvent;
@@ -7,6 +8,8 @@ import java.beans.PropertyChangeListener;
 
 /**
  * Loads the model in a background thread (progress can be tracked using propertyChangeListeners).
+ * While loading is still in progress, snapshots of the model as far as it has been read are fired
+ * on the event dispatch thread (property {@link DataReaderFacade#MODEL_SNAPSHOT}).
  *
  * @author <a href="mailto:gcviewer@gmx.ch">Joerg Wuethrich</a>
  * <p>created on: 16.08.2014</p>
@@ -0,0 +1,80 @@
+package com.tagtraum.perf.gcviewer.ctrl.action;
+
+import java.awt.event.ActionEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.AbstractAction;
+import javax.swing.JOptionPane;
+
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.util.LocalisationHelper;
+import com.tagtraum.perf.gcviewer.view.ActionCommands;
+import com.tagtraum.perf.gcviewer.view.GCDocument;
+import com.tagtraum.perf.gcviewer.view.GCViewerGui;
+import com.tagtraum.perf.gcviewer.view.ModelDiffDialog;
+
+/**
+ * Compares the model of the selected document with the model of another open document (the
+ * baseline) in a {@link ModelDiffDialog}.
+ */
+public class Compare extends AbstractAction {
+    private GCViewerGui gcViewer;
+
+    public Compare(final GCViewerGui gcViewer) {
+        this.gcViewer = gcViewer;
+        putValue(NAME, LocalisationHelper.getString("main_frame_menuitem_compare"));
+        putValue(SHORT_DESCRIPTION, LocalisationHelper.getString("main_frame_menuitem_hint_compare"));
+        putValue(MNEMONIC_KEY, new Integer(LocalisationHelper.getString("main_frame_menuitem_mnemonic_compare").charAt(0)));
+        putValue(ACTION_COMMAND_KEY, ActionCommands.COMPARE.toString());
+        setEnabled(false);
+    }
+
+    @Override
+    public void actionPerformed(final ActionEvent e) {
+        GCDocument selectedDocument = gcViewer.getSelectedGCDocument();
+        List<GCDocument> otherDocuments = new ArrayList<>(gcViewer.getAllGCDocuments());
+        otherDocuments.remove(selectedDocument);
+        if (otherDocuments.isEmpty()) {
+            JOptionPane.showMessageDialog(gcViewer,
+                    LocalisationHelper.getString("compare_dialog_no_other_document"),
+                    LocalisationHelper.getString("compare_dialog_title"),
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        String[] titles = new String[otherDocuments.size()];
+        for (int i = 0; i < titles.length; ++i) {
+            titles[i] = otherDocuments.get(i).getTitle();
+        }
+        Object baselineTitle = JOptionPane.showInputDialog(gcViewer,
+                LocalisationHelper.getString("compare_dialog_select_baseline"),
+                LocalisationHelper.getString("compare_dialog_title"),
+                JOptionPane.QUESTION_MESSAGE,
+                null,
+                titles,
+                titles[0]);
+        if (baselineTitle == null) {
+            return;
+        }
+
+        // several documents may have the same title -> compare references
+        int baselineIndex = 0;
+        while (titles[baselineIndex] != baselineTitle) {
+            ++baselineIndex;
+        }
+
+        GCDocument baselineDocument = otherDocuments.get(baselineIndex);
+        new ModelDiffDialog(gcViewer,
+                getModel(baselineDocument), baselineDocument.getTitle(),
+                getModel(selectedDocument), selectedDocument.getTitle())
+                .setVisible(true);
+    }
+
+    /**
+     * @return model of the first (usually only) resource of <code>gcDocument</code>
+     */
+    private GCModel getModel(GCDocument gcDocument) {
+        return gcDocument.getChartPanelView(0).getGCResource().getModel();
+    }
+}
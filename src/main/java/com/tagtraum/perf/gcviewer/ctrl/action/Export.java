@@ -107,6 +107,9 @@ public class Export extends AbstractAction {
             new ExportExtensionFileFilter("txt", LocalisationHelper.getString("fileexport_dialog_txt"), DataWriterType.PLAIN),
             new ExportExtensionFileFilter("simple.log", LocalisationHelper.getString("fileexport_dialog_simplelog"), DataWriterType.SIMPLE),
             new ExportExtensionFileFilter("csv", LocalisationHelper.getString("fileexport_dialog_summarylog"), DataWriterType.SUMMARY),
+            new ExportExtensionFileFilter("csv", LocalisationHelper.getString("fileexport_dialog_sliding_window"), DataWriterType.SLIDING_WINDOW),
+            new ExportExtensionFileFilter("csv", LocalisationHelper.getString("fileexport_dialog_anomalies"), DataWriterType.ANOMALIES),
+            new ExportExtensionFileFilter("csv", LocalisationHelper.getString("fileexport_dialog_sizing"), DataWriterType.SIZING),
             new ExportExtensionFileFilter("png", LocalisationHelper.getString("fileexport_dialog_png"), DataWriterType.PNG)        
         };
 
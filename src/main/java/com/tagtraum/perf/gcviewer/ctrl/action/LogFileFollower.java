@@ -0,0 +1,159 @@
+package com.tagtraum.perf.gcviewer.ctrl.action;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.SwingUtilities;
+
+import com.tagtraum.perf.gcviewer.imp.AbstractTailInputStream;
+import com.tagtraum.perf.gcviewer.imp.DataReaderException;
+import com.tagtraum.perf.gcviewer.imp.DataReaderFacade;
+import com.tagtraum.perf.gcviewer.imp.HttpTailInputStream;
+import com.tagtraum.perf.gcviewer.imp.LogFileWatcher;
+import com.tagtraum.perf.gcviewer.imp.TailInputStream;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+
+/**
+ * Follows a log file while it is being written and updates the models of all
+ * {@link GcResourceFile}s (in all documents) watching this file.
+ *
+ * <p>The file is read by one background thread per file using a {@link TailInputStream} (local files)
+ * or a {@link HttpTailInputStream} (http(s) urls): it is read completely once (the parser needs the
+ * beginning of the file), after that only data appended to the file is read, whenever the file changes.
+ * Every time the reader has caught up with the end of the file, a snapshot of the model is set on all
+ * resources on the event dispatch thread. All methods must be called on the event dispatch thread.</p>
+ */
+class LogFileFollower {
+    private static final Logger LOGGER = Logger.getLogger(LogFileFollower.class.getName());
+
+    /** followers by url of the file */
+    private static final Map<String, LogFileFollower> FOLLOWERS = new HashMap<>();
+
+    private final String url;
+    private final List<GcResourceFile> gcResources = new ArrayList<>();
+    private AbstractTailInputStream in;
+
+    private LogFileFollower(String url) {
+        this.url = url;
+    }
+
+    /**
+     * Returns <code>true</code>, if <code>gcResource</code> is a local file or a http(s) url, that can
+     * be followed.
+     *
+     * @param gcResource resource to be checked
+     * @return <code>true</code> if <code>gcResource</code> can be followed
+     */
+    static boolean canFollow(GcResourceFile gcResource) {
+        try {
+            URL url = gcResource.getResourceNameAsUrl();
+            return url.getProtocol().startsWith("http")
+                    || "file".equals(url.getProtocol()) && new File(url.getFile()).isFile();
+        }
+        catch (MalformedURLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Starts updating the model of <code>gcResource</code> with everything appended to its file.
+     *
+     * @param gcResource resource to be updated
+     */
+    static void follow(GcResourceFile gcResource) {
+        String url = gcResource.getResourceNameAsUrlString();
+        LogFileFollower follower = FOLLOWERS.get(url);
+        if (follower == null) {
+            follower = new LogFileFollower(url);
+            try {
+                follower.start();
+            }
+            catch (IOException e) {
+                LOGGER.log(Level.WARNING, "failed to follow " + url, e);
+                return;
+            }
+            FOLLOWERS.put(url, follower);
+        }
+
+        follower.gcResources.add(gcResource);
+    }
+
+    /**
+     * Stops updating the model of <code>gcResource</code>; the file is not read any more,
+     * if no other resource is following it.
+     *
+     * @param gcResource resource not to be updated any more
+     */
+    static void unfollow(GcResourceFile gcResource) {
+        String url = gcResource.getResourceNameAsUrlString();
+        LogFileFollower follower = FOLLOWERS.get(url);
+        if (follower == null) {
+            return;
+        }
+
+        follower.gcResources.removeIf(resource -> resource == gcResource);
+        if (follower.gcResources.isEmpty()) {
+            FOLLOWERS.remove(url);
+            follower.stop();
+        }
+    }
+
+    private void start() throws IOException {
+        // own resource, because several resources in different documents may follow the same file
+        GcResourceFile followedResource = new GcResourceFile(url);
+        URL resourceUrl = followedResource.getResourceNameAsUrl();
+        if (resourceUrl.getProtocol().startsWith("http")) {
+            in = new HttpTailInputStream(resourceUrl, followedResource.getLogger());
+        }
+        else {
+            in = new TailInputStream(new File(resourceUrl.getFile()).toPath(),
+                    LogFileWatcher.getInstance(),
+                    followedResource.getLogger());
+        }
+
+        DataReaderFacade dataReaderFacade = new DataReaderFacade();
+        dataReaderFacade.addPropertyChangeListener(evt -> {
+            if (DataReaderFacade.MODEL_SNAPSHOT.equals(evt.getPropertyName())) {
+                GCModel snapshot = (GCModel) evt.getNewValue();
+                SwingUtilities.invokeLater(() -> setModel(snapshot));
+            }
+        });
+
+        Thread thread = new Thread(() -> {
+            try {
+                // only the snapshots are displayed -> the model itself isn't needed any more
+                dataReaderFacade.loadModel(followedResource, in).close();
+            }
+            catch (DataReaderException e) {
+                LOGGER.log(Level.WARNING, "failed to follow " + url, e);
+            }
+        }, "gcviewer-follow-" + new File(url).getName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void stop() {
+        try {
+            in.close();
+        }
+        catch (IOException e) {
+            LOGGER.log(Level.FINE, "failed to close " + url, e);
+        }
+    }
+
+    private void setModel(GCModel snapshot) {
+        for (GcResourceFile gcResource : gcResources) {
+            // the model shown is only updated, not replaced by a new file
+            gcResource.setIsReload(true);
+            gcResource.setModel(snapshot);
+        }
+    }
+}
@@ -2,16 +2,24 @@ package com.tagtraum.perf.gcviewer.ctrl.action;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.TimerTask;
 
 import javax.swing.SwingWorker;
 
 import com.tagtraum.perf.gcviewer.ctrl.GCModelLoaderController;
 import com.tagtraum.perf.gcviewer.ctrl.GCModelLoaderGroupTracker;
+import com.tagtraum.perf.gcviewer.model.GCResource;
+import com.tagtraum.perf.gcviewer.model.GcResourceFile;
 import com.tagtraum.perf.gcviewer.view.GCDocument;
 
 /**
- * Timer to trigger refresh of changed log files.
+ * Keeps the models of a {@link GCDocument} up to date with their log files.
+ *
+ * <p>If all log files of the document are local files or http(s) urls, they are followed by a
+ * {@link LogFileFollower}: only data appended to the files is read and parsed. Otherwise (e.g. series of
+ * rotated files), a timer triggers a reload of changed files.</p>
  *
  * <p>Date: May 26, 2005</p>
  * <p>Time: 2:04:38 PM</p>
@@ -24,6 +32,7 @@ public class RefreshWatchDog {
     private GCDocument gcDocument;
 
     private java.util.Timer reloadTimer;
+    private List<GcResourceFile> followedResources;
 
     public RefreshWatchDog(GCModelLoaderController controller, GCDocument gcDocument) {
         this.controller = controller;
@@ -31,14 +40,46 @@ public class RefreshWatchDog {
     }
     
     public void start() {
-        reloadTimer = new java.util.Timer(true);
-        reloadTimer.schedule(new ModelReloader(), 0, RELOAD_DELAY);
+        List<GcResourceFile> followableResources = getFollowableResources();
+        if (followableResources != null) {
+            followedResources = followableResources;
+            for (GcResourceFile gcResource : followedResources) {
+                LogFileFollower.follow(gcResource);
+            }
+        }
+        else {
+            reloadTimer = new java.util.Timer(true);
+            reloadTimer.schedule(new ModelReloader(), 0, RELOAD_DELAY);
+        }
     }
     
     public void stop() {
         if (reloadTimer != null) {
             reloadTimer.cancel();
         }
+        if (followedResources != null) {
+            for (GcResourceFile gcResource : followedResources) {
+                LogFileFollower.unfollow(gcResource);
+            }
+            followedResources = null;
+        }
+    }
+
+    /**
+     * Returns all resources of the document, if all of them can be followed.
+     *
+     * @return list of resources or <code>null</code>, if at least one of them can't be followed
+     */
+    private List<GcResourceFile> getFollowableResources() {
+        List<GcResourceFile> followableResources = new ArrayList<>();
+        for (GCResource gcResource : gcDocument.getGCResources()) {
+            if (!(gcResource instanceof GcResourceFile) || !LogFileFollower.canFollow((GcResourceFile) gcResource)) {
+                return null;
+            }
+            followableResources.add((GcResourceFile) gcResource);
+        }
+
+        return followableResources.isEmpty() ? null : followableResources;
     }
 
     private class ModelReloader extends TimerTask implements PropertyChangeListener {
@@ -2,11 +2,14 @@ package com.tagtraum.perf.gcviewer.ctrl.impl;
 
 import com.tagtraum.perf.gcviewer.ctrl.GCModelLoader;
 import com.tagtraum.perf.gcviewer.imp.DataReaderException;
-import com.tagtraum.perf.gcviewer.imp.MonitoredBufferedInputStream;
+import com.tagtraum.perf.gcviewer.imp.DataReaderFacade;
+import com.tagtraum.perf.gcviewer.imp.GCModelCache;
 import com.tagtraum.perf.gcviewer.model.GCModel;
 
 import javax.swing.*;
 import java.beans.PropertyChangeEvent;
+import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -19,22 +22,42 @@ import java.util.logging.Logger;
 public abstract class AbstractGCModelLoaderImpl extends SwingWorker<GCModel, Object> implements GCModelLoader {
     @Override
     public void propertyChange(PropertyChangeEvent evt) {
-        if (evt.getPropertyName() == MonitoredBufferedInputStream.PROGRESS) {
+        if (DataReaderFacade.PROGRESS.equals(evt.getPropertyName())) {
             setProgress((int) evt.getNewValue());
         }
+        else if (DataReaderFacade.MODEL_SNAPSHOT.equals(evt.getPropertyName())) {
+            publish(evt.getNewValue());
+        }
+    }
+
+    @Override
+    protected void process(List<Object> chunks) {
+        // only the most recent snapshot is of interest
+        Object snapshot = chunks.get(chunks.size() - 1);
+        if (snapshot instanceof GCModel && !isDone()) {
+            firePropertyChange(DataReaderFacade.MODEL_SNAPSHOT, null, snapshot);
+        }
     }
 
     protected void done() {
         Logger logger = getGcResource().getLogger();
 
         try {
+            GCModel oldModel = getGcResource().getModel();
             getGcResource().setModel(get());
+            if (oldModel != getGcResource().getModel()) {
+                // reload: the old model is not displayed any more (unless another document shares it)
+                GCModelCache.getInstance().closeIfUnused(oldModel);
+            }
             // TODO delete
             getGcResource().getModel().printDetailedInformation();
         }
         catch (InterruptedException e) {
             logger.log(Level.FINE, "model get() interrupted", e);
         }
+        catch (CancellationException e) {
+            logger.log(Level.FINE, "loading was cancelled before it started", e);
+        }
         catch (ExecutionException | RuntimeException e) {
             if (logger.isLoggable(Level.WARNING))
                 logger.log(Level.WARNING, "Failed to create GCModel from " + getGcResource().getResourceName(), e);
@@ -6,6 +6,7 @@ import java.util.logging.Logger;
 import javax.swing.SwingWorker;
 
 import com.tagtraum.perf.gcviewer.ctrl.GCModelLoader;
+import com.tagtraum.perf.gcviewer.imp.GCModelCache;
 import com.tagtraum.perf.gcviewer.log.TextAreaLogHandler;
 import com.tagtraum.perf.gcviewer.view.ChartPanelView;
 import com.tagtraum.perf.gcviewer.view.GCDocument;
@@ -37,8 +38,16 @@ public class GCDocumentController implements PropertyChangeListener {
         ((ModelChartImpl)chartPanelView.getModelChart()).addPropertyChangeListener(gcViewerGuiToolBar);
         ((ModelChartImpl)chartPanelView.getModelChart()).addTimeOffsetChangeListener(new TimeOffsetPanelController(gcDocument));
         gcDocument.addChartPanelView(chartPanelView);
+        chartPanelView.addPropertyChangeListener(evt -> {
+            if (ChartPanelView.EVENT_CLOSED.equals(evt.getPropertyName())) {
+                // model may be shared with other documents -> release it in the cache
+                GCModelCache.getInstance().release(chartPanelView.getGCResource());
+            }
+        });
         loader.addPropertyChangeListener(this);
         loader.addPropertyChangeListener(chartPanelView.getModelLoaderView());
+        // show snapshots of the model while it is being loaded (not on reload: the complete model is already shown)
+        loader.addPropertyChangeListener(chartPanelView);
     }
     
     @Override
@@ -0,0 +1,43 @@
+package com.tagtraum.perf.gcviewer.ctrl.impl;
+
+import java.io.IOException;
+
+import com.tagtraum.perf.gcviewer.imp.DataReaderException;
+import com.tagtraum.perf.gcviewer.imp.DataReaderFacade;
+import com.tagtraum.perf.gcviewer.imp.DataReaderJmx;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.GCResource;
+import com.tagtraum.perf.gcviewer.model.GcResourceJvm;
+
+/**
+ * Receives the garbage collections of a running jvm in a background thread, until the
+ * {@link GcResourceJvm} is cancelled. While it is running, snapshots of the model are published
+ * as {@link DataReaderFacade#MODEL_SNAPSHOT}.
+ */
+public class GCModelJvmLoaderImpl extends AbstractGCModelLoaderImpl {
+    private final DataReaderJmx dataReader;
+    private final GcResourceJvm gcResource;
+
+    public GCModelJvmLoaderImpl(GcResourceJvm gcResource) {
+        super();
+
+        this.gcResource = gcResource;
+        this.dataReader = new DataReaderJmx(gcResource);
+        this.dataReader.addPropertyChangeListener(this); // receive snapshots of the model
+    }
+
+    @Override
+    protected GCModel loadGcModel() throws DataReaderException {
+        try {
+            return dataReader.read();
+        }
+        catch (IOException e) {
+            throw new DataReaderException("Failed to receive garbage collections of " + gcResource.getResourceName(), e);
+        }
+    }
+
+    @Override
+    public GCResource getGcResource() {
+        return gcResource;
+    }
+}
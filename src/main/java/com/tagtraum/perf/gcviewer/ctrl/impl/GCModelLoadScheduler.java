@@ -0,0 +1,251 @@
+package com.tagtraum.perf.gcviewer.ctrl.impl;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+
+import com.tagtraum.perf.gcviewer.ctrl.GCModelLoader;
+import com.tagtraum.perf.gcviewer.model.GCResource;
+import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+import com.tagtraum.perf.gcviewer.model.GcResourceSeries;
+
+/**
+ * Runs {@link GCModelLoader}s on a pool of its own instead of the shared executor of
+ * {@link SwingWorker} (which starts up to 10 loaders at once, no matter how many files are dropped
+ * on the window or how much memory is left).
+ *
+ * <ul>
+ * <li>At most {@link #PROPERTY_PARALLELISM} loaders run at the same time (default: number of processors,
+ * but not more than {@value #DEFAULT_MAX_PARALLELISM}).</li>
+ * <li>A loader is only started, if the memory it probably needs (estimated from the size of its files)
+ * is available. One loader is always allowed to run, even if its estimate is too large.</li>
+ * <li>Loaders of the document currently selected are started first, then all others in the order they
+ * have been submitted.</li>
+ * <li>Loaders waiting to be started are cancelled, when their resource is cancelled
+ * ({@link GCResource#setIsReadCancelled(boolean)}, e.g. because the document was closed);
+ * running loaders stop by themselves.</li>
+ * </ul>
+ *
+ * <p>Loaders of running jvms never finish; they are started immediately without using the pool.
+ * All methods except {@link #execute(GCModelLoader)} must be called on the event dispatch thread.</p>
+ */
+class GCModelLoadScheduler implements PropertyChangeListener {
+    /** system property for the maximum number of log files loaded at the same time */
+    public static final String PROPERTY_PARALLELISM = "gcviewer.loader.parallelism";
+    static final int DEFAULT_MAX_PARALLELISM = 4;
+
+    /** estimate of heap needed for a model per byte of log file */
+    static final long HEAP_BYTES_PER_LOG_BYTE = 3;
+
+    private static GCModelLoadScheduler instance;
+
+    private final int parallelism;
+    private final LongSupplier availableMemory;
+    private final ExecutorService executor;
+    private final List<AbstractGCModelLoaderImpl> waitingLoaders = new ArrayList<>();
+    private final Map<AbstractGCModelLoaderImpl, Long> runningLoaders = new IdentityHashMap<>();
+    private Predicate<GCResource> isSelected = gcResource -> false;
+
+    /**
+     * @param parallelism maximum number of loaders running at the same time
+     * @param availableMemory returns the memory available for new models
+     */
+    GCModelLoadScheduler(int parallelism, LongSupplier availableMemory) {
+        this.parallelism = parallelism;
+        this.availableMemory = availableMemory;
+        this.executor = Executors.newFixedThreadPool(parallelism, new ThreadFactory());
+    }
+
+    /**
+     * Returns the instance shared by all documents.
+     *
+     * @return shared instance
+     */
+    static GCModelLoadScheduler getInstance() {
+        if (instance == null) {
+            int defaultParallelism = Math.min(Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_PARALLELISM);
+            instance = new GCModelLoadScheduler(
+                    Math.max(1, Integer.getInteger(PROPERTY_PARALLELISM, defaultParallelism)),
+                    GCModelLoadScheduler::getAvailableHeap);
+        }
+
+        return instance;
+    }
+
+    private static long getAvailableHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+    }
+
+    /**
+     * Sets the predicate, which tells whether a resource is displayed in the selected document
+     * (loaders of these resources are started first).
+     *
+     * @param isSelected returns <code>true</code>, if a resource is in the selected document
+     */
+    void setIsSelected(Predicate<GCResource> isSelected) {
+        this.isSelected = isSelected;
+    }
+
+    /**
+     * Starts <code>loader</code> as soon as there is a free slot and enough memory. May be called
+     * from any thread.
+     *
+     * @param loader loader to be started
+     */
+    void execute(GCModelLoader loader) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            // reload of watched documents is triggered by a timer
+            SwingUtilities.invokeLater(() -> execute(loader));
+            return;
+        }
+        if (!(loader instanceof AbstractGCModelLoaderImpl) || loader instanceof GCModelJvmLoaderImpl) {
+            loader.execute();
+            return;
+        }
+
+        AbstractGCModelLoaderImpl modelLoader = (AbstractGCModelLoaderImpl) loader;
+        modelLoader.addPropertyChangeListener(this);
+        waitingLoaders.add(modelLoader);
+        startLoaders();
+    }
+
+    /**
+     * Returns the number of loaders waiting to be started (for test purposes).
+     *
+     * @return number of waiting loaders
+     */
+    int getWaitingCount() {
+        return waitingLoaders.size();
+    }
+
+    /**
+     * Returns the number of loaders running (for test purposes).
+     *
+     * @return number of running loaders
+     */
+    int getRunningCount() {
+        return runningLoaders.size();
+    }
+
+    @Override
+    public void propertyChange(PropertyChangeEvent evt) {
+        if ("state".equals(evt.getPropertyName()) && SwingWorker.StateValue.DONE == evt.getNewValue()) {
+            AbstractGCModelLoaderImpl loader = (AbstractGCModelLoaderImpl) evt.getSource();
+            loader.removePropertyChangeListener(this);
+            runningLoaders.remove(loader);
+            startLoaders();
+        }
+    }
+
+    private void startLoaders() {
+        cancelWaitingLoaders();
+
+        while (runningLoaders.size() < parallelism && !waitingLoaders.isEmpty()) {
+            AbstractGCModelLoaderImpl loader = getNextLoader();
+            if (loader == null) {
+                // not enough memory -> wait until a running loader has finished
+                return;
+            }
+
+            waitingLoaders.remove(loader);
+            runningLoaders.put(loader, estimateMemory(loader.getGcResource()));
+            executor.execute(loader);
+        }
+    }
+
+    private void cancelWaitingLoaders() {
+        for (AbstractGCModelLoaderImpl loader : new ArrayList<>(waitingLoaders)) {
+            if (loader.getGcResource().isReadCancelled()) {
+                // done() and the "state" event are delivered as if the loader had run
+                waitingLoaders.remove(loader);
+                loader.removePropertyChangeListener(this);
+                loader.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Returns the loader to be started next: loaders of the selected document first, then in the
+     * order they were submitted; <code>null</code> if none of them fits into the memory available.
+     */
+    private AbstractGCModelLoaderImpl getNextLoader() {
+        List<AbstractGCModelLoaderImpl> candidates = new ArrayList<>();
+        for (AbstractGCModelLoaderImpl loader : waitingLoaders) {
+            if (isSelected.test(loader.getGcResource())) {
+                candidates.add(loader);
+            }
+        }
+        for (AbstractGCModelLoaderImpl loader : waitingLoaders) {
+            if (!candidates.contains(loader)) {
+                candidates.add(loader);
+            }
+        }
+
+        if (runningLoaders.isEmpty()) {
+            return candidates.get(0);
+        }
+
+        long reservedMemory = runningLoaders.values().stream().mapToLong(Long::longValue).sum();
+        long freeMemory = availableMemory.getAsLong() - reservedMemory;
+        for (AbstractGCModelLoaderImpl loader : candidates) {
+            if (estimateMemory(loader.getGcResource()) <= freeMemory) {
+                return loader;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Estimates the memory needed for the model of <code>gcResource</code> from the size of its files
+     * (0, if the size is unknown).
+     */
+    static long estimateMemory(GCResource gcResource) {
+        if (gcResource instanceof GcResourceSeries) {
+            long memory = 0;
+            for (GCResource resource : ((GcResourceSeries) gcResource).getResourcesInOrder()) {
+                memory += estimateMemory(resource);
+            }
+
+            return memory;
+        }
+        else if (gcResource instanceof GcResourceFile) {
+            try {
+                URL url = ((GcResourceFile) gcResource).getResourceNameAsUrl();
+                if ("file".equals(url.getProtocol())) {
+                    return new File(url.getFile()).length() * HEAP_BYTES_PER_LOG_BYTE;
+                }
+            }
+            catch (MalformedURLException e) {
+                // size unknown
+            }
+        }
+
+        return 0;
+    }
+
+    private static class ThreadFactory implements java.util.concurrent.ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "gcviewer-model-loader-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -41,6 +41,7 @@ public class GCModelLoaderControllerImpl implements GCModelLoaderController {
         super();
         
         this.gcViewerGui = gcViewerGui;
+        GCModelLoadScheduler.getInstance().setIsSelected(this::isInSelectedDocument);
     }
     
     @Override
@@ -76,7 +77,7 @@ public class GCModelLoaderControllerImpl implements GCModelLoaderController {
         GCDocumentController docController = getDocumentController(gcViewerGui.getSelectedGCDocument());
         docController.addGCResource(loader, getViewMenuController(), gcViewerGui.getToolBar());
         
-        loader.execute();
+        GCModelLoadScheduler.getInstance().execute(loader);
     }
     
     private GCDocumentController getDocumentController(GCDocument document) {
@@ -92,6 +93,11 @@ public class GCModelLoaderControllerImpl implements GCModelLoaderController {
         return controller;
     }
     
+    private boolean isInSelectedDocument(GCResource gcResource) {
+        GCDocument document = gcViewerGui.getSelectedGCDocument();
+        return document != null && document.getGCResources().contains(gcResource);
+    }
+
     protected GCViewerGui getGCViewerGui() {
         return this.gcViewerGui;
     }
@@ -131,7 +137,7 @@ public class GCModelLoaderControllerImpl implements GCModelLoaderController {
         GCDocumentController docController = new GCDocumentController(document);
         docController.addGCResource(loader, getViewMenuController(), gcViewerGui.getToolBar());
 
-        loader.execute();
+        GCModelLoadScheduler.getInstance().execute(loader);
     }
 
     @Override
@@ -3,6 +3,7 @@ package com.tagtraum.perf.gcviewer.ctrl.impl;
 import com.tagtraum.perf.gcviewer.ctrl.GCModelLoader;
 import com.tagtraum.perf.gcviewer.model.GCResource;
 import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+import com.tagtraum.perf.gcviewer.model.GcResourceJvm;
 import com.tagtraum.perf.gcviewer.model.GcResourceSeries;
 
 /**
@@ -22,6 +23,9 @@ public class GCModelLoaderFactory {
         else if (gcResource instanceof GcResourceSeries) {
             return new GCModelSeriesLoaderImpl((GcResourceSeries) gcResource);
         }
+        else if (gcResource instanceof GcResourceJvm) {
+            return new GCModelJvmLoaderImpl((GcResourceJvm) gcResource);
+        }
         else
             throw new IllegalArgumentException("Unknown GcResource: " + gcResource);
     }
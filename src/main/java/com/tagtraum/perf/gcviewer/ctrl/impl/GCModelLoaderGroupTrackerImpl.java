@@ -46,9 +46,7 @@ public class GCModelLoaderGroupTrackerImpl implements GCModelLoaderGroupTracker
             fireStateDone();
         }
         else {
-            loaderList.forEach((GCModelLoader loader) -> {
-                    loader.execute();
-            });
+            loaderList.forEach(GCModelLoadScheduler.getInstance()::execute);
         }
     }
 
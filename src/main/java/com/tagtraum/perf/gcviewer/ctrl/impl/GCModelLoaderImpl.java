@@ -2,11 +2,14 @@ package com.tagtraum.perf.gcviewer.ctrl.impl;
 
 import com.tagtraum.perf.gcviewer.imp.DataReaderException;
 import com.tagtraum.perf.gcviewer.imp.DataReaderFacade;
+import com.tagtraum.perf.gcviewer.imp.GCModelCache;
 import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.model.GCResource;
+import com.tagtraum.perf.gcviewer.model.GcResourceFile;
 
 /**
  * Loads the model in a background thread (progress can be tracked by propertyChangeListeners).
+ * Log files are loaded through the {@link GCModelCache}: a file opened several times is parsed only once.
  *
  * @author Hans Bausewein
  * @author <a href="mailto:gcviewer@gmx.ch">Joerg Wuethrich</a>
@@ -26,6 +29,10 @@ public class GCModelLoaderImpl extends AbstractGCModelLoaderImpl {
 
     @Override
     protected GCModel loadGcModel() throws DataReaderException {
+        if (gcResource instanceof GcResourceFile) {
+            return GCModelCache.getInstance().loadModel((GcResourceFile) gcResource, this);
+        }
+
         return dataReaderFacade.loadModel(gcResource);
     }
 
@@ -59,6 +59,7 @@ public class GCViewerGuiBuilder {
         actions.put(ActionCommands.OPEN_URL.toString(), new OpenURL(controller, gui));
         actions.put(ActionCommands.REFRESH.toString(), new Refresh(controller, gui));
         actions.put(ActionCommands.EXPORT.toString(), new Export(gui));
+        actions.put(ActionCommands.COMPARE.toString(), new Compare(gui));
         actions.put(ActionCommands.ZOOM.toString(), new Zoom(gui));
         actions.put(ActionCommands.ARRANGE.toString(), new Arrange(gui));
         actions.put(ActionCommands.WATCH.toString(), new Watch(controller, gui));
@@ -103,6 +104,7 @@ public class GCViewerGuiBuilder {
         recentResourceNamesMenu.setIcon(ImageHelper.createEmptyImageIcon(20, 20));
         menuBar.addToFileMenu(recentResourceNamesMenu);
         menuBar.addToFileMenu(actions.get(ActionCommands.EXPORT.toString()));
+        menuBar.addToFileMenu(actions.get(ActionCommands.COMPARE.toString()));
         menuBar.addToFileMenu(actions.get(ActionCommands.REFRESH.toString()));
         menuBar.addToFileMenu(new JCheckBoxMenuItem(actions.get(ActionCommands.WATCH.toString())));
         if ( ! OSXSupport.isOSX()) {
@@ -237,6 +239,30 @@ public class GCViewerGuiBuilder {
         menuItemConcurrentGcBeginEnd.addActionListener(viewMenuController);
         menuBar.addToViewMenu(GCPreferences.CONCURRENT_COLLECTION_BEGIN_END, menuItemConcurrentGcBeginEnd);
 
+        StayOpenCheckBoxMenuItem menuItemSlidingThroughput = new StayOpenCheckBoxMenuItem(LocalisationHelper.getString("main_frame_menuitem_sliding_throughput"), false);
+        menuItemSlidingThroughput.setMnemonic(LocalisationHelper.getString("main_frame_menuitem_mnemonic_sliding_throughput").charAt(0));
+        menuItemSlidingThroughput.setToolTipText(LocalisationHelper.getString("main_frame_menuitem_hint_sliding_throughput"));
+        menuItemSlidingThroughput.setIcon(ImageHelper.createMonoColoredImageIcon(SlidingThroughputRenderer.DEFAULT_LINEPAINT, 20, 20));
+        menuItemSlidingThroughput.setActionCommand(GCPreferences.SLIDING_THROUGHPUT);
+        menuItemSlidingThroughput.addActionListener(viewMenuController);
+        menuBar.addToViewMenu(GCPreferences.SLIDING_THROUGHPUT, menuItemSlidingThroughput);
+
+        StayOpenCheckBoxMenuItem menuItemAnomalies = new StayOpenCheckBoxMenuItem(LocalisationHelper.getString("main_frame_menuitem_anomalies"), true);
+        menuItemAnomalies.setMnemonic(LocalisationHelper.getString("main_frame_menuitem_mnemonic_anomalies").charAt(0));
+        menuItemAnomalies.setToolTipText(LocalisationHelper.getString("main_frame_menuitem_hint_anomalies"));
+        menuItemAnomalies.setIcon(ImageHelper.createMonoColoredImageIcon(AnomalyRenderer.DEFAULT_LINEPAINT, 20, 20));
+        menuItemAnomalies.setActionCommand(GCPreferences.ANOMALIES);
+        menuItemAnomalies.addActionListener(viewMenuController);
+        menuBar.addToViewMenu(GCPreferences.ANOMALIES, menuItemAnomalies);
+
+        StayOpenCheckBoxMenuItem menuItemPauseHeatmap = new StayOpenCheckBoxMenuItem(LocalisationHelper.getString("main_frame_menuitem_pause_heatmap"), false);
+        menuItemPauseHeatmap.setMnemonic(LocalisationHelper.getString("main_frame_menuitem_mnemonic_pause_heatmap").charAt(0));
+        menuItemPauseHeatmap.setToolTipText(LocalisationHelper.getString("main_frame_menuitem_hint_pause_heatmap"));
+        menuItemPauseHeatmap.setIcon(ImageHelper.createMonoColoredImageIcon(PauseHeatmapRenderer.DEFAULT_LINEPAINT, 20, 20));
+        menuItemPauseHeatmap.setActionCommand(GCPreferences.PAUSE_HEATMAP);
+        menuItemPauseHeatmap.addActionListener(viewMenuController);
+        menuBar.addToViewMenu(GCPreferences.PAUSE_HEATMAP, menuItemPauseHeatmap);
+
         if (OSXSupport.hasOSXFullScreenSupport()) {
             // TODO No saving in properties?
             menuBar.addSeparatorToViewMenu();
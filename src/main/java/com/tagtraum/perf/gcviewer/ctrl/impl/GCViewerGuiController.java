@@ -31,9 +31,10 @@ public class GCViewerGuiController extends WindowAdapter {
         // default visibility to be able to access it from unittests
         gui.setPreferences(preferences);
         if (preferences.isPropertiesLoaded()) {
-            for (Entry<String, JCheckBoxMenuItem> menuEntry : ((GCViewerGuiMenuBar)gui.getJMenuBar()).getViewMenuItems().entrySet()) {
+            GCViewerGuiMenuBar menuBar = (GCViewerGuiMenuBar) gui.getJMenuBar();
+            for (Entry<String, JCheckBoxMenuItem> menuEntry : menuBar.getViewMenuItems().entrySet()) {
                 JCheckBoxMenuItem item = menuEntry.getValue();
-                item.setState(preferences.getGcLineProperty(menuEntry.getKey()));
+                item.setState(preferences.getGcLineProperty(menuEntry.getKey(), menuBar.getViewMenuItemDefault(menuEntry.getKey())));
                 
                 // TODO necessary? state is set above; no GCDocument open at this moment
                 //viewMenuActionListener.actionPerformed(new ActionEvent(item, 0, item.getActionCommand()));
@@ -11,6 +11,7 @@ import javax.swing.event.InternalFrameAdapter;
 import javax.swing.event.InternalFrameEvent;
 
 import com.tagtraum.perf.gcviewer.ctrl.action.WindowMenuItemAction;
+import com.tagtraum.perf.gcviewer.imp.GCModelCache;
 import com.tagtraum.perf.gcviewer.view.ActionCommands;
 import com.tagtraum.perf.gcviewer.view.GCDocument;
 import com.tagtraum.perf.gcviewer.view.GCViewerGui;
@@ -64,6 +65,7 @@ public class GCViewerGuiInternalFrameController extends InternalFrameAdapter {
 
         // if some thread is still loading, it should stop now
         getSelectedGCDocument(e).getGCResources().stream().forEach(gcResource -> gcResource.setIsReadCancelled(true));
+        getSelectedGCDocument(e).getGCResources().stream().forEach(GCModelCache.getInstance()::release);
     }
 
     @Override
@@ -77,6 +79,7 @@ public class GCViewerGuiInternalFrameController extends InternalFrameAdapter {
         }
         
         getActionMap(e).get(ActionCommands.EXPORT.toString()).setEnabled(true);
+        getActionMap(e).get(ActionCommands.COMPARE.toString()).setEnabled(true);
         getActionMap(e).get(ActionCommands.REFRESH.toString()).setEnabled(true);
         getActionMap(e).get(ActionCommands.WATCH.toString()).setEnabled(true);
         getActionMap(e).get(ActionCommands.ZOOM.toString()).setEnabled(true);
@@ -92,6 +95,7 @@ public class GCViewerGuiInternalFrameController extends InternalFrameAdapter {
     @Override
     public void internalFrameDeactivated(InternalFrameEvent e) {
         getActionMap(e).get(ActionCommands.EXPORT.toString()).setEnabled(false);
+        getActionMap(e).get(ActionCommands.COMPARE.toString()).setEnabled(false);
         getActionMap(e).get(ActionCommands.REFRESH.toString()).setEnabled(false);
         getActionMap(e).get(ActionCommands.WATCH.toString()).setEnabled(false);
         getActionMap(e).get(ActionCommands.ZOOM.toString()).setEnabled(false);
@@ -125,9 +129,10 @@ public class GCViewerGuiInternalFrameController extends InternalFrameAdapter {
         getToolBar(e).getZoomComboBox().setSelectedItem(
                 (int) (getSelectedGCDocument(e).getModelChart().getScaleFactor() * 1000.0) + "%");
         GCPreferences preferences = getSelectedGCDocument(e).getPreferences();
-        for (Entry<String, JCheckBoxMenuItem> menuEntry : getMenuBar(e).getViewMenuItems().entrySet()) {
+        GCViewerGuiMenuBar menuBar = getMenuBar(e);
+        for (Entry<String, JCheckBoxMenuItem> menuEntry : menuBar.getViewMenuItems().entrySet()) {
             JCheckBoxMenuItem item = menuEntry.getValue();
-            item.setState(preferences.getGcLineProperty(menuEntry.getKey()));
+            item.setState(preferences.getGcLineProperty(menuEntry.getKey(), menuBar.getViewMenuItemDefault(menuEntry.getKey())));
         }
     }
 
@@ -2,7 +2,6 @@ package com.tagtraum.perf.gcviewer.ctrl.impl;
 
 import com.tagtraum.perf.gcviewer.imp.DataReaderException;
 import com.tagtraum.perf.gcviewer.imp.DataReaderFacade;
-import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
 import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.model.GCResource;
 import com.tagtraum.perf.gcviewer.model.GcResourceSeries;
@@ -122,11 +121,9 @@ public class GcSeriesLoader {
     private GCModel mergeModels(List<GCModel> models) {
         GCModel mergedModel = models.get(0);
         for (int i = 1; i < models.size(); i++) {
-            GCModel model = models.get(i);
-            Iterator<AbstractGCEvent<?>> iterator = model.getEvents();
-            while (iterator.hasNext()) {
-                mergedModel.add(iterator.next());
-            }
+            mergedModel.merge(models.get(i));
+            // events of memory mapped models are copied by merge()
+            models.get(i).close();
         }
 
         // Use URL of last contained file. In case of a refresh this is the only file that can have changed
@@ -83,6 +83,15 @@ public class ViewMenuController implements ActionListener, PropertyChangeListene
         else if (GCPreferences.CONCURRENT_COLLECTION_BEGIN_END.equals(e.getActionCommand())) {
             gui.getSelectedGCDocument().getModelChart().setShowConcurrentCollectionBeginEnd(state);
         }
+        else if (GCPreferences.SLIDING_THROUGHPUT.equals(e.getActionCommand())) {
+            gui.getSelectedGCDocument().getModelChart().setShowSlidingThroughput(state);
+        }
+        else if (GCPreferences.ANOMALIES.equals(e.getActionCommand())) {
+            gui.getSelectedGCDocument().getModelChart().setShowAnomalies(state);
+        }
+        else if (GCPreferences.PAUSE_HEATMAP.equals(e.getActionCommand())) {
+            gui.getSelectedGCDocument().getModelChart().setShowPauseHeatmap(state);
+        }
     }
 
     @Override
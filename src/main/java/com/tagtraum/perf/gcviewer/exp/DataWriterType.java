@@ -12,5 +12,9 @@ public enum DataWriterType {
     CSV_TS,
     SIMPLE,
     SUMMARY,
+    SLIDING_WINDOW,
+    DIFF,
+    ANOMALIES,
+    SIZING,
     PNG;
 }
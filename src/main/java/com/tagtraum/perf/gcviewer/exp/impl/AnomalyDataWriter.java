@@ -0,0 +1,59 @@
+package com.tagtraum.perf.gcviewer.exp.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import com.tagtraum.perf.gcviewer.exp.AbstractDataWriter;
+import com.tagtraum.perf.gcviewer.model.AnomalyDetector;
+import com.tagtraum.perf.gcviewer.model.AnomalyDetector.Anomaly;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+
+/**
+ * Exports the anomalous regions found by the {@link AnomalyDetector} of a model with comma
+ * separated values: one line per region ordered by start.
+ * <p>
+ * It uses the {@literal "Kind,Start(sec),End(sec),Duration(sec),EventCount,Value,Baseline"} format;
+ * the unit of value and baseline depends on the kind (see {@link AnomalyDetector.Kind}). Values,
+ * which are not available, are left empty.
+ */
+public class AnomalyDataWriter extends AbstractDataWriter {
+
+    public AnomalyDataWriter(OutputStream out) {
+        super(out);
+    }
+
+    private void writeHeader() {
+        out.println("Kind,Start(sec),End(sec),Duration(sec),EventCount,Value,Baseline");
+    }
+
+    /**
+     * Writes the model and flushes the internal PrintWriter.
+     */
+    @Override
+    public void write(GCModel model) throws IOException {
+        writeHeader();
+
+        Anomaly[] anomalies = model.getAnomalyDetector().getAnomalies().toArray(new Anomaly[0]);
+        Arrays.sort(anomalies, (first, second) -> Double.compare(first.getStart(), second.getStart()));
+        for (Anomaly anomaly : anomalies) {
+            out.print(anomaly.getKind().getName());
+            out.print(',');
+            out.print(anomaly.getStart());
+            out.print(',');
+            out.print(anomaly.getEnd());
+            out.print(',');
+            out.print(anomaly.getDuration());
+            out.print(',');
+            out.print(anomaly.getEventCount());
+            out.print(',');
+            out.print(anomaly.getValue());
+            out.print(',');
+            if (!Double.isNaN(anomaly.getBaseline())) {
+                out.print(anomaly.getBaseline());
+            }
+            out.println();
+        }
+        out.flush();
+    }
+}
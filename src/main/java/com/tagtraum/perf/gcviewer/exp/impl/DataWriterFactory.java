@@ -54,6 +54,10 @@ public class DataWriterFactory {
             case CSV_TS  : return new CSVTSDataWriter(outputStream);
             case SIMPLE  : return new SimpleGcWriter(outputStream);
             case SUMMARY : return new SummaryDataWriter(outputStream, configuration);
+            case SLIDING_WINDOW : return new SlidingWindowDataWriter(outputStream, configuration);
+            case DIFF    : return new ModelDiffDataWriter(outputStream, configuration);
+            case ANOMALIES : return new AnomalyDataWriter(outputStream);
+            case SIZING  : return new HeapSizingDataWriter(outputStream);
             case PNG     : return new PNGDataWriter(outputStream, configuration);
             default : throw new IOException(LocalisationHelper.getString("datawriterfactory_instantiation_failed") + " " + file);
         }
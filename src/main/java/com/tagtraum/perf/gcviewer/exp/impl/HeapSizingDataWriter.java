@@ -0,0 +1,76 @@
+package com.tagtraum.perf.gcviewer.exp.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.tagtraum.perf.gcviewer.exp.AbstractDataWriter;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.HeapSizing;
+import com.tagtraum.perf.gcviewer.model.HeapSizing.Scenario;
+
+/**
+ * Exports the scenarios of the {@link HeapSizing} of a model with comma separated values: the
+ * replay of the observed sizes, the recommended scenario and one line per candidate scenario.
+ * <p>
+ * It uses the {@literal "Scenario,Heap(K),Young(K),InitiatingOccupancy(%),YoungGCs(1/min),FullGCs(1/min),ConcurrentCycles(1/min),Throughput(%),Options"}
+ * format. Values, which are not available (initiating occupancy without concurrent collector, all
+ * estimates of scenarios where the live set doesn't fit into the old generation), are left empty.
+ */
+public class HeapSizingDataWriter extends AbstractDataWriter {
+
+    public HeapSizingDataWriter(OutputStream out) {
+        super(out);
+    }
+
+    private void writeHeader() {
+        out.println("Scenario,Heap(K),Young(K),InitiatingOccupancy(%),YoungGCs(1/min),FullGCs(1/min),ConcurrentCycles(1/min),Throughput(%),Options");
+    }
+
+    /**
+     * Writes the model and flushes the internal PrintWriter.
+     */
+    @Override
+    public void write(GCModel model) throws IOException {
+        writeHeader();
+
+        HeapSizing heapSizing = HeapSizing.compute(model);
+        if (heapSizing.hasScenarios()) {
+            writeScenario("observed", heapSizing.getObserved());
+            if (heapSizing.getRecommendation() != null) {
+                writeScenario("recommended", heapSizing.getRecommendation());
+            }
+            for (Scenario scenario : heapSizing.getScenarios()) {
+                writeScenario("candidate", scenario);
+            }
+        }
+        out.flush();
+    }
+
+    private void writeScenario(String name, Scenario scenario) {
+        out.print(name);
+        out.print(',');
+        out.print(scenario.getHeapSize());
+        out.print(',');
+        out.print(scenario.getYoungSize());
+        out.print(',');
+        if (!Double.isNaN(scenario.getInitiatingOccupancyFraction())) {
+            out.print(Math.round(100 * scenario.getInitiatingOccupancyFraction()));
+        }
+        out.print(',');
+        if (scenario.isFeasible()) {
+            out.print(scenario.getYoungGcRate());
+            out.print(',');
+            out.print(scenario.getFullGcRate());
+            out.print(',');
+            out.print(scenario.getConcurrentCycleRate());
+            out.print(',');
+            out.print(scenario.getThroughput());
+        }
+        else {
+            out.print(",,,");
+        }
+        out.print(',');
+        out.print(scenario.getJvmOptions());
+        out.println();
+    }
+}
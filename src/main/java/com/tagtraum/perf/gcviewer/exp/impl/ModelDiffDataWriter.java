@@ -0,0 +1,94 @@
+package com.tagtraum.perf.gcviewer.exp.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+import com.tagtraum.perf.gcviewer.exp.AbstractDataWriter;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.ModelDiff;
+import com.tagtraum.perf.gcviewer.model.ModelDiff.DistributionDiff;
+import com.tagtraum.perf.gcviewer.model.ModelDiff.ValueDiff;
+
+/**
+ * Exports the {@link ModelDiff} of the written model compared with a baseline model with comma
+ * separated values. The output contains two tables separated by an empty line:
+ * <ul>
+ * <li>{@literal "EventType,Name,Unit,Baseline,Compared,Delta,Delta(%)"}: differences of the values
+ * (event type is empty for values of the whole model)</li>
+ * <li>{@literal "EventType,Count(Baseline),Count(Compared),KS-Statistic,KS-Probability"}:
+ * Kolmogorov-Smirnov test of the pause distributions</li>
+ * </ul>
+ */
+public class ModelDiffDataWriter extends AbstractDataWriter {
+    /** key of the configuration containing the baseline model (<code>GCModel</code>) */
+    public static final String BASELINE_MODEL = "baselineModel";
+
+    /**
+     * @param out OutputStream, where the output should be written to
+     * @param configuration must contain {@link #BASELINE_MODEL}
+     */
+    public ModelDiffDataWriter(OutputStream out, Map<String, Object> configuration) {
+        super(out, configuration);
+    }
+
+    /**
+     * Writes the differences of <code>model</code> to the baseline model and flushes the internal
+     * PrintWriter.
+     *
+     * @throws IOException no baseline model was configured
+     */
+    @Override
+    public void write(GCModel model) throws IOException {
+        Object baseline = getConfiguration().get(BASELINE_MODEL);
+        if (!(baseline instanceof GCModel)) {
+            throw new IOException("no baseline model configured to compare with (" + BASELINE_MODEL + ")");
+        }
+
+        write(ModelDiff.compute((GCModel) baseline, model));
+    }
+
+    private void write(ModelDiff diff) {
+        out.println("EventType,Name,Unit,Baseline,Compared,Delta,Delta(%)");
+        for (ValueDiff valueDiff : diff.getValueDiffs()) {
+            out.print(valueDiff.getEventType() != null ? quote(valueDiff.getEventType()) : "");
+            out.print(',');
+            out.print(valueDiff.getName());
+            out.print(',');
+            out.print(valueDiff.getUnit());
+            out.print(',');
+            out.print(format(valueDiff.getBaseline()));
+            out.print(',');
+            out.print(format(valueDiff.getCompared()));
+            out.print(',');
+            out.print(format(valueDiff.getDelta()));
+            out.print(',');
+            out.println(format(valueDiff.getRelativeDelta()));
+        }
+
+        out.println();
+        out.println("EventType,Count(Baseline),Count(Compared),KS-Statistic,KS-Probability");
+        for (DistributionDiff distributionDiff : diff.getDistributionDiffs()) {
+            out.print(quote(distributionDiff.getEventType()));
+            out.print(',');
+            out.print(distributionDiff.getBaseline().getN());
+            out.print(',');
+            out.print(distributionDiff.getCompared().getN());
+            out.print(',');
+            out.print(format(distributionDiff.getKolmogorovSmirnovStatistic()));
+            out.print(',');
+            out.println(format(distributionDiff.getKolmogorovSmirnovProbability()));
+        }
+        out.flush();
+    }
+
+    private String format(double value) {
+        return Double.isNaN(value) ? "" : Double.toString(value);
+    }
+
+    private String quote(String value) {
+        return value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                ? '"' + value.replace("\"", "\"\"") + '"'
+                : value;
+    }
+}
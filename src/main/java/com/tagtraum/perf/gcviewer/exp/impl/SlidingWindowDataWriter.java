@@ -0,0 +1,70 @@
+package com.tagtraum.perf.gcviewer.exp.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+import com.tagtraum.perf.gcviewer.exp.AbstractDataWriter;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.SlidingWindowSeries;
+import com.tagtraum.perf.gcviewer.model.SlidingWindowSeries.Metric;
+
+/**
+ * Exports the {@link SlidingWindowSeries} of a model with comma separated values: one line per
+ * stop the world event with the metrics of the window ending with this event.
+ * <p>
+ * It uses the {@literal "Timestamp(sec),Throughput(%),MaxPause(sec),Pauses(1/min),AllocationRate(K/sec),PromotionRate(K/sec)"}
+ * format.
+ */
+public class SlidingWindowDataWriter extends AbstractDataWriter {
+    /** key of the configuration containing the width of the window in seconds (<code>Number</code>) */
+    public static final String WINDOW_SIZE = "slidingWindowSize";
+
+    public SlidingWindowDataWriter(OutputStream out) {
+        this(out, null);
+    }
+
+    /**
+     * @param out OutputStream, where the output should be written to
+     * @param configuration optional: {@link #WINDOW_SIZE} (default:
+     * {@value SlidingWindowSeries#DEFAULT_WINDOW_SIZE} seconds)
+     */
+    public SlidingWindowDataWriter(OutputStream out, Map<String, Object> configuration) {
+        super(out, configuration);
+    }
+
+    private void writeHeader() {
+        out.print("Timestamp(sec)");
+        for (Metric metric : Metric.values()) {
+            out.print(',');
+            out.print(metric.getLabel());
+        }
+        out.println();
+    }
+
+    /**
+     * Writes the model and flushes the internal PrintWriter.
+     */
+    @Override
+    public void write(GCModel model) throws IOException {
+        writeHeader();
+
+        SlidingWindowSeries series = SlidingWindowSeries.compute(model, getWindowSize());
+        for (int i = 0; i < series.size(); ++i) {
+            out.print(series.getTimestamp(i));
+            for (Metric metric : Metric.values()) {
+                out.print(',');
+                out.print(series.getValue(metric, i));
+            }
+            out.println();
+        }
+        out.flush();
+    }
+
+    private double getWindowSize() {
+        Object windowSize = getConfiguration().get(WINDOW_SIZE);
+        return windowSize instanceof Number
+                ? ((Number) windowSize).doubleValue()
+                : SlidingWindowSeries.DEFAULT_WINDOW_SIZE;
+    }
+}
@@ -13,7 +13,15 @@ import java.util.Map.Entry;
 import com.tagtraum.perf.gcviewer.exp.AbstractDataWriter;
 import com.tagtraum.perf.gcviewer.math.DoubleData;
 import com.tagtraum.perf.gcviewer.math.DoubleDataPercentile;
+import com.tagtraum.perf.gcviewer.math.DoubleDataSketch;
+import com.tagtraum.perf.gcviewer.model.AnomalyDetector;
+import com.tagtraum.perf.gcviewer.model.AnomalyDetector.Kind;
+import com.tagtraum.perf.gcviewer.model.ConcurrentCycles;
+import com.tagtraum.perf.gcviewer.model.ConcurrentCycles.Phase;
 import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.LeakTrend;
+import com.tagtraum.perf.gcviewer.model.MutatorUtilization;
+import com.tagtraum.perf.gcviewer.model.SafepointStatistics;
 import com.tagtraum.perf.gcviewer.util.FormattedValue;
 import com.tagtraum.perf.gcviewer.util.MemoryFormat;
 import com.tagtraum.perf.gcviewer.util.TimeFormat;
@@ -107,31 +115,45 @@ public class SummaryDataWriter extends AbstractDataWriter {
 
     @Override
     public void write(GCModel model) throws IOException {
-        int lastIndexOfSlash = model.getURL().getFile().lastIndexOf('/');
-        exportValue(out,
-                "gcLogFile",
-                model.getURL().getFile().substring(lastIndexOfSlash >= 0 ? lastIndexOfSlash + 1 : 0),
-                "-");
+        exportValue(out, "gcLogFile", getLogFileName(model), "-");
 
         exportMemorySummary(out, model);
         exportPauseSummary(out, model);
+        exportMutatorUtilization(out, model);
+        exportAnomalies(out, model);
+        exportLeakTrend(out, model);
+        exportCausePauses(out, model);
+        exportSafepoints(out, model);
+        exportConcurrentCycles(out, model);
         exportOverallSummary(out, model);
 
         out.flush();
     }
 
+    private String getLogFileName(GCModel model) {
+        if (model.getURL() == null) {
+            // model not read from a file (e.g. received from a running jvm)
+            return "-";
+        }
+
+        int lastIndexOfSlash = model.getURL().getFile().lastIndexOf('/');
+        return model.getURL().getFile().substring(lastIndexOfSlash >= 0 ? lastIndexOfSlash + 1 : 0);
+    }
+
     public void exportSummaryFromModel(GCModel model, String filePath) throws IOException {
         FileWriter outFile = new FileWriter(filePath);
         PrintWriter out = new PrintWriter(outFile);
 
-        int lastIndexOfSlash = model.getURL().getFile().lastIndexOf('/');
-        exportValue(out,
-                "gcLogFile",
-                model.getURL().getFile().substring(lastIndexOfSlash >= 0 ? lastIndexOfSlash + 1 : 0),
-                "-");
+        exportValue(out, "gcLogFile", getLogFileName(model), "-");
 
         exportMemorySummary(out, model);
         exportPauseSummary(out, model);
+        exportMutatorUtilization(out, model);
+        exportAnomalies(out, model);
+        exportLeakTrend(out, model);
+        exportCausePauses(out, model);
+        exportSafepoints(out, model);
+        exportConcurrentCycles(out, model);
         exportOverallSummary(out, model);
 
         out.flush();
@@ -301,6 +323,134 @@ public class SummaryDataWriter extends AbstractDataWriter {
         }
     }
 
+    private void exportMutatorUtilization(PrintWriter out, GCModel model) {
+        MutatorUtilization mutatorUtilization = MutatorUtilization.compute(model);
+        for (double windowSize : MutatorUtilization.DEFAULT_WINDOW_SIZES) {
+            String tag = windowSize < 1
+                    ? "mmu" + Math.round(windowSize * 1000) + "ms"
+                    : "mmu" + Math.round(windowSize) + "s";
+            double utilization = mutatorUtilization.getMinimumUtilization(windowSize);
+            if (model.hasCorrectTimestamp() && !Double.isNaN(utilization)) {
+                exportValue(out, tag, percentFormatter.format(utilization * 100), "%");
+            }
+            else {
+                exportValue(out, tag, "n.a.", "%");
+            }
+        }
+    }
+
+    private void exportAnomalies(PrintWriter out, GCModel model) {
+        AnomalyDetector anomalyDetector = model.getAnomalyDetector();
+        exportValue(out, "anomalies", "" + anomalyDetector.getAnomalies().size(), "-");
+        for (Kind kind : Kind.values()) {
+            exportValue(out, kind.getName() + "Anomalies", "" + anomalyDetector.getAnomalyCount(kind), "-");
+        }
+    }
+
+    private void exportLeakTrend(PrintWriter out, GCModel model) {
+        LeakTrend leakTrend = LeakTrend.compute(model);
+        if (!leakTrend.hasTrend()) {
+            exportValue(out, "leakTrendSource", "n.a.", "-");
+            exportValue(out, "leakTrendSlope", "n.a.", "M/s");
+            exportValue(out, "leakTrendChangePoints", "n.a.", "-");
+            exportValue(out, "timeToOutOfMemory", "n.a.", "s");
+            return;
+        }
+
+        exportValue(out, "leakTrendSource", leakTrend.getSource().getName(), "-");
+        FormattedValue formed = footprintSlopeFormatter.formatToFormatted(leakTrend.getSlope());
+        exportValue(out, "leakTrendSlope", formed.getValue(), formed.getUnits() + "/s");
+        exportValue(out, "leakTrendChangePoints", "" + leakTrend.getChangePoints().length, "-");
+        double timeToOutOfMemory = leakTrend.getTimeToOutOfMemory();
+        if (Double.isInfinite(timeToOutOfMemory)) {
+            exportValue(out, "timeToOutOfMemory", "n.a.", "s");
+        }
+        else {
+            formed = totalTimeFormatter.formatToFormatted(new Date((long)timeToOutOfMemory*1000l));
+            exportValue(out, "timeToOutOfMemory", formed.getValue(), formed.getUnits());
+        }
+    }
+
+    private void exportCausePauses(PrintWriter out, GCModel model) {
+        exportValue(out, "pauseCauseCount", "" + model.getCausePauses().size(), "-");
+        for (Entry<String, DoubleData> entry : model.getCausePauses().entrySet()) {
+            String tag = "pauseCause" + getCauseTag(entry.getKey());
+            DoubleDataSketch pauses = (DoubleDataSketch) entry.getValue();
+            exportValue(out, tag + "Count", "" + pauses.getN(), "-");
+            exportValue(out, tag + "Sum", pauseFormatter.format(pauses.getSum()), "s");
+            exportValue(out, tag + "Pc", percentFormatter.format(pauses.getSum()*100.0/model.getPause().getSum()), "%");
+            exportValue(out, tag + "Percentile95th", pauseFormatter.format(pauses.getPercentile(95)), "s");
+            exportValue(out, tag + "Percentile99th", pauseFormatter.format(pauses.getPercentile(99)), "s");
+        }
+    }
+
+    private void exportSafepoints(PrintWriter out, GCModel model) {
+        SafepointStatistics safepoints = model.getSafepointStatistics();
+        exportValue(out, "safepointCount", "" + safepoints.getTimeToSafepoint().getN(), "-");
+        if (!safepoints.hasSafepoints()) {
+            return;
+        }
+
+        DoubleDataSketch timeToSafepoint = safepoints.getTimeToSafepoint();
+        exportValue(out, "safepointTotalTime", pauseFormatter.format(safepoints.getTotalTime()), "s");
+        exportValue(out, "safepointOperationTime", pauseFormatter.format(safepoints.getOperationTime().getSum()), "s");
+        exportValue(out, "timeToSafepointSum", pauseFormatter.format(timeToSafepoint.getSum()), "s");
+        exportValue(out, "timeToSafepointPc", percentFormatter.format(safepoints.getTimeToSafepointShare() * 100), "%");
+        exportValue(out, "timeToSafepointAverage", pauseFormatter.format(timeToSafepoint.average()), "s");
+        exportValue(out, "timeToSafepointPercentile99th", pauseFormatter.format(timeToSafepoint.getPercentile(99)), "s");
+        exportValue(out, "timeToSafepointMax", pauseFormatter.format(timeToSafepoint.getMax()), "s");
+        exportValue(out, "timeToSafepointDominated", "" + safepoints.getTimeToSafepointDominatedCount(), "-");
+        exportValue(out, "timeToSafepointOutliers", "" + safepoints.getOutlierCount(), "-");
+    }
+
+    private void exportConcurrentCycles(PrintWriter out, GCModel model) {
+        ConcurrentCycles concurrentCycles = ConcurrentCycles.compute(model);
+        exportValue(out, "concurrentCycleStarted", "" + concurrentCycles.getStartedCount(), "-");
+        exportValue(out, "concurrentCycleCount", "" + concurrentCycles.getCycleCount(), "-");
+        exportValue(out, "concurrentCycleAborted", "" + concurrentCycles.getAbortedCount(), "-");
+        exportValue(out, "concurrentCycleInterruptedByFullGc", "" + concurrentCycles.getInterruptedByFullGcCount(), "-");
+        exportValue(out, "concurrentCycleUnfinished", "" + concurrentCycles.getUnfinishedCount(), "-");
+        if (concurrentCycles.hasCycles()) {
+            exportValue(out, "concurrentCycleInterruptedByFullGcPc", percentFormatter.format(concurrentCycles.getInterruptedByFullGcRate() * 100), "%");
+        }
+        if (concurrentCycles.getInterval().getN() > 0) {
+            exportValue(out, "concurrentCycleBackToBack", "" + concurrentCycles.getBackToBackCount(), "-");
+            exportValue(out, "concurrentCycleBackToBackPc", percentFormatter.format(concurrentCycles.getBackToBackRate() * 100), "%");
+        }
+        if (concurrentCycles.getCycleCount() == 0) {
+            return;
+        }
+
+        DoubleDataSketch duration = concurrentCycles.getDuration();
+        exportValue(out, "concurrentCycleDurationSum", pauseFormatter.format(duration.getSum()), "s");
+        exportValue(out, "concurrentCycleDurationPc", percentFormatter.format(concurrentCycles.getRunningTimeShare() * 100), "%");
+        exportValue(out, "concurrentCycleDurationAverage", pauseFormatter.format(duration.average()), "s");
+        exportValue(out, "concurrentCycleDurationPercentile95th", pauseFormatter.format(duration.getPercentile(95)), "s");
+        exportValue(out, "concurrentCycleDurationMax", pauseFormatter.format(duration.getMax()), "s");
+        exportValue(out, "concurrentCycleMutatorOverlap", pauseFormatter.format(concurrentCycles.getMutatorOverlap()), "s");
+        exportValue(out, "concurrentCycleMutatorOverlapPc", percentFormatter.format(concurrentCycles.getMutatorOverlapShare() * 100), "%");
+        for (Phase phase : Phase.values()) {
+            String phaseName = phase.getName();
+            exportValue(out, "concurrentCycle" + Character.toUpperCase(phaseName.charAt(0)) + phaseName.substring(1) + "Average",
+                    pauseFormatter.format(concurrentCycles.getPhaseTime(phase).average()), "s");
+        }
+    }
+
+    /**
+     * @return <code>cause</code> as camel case word without special characters
+     * (e.g. "Allocation Failure" -&gt; "AllocationFailure", "System.gc()" -&gt; "SystemGc")
+     */
+    private String getCauseTag(String cause) {
+        StringBuilder tag = new StringBuilder();
+        for (String word : cause.split("[^A-Za-z0-9]+")) {
+            if (word.length() > 0) {
+                tag.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+            }
+        }
+
+        return tag.toString();
+    }
+
     private boolean isSignificant(final double average, final double standardDeviation) {
         // at least 68.3% of all points are within 0.75 to 1.25 times the average value
         // Note: this may or may not be a good measure, but it at least helps to mark some bad data as such
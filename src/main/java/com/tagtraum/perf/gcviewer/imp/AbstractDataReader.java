@@ -24,6 +24,8 @@ public abstract class AbstractDataReader implements DataReader {
     protected GCResource gcResource;
     /** the reader accessing the log file */
     protected LineNumberReader in;
+    /** the model being filled by {@link #read()} */
+    private volatile GCModel model;
 
     protected AbstractDataReader(GCResource gcResource, InputStream in) throws UnsupportedEncodingException {
         super();
@@ -56,6 +58,27 @@ public abstract class AbstractDataReader implements DataReader {
     @Override
     public abstract GCModel read() throws IOException;
 
+    /**
+     * Creates the model filled by {@link #read()}. Every reader should create its model using this
+     * method, so that the model can be observed while it is being read.
+     *
+     * @return new empty model
+     */
+    protected GCModel createModel() {
+        model = new GCModel();
+        return model;
+    }
+
+    /**
+     * Returns the model currently being filled by {@link #read()} or <code>null</code>, if reading
+     * has not started yet. The model may only be accessed on the thread calling {@link #read()}.
+     *
+     * @return model being read
+     */
+    GCModel getModelInProgress() {
+        return model;
+    }
+
     /**
      * Returns <code>true</code> as long as read was not cancelled.
      * @return <code>true</code> as long as read was not cancelled
@@ -0,0 +1,42 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Base class for InputStreams reading a log file that is still being written: instead of signalling
+ * the end of the file, reading blocks until more data is appended. Only {@link #close()} ends
+ * the stream.
+ */
+public abstract class AbstractTailInputStream extends InputStream {
+
+    /**
+     * Listener called whenever all data currently available has been read.
+     */
+    public interface CaughtUpListener {
+        void caughtUp();
+    }
+
+    private CaughtUpListener caughtUpListener;
+
+    public void setCaughtUpListener(CaughtUpListener caughtUpListener) {
+        this.caughtUpListener = caughtUpListener;
+    }
+
+    /**
+     * Must be called on the reading thread every time all data available has been read, before
+     * waiting for more.
+     */
+    protected void fireCaughtUp() {
+        if (caughtUpListener != null) {
+            caughtUpListener.caughtUp();
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        int n = read(b, 0, 1);
+        return n < 0 ? -1 : b[0] & 0xff;
+    }
+}
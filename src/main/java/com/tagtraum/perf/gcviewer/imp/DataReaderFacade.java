@@ -1,5 +1,6 @@
 package com.tagtraum.perf.gcviewer.imp;
 
+import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.File;
 import java.io.IOException;
@@ -29,10 +30,26 @@ import com.tagtraum.perf.gcviewer.util.LocalisationHelper;
  */
 public class DataReaderFacade {
 
+    /**
+     * Name of the property fired on the reading thread with a snapshot of the model read so far
+     * (see {@link GCModel#createSnapshot()}). {@link com.tagtraum.perf.gcviewer.ctrl.GCModelLoader}s
+     * fire the snapshots again with the same property name on the event dispatch thread.
+     */
+    public static final String MODEL_SNAPSHOT = "modelSnapshot";
+
+    /** Name of the property fired on the reading thread with the percentage of the log read so far. */
+    public static final String PROGRESS = "progress";
+
+    /** minimum time between two snapshots of the model while reading */
+    private static final long MIN_SNAPSHOT_INTERVAL_MS = 1000;
+
     private List<PropertyChangeListener> propertyChangeListeners = new ArrayList<PropertyChangeListener>();
+    private long snapshotIntervalMs = MIN_SNAPSHOT_INTERVAL_MS;
+    private long progressIntervalMs = ProgressSampler.SAMPLE_INTERVAL_MS;
 
     /**
-     * Add propertyChangeListener for underlying MonitoredBufferedInputStreams property "progress".
+     * Add propertyChangeListener for the progress of the underlying {@link PrefetchInputStream} (property {@link #PROGRESS})
+     * and for snapshots of the model while it is being read (property {@link #MODEL_SNAPSHOT}).
      *
      * @param listener component requiring to listen to progress changes
      */
@@ -40,6 +57,24 @@ public class DataReaderFacade {
         propertyChangeListeners.add(listener);
     }
 
+    /**
+     * Sets the minimum time between two snapshots of the model while reading (for tests).
+     *
+     * @param snapshotIntervalMs minimum interval in ms
+     */
+    void setSnapshotInterval(long snapshotIntervalMs) {
+        this.snapshotIntervalMs = snapshotIntervalMs;
+    }
+
+    /**
+     * Sets the interval between two progress events while reading (for tests).
+     *
+     * @param progressIntervalMs interval in ms
+     */
+    void setProgressInterval(long progressIntervalMs) {
+        this.progressIntervalMs = progressIntervalMs;
+    }
+
     /**
      * Loads a model from a given <code>gcResource</code> logging all exceptions that occur.
      *
@@ -80,6 +115,45 @@ public class DataReaderFacade {
         return model;
     }
 
+    /**
+     * Reads the log file of <code>gcResource</code> from <code>in</code>, which keeps returning data
+     * appended to the file until it is closed. Every time all data available has been read, a snapshot
+     * of the model ({@link #MODEL_SNAPSHOT}) is published, if new events were read.
+     *
+     * @param gcResource resource being followed
+     * @param in stream following the log file of <code>gcResource</code>
+     * @return model containing all events read until <code>in</code> was closed
+     * @throws DataReaderException if any exception occurred, it is logged and added as the cause
+     * to this exception
+     */
+    public GCModel loadModel(GcResourceFile gcResource, AbstractTailInputStream in) throws DataReaderException {
+        Logger logger = gcResource.getLogger();
+        try {
+            URL url = gcResource.getResourceNameAsUrl();
+            DataReader reader = new DataReaderFactory().getDataReader(gcResource, in);
+            if (reader instanceof AbstractDataReader) {
+                in.setCaughtUpListener(new CaughtUpSnapshotPublisher((AbstractDataReader) reader, url));
+            }
+            GCModel model = reader.read();
+            model.setURL(url);
+
+            return model;
+        }
+        catch (RuntimeException | IOException e) {
+            logger.warning(LocalisationHelper.getString("fileopen_dialog_read_file_failed")
+                    + "\n" + e.toString() + " " + e.getLocalizedMessage());
+            throw new DataReaderException(e);
+        }
+        finally {
+            try {
+                in.close();
+            }
+            catch (IOException e) {
+                logger.warning("A problem occurred trying to close the InputStream: " + e.toString());
+            }
+        }
+    }
+
     /**
      * Loads the {@link GCResource}s as a rotated series of logfiles. Takes care of ordering them
      *
@@ -107,10 +181,16 @@ public class DataReaderFacade {
         try {
             if (url.getProtocol().startsWith("http")) {
                 AtomicLong atomicContentLength = new AtomicLong();
-                URLConnection conn = url.openConnection();
-                in = HttpUrlConnectionHelper.openInputStream((HttpURLConnection) conn,
-                        HttpUrlConnectionHelper.GZIP,
-                        atomicContentLength);
+                RemoteLogFetcher remoteLogFetcher = RemoteLogFetcher.getInstance();
+                if (remoteLogFetcher != null) {
+                    in = remoteLogFetcher.open(url, atomicContentLength);
+                }
+                else {
+                    URLConnection conn = url.openConnection();
+                    in = HttpUrlConnectionHelper.openInputStream((HttpURLConnection) conn,
+                            HttpUrlConnectionHelper.GZIP,
+                            atomicContentLength);
+                }
                 contentLength = atomicContentLength.get();
             }
             else {
@@ -122,14 +202,20 @@ public class DataReaderFacade {
                     }
                 }
             }
-            if (contentLength > 100L) {
-                in = new MonitoredBufferedInputStream(in, DataReaderFactory.FOUR_KB, contentLength);
-                for (PropertyChangeListener listener : propertyChangeListeners) {
-                    ((MonitoredBufferedInputStream) in).addPropertyChangeListener(listener);
-                }
+            // read (and decompress) on another thread while parsing; downloads of the RemoteLogFetcher already are
+            PrefetchInputStream prefetchIn = in instanceof PrefetchInputStream
+                    ? (PrefetchInputStream) in
+                    : PrefetchInputStream.start(in, contentLength);
+            in = prefetchIn;
+            prefetchIn.setProgressInterval(progressIntervalMs);
+            for (PropertyChangeListener listener : propertyChangeListeners) {
+                prefetchIn.addPropertyChangeListener(listener);
             }
 
             DataReader reader = factory.getDataReader(gcResource, in);
+            if (reader instanceof AbstractDataReader) {
+                prefetchIn.addPropertyChangeListener(new ModelSnapshotPublisher((AbstractDataReader) reader));
+            }
             GCModel model = reader.read();
             model.setURL(url);
 
@@ -145,4 +231,79 @@ public class DataReaderFacade {
         }
     }
 
+    /**
+     * Publishes snapshots of the model being read on progress events of the
+     * {@link PrefetchInputStream} (which are fired on the reading thread between
+     * two reads, so the model is not being changed at the same time).
+     */
+    private class ModelSnapshotPublisher implements PropertyChangeListener {
+        private final AbstractDataReader reader;
+        private long nextSnapshotTime = System.currentTimeMillis() + snapshotIntervalMs;
+        private int lastSnapshotSize;
+
+        public ModelSnapshotPublisher(AbstractDataReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public void propertyChange(PropertyChangeEvent evt) {
+            if (!PROGRESS.equals(evt.getPropertyName())
+                    || System.currentTimeMillis() < nextSnapshotTime) {
+
+                return;
+            }
+
+            GCModel model = reader.getModelInProgress();
+            // snapshots of memory mapped models would have to be copied to the heap
+            if (model == null || model.isEventStoreMapped() || model.size() == lastSnapshotSize) {
+                return;
+            }
+
+            GCModel snapshot = model.createSnapshot();
+            lastSnapshotSize = snapshot.size();
+            nextSnapshotTime = System.currentTimeMillis() + snapshotIntervalMs;
+
+            publishSnapshot(snapshot);
+        }
+    }
+
+    /**
+     * Publishes snapshots of a model being read from an {@link AbstractTailInputStream} every time all data
+     * of the file has been read (on the reading thread, while it is waiting for more data), so the last
+     * snapshot always contains all data written so far. Events read before the last snapshot are not copied
+     * again (see {@link GCModel#createSnapshot()}), so the cost doesn't grow with the size of the log.
+     * Snapshots of memory mapped models are copied to the heap, because only the snapshots of a
+     * followed log are displayed.
+     */
+    private class CaughtUpSnapshotPublisher implements AbstractTailInputStream.CaughtUpListener {
+        private final AbstractDataReader reader;
+        private final URL url;
+        private int lastSnapshotSize;
+
+        public CaughtUpSnapshotPublisher(AbstractDataReader reader, URL url) {
+            this.reader = reader;
+            this.url = url;
+        }
+
+        @Override
+        public void caughtUp() {
+            GCModel model = reader.getModelInProgress();
+            if (model == null || model.size() == lastSnapshotSize) {
+                return;
+            }
+
+            GCModel snapshot = model.createSnapshot();
+            snapshot.setURL(url);
+            lastSnapshotSize = snapshot.size();
+            publishSnapshot(snapshot);
+        }
+    }
+
+    private void publishSnapshot(GCModel snapshot) {
+        PropertyChangeEvent snapshotEvent = new PropertyChangeEvent(this, MODEL_SNAPSHOT, null, snapshot);
+        for (PropertyChangeListener listener : propertyChangeListeners) {
+            listener.propertyChange(snapshotEvent);
+        }
+    }
+
 }
@@ -54,7 +54,7 @@ public class DataReaderIBM_J9_R28 extends AbstractDataReader {
 
     @Override
     public GCModel read() throws IOException {
-        GCModel model = new GCModel();
+        GCModel model = createModel();
         try {
             XMLInputFactory factory = XMLInputFactory.newInstance();
             XMLEventReader eventReader = factory.createXMLEventReader(in);
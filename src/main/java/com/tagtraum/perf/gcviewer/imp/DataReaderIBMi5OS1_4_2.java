@@ -45,7 +45,7 @@ public class DataReaderIBMi5OS1_4_2 extends AbstractDataReader {
         if (getLogger().isLoggable(Level.INFO)) getLogger().info("Reading IBM i5/OS 1.4.2 format...");
         try {
         	// Initialize model
-            final GCModel model = new GCModel();
+            final GCModel model = createModel();
             model.setFormat(GCModel.Format.IBM_VERBOSE_GC);
 
             // Initialize local variables
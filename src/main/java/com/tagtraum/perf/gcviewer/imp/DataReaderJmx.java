@@ -0,0 +1,415 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.RuntimeMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServerConnection;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.ExtendedType;
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Type;
+import com.tagtraum.perf.gcviewer.model.ConcurrentGCEvent;
+import com.tagtraum.perf.gcviewer.model.GCEvent;
+import com.tagtraum.perf.gcviewer.model.GCEventUJL;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.GcResourceJvm;
+
+/**
+ * Receives the garbage collections of a running jvm as JMX notifications
+ * ({@link GarbageCollectionNotificationInfo}) and turns them into the events of a {@link GCModel}.
+ *
+ * <p>The thread delivering the notifications only queues them. They are converted and added to the
+ * model in batches by the thread calling {@link #read()}, which publishes a snapshot of the model
+ * ({@link DataReaderFacade#MODEL_SNAPSHOT}, see {@link GCModel#createSnapshot()}) after every batch.
+ * {@link #read()} only returns, when reading is cancelled or the connection to the jvm is lost.</p>
+ */
+public class DataReaderJmx implements DataReader {
+    /** minimum interval between two batches of events added to the model */
+    static final long BATCH_INTERVAL_MS = 1000;
+    /** the connection is checked, if no notification was received for this interval */
+    private static final long CONNECTION_CHECK_INTERVAL_MS = 5000;
+
+    private final GcResourceJvm gcResource;
+    private final List<PropertyChangeListener> propertyChangeListeners = new ArrayList<>();
+    private final BlockingQueue<CompositeData> notifications = new LinkedBlockingQueue<>();
+    private long batchIntervalMs = BATCH_INTERVAL_MS;
+    /** type (heap / non heap) of all memory pools of the jvm by name */
+    private final Map<String, MemoryType> memoryPoolTypes = new HashMap<>();
+    /** start time of the jvm in ms since the epoch (0 if unknown) */
+    private long jvmStartTime;
+
+    public DataReaderJmx(GcResourceJvm gcResource) {
+        super();
+
+        this.gcResource = gcResource;
+    }
+
+    /**
+     * Adds a listener receiving snapshots of the model ({@link DataReaderFacade#MODEL_SNAPSHOT})
+     * on the thread calling {@link #read()}.
+     *
+     * @param listener listener to be added
+     */
+    public void addPropertyChangeListener(PropertyChangeListener listener) {
+        propertyChangeListeners.add(listener);
+    }
+
+    /**
+     * Set interval between two batches of events (for test purposes).
+     *
+     * @param batchIntervalMs interval in ms
+     */
+    void setBatchInterval(long batchIntervalMs) {
+        this.batchIntervalMs = batchIntervalMs;
+    }
+
+    private Logger getLogger() {
+        return gcResource.getLogger();
+    }
+
+    @Override
+    public GCModel read() throws IOException {
+        if (gcResource.getPid() != null && gcResource.getPid().equals(getOwnPid())) {
+            // attaching to the own process is not allowed by default since java 9
+            return read(ManagementFactory.getPlatformMBeanServer());
+        }
+
+        try (JMXConnector connector = JMXConnectorFactory.connect(new JMXServiceURL(getServiceUrl()))) {
+            return read(connector.getMBeanServerConnection());
+        }
+    }
+
+    /**
+     * Subscribes to the garbage collection notifications of the jvm behind <code>connection</code>
+     * and adds them to a model until reading is cancelled or the connection is lost.
+     *
+     * @param connection connection to the jvm
+     * @return model containing all garbage collections received
+     * @throws IOException connection could not be established
+     */
+    GCModel read(MBeanServerConnection connection) throws IOException {
+        GCModel model = new GCModel();
+        model.setFormat(GCModel.Format.JMX);
+
+        for (MemoryPoolMXBean memoryPool : ManagementFactory.getPlatformMXBeans(connection, MemoryPoolMXBean.class)) {
+            memoryPoolTypes.put(memoryPool.getName(), memoryPool.getType());
+        }
+        jvmStartTime = ManagementFactory.newPlatformMXBeanProxy(connection,
+                ManagementFactory.RUNTIME_MXBEAN_NAME,
+                RuntimeMXBean.class).getStartTime();
+
+        NotificationListener listener = (notification, handback) -> {
+            if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                notifications.add((CompositeData) notification.getUserData());
+            }
+        };
+
+        List<ObjectName> collectors = new ArrayList<>();
+        try {
+            for (ObjectName collector : connection.queryNames(new ObjectName(ManagementFactory.GARBAGE_COLLECTOR_MXBEAN_DOMAIN_TYPE + ",*"), null)) {
+                connection.addNotificationListener(collector, listener, null, null);
+                collectors.add(collector);
+            }
+        }
+        catch (JMException e) {
+            throw new IOException("failed to subscribe to garbage collectors of " + gcResource.getResourceName(), e);
+        }
+
+        if (getLogger().isLoggable(Level.INFO)) getLogger().info("Receiving garbage collections of " + collectors.size() + " collectors of " + gcResource.getResourceName());
+        try {
+            readNotifications(connection, model);
+        }
+        finally {
+            for (ObjectName collector : collectors) {
+                try {
+                    connection.removeNotificationListener(collector, listener);
+                }
+                catch (IOException | JMException e) {
+                    if (getLogger().isLoggable(Level.FINE)) getLogger().log(Level.FINE, "failed to unsubscribe from " + collector, e);
+                }
+            }
+        }
+
+        return model;
+    }
+
+    private void readNotifications(MBeanServerConnection connection, GCModel model) {
+        List<CompositeData> batch = new ArrayList<>();
+        long nextBatchTime = System.currentTimeMillis() + batchIntervalMs;
+        long lastNotificationTime = System.currentTimeMillis();
+        try {
+            while (!gcResource.isReadCancelled()) {
+                CompositeData notification = notifications.poll(Math.max(1, nextBatchTime - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                if (notification != null) {
+                    batch.add(notification);
+                    notifications.drainTo(batch);
+                }
+
+                long now = System.currentTimeMillis();
+                if (now < nextBatchTime) {
+                    continue;
+                }
+
+                nextBatchTime = now + batchIntervalMs;
+                if (batch.size() > 0) {
+                    addBatch(model, batch);
+                    publishSnapshot(model);
+                    lastNotificationTime = now;
+                }
+                else if (now - lastNotificationTime > CONNECTION_CHECK_INTERVAL_MS) {
+                    // throws an IOException, if the jvm is not reachable any more
+                    connection.getMBeanCount();
+                    lastNotificationTime = now;
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        catch (IOException e) {
+            getLogger().warning("Lost connection to " + gcResource.getResourceName() + " (" + e.toString() + ")");
+        }
+
+        notifications.drainTo(batch);
+        addBatch(model, batch);
+        if (getLogger().isLoggable(Level.INFO)) getLogger().info("Done receiving garbage collections of " + gcResource.getResourceName());
+    }
+
+    private void addBatch(GCModel model, List<CompositeData> batch) {
+        // notifications of different collectors are not necessarily delivered in order
+        List<AbstractGCEvent<?>> events = new ArrayList<>(batch.size());
+        for (CompositeData data : batch) {
+            try {
+                events.add(createEvent(GarbageCollectionNotificationInfo.from(data)));
+            }
+            catch (IllegalArgumentException e) {
+                if (getLogger().isLoggable(Level.WARNING)) getLogger().warning("Unknown notification: " + data + " (" + e.toString() + ")");
+            }
+        }
+        events.sort(Comparator.comparingDouble(AbstractGCEvent::getTimestamp));
+
+        for (AbstractGCEvent<?> event : events) {
+            model.add(event);
+        }
+        batch.clear();
+    }
+
+    private void publishSnapshot(GCModel model) {
+        if (propertyChangeListeners.isEmpty()) {
+            return;
+        }
+
+        PropertyChangeEvent snapshotEvent = new PropertyChangeEvent(this, DataReaderFacade.MODEL_SNAPSHOT, null, model.createSnapshot());
+        for (PropertyChangeListener listener : propertyChangeListeners) {
+            listener.propertyChange(snapshotEvent);
+        }
+    }
+
+    /**
+     * Converts a notification into an event. Collections with an action ending in "cycle" (ZGC,
+     * Shenandoah) are concurrent; all others are stop the world pauses with heap usage before
+     * and after the collection and details about young and old generations and metaspace
+     * as far as they can be derived from the names of the memory pools.
+     *
+     * @param info notification of one collection
+     * @return event representing the collection
+     */
+    AbstractGCEvent<?> createEvent(GarbageCollectionNotificationInfo info) {
+        GcInfo gcInfo = info.getGcInfo();
+        double duration = gcInfo.getDuration() / 1000.0;
+        String action = info.getGcAction() != null ? info.getGcAction() : "";
+
+        if (action.contains("cycle")) {
+            ConcurrentGCEvent event = new ConcurrentGCEvent();
+            initEvent(event, Type.JMX_CONCURRENT_CYCLE, info.getGcCause(), gcInfo);
+            event.setPause(duration);
+            event.setDuration(duration);
+            return event;
+        }
+
+        Type type = action.contains("major")
+                ? Type.UJL_PAUSE_FULL
+                : action.contains("minor") ? Type.UJL_PAUSE_YOUNG : Type.JMX_PAUSE;
+        GCEventUJL event = new GCEventUJL();
+        initEvent(event, type, info.getGcCause(), gcInfo);
+        event.setPause(duration);
+
+        MemoryUsageSum heap = new MemoryUsageSum();
+        MemoryUsageSum young = new MemoryUsageSum();
+        MemoryUsageSum old = new MemoryUsageSum();
+        MemoryUsageSum metaspace = new MemoryUsageSum();
+        Map<String, MemoryUsage> usageAfterGc = gcInfo.getMemoryUsageAfterGc();
+        for (Map.Entry<String, MemoryUsage> usageBeforeGc : gcInfo.getMemoryUsageBeforeGc().entrySet()) {
+            String pool = usageBeforeGc.getKey();
+            MemoryUsage before = usageBeforeGc.getValue();
+            MemoryUsage after = usageAfterGc.get(pool) != null ? usageAfterGc.get(pool) : before;
+            if (memoryPoolTypes.get(pool) == MemoryType.NON_HEAP) {
+                if (pool.contains("Metaspace") || pool.contains("Perm")) {
+                    metaspace.add(before, after);
+                }
+            }
+            else {
+                heap.add(before, after);
+                if (pool.contains("Eden") || pool.contains("Survivor") || pool.contains("Nursery")) {
+                    young.add(before, after);
+                }
+                else if (pool.contains("Old") || pool.contains("Tenured")) {
+                    old.add(before, after);
+                }
+            }
+        }
+
+        event.setPreUsed(heap.getBeforeKb());
+        event.setPostUsed(heap.getAfterKb());
+        event.setTotal(heap.getCommittedKb());
+        addDetail(event, Type.JMX_YOUNG, young);
+        addDetail(event, Type.JMX_OLD, old);
+        addDetail(event, Type.METASPACE, metaspace);
+
+        return event;
+    }
+
+    private void initEvent(AbstractGCEvent<?> event, Type type, String cause, GcInfo gcInfo) {
+        event.setTimestamp(gcInfo.getStartTime() / 1000.0);
+        if (jvmStartTime > 0) {
+            event.setDateStamp(ZonedDateTime.ofInstant(Instant.ofEpochMilli(jvmStartTime + gcInfo.getStartTime()), ZoneId.systemDefault()));
+        }
+        event.setExtendedType(cause != null && cause.length() > 0
+                ? ExtendedType.lookup(type, type.getName() + " (" + cause + ")")
+                : ExtendedType.lookup(type));
+    }
+
+    private void addDetail(GCEvent event, Type type, MemoryUsageSum usage) {
+        if (!usage.hasPools()) {
+            return;
+        }
+
+        GCEvent detailEvent = new GCEvent(event.getTimestamp(), usage.getBeforeKb(), usage.getAfterKb(), usage.getCommittedKb(), 0, type);
+        detailEvent.setDateStamp(event.getDatestamp());
+        event.add(detailEvent);
+    }
+
+    private String getServiceUrl() throws IOException {
+        if (gcResource.getServiceUrl() != null) {
+            return gcResource.getServiceUrl();
+        }
+
+        return startLocalManagementAgent(gcResource.getPid());
+    }
+
+    /**
+     * Attaches to the local jvm with process id <code>pid</code> and starts its local management agent.
+     * The attach api is used through reflection, because it is not on the classpath of java 8
+     * runtimes ("lib/tools.jar" of a jdk).
+     *
+     * @param pid process id of the jvm
+     * @return service url of the local management agent
+     * @throws IOException attaching failed
+     */
+    private String startLocalManagementAgent(String pid) throws IOException {
+        Class<?> virtualMachineClass = getVirtualMachineClass();
+        try {
+            Object virtualMachine = virtualMachineClass.getMethod("attach", String.class).invoke(null, pid);
+            try {
+                return (String) virtualMachineClass.getMethod("startLocalManagementAgent").invoke(virtualMachine);
+            }
+            finally {
+                virtualMachineClass.getMethod("detach").invoke(virtualMachine);
+            }
+        }
+        catch (InvocationTargetException e) {
+            throw new IOException("failed to attach to jvm with pid " + pid + " (" + e.getCause() + ")", e.getCause());
+        }
+        catch (ReflectiveOperationException e) {
+            throw new IOException("failed to attach to jvm with pid " + pid + " (" + e.toString() + ")", e);
+        }
+    }
+
+    private Class<?> getVirtualMachineClass() throws IOException {
+        try {
+            return Class.forName("com.sun.tools.attach.VirtualMachine");
+        }
+        catch (ClassNotFoundException e) {
+            File toolsJar = new File(System.getProperty("java.home"), ".." + File.separator + "lib" + File.separator + "tools.jar");
+            try {
+                URLClassLoader classLoader = new URLClassLoader(new URL[] {toolsJar.toURI().toURL()}, DataReaderJmx.class.getClassLoader());
+                return Class.forName("com.sun.tools.attach.VirtualMachine", true, classLoader);
+            }
+            catch (MalformedURLException | ClassNotFoundException e2) {
+                throw new IOException("attach api is not available (run GCViewer with a jdk or use a JMX service url like "
+                        + "'service:jmx:rmi:///jndi/rmi://host:port/jmxrmi')", e2);
+            }
+        }
+    }
+
+    private static String getOwnPid() {
+        // "pid@hostname" (java 8 has no ProcessHandle)
+        String name = ManagementFactory.getRuntimeMXBean().getName();
+        return name.contains("@") ? name.substring(0, name.indexOf('@')) : name;
+    }
+
+    /**
+     * Memory usage of several memory pools added up.
+     */
+    private static class MemoryUsageSum {
+        private int pools;
+        private long before;
+        private long after;
+        private long committed;
+
+        public void add(MemoryUsage usageBefore, MemoryUsage usageAfter) {
+            ++pools;
+            before += usageBefore.getUsed();
+            after += usageAfter.getUsed();
+            committed += usageAfter.getCommitted();
+        }
+
+        public boolean hasPools() {
+            return pools > 0;
+        }
+
+        public int getBeforeKb() {
+            return (int) (before / 1024);
+        }
+
+        public int getAfterKb() {
+            return (int) (after / 1024);
+        }
+
+        public int getCommittedKb() {
+            return (int) (committed / 1024);
+        }
+    }
+}
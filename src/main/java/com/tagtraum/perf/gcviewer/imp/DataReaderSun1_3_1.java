@@ -33,7 +33,7 @@ public class DataReaderSun1_3_1 extends AbstractDataReaderSun {
         if (getLogger().isLoggable(Level.INFO)) getLogger().info("Reading Sun 1.3.1 format...");
         try {
             count = 0;
-            GCModel model = new GCModel();
+            GCModel model = createModel();
             model.setFormat(GCModel.Format.SUN_VERBOSE_GC);
             List<StringBuilder> lineStack = new ArrayList<StringBuilder>();
             int i;
@@ -275,7 +275,7 @@ public class DataReaderSun1_6_0 extends AbstractDataReaderSun {
         if (getLogger().isLoggable(Level.INFO)) getLogger().info("Reading Sun / Oracle 1.4.x / 1.5.x / 1.6.x / 1.7.x / 1.8.x format...");
 
         try (LineNumberReader in = this.in) {
-            GCModel model = new GCModel();
+            GCModel model = createModel();
             model.setFormat(GCModel.Format.SUN_X_LOG_GC);
             Matcher mixedLineMatcher = linesMixedPattern.matcher("");
             Matcher adaptiveSizePolicyMatcher = adaptiveSizePolicyPattern.matcher("");
@@ -681,6 +681,9 @@ public class DataReaderSun1_6_0 extends AbstractDataReaderSun {
                     || type.getPattern() == GcPattern.GC_PAUSE) {
 
                 ae.setPause(parsePause(line, pos));
+                if (ae instanceof VmOperationEvent) {
+                    getDataReaderTools().setStoppingThreadsTime((VmOperationEvent) ae, line);
+                }
             } else if (type.getPattern() == GcPattern.GC_PAUSE_DURATION) {
                 // special case only occurring with concurrent collections...
                 // the -end events contain a pause and duration as well
@@ -7,6 +7,8 @@ import java.util.regex.Pattern;
 
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.ExtendedType;
+import com.tagtraum.perf.gcviewer.model.VmOperationEvent;
+import com.tagtraum.perf.gcviewer.util.NumberParser;
 
 /**
  * Tools useful for (most) DataReader implementations.
@@ -14,6 +16,7 @@ import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.ExtendedType;
 public class DataReaderTools {
 
     private static Pattern parenthesesPattern = Pattern.compile("\\([^)]*(\\))?\\) ?");
+    private static Pattern stoppingThreadsPattern = Pattern.compile("Stopping threads took: ([0-9]+[.,][0-9]+) seconds");
 
     private Logger logger;
 
@@ -70,7 +73,8 @@ public class DataReaderTools {
 
     /**
      * Same as {@link #parseType(String)}, but returns <code>null</code> instead of exception, if no type could
-     * be found.
+     * be found. The content of the last parentheses, which had to be stripped to find the type, is kept as
+     * cause of the type (see {@link ExtendedType#getCause()}).
      *
      * @param typeName string representation of the gc event
      * @return <code>ExtendedType</code> representing <code>typeString</code>, or <code>null</code> if none could be found
@@ -79,6 +83,7 @@ public class DataReaderTools {
         typeName = typeName.trim();
         ExtendedType extendedType = null;
         String lookupTypeName = getLookupTypeName(typeName);
+        String cause = null;
         
         AbstractGCEvent.Type gcType = AbstractGCEvent.Type.lookup(lookupTypeName);
         // the gcType may be null because there was a PrintGCCause flag enabled - if so, reparse it with the first parentheses set stripped
@@ -86,6 +91,8 @@ public class DataReaderTools {
             // try to parse it again with the parentheses removed
             Matcher parenthesesMatcher = parenthesesPattern.matcher(lookupTypeName);
             if (parenthesesMatcher.find()) {
+                String parentheses = parenthesesMatcher.group().trim();
+                cause = parentheses.substring(1, parentheses.length() - 1);
                 lookupTypeName = parenthesesMatcher.replaceFirst("");
                 gcType = AbstractGCEvent.Type.lookup(lookupTypeName);
             } else {
@@ -95,12 +102,29 @@ public class DataReaderTools {
         }
 
         if (gcType != null) {
-            extendedType = ExtendedType.lookup(gcType, typeName);
+            extendedType = ExtendedType.lookup(gcType, typeName, cause);
         }
 
         return extendedType;
     }
 
+    /**
+     * Sets the safepoint times of a <code>vmOperationEvent</code> parsed from a
+     * "Total time for which application threads were stopped: 0.0019721 seconds, Stopping threads took: 0.0001040 seconds"
+     * line (-XX:+PrintGCApplicationStoppedTime or -Xlog:safepoint up to java 12). The pause of the event must already
+     * be set; nothing is set, if <code>line</code> doesn't contain "Stopping threads took".
+     *
+     * @param vmOperationEvent event parsed from <code>line</code>
+     * @param line line containing the event
+     */
+    public void setStoppingThreadsTime(VmOperationEvent vmOperationEvent, String line) {
+        Matcher stoppingThreadsMatcher = stoppingThreadsPattern.matcher(line);
+        if (stoppingThreadsMatcher.find()) {
+            double timeToSafepoint = NumberParser.parseDouble(stoppingThreadsMatcher.group(1));
+            vmOperationEvent.setSafepointTimes(timeToSafepoint, 0, Math.max(0, vmOperationEvent.getPause() - timeToSafepoint));
+        }
+    }
+
     private String getLookupTypeName(String typeName) {
         typeName = typeName.endsWith(":")
                 ? typeName.substring(0, typeName.length()-1)
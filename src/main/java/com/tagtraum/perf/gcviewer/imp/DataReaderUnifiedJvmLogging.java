@@ -43,6 +43,11 @@ import com.tagtraum.perf.gcviewer.util.NumberParser;
  * [0.735s][info][gc           ] GC(0) Concurrent marking 74M-&gt;74M(128M) 3.688ms
  * [43.948s][info][gc             ] GC(831) Pause Full (Allocation Failure) 7943M-&gt;6013M(8192M) 14289.335ms
  * </pre>
+ * With the "safepoint" selector, the safepoints are read as well (time to safepoint and time at safepoint):
+ * <pre>
+ * [0.077s][info][safepoint    ] Total time for which application threads were stopped: 0.0000996 seconds, Stopping threads took: 0.0000424 seconds
+ * [0.203s][info][safepoint] Safepoint "G1CollectForAllocation", Time since last: 123282512 ns, Reaching safepoint: 94734 ns, Cleanup: 13286 ns, At safepoint: 6951264 ns, Total: 7059284 ns
+ * </pre>
  *
  * <p>
  * For more information about Shenandoah see: <a href="https://wiki.openjdk.java.net/display/shenandoah/Main">Shenandoah Wiki at OpenJDK</a>
@@ -73,6 +78,24 @@ public class DataReaderUnifiedJvmLogging extends AbstractDataReader {
     private static final String GROUP_DECORATORS_GC_TYPE = "type";
     private static final String GROUP_DECORATORS_TAIL = "tail";
 
+    // matches the safepoint summary line of java 13 and later ("Cleanup" since java 16) including the decorators
+    // Input: [0.203s][info][safepoint] Safepoint "G1CollectForAllocation", Time since last: 123282512 ns, Reaching safepoint: 94734 ns, Cleanup: 13286 ns, At safepoint: 6951264 ns, Total: 7059284 ns
+    // Group time / uptime / uptimeunit: same as PATTERN_DECORATORS
+    // Group operation: G1CollectForAllocation
+    // Group reaching: 94734
+    // Group cleanup: 13286 (optional group)
+    // Group at: 6951264
+    // Group total: 7059284
+    private static final Pattern PATTERN_SAFEPOINT = Pattern.compile(
+            "^(?:\\[(?<time>[0-9-T:.+]*)])?(?:\\[(?<uptime>[^ms]*)(?<uptimeunit>m?s)])?\\[[^]]+]\\[safepoint[ ]*][ ]Safepoint \"(?<operation>[^\"]+)\", Time since last: [0-9]+ ns, Reaching safepoint: (?<reaching>[0-9]+) ns, (?:Cleanup: (?<cleanup>[0-9]+) ns, )?At safepoint: (?<at>[0-9]+) ns, Total: (?<total>[0-9]+) ns"
+    );
+    private static final String GROUP_SAFEPOINT_OPERATION = "operation";
+    private static final String GROUP_SAFEPOINT_REACHING = "reaching";
+    private static final String GROUP_SAFEPOINT_CLEANUP = "cleanup";
+    private static final String GROUP_SAFEPOINT_AT = "at";
+    private static final String GROUP_SAFEPOINT_TOTAL = "total";
+    private static final String SAFEPOINT_RECORD = Type.UJL_SAFEPOINT.getName() + " \"";
+
     private static final Pattern PATTERN_HEAP_REGION_SIZE = Pattern.compile("^Heap [Rr]egion [Ss]ize: ([0-9]+)M$");
     private static final int GROUP_HEAP_REGION_SIZE = 1;
 
@@ -167,7 +190,7 @@ public class DataReaderUnifiedJvmLogging extends AbstractDataReader {
     private static final String TAG_SAFEPOINT = "safepoint";
     
     /** list of strings, that must be part of the gc log line to be considered for parsing */
-    private static final List<String> INCLUDE_STRINGS = Arrays.asList("[gc ", "[gc]", "[" + TAG_GC_START, "[" + TAG_GC_HEAP, "[" + TAG_GC_METASPACE, "[" + TAG_GC_PHASES, "[" + TAG_GC_INIT, Type.APPLICATION_STOPPED_TIME.getName());
+    private static final List<String> INCLUDE_STRINGS = Arrays.asList("[gc ", "[gc]", "[" + TAG_GC_START, "[" + TAG_GC_HEAP, "[" + TAG_GC_METASPACE, "[" + TAG_GC_PHASES, "[" + TAG_GC_INIT, Type.APPLICATION_STOPPED_TIME.getName(), SAFEPOINT_RECORD);
     /** list of strings, that target gc log lines, that - although part of INCLUDE_STRINGS - are not considered a gc event */
     private static final List<String> EXCLUDE_STRINGS = Arrays.asList("Cancelling concurrent GC",
             "[debug",
@@ -218,7 +241,7 @@ public class DataReaderUnifiedJvmLogging extends AbstractDataReader {
             Map<String, AbstractGCEvent<?>> partialEventsMap = new HashMap<>();
             Map<String, Object> infoMap = new HashMap<>();
 
-            GCModel model = new GCModel();
+            GCModel model = createModel();
             model.setFormat(GCModel.Format.UNIFIED_JVM_LOGGING);
 
             Stream<String> lines = in.lines();
@@ -235,6 +258,11 @@ public class DataReaderUnifiedJvmLogging extends AbstractDataReader {
     }
 
     private ParseContext parseEvent(ParseContext context) {
+        if (context.getLine().contains(SAFEPOINT_RECORD)) {
+            context.setCurrentEvent(parseSafepoint(context));
+            return context;
+        }
+
         AbstractGCEvent<?> event = null;
         Matcher decoratorsMatcher = PATTERN_DECORATORS.matcher(context.getLine());
         try {
@@ -288,9 +316,39 @@ public class DataReaderUnifiedJvmLogging extends AbstractDataReader {
 
     private AbstractGCEvent<?> handleTagSafepoint(ParseContext context, AbstractGCEvent<?> event, String tail) {
         event.setPause(NumberParser.parseDouble(tail.split(" ")[0]));
+        if (event instanceof VmOperationEvent) {
+            getDataReaderTools().setStoppingThreadsTime((VmOperationEvent) event, tail);
+        }
         return event;
     }
 
+    /**
+     * Parses a safepoint summary line (java 13 and later) into a {@link VmOperationEvent}: the pause is
+     * the total time of the safepoint, the name of the vm operation is its cause.
+     */
+    private VmOperationEvent parseSafepoint(ParseContext context) {
+        Matcher safepointMatcher = PATTERN_SAFEPOINT.matcher(context.getLine());
+        if (!safepointMatcher.find()) {
+            getLogger().warning(String.format("Failed to parse safepoint on line number %d (no match; line=\"%s\")", in.getLineNumber(), context.getLine()));
+            return null;
+        }
+
+        String operation = safepointMatcher.group(GROUP_SAFEPOINT_OPERATION);
+        VmOperationEvent event = new VmOperationEvent();
+        event.setExtendedType(ExtendedType.lookup(Type.UJL_SAFEPOINT, SAFEPOINT_RECORD + operation + "\"", operation));
+        setDateStampIfPresent(event, safepointMatcher.group(GROUP_DECORATORS_TIME));
+        setTimeStampIfPresent(event, safepointMatcher.group(GROUP_DECORATORS_UPTIME), safepointMatcher.group(GROUP_DECORATORS_UPTIME_UNIT));
+        event.setPause(parseNanoseconds(safepointMatcher.group(GROUP_SAFEPOINT_TOTAL)));
+        event.setSafepointTimes(parseNanoseconds(safepointMatcher.group(GROUP_SAFEPOINT_REACHING)),
+                safepointMatcher.group(GROUP_SAFEPOINT_CLEANUP) != null ? parseNanoseconds(safepointMatcher.group(GROUP_SAFEPOINT_CLEANUP)) : 0,
+                parseNanoseconds(safepointMatcher.group(GROUP_SAFEPOINT_AT)));
+        return event;
+    }
+
+    private double parseNanoseconds(String nanosecondsAsString) {
+        return Long.parseLong(nanosecondsAsString) / 1000000000.0;
+    }
+
     private AbstractGCEvent<?> handleTagGcStartTail(ParseContext context, AbstractGCEvent<?> event) {
         // here, the gc type is known, and the partial events will need to be added later
         context.getPartialEventsMap().put(event.getNumber() + "", event);
@@ -0,0 +1,368 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.GCResource;
+import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+
+/**
+ * Process wide cache of the models of local log files: if the same file is opened in several
+ * documents (or several times in one document), it is parsed only once and all
+ * {@link GcResourceFile}s share the same {@link GCModel}.
+ *
+ * <p>Models are identified by the url of the file and its fingerprint (size and time of last
+ * modification), so that a file that has changed is parsed again. A load of a file that is already
+ * being parsed waits for the running parse instead of starting another one; progress, snapshots and
+ * log messages of the parse are forwarded to all resources waiting for it.</p>
+ *
+ * <p>Every resource holding a model of the cache counts as one reference. The reference is released,
+ * when the resource gets another model (e.g. on reload) or when {@link #release(GCResource)} is called
+ * (resource is not displayed any more). A model is removed from the cache with its last reference.
+ * Models of other resources (http urls) are not cached.</p>
+ *
+ * <p>A model, that is neither cached nor referenced by a resource any more, is closed (see
+ * {@link GCModel#close()}), as soon as it has been replaced in its resource or its resource has been
+ * released.</p>
+ */
+public class GCModelCache {
+    /** interval to check, whether a resource waiting for a parse has been cancelled */
+    private static final long CANCEL_CHECK_INTERVAL_MS = 200;
+
+    private static GCModelCache instance;
+
+    // all fields guarded by "this"
+    private final Map<String, CacheEntry> entries = new HashMap<>();
+    private final Map<GCResource, CacheEntry> references = new IdentityHashMap<>();
+
+    GCModelCache() {
+        super();
+    }
+
+    /**
+     * Returns the instance shared by all documents.
+     *
+     * @return shared instance
+     */
+    public static synchronized GCModelCache getInstance() {
+        if (instance == null) {
+            instance = new GCModelCache();
+        }
+
+        return instance;
+    }
+
+    /**
+     * Returns the model of <code>gcResource</code>: from the cache, from a parse running on another thread
+     * or parsed on the current thread. The returned model must not be modified, as it may be shared.
+     *
+     * @param gcResource resource to be loaded
+     * @param listener receives the progress and the snapshots of the model while it is being parsed
+     * @return model of <code>gcResource</code>
+     * @throws DataReaderException problem reading the resource
+     */
+    public GCModel loadModel(GcResourceFile gcResource, PropertyChangeListener listener) throws DataReaderException {
+        String key = getKey(gcResource);
+        if (key == null) {
+            DataReaderFacade dataReaderFacade = new DataReaderFacade();
+            dataReaderFacade.addPropertyChangeListener(listener);
+            GCModel model = dataReaderFacade.loadModel(gcResource);
+            gcResource.addPropertyChangeListener(new ModelReplacedListener(gcResource, model));
+            return model;
+        }
+
+        CacheEntry entry;
+        boolean mustParse = false;
+        synchronized (this) {
+            // resource is loaded again -> its current model is not needed any more
+            releaseReference(gcResource);
+
+            entry = entries.get(key);
+            if (entry == null) {
+                entry = new CacheEntry(key, gcResource.getResourceName());
+                entries.put(key, entry);
+                mustParse = true;
+            }
+            entry.waiters.add(new Waiter(gcResource, listener));
+        }
+
+        if (mustParse) {
+            parse(entry);
+        }
+
+        GCModel model = waitForModel(entry, gcResource);
+        synchronized (this) {
+            if (entries.get(key) == entry) {
+                entry.referenceCount++;
+                references.put(gcResource, entry);
+            }
+            // else: entry was removed (e.g. parse failed) -> nothing to reference
+        }
+        gcResource.addPropertyChangeListener(new ModelReplacedListener(gcResource, model));
+
+        return model;
+    }
+
+    /**
+     * Releases the reference of <code>gcResource</code> to its model (if it was loaded from this cache).
+     *
+     * @param gcResource resource, that doesn't need its model any more
+     */
+    public synchronized void release(GCResource gcResource) {
+        releaseReference(gcResource);
+        closeIfUnused(gcResource.getModel());
+    }
+
+    /**
+     * Closes <code>model</code> unless it is still held by the cache or referenced by a resource
+     * loaded through the cache.
+     *
+     * @param model model, that isn't displayed any more (may be <code>null</code>)
+     */
+    public synchronized void closeIfUnused(GCModel model) {
+        if (model == null) {
+            return;
+        }
+
+        for (CacheEntry entry : entries.values()) {
+            if (entry.getModel() == model) {
+                return;
+            }
+        }
+        for (CacheEntry entry : references.values()) {
+            if (entry.getModel() == model) {
+                return;
+            }
+        }
+
+        model.close();
+    }
+
+    /**
+     * Returns the number of models currently held by the cache (for test purposes).
+     *
+     * @return number of models
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private void releaseReference(GCResource gcResource) {
+        CacheEntry entry = references.remove(gcResource);
+        if (entry != null && --entry.referenceCount == 0 && entry.waiters.isEmpty()
+                && entries.get(entry.key) == entry) {
+
+            entries.remove(entry.key);
+        }
+    }
+
+    /**
+     * Parses the file of <code>entry</code> on the current thread.
+     */
+    private void parse(CacheEntry entry) {
+        DataReaderFacade dataReaderFacade = new DataReaderFacade();
+        dataReaderFacade.addPropertyChangeListener(evt -> {
+            List<Waiter> waiters = getWaiters(entry);
+            for (Waiter waiter : waiters) {
+                waiter.listener.propertyChange(evt);
+            }
+
+            // the parse runs on the thread of one of the waiters -> it can't leave early, if it is cancelled
+            if (!entry.gcResource.isReadCancelled()
+                    && waiters.stream().allMatch(waiter -> waiter.gcResource.isReadCancelled())) {
+
+                entry.gcResource.setIsReadCancelled(true);
+            }
+        });
+
+        try {
+            GCModel model = dataReaderFacade.loadModel(entry.gcResource);
+            if (entry.gcResource.isReadCancelled()) {
+                // incomplete model must not be cached
+                synchronized (this) {
+                    entries.remove(entry.key, entry);
+                }
+            }
+            entry.future.complete(model);
+        }
+        catch (DataReaderException | RuntimeException e) {
+            synchronized (this) {
+                entries.remove(entry.key, entry);
+            }
+            entry.future.completeExceptionally(e);
+        }
+    }
+
+    private GCModel waitForModel(CacheEntry entry, GcResourceFile gcResource) throws DataReaderException {
+        try {
+            while (true) {
+                try {
+                    return entry.future.get(CANCEL_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                }
+                catch (TimeoutException e) {
+                    if (gcResource.isReadCancelled()) {
+                        return cancelWaiting(entry, gcResource);
+                    }
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelWaiting(entry, gcResource);
+            throw new DataReaderException("interrupted while waiting for " + gcResource.getResourceName(), e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof DataReaderException) {
+                throw (DataReaderException) e.getCause();
+            }
+            throw new DataReaderException("failed to read " + gcResource.getResourceName(), e.getCause());
+        }
+        finally {
+            synchronized (this) {
+                entry.waiters.removeIf(waiter -> waiter.gcResource == gcResource);
+            }
+        }
+    }
+
+    /**
+     * Stops waiting for the parse of <code>entry</code>; the parse itself is only cancelled, if no
+     * other resource is waiting for it.
+     */
+    private GCModel cancelWaiting(CacheEntry entry, GcResourceFile gcResource) {
+        synchronized (this) {
+            entry.waiters.removeIf(waiter -> waiter.gcResource == gcResource);
+            if (entry.waiters.isEmpty()) {
+                entry.gcResource.setIsReadCancelled(true);
+                // a cancelled parse returns an incomplete model, which must not be cached
+                entries.remove(entry.key, entry);
+            }
+        }
+
+        return new GCModel();
+    }
+
+    private synchronized List<Waiter> getWaiters(CacheEntry entry) {
+        return new ArrayList<>(entry.waiters);
+    }
+
+    /**
+     * Returns the key of <code>gcResource</code> in the cache or <code>null</code>, if it can't be cached.
+     */
+    private static String getKey(GcResourceFile gcResource) {
+        try {
+            URL url = gcResource.getResourceNameAsUrl();
+            if (!"file".equals(url.getProtocol())) {
+                return null;
+            }
+
+            File file = new File(url.getFile());
+            if (!file.isFile()) {
+                return null;
+            }
+
+            return url + "#" + file.length() + "@" + file.lastModified();
+        }
+        catch (MalformedURLException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Model of one file (parsed or being parsed).
+     */
+    private class CacheEntry {
+        private final String key;
+        /** resource used for parsing: independent of the resources waiting for the model */
+        private final GcResourceFile gcResource;
+        private final CompletableFuture<GCModel> future = new CompletableFuture<>();
+        private final List<Waiter> waiters = new ArrayList<>();
+        private int referenceCount;
+
+        /**
+         * @return the parsed model or <code>null</code>, if it is still being parsed or the parse failed
+         */
+        public GCModel getModel() {
+            return future.isDone() && !future.isCompletedExceptionally() ? future.getNow(null) : null;
+        }
+
+        public CacheEntry(String key, String resourceName) {
+            this.key = key;
+            this.gcResource = new GcResourceFile(resourceName);
+
+            // messages of the parser are shown for every resource waiting for the model
+            Logger logger = gcResource.getLogger();
+            logger.setUseParentHandlers(false);
+            logger.addHandler(new Handler() {
+                @Override
+                public void publish(LogRecord record) {
+                    for (Waiter waiter : getWaiters(CacheEntry.this)) {
+                        waiter.gcResource.getLogger().log(record);
+                    }
+                }
+
+                @Override
+                public void flush() {
+                }
+
+                @Override
+                public void close() {
+                }
+            });
+        }
+    }
+
+    private static class Waiter {
+        private final GcResourceFile gcResource;
+        private final PropertyChangeListener listener;
+
+        public Waiter(GcResourceFile gcResource, PropertyChangeListener listener) {
+            this.gcResource = gcResource;
+            this.listener = listener;
+        }
+    }
+
+    /**
+     * Releases the reference of a resource, as soon as it gets another model.
+     */
+    private class ModelReplacedListener implements PropertyChangeListener {
+        private final GCResource gcResource;
+        private final GCModel model;
+
+        public ModelReplacedListener(GCResource gcResource, GCModel model) {
+            this.gcResource = gcResource;
+            this.model = model;
+        }
+
+        @Override
+        public void propertyChange(PropertyChangeEvent evt) {
+            if (GcResourceFile.PROPERTY_MODEL.equals(evt.getPropertyName())
+                    && evt.getOldValue() == model
+                    && evt.getNewValue() != model) {
+
+                gcResource.removePropertyChangeListener(this);
+                synchronized (GCModelCache.this) {
+                    if (references.get(gcResource) != null && references.get(gcResource).getModel() == model) {
+                        releaseReference(gcResource);
+                    }
+                    closeIfUnused(model);
+                }
+            }
+        }
+    }
+}
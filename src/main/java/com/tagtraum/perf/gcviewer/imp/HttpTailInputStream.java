@@ -0,0 +1,251 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * InputStream reading a log file on a http(s) server that is still being written. Once all data
+ * has been read, the server is asked every {@link #POLL_INTERVAL_MS} ms for the data appended since
+ * then, so that only new bytes are downloaded (and parsed).
+ *
+ * <ul>
+ * <li>New data is requested with "Range: bytes=&lt;bytes read&gt;-"; "If-None-Match" with the ETag of the
+ * last response lets the server answer "304 Not Modified", if the file hasn't changed at all.</li>
+ * <li>If the server doesn't support range requests (answers "200 OK" with the whole file), the bytes
+ * already read are skipped.</li>
+ * <li>If the file has become shorter than the bytes already read, it has been truncated or replaced;
+ * reading continues with the beginning of the new file.</li>
+ * </ul>
+ *
+ * <p>The file is requested without content encoding, because ranges refer to the bytes transferred.</p>
+ */
+public class HttpTailInputStream extends AbstractTailInputStream {
+    /** interval between two requests for new data */
+    static final long POLL_INTERVAL_MS = 1000;
+
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-\\d+/(\\d+|\\*)");
+    private static final Pattern CONTENT_RANGE_UNSATISFIED = Pattern.compile("bytes \\*/(\\d+)");
+
+    private final URL url;
+    private final Logger logger;
+    private final Object lock = new Object();
+    private long pollIntervalMs = POLL_INTERVAL_MS;
+
+    private InputStream body;
+    private long position;
+    private String eTag;
+    private boolean isRangeUnsupportedLogged;
+    private long rangeRequestCount;
+
+    // guarded by lock
+    private boolean closed;
+
+    /**
+     * @param url url of the log file
+     * @param logger logger for information about requests
+     * @throws IOException problem requesting the file
+     */
+    public HttpTailInputStream(URL url, Logger logger) throws IOException {
+        this.url = url;
+        this.logger = logger;
+        if (!request()) {
+            throw new IOException("no content received from " + url);
+        }
+    }
+
+    /**
+     * Set interval between two requests for new data (for test purposes).
+     *
+     * @param pollIntervalMs interval in ms
+     */
+    void setPollInterval(long pollIntervalMs) {
+        this.pollIntervalMs = pollIntervalMs;
+    }
+
+    /**
+     * Returns the number of range requests answered with new data (for test purposes).
+     *
+     * @return number of range requests
+     */
+    long getRangeRequestCount() {
+        return rangeRequestCount;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+
+        while (!isClosed()) {
+            if (body != null) {
+                int n = body.read(b, off, len);
+                if (n > 0) {
+                    position += n;
+                    return n;
+                }
+
+                body.close();
+                body = null;
+                fireCaughtUp();
+            }
+
+            waitForPollInterval();
+            if (!isClosed()) {
+                requestSafely();
+            }
+        }
+
+        if (body != null) {
+            body.close();
+            body = null;
+        }
+        return -1;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return body != null ? body.available() : 0;
+    }
+
+    /**
+     * Ends the stream: a thread waiting for more data returns -1. May be called from any thread.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+    }
+
+    private boolean isClosed() {
+        synchronized (lock) {
+            return closed;
+        }
+    }
+
+    private void waitForPollInterval() throws IOException {
+        synchronized (lock) {
+            try {
+                long pollTime = System.currentTimeMillis() + pollIntervalMs;
+                while (!closed && System.currentTimeMillis() < pollTime) {
+                    lock.wait(Math.max(1, pollTime - System.currentTimeMillis()));
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while waiting for " + url);
+            }
+        }
+    }
+
+    /**
+     * Requests new data; errors are only logged, because the server may be available again on the
+     * next request.
+     */
+    private void requestSafely() {
+        try {
+            request();
+        }
+        catch (IOException e) {
+            if (logger.isLoggable(Level.INFO)) logger.info("Failed to request new data from " + url + ": " + e.toString());
+        }
+    }
+
+    /**
+     * Requests data appended since the last request.
+     *
+     * @return <code>true</code>, if there is new data to be read
+     * @throws IOException problem with the request
+     */
+    private boolean request() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setUseCaches(false);
+        connection.setRequestProperty("Accept-Encoding", "identity");
+        if (position > 0) {
+            connection.setRequestProperty("Range", "bytes=" + position + "-");
+        }
+        if (eTag != null) {
+            connection.setRequestProperty("If-None-Match", eTag);
+        }
+
+        int responseCode = connection.getResponseCode();
+        if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            connection.disconnect();
+            return false;
+        }
+        else if (responseCode == 416) {
+            // Range Not Satisfiable: no new data or file has been truncated
+            Matcher matcher = CONTENT_RANGE_UNSATISFIED.matcher(String.valueOf(connection.getHeaderField("Content-Range")));
+            connection.disconnect();
+            if (matcher.matches() && Long.parseLong(matcher.group(1)) < position) {
+                restart();
+                return request();
+            }
+
+            return false;
+        }
+        else if (responseCode == HttpURLConnection.HTTP_PARTIAL) {
+            Matcher matcher = CONTENT_RANGE.matcher(String.valueOf(connection.getHeaderField("Content-Range")));
+            if (!matcher.matches() || Long.parseLong(matcher.group(1)) != position) {
+                connection.disconnect();
+                throw new IOException("unexpected Content-Range from " + url + ": " + connection.getHeaderField("Content-Range"));
+            }
+
+            ++rangeRequestCount;
+            return setBody(connection, 0);
+        }
+        else if (responseCode == HttpURLConnection.HTTP_OK) {
+            long contentLength = connection.getContentLengthLong();
+            if (contentLength >= 0 && contentLength < position) {
+                // file is shorter than before -> a new file is being written
+                restart();
+            }
+            else if (position > 0 && !isRangeUnsupportedLogged) {
+                isRangeUnsupportedLogged = true;
+                if (logger.isLoggable(Level.INFO)) logger.info(url + " doesn't support range requests; whole file is downloaded on every change");
+            }
+
+            return setBody(connection, position);
+        }
+        else {
+            connection.disconnect();
+            throw new IOException("Server sent " + responseCode + ": " + connection.getResponseMessage());
+        }
+    }
+
+    /**
+     * Continues reading with the beginning of the file.
+     */
+    private void restart() {
+        if (logger.isLoggable(Level.INFO)) logger.info(url + " has been truncated; continue reading from its beginning");
+        position = 0;
+        eTag = null;
+    }
+
+    private boolean setBody(HttpURLConnection connection, long bytesToSkip) throws IOException {
+        eTag = connection.getHeaderField("ETag");
+        body = connection.getInputStream();
+        long skipped = 0;
+        while (skipped < bytesToSkip) {
+            long n = body.skip(bytesToSkip - skipped);
+            if (n <= 0) {
+                if (body.read() < 0) {
+                    break;
+                }
+                n = 1;
+            }
+            skipped += n;
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,158 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Notifies listeners about changes of log files using a {@link WatchService}. One thread waits for
+ * the events of all directories containing watched files; listeners are called on this thread for
+ * every change in the directory of their file (creation, modification or deletion of any file,
+ * so that a new file replacing a rotated one is noticed as well).
+ *
+ * <p>If the file system cannot be watched (or watching is only emulated by polling as on some
+ * platforms), {@link #register(Path, Runnable)} returns <code>null</code> and the caller has to poll
+ * the file itself.</p>
+ */
+public class LogFileWatcher {
+    private static final Logger LOGGER = Logger.getLogger(LogFileWatcher.class.getName());
+
+    private static LogFileWatcher instance;
+
+    private final WatchService watchService;
+    private final Map<Path, WatchedDirectory> directories = new HashMap<>();
+
+    LogFileWatcher(WatchService watchService) {
+        this.watchService = watchService;
+        if (watchService != null) {
+            Thread thread = new Thread(this::run, "gcviewer-log-file-watcher");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Returns the instance shared by all watched log files.
+     *
+     * @return shared instance
+     */
+    public static synchronized LogFileWatcher getInstance() {
+        if (instance == null) {
+            instance = new LogFileWatcher(createWatchService());
+        }
+
+        return instance;
+    }
+
+    private static WatchService createWatchService() {
+        try {
+            WatchService watchService = FileSystems.getDefault().newWatchService();
+            // polling implementation (e.g. on mac os) notices changes only after several seconds
+            if (watchService.getClass().getName().contains("Polling")) {
+                watchService.close();
+                return null;
+            }
+
+            return watchService;
+        }
+        catch (IOException | UnsupportedOperationException e) {
+            LOGGER.log(Level.INFO, "watching files is not supported; changes are polled", e);
+            return null;
+        }
+    }
+
+    /**
+     * Calls <code>listener</code> whenever <code>file</code> or another file in its directory changes.
+     *
+     * @param file file to be watched
+     * @param listener called on the watching thread; must return quickly
+     * @return registration to be closed when the file need not be watched any more or <code>null</code>,
+     * if the file can't be watched and must be polled
+     */
+    public Closeable register(Path file, Runnable listener) {
+        if (watchService == null) {
+            return null;
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        synchronized (directories) {
+            WatchedDirectory watchedDirectory = directories.get(directory);
+            if (watchedDirectory == null) {
+                try {
+                    WatchKey key = directory.register(watchService,
+                            StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY,
+                            StandardWatchEventKinds.ENTRY_DELETE);
+                    watchedDirectory = new WatchedDirectory(key);
+                    directories.put(directory, watchedDirectory);
+                }
+                catch (IOException | UnsupportedOperationException | ClosedWatchServiceException e) {
+                    LOGGER.log(Level.INFO, "failed to watch " + directory + "; changes are polled", e);
+                    return null;
+                }
+            }
+            watchedDirectory.listeners.add(listener);
+        }
+
+        return () -> unregister(directory, listener);
+    }
+
+    private void unregister(Path directory, Runnable listener) {
+        synchronized (directories) {
+            WatchedDirectory watchedDirectory = directories.get(directory);
+            if (watchedDirectory != null) {
+                watchedDirectory.listeners.remove(listener);
+                if (watchedDirectory.listeners.isEmpty()) {
+                    watchedDirectory.key.cancel();
+                    directories.remove(directory);
+                }
+            }
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                // events themselves are not needed: every listener checks its file
+                key.pollEvents();
+                List<Runnable> listeners = new ArrayList<>();
+                synchronized (directories) {
+                    for (WatchedDirectory watchedDirectory : directories.values()) {
+                        if (watchedDirectory.key == key) {
+                            listeners.addAll(watchedDirectory.listeners);
+                        }
+                    }
+                }
+                key.reset();
+
+                for (Runnable listener : listeners) {
+                    listener.run();
+                }
+            }
+        }
+        catch (InterruptedException | ClosedWatchServiceException e) {
+            LOGGER.log(Level.FINE, "watching log files stopped", e);
+        }
+    }
+
+    private static class WatchedDirectory {
+        private final WatchKey key;
+        private final List<Runnable> listeners = new ArrayList<>();
+
+        public WatchedDirectory(WatchKey key) {
+            this.key = key;
+        }
+    }
+}
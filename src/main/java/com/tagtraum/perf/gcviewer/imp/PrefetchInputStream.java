@@ -0,0 +1,457 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * InputStream separating reading a log file from parsing it: a producer thread reads (and
+ * decompresses) the data in chunks ahead of the parser, which consumes them on its own thread.
+ * While the parser works on one chunk, the next ones are being filled, so loading takes about
+ * as long as the slower of the two stages instead of their sum.
+ *
+ * <p>The chunks are recycled: at most <code>readAheadChunks</code> chunks are filled in advance,
+ * if the parser is behind, the producer waits.</p>
+ *
+ * <p>The producer records, how many bytes of the source (before decompression) each chunk
+ * contains. The parser only counts the bytes it has consumed; a {@link ProgressSampler} converts them
+ * to a percentage of the source. {@link DataReaderFacade#PROGRESS} events are fired
+ * on the parsing thread, when it notices a new percentage after a read - listeners may rely on the
+ * parser not changing its model at the same time.</p>
+ */
+class PrefetchInputStream extends InputStream {
+    /** size of the chunks read ahead by {@link #start(InputStream, long)} */
+    static final int CHUNK_SIZE = 256 * 1024;
+    /** number of chunks filled while the parser works on the current one */
+    static final int READ_AHEAD_CHUNKS = 2;
+
+    /** interval to check, whether the parser has closed the stream while all chunks are filled */
+    private static final long CLOSE_CHECK_INTERVAL_MS = 200;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ExecutorService PRODUCER_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "gcviewer-prefetch-" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** marks the end of the data in the queue of filled chunks */
+    private static final Chunk END_OF_STREAM = new Chunk(0);
+
+    private final BlockingQueue<Chunk> freeChunks;
+    private final BlockingQueue<Chunk> filledChunks = new LinkedBlockingQueue<>();
+    private final PropertyChangeSupport propertyChangeSupport = new PropertyChangeSupport(this);
+    private volatile long contentLength;
+
+    private long progressIntervalMs = ProgressSampler.SAMPLE_INTERVAL_MS;
+    private volatile ProgressSampler progressSampler;
+
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    // used by the producer only
+    private long sourceBytesRead;
+
+    // written by the parsing thread only; volatile for the sampler
+    private volatile long bytesConsumed;
+    private volatile ChunkRange chunkRange = new ChunkRange(0, 0, 0, 0);
+
+    // used by the parsing thread only
+    private Chunk chunk = new Chunk(0);
+    private int position;
+    private int lastProgress = -1;
+
+    /**
+     * @param chunkSize size of one chunk in bytes
+     * @param readAheadChunks number of chunks to be filled in advance
+     */
+    PrefetchInputStream(int chunkSize, int readAheadChunks) {
+        this(chunkSize, readAheadChunks, 0L);
+    }
+
+    /**
+     * @param chunkSize size of one chunk in bytes
+     * @param readAheadChunks number of chunks to be filled in advance
+     * @param contentLength length of the source in bytes to report progress; 0 if unknown
+     */
+    PrefetchInputStream(int chunkSize, int readAheadChunks, long contentLength) {
+        this.contentLength = contentLength;
+        // one more chunk for the parser to work on
+        freeChunks = new ArrayBlockingQueue<>(readAheadChunks + 1);
+        for (int i = 0; i <= readAheadChunks; ++i) {
+            freeChunks.add(new Chunk(chunkSize));
+        }
+    }
+
+    /**
+     * Starts reading <code>source</code> on a producer thread. If <code>source</code> is gzipped, it is
+     * decompressed on the producer thread as well; progress is reported relative to the bytes of
+     * <code>source</code>, if <code>contentLength</code> is known.
+     *
+     * @param source stream to be read
+     * @param contentLength length of <code>source</code> in bytes; 0 if unknown
+     * @return stream of the (decompressed) content of <code>source</code>
+     */
+    static PrefetchInputStream start(InputStream source, long contentLength) {
+        PrefetchInputStream in = new PrefetchInputStream(CHUNK_SIZE, READ_AHEAD_CHUNKS, contentLength);
+        PRODUCER_EXECUTOR.execute(() -> in.readAhead(source));
+        return in;
+    }
+
+    /**
+     * Reads (and decompresses) <code>source</code> into the chunks of this stream on the calling thread
+     * (see {@link #transfer(InputStream)}) counting the bytes of <code>source</code> for the progress.
+     *
+     * @param source stream to be read
+     */
+    void readAhead(InputStream source) {
+        InputStream bufferedSource = new BufferedInputStream(new CountingInputStream(source), DataReaderFactory.FOUR_KB);
+        InputStream decompressedSource;
+        try {
+            decompressedSource = decompressIfGZipped(bufferedSource);
+        }
+        catch (IOException e) {
+            failure = e;
+            filledChunks.add(END_OF_STREAM);
+            try {
+                bufferedSource.close();
+            }
+            catch (IOException closeException) {
+                // failure is reported to the parser
+            }
+            return;
+        }
+
+        transfer(decompressedSource);
+    }
+
+    /**
+     * Sets the interval between two progress samples; must be called before listeners are added
+     * (for test purposes).
+     *
+     * @param progressIntervalMs interval in ms
+     */
+    void setProgressInterval(long progressIntervalMs) {
+        this.progressIntervalMs = progressIntervalMs;
+    }
+
+    /**
+     * Sets the length of the source, if it was not known, when this stream was created; must be
+     * called before listeners are added.
+     *
+     * @param contentLength length of the source in bytes; 0 if unknown
+     */
+    void setContentLength(long contentLength) {
+        this.contentLength = contentLength;
+    }
+
+    /**
+     * Listener for {@link DataReaderFacade#PROGRESS} events. Progress is sampled from
+     * now on until the end of the stream has been reached or the stream is closed.
+     *
+     * @param listener listener to be added
+     */
+    synchronized void addPropertyChangeListener(PropertyChangeListener listener) {
+        propertyChangeSupport.addPropertyChangeListener(listener);
+        if (progressSampler == null && contentLength > 100L) {
+            progressSampler = ProgressSampler.start(this::getSourceBytesConsumed, contentLength, progressIntervalMs);
+        }
+    }
+
+    /**
+     * Estimates the bytes of the source consumed by the parser; called by the sampler.
+     */
+    private long getSourceBytesConsumed() {
+        ChunkRange range = chunkRange;
+        long consumedInChunk = Math.max(0L, Math.min(range.length, bytesConsumed - range.start));
+        return range.length == 0
+                ? range.sourceEnd
+                : range.sourceStart + (range.sourceEnd - range.sourceStart) * consumedInChunk / range.length;
+    }
+
+    /**
+     * Reads <code>source</code> into the chunks of this stream on the calling thread until its end is
+     * reached or this stream is closed. <code>source</code> is closed afterwards; an exception
+     * reading it is rethrown to the parser after the chunks read before.
+     *
+     * @param source stream to be read
+     */
+    void transfer(InputStream source) {
+        try (InputStream sourceStream = source) {
+            Chunk nextChunk;
+            while ((nextChunk = takeFreeChunk()) != null) {
+                if (!nextChunk.fill(sourceStream)) {
+                    break;
+                }
+                nextChunk.sourceEnd = sourceBytesRead;
+                filledChunks.add(nextChunk);
+            }
+        }
+        catch (IOException e) {
+            failure = e;
+        }
+        catch (RuntimeException e) {
+            failure = new IOException(e.toString(), e);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = new InterruptedIOException("interrupted while reading ahead");
+        }
+        finally {
+            filledChunks.add(END_OF_STREAM);
+        }
+    }
+
+    /**
+     * Wraps <code>in</code> in a {@link GZIPInputStream}, if it starts with the gzip magic number.
+     *
+     * @param in stream supporting mark / reset
+     * @throws IOException problem reading the start of <code>in</code>
+     */
+    private InputStream decompressIfGZipped(InputStream in) throws IOException {
+        in.mark(2);
+        int b1 = in.read();
+        int b2 = in.read();
+        in.reset();
+        if (b1 >= 0 && b2 >= 0 && ((b2 << 8) | b1) == GZIPInputStream.GZIP_MAGIC) {
+            return new GZIPInputStream(in, DataReaderFactory.FOUR_KB);
+        }
+
+        return in;
+    }
+
+    /**
+     * @return next chunk to be filled or <code>null</code>, if the stream has been closed
+     */
+    private Chunk takeFreeChunk() throws InterruptedException {
+        while (!closed) {
+            Chunk freeChunk = freeChunks.poll(CLOSE_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            if (freeChunk != null) {
+                return freeChunk;
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!nextChunk()) {
+            return -1;
+        }
+
+        int result = chunk.data[position] & 0xff;
+        ++position;
+        ++bytesConsumed;
+        fireProgress();
+        return result;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!nextChunk()) {
+            return -1;
+        }
+
+        int n = Math.min(len, chunk.length - position);
+        System.arraycopy(chunk.data, position, b, off, n);
+        position += n;
+        // single writer -> no atomic operation needed
+        bytesConsumed += n;
+        fireProgress();
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        if (n <= 0 || !nextChunk()) {
+            return 0;
+        }
+
+        int skipped = (int) Math.min(n, chunk.length - position);
+        position += skipped;
+        bytesConsumed += skipped;
+        fireProgress();
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return chunk.length - position;
+    }
+
+    /**
+     * Ends the stream; the producer stops reading as well. May be called from any thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        stopProgressSampler();
+    }
+
+    /**
+     * Makes sure, there is data left in the current chunk.
+     *
+     * @return <code>false</code> at the end of the stream
+     */
+    private boolean nextChunk() throws IOException {
+        if (closed) {
+            return false;
+        }
+        while (position == chunk.length) {
+            if (chunk == END_OF_STREAM) {
+                return false;
+            }
+            long sourceStart = chunk.sourceEnd;
+            if (chunk.data.length > 0) {
+                freeChunks.add(chunk);
+            }
+
+            try {
+                chunk = filledChunks.take();
+                position = 0;
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while waiting for data");
+            }
+
+            if (chunk == END_OF_STREAM) {
+                chunkRange = new ChunkRange(bytesConsumed, 0, sourceStart, sourceStart);
+                stopProgressSampler();
+                fireProgress();
+                if (failure != null) {
+                    throw failure;
+                }
+            }
+            else {
+                chunkRange = new ChunkRange(bytesConsumed, chunk.length, sourceStart, chunk.sourceEnd);
+            }
+        }
+
+        return true;
+    }
+
+    private void stopProgressSampler() {
+        ProgressSampler sampler = progressSampler;
+        if (sampler != null) {
+            sampler.stop();
+        }
+    }
+
+    /**
+     * Fires a progress event, if the sampler has noticed a new percentage.
+     */
+    private void fireProgress() {
+        ProgressSampler sampler = progressSampler;
+        if (sampler == null) {
+            return;
+        }
+
+        int progress = sampler.getProgress();
+        if (progress > lastProgress) {
+            lastProgress = progress;
+            propertyChangeSupport.firePropertyChange(DataReaderFacade.PROGRESS, -1, progress);
+        }
+    }
+
+    /**
+     * Part of the source the parser is reading: the current chunk.
+     */
+    private static class ChunkRange {
+        /** bytes consumed by the parser up to the start of the chunk */
+        private final long start;
+        private final int length;
+        /** bytes of the source up to the start / end of the chunk */
+        private final long sourceStart;
+        private final long sourceEnd;
+
+        ChunkRange(long start, int length, long sourceStart, long sourceEnd) {
+            this.start = start;
+            this.length = length;
+            this.sourceStart = sourceStart;
+            this.sourceEnd = sourceEnd;
+        }
+    }
+
+    /**
+     * Buffer passed between producer and parser.
+     */
+    private static class Chunk {
+        private final byte[] data;
+        private int length;
+        /** bytes read from the source up to the end of this chunk */
+        private long sourceEnd;
+
+        Chunk(int size) {
+            data = new byte[size];
+        }
+
+        /**
+         * Reads until the chunk is full or the end of <code>in</code> is reached.
+         *
+         * @return <code>false</code>, if nothing could be read (end of stream)
+         */
+        boolean fill(InputStream in) throws IOException {
+            length = 0;
+            while (length < data.length) {
+                int n = in.read(data, length, data.length - length);
+                if (n < 0) {
+                    break;
+                }
+                length += n;
+            }
+
+            return length > 0;
+        }
+    }
+
+    /**
+     * Counts the bytes read from the source on the producer thread.
+     */
+    private class CountingInputStream extends FilterInputStream {
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int result = super.read();
+            if (result >= 0) {
+                ++sourceBytesRead;
+            }
+            return result;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                sourceBytesRead += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            sourceBytesRead += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Samples the number of bytes read by a stream at a fixed interval and converts it to a
+ * percentage of its content length. The reading thread only updates its counter per buffer and
+ * compares {@link #getProgress()} with the last value published; progress events are thus
+ * fired on the reading thread, but at most once per sampling interval.
+ */
+class ProgressSampler {
+    /** default interval between two samples */
+    static final long SAMPLE_INTERVAL_MS = 100;
+
+    private static final ScheduledThreadPoolExecutor SCHEDULER = createScheduler();
+
+    private final LongSupplier bytesRead;
+    private final long contentLength;
+    private final ScheduledFuture<?> future;
+    private volatile int progress = -1;
+
+    private ProgressSampler(LongSupplier bytesRead, long contentLength, long intervalMs) {
+        this.bytesRead = bytesRead;
+        this.contentLength = contentLength;
+        this.future = SCHEDULER.scheduleAtFixedRate(this::sample, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static ScheduledThreadPoolExecutor createScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "gcviewer-progress-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    /**
+     * Starts sampling <code>bytesRead</code> every <code>intervalMs</code> ms.
+     *
+     * @param bytesRead returns the number of bytes read so far; called on the sampling thread
+     * @param contentLength total number of bytes to be read (&gt; 0)
+     * @param intervalMs interval between two samples
+     * @return running sampler; must be stopped, when the stream has been read
+     */
+    static ProgressSampler start(LongSupplier bytesRead, long contentLength, long intervalMs) {
+        return new ProgressSampler(bytesRead, contentLength, intervalMs);
+    }
+
+    /**
+     * Returns the percentage of the content read at the last sample.
+     *
+     * @return percentage read; -1 if no sample has been taken yet
+     */
+    int getProgress() {
+        return progress;
+    }
+
+    /**
+     * Stops sampling and takes a last sample on the calling thread.
+     */
+    void stop() {
+        future.cancel(false);
+        sample();
+    }
+
+    private void sample() {
+        progress = (int) Math.min(100L, 100L * bytesRead.getAsLong() / contentLength);
+    }
+}
@@ -0,0 +1,135 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.tagtraum.perf.gcviewer.util.HttpUrlConnectionHelper;
+
+/**
+ * Downloads log files from http(s) urls on virtual threads (jdk 21 and later), so that opening many
+ * remote log files at once doesn't block a platform thread per download while it waits for the
+ * network.
+ *
+ * <p>The downloading thread reads ahead at most {@link #READ_AHEAD_CHUNKS} chunks of
+ * {@link #CHUNK_SIZE} bytes; the parser reads them from the {@link InputStream} returned by
+ * {@link #open(URL, AtomicLong)} on its own thread (the loaders are run by a bounded pool, so only
+ * the downloads are unbounded). If the parser is slower than the network, the download waits.
+ * Gzipped log files are decompressed by the downloading thread as well, so the stream is parsed
+ * without another read ahead stage.</p>
+ *
+ * <p>The fetcher is only used, if it has been enabled with the system property
+ * {@value #PROPERTY_VIRTUAL_THREADS}=true and the jvm supports virtual threads (checked at runtime,
+ * as GCViewer is still built for java 8).</p>
+ */
+public class RemoteLogFetcher {
+    private static final Logger LOGGER = Logger.getLogger(RemoteLogFetcher.class.getName());
+
+    /** system property to enable downloading on virtual threads */
+    public static final String PROPERTY_VIRTUAL_THREADS = "gcviewer.loader.virtualThreads";
+
+    static final int CHUNK_SIZE = 64 * 1024;
+    static final int READ_AHEAD_CHUNKS = 16;
+
+    private static RemoteLogFetcher instance;
+    private static boolean isInitialised;
+
+    private final ExecutorService executor;
+
+    /**
+     * @param executor runs the downloads
+     */
+    RemoteLogFetcher(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the shared instance or <code>null</code>, if downloading on virtual threads is not enabled
+     * or not supported by this jvm.
+     *
+     * @return shared instance or <code>null</code>
+     */
+    public static synchronized RemoteLogFetcher getInstance() {
+        if (!isInitialised && Boolean.getBoolean(PROPERTY_VIRTUAL_THREADS)) {
+            isInitialised = true;
+            ExecutorService executor = createVirtualThreadExecutor();
+            if (executor != null) {
+                instance = new RemoteLogFetcher(executor);
+            }
+        }
+
+        return Boolean.getBoolean(PROPERTY_VIRTUAL_THREADS) ? instance : null;
+    }
+
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            // jdk 19 / 20 throw UnsupportedOperationException (wrapped), if preview features are disabled
+            LOGGER.log(Level.INFO, PROPERTY_VIRTUAL_THREADS + " is ignored: virtual threads are not supported by java "
+                    + System.getProperty("java.version"));
+            return null;
+        }
+    }
+
+    /**
+     * Starts downloading <code>url</code> and returns the stream of its content as soon as the server
+     * has answered.
+     *
+     * @param url http(s) url of the log file
+     * @param contentLength length of the content as sent by the server (output parameter)
+     * @return stream of the content of <code>url</code>
+     * @throws IOException problem connecting to the server or error sent by the server
+     */
+    public InputStream open(URL url, AtomicLong contentLength) throws IOException {
+        PrefetchInputStream in = new PrefetchInputStream(CHUNK_SIZE, READ_AHEAD_CHUNKS);
+        CompletableFuture<Void> connected = new CompletableFuture<>();
+        executor.execute(() -> download(url, contentLength, in, connected));
+
+        try {
+            connected.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            in.close();
+            throw new InterruptedIOException("interrupted while connecting to " + url);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("failed to connect to " + url, e.getCause());
+        }
+
+        return in;
+    }
+
+    private void download(URL url, AtomicLong contentLength, PrefetchInputStream in, CompletableFuture<Void> connected) {
+        InputStream source;
+        try {
+            source = HttpUrlConnectionHelper.openInputStream((HttpURLConnection) url.openConnection(),
+                    HttpUrlConnectionHelper.GZIP,
+                    contentLength);
+        }
+        catch (IOException | RuntimeException e) {
+            connected.completeExceptionally(e);
+            return;
+        }
+
+        in.setContentLength(contentLength.get());
+        connected.complete(null);
+        // gzipped files are decompressed on the download thread as well
+        in.readAhead(source);
+    }
+}
@@ -0,0 +1,313 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * InputStream reading a local log file that is still being written: instead of signalling the end of
+ * the file, reading blocks until more data is appended. Only {@link #close()} ends the stream.
+ *
+ * <p>The reading thread sleeps until the {@link LogFileWatcher} reports a change of the file
+ * (or polls the file every {@link #POLL_INTERVAL_MS} ms, if the file system can't be watched).
+ * Data is read at most every {@link #MIN_READ_INTERVAL_MS} ms, so that many small writes are read
+ * as one chunk. Every time all data available has been read, the {@link CaughtUpListener} is
+ * called on the reading thread.</p>
+ *
+ * <p>If the log file is rotated, reading continues seamlessly with the new file after the rest of
+ * the old one has been read. Rotation is detected by a new file with the same name (different
+ * file key / inode), a truncated file or, for -XX:+UseGCLogFileRotation ("gc.log.&lt;n&gt;.current"),
+ * the "maximum size" marker at the end of the file and a new "current" file.</p>
+ */
+public class TailInputStream extends AbstractTailInputStream {
+    /** interval between two checks of the file, if it can't be watched */
+    static final long POLL_INTERVAL_MS = 1000;
+    /** minimum interval between reading two chunks of data appended to the file */
+    static final long MIN_READ_INTERVAL_MS = 1000;
+
+    private static final byte[] LOGFILE_ROLLING_END = AbstractDataReaderSun.LOGFILE_ROLLING_END.getBytes(StandardCharsets.US_ASCII);
+    private static final Pattern ROTATING_FILE_NAME = Pattern.compile("(.*)\\.\\d+\\.current");
+
+    private final Logger logger;
+    private final Object lock = new Object();
+    /** <code>null</code>, if the file can't be watched and has to be polled */
+    private final Closeable registration;
+    private long minReadIntervalMs = MIN_READ_INTERVAL_MS;
+
+    private Path path;
+    private FileChannel channel;
+    private Object fileKey;
+    private FileTime creationTime;
+    private long position;
+    private boolean rollingEndSeen;
+    private int rollingEndMatched;
+    private long lastCaughtUpTime;
+
+    // guarded by lock
+    private boolean changed;
+    private boolean closed;
+    private boolean reading;
+
+    /**
+     * @param path log file to be read
+     * @param watcher notifies about changes of the file
+     * @param logger logger for information about switching files
+     * @throws IOException file can't be opened
+     */
+    public TailInputStream(Path path, LogFileWatcher watcher, Logger logger) throws IOException {
+        this.logger = logger;
+        open(path);
+        // rotated files are always replaced by files in the same directory
+        this.registration = watcher.register(path, this::fileChanged);
+    }
+
+    /**
+     * Set minimum interval between reading two chunks of appended data (for test purposes).
+     *
+     * @param minReadIntervalMs interval in ms
+     */
+    void setMinReadInterval(long minReadIntervalMs) {
+        this.minReadIntervalMs = minReadIntervalMs;
+    }
+
+    /**
+     * Returns the file currently being read (differs from the initial file after a rotation).
+     *
+     * @return file being read
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+
+        synchronized (lock) {
+            reading = true;
+        }
+        try {
+            while (true) {
+                if (isClosed()) {
+                    return -1;
+                }
+
+                int n = channel.read(ByteBuffer.wrap(b, off, len), position);
+                if (n > 0) {
+                    position += n;
+                    checkRollingEnd(b, off, n);
+                    return n;
+                }
+
+                if (switchFileIfRotated()) {
+                    continue;
+                }
+
+                fireCaughtUp();
+                lastCaughtUpTime = System.currentTimeMillis();
+                waitForChange();
+            }
+        }
+        finally {
+            synchronized (lock) {
+                reading = false;
+                if (closed) {
+                    closeFile();
+                }
+            }
+        }
+    }
+
+    @Override
+    public int available() throws IOException {
+        return isClosed() ? 0 : (int) Math.min(Integer.MAX_VALUE, Math.max(0, channel.size() - position));
+    }
+
+    /**
+     * Ends the stream: a thread waiting for more data returns -1. May be called from any thread.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+            // while reading, the reading thread closes the file (closing it here would make a running read fail)
+            if (!reading) {
+                closeFile();
+            }
+        }
+    }
+
+    private boolean isClosed() {
+        synchronized (lock) {
+            return closed;
+        }
+    }
+
+    private void closeFile() throws IOException {
+        if (channel.isOpen()) {
+            channel.close();
+            if (registration != null) {
+                registration.close();
+            }
+        }
+    }
+
+    private void fileChanged() {
+        synchronized (lock) {
+            changed = true;
+            lock.notifyAll();
+        }
+    }
+
+    private void waitForChange() throws IOException {
+        boolean isWatched = registration != null;
+        synchronized (lock) {
+            try {
+                // without a watch, the file is polled
+                long pollTime = System.currentTimeMillis() + POLL_INTERVAL_MS;
+                while (!changed && !closed && (isWatched || System.currentTimeMillis() < pollTime)) {
+                    lock.wait(isWatched ? 0 : Math.max(1, pollTime - System.currentTimeMillis()));
+                }
+
+                // let the writer finish what it is writing, so that it is read as one chunk
+                long readTime = lastCaughtUpTime + minReadIntervalMs;
+                while (!closed && System.currentTimeMillis() < readTime) {
+                    lock.wait(Math.max(1, readTime - System.currentTimeMillis()));
+                }
+                changed = false;
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted while waiting for " + path, e);
+            }
+        }
+    }
+
+    /**
+     * Looks for the "maximum size" marker written at the end of a rotated file.
+     */
+    private void checkRollingEnd(byte[] b, int off, int len) {
+        for (int i = off; i < off + len && !rollingEndSeen; i++) {
+            if (b[i] == LOGFILE_ROLLING_END[rollingEndMatched]) {
+                if (++rollingEndMatched == LOGFILE_ROLLING_END.length) {
+                    rollingEndSeen = true;
+                }
+            }
+            else {
+                rollingEndMatched = b[i] == LOGFILE_ROLLING_END[0] ? 1 : 0;
+            }
+        }
+    }
+
+    /**
+     * Continues with the next file, if the current one has been rotated and read completely.
+     *
+     * @return <code>true</code>, if reading continues with another file
+     * @throws IOException problem opening the next file
+     */
+    private boolean switchFileIfRotated() throws IOException {
+        if (channel.size() > position) {
+            // rest of old file (data written before it was rotated) is read first
+            return false;
+        }
+
+        Path nextPath = null;
+        BasicFileAttributes attributes = readAttributes(path);
+        if (attributes == null) {
+            // renamed (gc.log.<n>.current) or deleted (recreated later)
+            nextPath = findNextRotatingFile();
+        }
+        else if (!isSameFile(attributes) || attributes.size() < position) {
+            nextPath = path;
+        }
+        else if (rollingEndSeen) {
+            nextPath = findNextRotatingFile();
+        }
+
+        if (nextPath == null) {
+            return false;
+        }
+
+        if (logger.isLoggable(Level.INFO)) logger.info("Log file rotated; continue reading " + nextPath);
+        try {
+            channel.close();
+            open(nextPath);
+        }
+        catch (NoSuchFileException e) {
+            // rotated again in the meantime -> try again on the next change
+            return false;
+        }
+
+        return true;
+    }
+
+    private Path findNextRotatingFile() throws IOException {
+        Matcher matcher = ROTATING_FILE_NAME.matcher(path.getFileName().toString());
+        if (!matcher.matches()) {
+            return null;
+        }
+
+        Pattern nextFileName = Pattern.compile(Pattern.quote(matcher.group(1)) + "\\.\\d+\\.current");
+        Path nextPath = null;
+        FileTime nextModified = null;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(path.toAbsolutePath().getParent())) {
+            for (Path file : files) {
+                if (!nextFileName.matcher(file.getFileName().toString()).matches()) {
+                    continue;
+                }
+                BasicFileAttributes attributes = readAttributes(file);
+                if (attributes != null && !isSameFile(attributes)
+                        && (nextModified == null || attributes.lastModifiedTime().compareTo(nextModified) > 0)) {
+                    nextPath = file;
+                    nextModified = attributes.lastModifiedTime();
+                }
+            }
+        }
+
+        return nextPath;
+    }
+
+    private boolean isSameFile(BasicFileAttributes attributes) {
+        // no file key on some platforms (windows) -> creation time is the best guess
+        return fileKey != null
+                ? fileKey.equals(attributes.fileKey())
+                : Objects.equals(creationTime, attributes.creationTime());
+    }
+
+    private void open(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        this.path = path;
+        this.fileKey = attributes.fileKey();
+        this.creationTime = attributes.creationTime();
+        this.position = 0;
+        this.rollingEndSeen = false;
+        this.rollingEndMatched = 0;
+    }
+
+    private static BasicFileAttributes readAttributes(Path path) throws IOException {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        }
+        catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+}
@@ -1,37 +1,100 @@
 package com.tagtraum.perf.gcviewer.log;
 
 import javax.swing.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * TextAreaLogHandler.
  *
+ * <p>Records may be published from any thread (usually the thread parsing a gc log file). They are
+ * collected in a bounded buffer and appended to the text area in batches on the event dispatch
+ * thread at most every {@link #FLUSH_INTERVAL_MS} ms. Warnings with the same message template
+ * (message without line numbers and line content) are only shown once; the number of repetitions and
+ * some of their line numbers are appended by {@link #flush()}.</p>
+ *
  * @author <a href="mailto:hs@tagtraum.com">Hendrik Schreiber</a>
  */
 public class TextAreaLogHandler extends Handler {
+    private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
+    /** minimum interval between two updates of the text area */
+    static final int FLUSH_INTERVAL_MS = 250;
+    /** maximum number of records waiting to be appended to the text area */
+    static final int MAX_PENDING_RECORDS = 1000;
+    /** maximum number of line numbers kept per repeated warning */
+    static final int MAX_SAMPLE_LINE_NUMBERS = 10;
+    /** maximum number of different warnings aggregated; more are shown as they come */
+    static final int MAX_TEMPLATES = 1000;
+
+    private static final Pattern LINE_NUMBER = Pattern.compile("[Ll]ine(?: number)? (\\d+)");
+    private static final Pattern LINE_CONTENT = Pattern.compile("(line=|Line \\d+: |Line: ).*", Pattern.DOTALL);
+    private static final Pattern QUOTED = Pattern.compile("\"[^\"]*\"");
+    private static final Pattern NUMBER = Pattern.compile("\\d+(\\.\\d+)?");
 
     private JTextArea textArea;
     private boolean hasErrors;
     private int errorCount;
 
+    private final ArrayDeque<String> pendingRecords = new ArrayDeque<>();
+    private int droppedRecords;
+    private final Map<String, RepeatedWarning> repeatedWarnings = new LinkedHashMap<>();
+    private boolean flushScheduled;
+    private final Timer flushTimer;
+
     public TextAreaLogHandler() {
         this.textArea = new JTextArea();
         setFormatter(new TextAreaFormatter());
+        flushTimer = new Timer(FLUSH_INTERVAL_MS, e -> appendPendingRecords());
+        flushTimer.setRepeats(false);
     }
 
     /**
      * @see java.util.logging.Handler#close()
      */
     public void close() throws SecurityException {
+        SwingUtilities.invokeLater(flushTimer::stop);
     }
 
     /**
+     * Appends all pending records and a summary of all repeated warnings to the text area.
+     * May be called from any thread; if not called on the event dispatch thread, the text area
+     * is updated later on the event dispatch thread.
+     *
      * @see java.util.logging.Handler#flush()
      */
     public void flush() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(this::flush);
+            return;
+        }
+
+        flushTimer.stop();
+        appendPendingRecords();
+
+        StringBuilder sb = new StringBuilder();
+        synchronized (this) {
+            for (RepeatedWarning warning : repeatedWarnings.values()) {
+                if (warning.count > warning.reportedCount) {
+                    sb.append(warning.format(warning.count - warning.reportedCount));
+                    warning.reportedCount = warning.count;
+                    warning.lineNumbers.clear();
+                }
+            }
+        }
+
+        if (sb.length() > 0) {
+            textArea.append(sb.toString());
+        }
     }
 
-    public int getErrorCount() {
+    public synchronized int getErrorCount() {
     	return errorCount;
     }
 
@@ -39,7 +102,7 @@ public class TextAreaLogHandler extends Handler {
         return textArea;
     }
 
-    public boolean hasErrors() {
+    public synchronized boolean hasErrors() {
         return hasErrors;
     }
 
@@ -50,16 +113,21 @@ public class TextAreaLogHandler extends Handler {
         try {
             if (isLoggable(record)) {
                 final int level = record.getLevel().intValue();
-                if (level >=Level.WARNING.intValue() && level < Level.OFF.intValue()) {
-                    ++errorCount;
-                }
-                if (!hasErrors) {
-                    hasErrors = level >= Level.WARNING.intValue() && level < Level.OFF.intValue();
+                final boolean isWarning = level >= Level.WARNING.intValue() && level < Level.OFF.intValue();
+                synchronized (this) {
+                    if (isWarning) {
+                        ++errorCount;
+                        hasErrors = true;
+                    }
+                    if (isWarning && isRepetition(record)) {
+                        return;
+                    }
                 }
+
                 try {
                     String formattedRecord = getFormatter().format(record);
-                    textArea.append(formattedRecord);
-                } 
+                    addPendingRecord(formattedRecord);
+                }
                 catch (RuntimeException e) {
                     reportError(e.toString(), e, ErrorManager.WRITE_FAILURE);
                 }
@@ -69,13 +137,138 @@ public class TextAreaLogHandler extends Handler {
             reportError(e.toString(), e, ErrorManager.GENERIC_FAILURE);
         }
     }
-    
+
     /**
      * Resets all internal state to an initial state and is ready to receive log events.
      */
     public void reset() {
+        flushTimer.stop();
+        synchronized (this) {
+            errorCount = 0;
+            hasErrors = false;
+            pendingRecords.clear();
+            droppedRecords = 0;
+            repeatedWarnings.clear();
+            flushScheduled = false;
+        }
         textArea.setText("");
-        errorCount = 0;
-        hasErrors = false;
+    }
+
+    /**
+     * Returns the message of <code>message</code> without line numbers, line content or other numbers
+     * to identify warnings that are repeated for many lines.
+     *
+     * @param message message of a log record
+     * @return template of the message
+     */
+    static String getTemplate(String message) {
+        String template = LINE_CONTENT.matcher(message).replaceAll("$1...");
+        template = QUOTED.matcher(template).replaceAll("\"...\"");
+        return NUMBER.matcher(template).replaceAll("#");
+    }
+
+    /**
+     * Counts <code>record</code>, if a warning with the same template was published before.
+     *
+     * @param record warning
+     * @return <code>true</code>, if the record must not be appended to the text area
+     */
+    private boolean isRepetition(LogRecord record) {
+        String message = record.getMessage();
+        if (message == null) {
+            return false;
+        }
+
+        String template = getTemplate(message);
+        RepeatedWarning warning = repeatedWarnings.get(template);
+        if (warning == null) {
+            if (repeatedWarnings.size() < MAX_TEMPLATES) {
+                repeatedWarnings.put(template, new RepeatedWarning(record, template));
+            }
+            return false;
+        }
+
+        ++warning.count;
+        if (warning.lineNumbers.size() < MAX_SAMPLE_LINE_NUMBERS) {
+            Matcher matcher = LINE_NUMBER.matcher(message);
+            if (matcher.find()) {
+                warning.lineNumbers.add(matcher.group(1));
+            }
+        }
+        return true;
+    }
+
+    private void addPendingRecord(String formattedRecord) {
+        boolean scheduleFlush;
+        synchronized (this) {
+            if (pendingRecords.size() >= MAX_PENDING_RECORDS) {
+                pendingRecords.removeFirst();
+                ++droppedRecords;
+            }
+            pendingRecords.addLast(formattedRecord);
+            scheduleFlush = !flushScheduled;
+            flushScheduled = true;
+        }
+
+        if (scheduleFlush) {
+            SwingUtilities.invokeLater(flushTimer::start);
+        }
+    }
+
+    /**
+     * Appends all records collected since the last call as one batch to the text area.
+     */
+    private void appendPendingRecords() {
+        StringBuilder sb = new StringBuilder();
+        synchronized (this) {
+            if (droppedRecords > 0) {
+                sb.append("... ").append(droppedRecords).append(" messages not shown ...").append(LINE_SEPARATOR);
+                droppedRecords = 0;
+            }
+            for (String formattedRecord : pendingRecords) {
+                sb.append(formattedRecord);
+            }
+            pendingRecords.clear();
+            flushScheduled = false;
+        }
+
+        if (sb.length() > 0) {
+            textArea.append(sb.toString());
+        }
+    }
+
+    /**
+     * Warning repeated for several lines of a gc log file.
+     */
+    private static class RepeatedWarning {
+        private final String level;
+        private final String source;
+        private final String template;
+        private final List<String> lineNumbers = new ArrayList<>();
+        /** number of occurrences after the first one */
+        private int count;
+        private int reportedCount;
+
+        public RepeatedWarning(LogRecord record, String template) {
+            this.level = record.getLevel().getLocalizedName();
+            String sourceClassName = record.getSourceClassName();
+            this.source = sourceClassName != null ? sourceClassName.substring(sourceClassName.lastIndexOf('.') + 1) : "";
+            this.template = template;
+        }
+
+        public String format(int repetitions) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(level).append(" [").append(source).append("]: ");
+            sb.append(repetitions).append(" more times: ").append(template);
+            if (lineNumbers.size() > 0) {
+                sb.append(" (line numbers ").append(String.join(", ", lineNumbers));
+                if (repetitions > lineNumbers.size()) {
+                    sb.append(", ...");
+                }
+                sb.append(")");
+            }
+            sb.append(LINE_SEPARATOR);
+            return sb.toString();
+        }
     }
 }
@@ -13,26 +13,59 @@ public class DoubleData implements Serializable {
 
     private int n;
     private double sum;
-    private double sumSquares;
+    private double mean;
+    private double squaredDeviations; // sum of squared deviations from the mean (Welford)
     private double min = Double.MAX_VALUE;
     private double max = Double.MIN_VALUE;
 
     public void add(double x) {
         sum += x;
-        sumSquares += x*x;
         n++;
+        double delta = x - mean;
+        mean += delta / n;
+        squaredDeviations += delta * (x - mean);
         min = Math.min(min, x);
         max = Math.max(max, x);
     }
 
     public void add(double x, int weight) {
+        if (weight <= 0) {
+            return;
+        }
+
         sum += x * weight;
-        n += weight;
-        sumSquares += x*x*weight;
+        combine(weight, x, 0);
         min = Math.min(min, x);
         max = Math.max(max, x);
     }
 
+    /**
+     * Adds all values of <code>other</code> to this instance as if they had been added one by one. Uses the
+     * parallel variant of Welford's algorithm (Chan et al.), so the variance stays numerically stable.
+     *
+     * @param other data to be merged into this instance (is not modified)
+     * @return this instance
+     */
+    public DoubleData merge(DoubleData other) {
+        if (other.n == 0) {
+            return this;
+        }
+
+        sum += other.sum;
+        combine(other.n, other.mean, other.squaredDeviations);
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    private void combine(int otherN, double otherMean, double otherSquaredDeviations) {
+        double totalN = (double) n + otherN;
+        double delta = otherMean - mean;
+        squaredDeviations += otherSquaredDeviations + delta * delta * ((double) n * otherN / totalN);
+        mean += delta * (otherN / totalN);
+        n += otherN;
+    }
+
     public int getN() {
         return n;
     }
@@ -63,12 +96,13 @@ public class DoubleData implements Serializable {
     public double variance() {
         if (n == 0) throw new IllegalStateException("n == 0");
         if (n==1) return 0;
-        return (sumSquares - sum*sum/n)/(n-1);
+        return squaredDeviations/(n-1);
     }
 
     public void reset() {
         sum = 0;
-        sumSquares = 0;
+        mean = 0;
+        squaredDeviations = 0;
         n = 0;
     }
 
@@ -99,7 +133,9 @@ public class DoubleData implements Serializable {
             return false;
         if (Double.compare(that.sum, sum) != 0)
             return false;
-        if (Double.compare(that.sumSquares, sumSquares) != 0)
+        if (Double.compare(that.mean, mean) != 0)
+            return false;
+        if (Double.compare(that.squaredDeviations, squaredDeviations) != 0)
             return false;
         if (Double.compare(that.min, min) != 0)
             return false;
@@ -114,7 +150,9 @@ public class DoubleData implements Serializable {
         result = n;
         temp = Double.doubleToLongBits(sum);
         result = 31 * result + (int) (temp ^ (temp >>> 32));
-        temp = Double.doubleToLongBits(sumSquares);
+        temp = Double.doubleToLongBits(mean);
+        result = 31 * result + (int) (temp ^ (temp >>> 32));
+        temp = Double.doubleToLongBits(squaredDeviations);
         result = 31 * result + (int) (temp ^ (temp >>> 32));
         temp = Double.doubleToLongBits(min);
         result = 31 * result + (int) (temp ^ (temp >>> 32));
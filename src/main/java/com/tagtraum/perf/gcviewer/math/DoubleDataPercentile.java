@@ -1,21 +1,34 @@
 package com.tagtraum.perf.gcviewer.math;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
 
+import com.tagtraum.perf.gcviewer.util.AppendOnlyList;
+
 /**
  * Extends {@link DoubleData} with the functionality to calculate percentiles.
+ *
+ * <p>The values are kept in the order they were added (in an {@link AppendOnlyList}, so that merging
+ * into an empty instance shares them instead of copying them); they are sorted into a separate array,
+ * when a percentile is requested after values were added.</p>
  */
 public class DoubleDataPercentile extends DoubleData {
-    private List<Double> doubleSet = new ArrayList<>();
-    private boolean isSorted = false;
+    private AppendOnlyList<Double> doubleSet = new AppendOnlyList<>();
+    private transient double[] sortedValues;
 
     @Override
     public void add(double x) {
         super.add(x);
         doubleSet.add(x);
-        isSorted = false;
+    }
+
+    @Override
+    public DoubleData merge(DoubleData other) {
+        super.merge(other);
+        if (other instanceof DoubleDataPercentile) {
+            doubleSet.addAll(((DoubleDataPercentile) other).doubleSet);
+        }
+        return this;
     }
 
     /**
@@ -25,8 +38,12 @@ public class DoubleDataPercentile extends DoubleData {
      */
     public double getPercentile(double percentile) {
         // https://matheguru.com/stochastik/quantil-perzentil.html
-        if (!isSorted) {
-            Collections.sort(doubleSet);
+        if (sortedValues == null || sortedValues.length != doubleSet.size()) {
+            sortedValues = new double[doubleSet.size()];
+            for (int i = 0; i < sortedValues.length; i++) {
+                sortedValues[i] = doubleSet.get(i);
+            }
+            Arrays.sort(sortedValues);
         }
 
         if (percentile < 10) {
@@ -42,12 +59,12 @@ public class DoubleDataPercentile extends DoubleData {
         } else {
             position = Math.ceil(position);
         }
-        return doubleSet.get((int)position-1);
+        return sortedValues[(int)position-1];
     }
 
     /**
      * return all double data.
-     * @return list of double data
+     * @return list of double data in the order they were added
      */
     public List<Double> getDoubleData() {
         return this.doubleSet;
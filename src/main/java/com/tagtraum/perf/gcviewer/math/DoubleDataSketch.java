@@ -0,0 +1,243 @@
+package com.tagtraum.perf.gcviewer.math;
+
+import java.util.Arrays;
+
+/**
+ * Extends {@link DoubleData} with percentiles and distribution comparisons in constant memory: unlike
+ * {@link DoubleDataPercentile}, the values are not kept, but counted in logarithmic buckets, so that
+ * every percentile is accurate to the <code>relativeAccuracy</code> given in the constructor. Values
+ * &lt;= {@link #MIN_VALUE} (e.g. pauses of 0 sec) are counted in a separate bucket.
+ */
+public class DoubleDataSketch extends DoubleData {
+    /** default relative accuracy of the percentiles (1%) */
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    /** values up to this value are counted as 0 */
+    public static final double MIN_VALUE = 1e-9;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+
+    /** count of values &lt;= MIN_VALUE */
+    private long zeroCount;
+    /** counts[i] is the count of bucket (offset + i) */
+    private long[] counts = new long[0];
+    private int offset;
+
+    public DoubleDataSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    /**
+     * @param relativeAccuracy relative accuracy of percentiles (0 &lt; relativeAccuracy &lt; 1)
+     */
+    public DoubleDataSketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("relativeAccuracy must be > 0 and < 1 (was " + relativeAccuracy + ")");
+        }
+
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    @Override
+    public void add(double x) {
+        super.add(x);
+        count(x, 1);
+    }
+
+    @Override
+    public void add(double x, int weight) {
+        super.add(x, weight);
+        if (weight > 0) {
+            count(x, weight);
+        }
+    }
+
+    /**
+     * Merges <code>other</code> into this instance including its buckets. <code>other</code> must be
+     * a <code>DoubleDataSketch</code> with the same relative accuracy; a plain {@link DoubleData}
+     * has no distribution that could be added to the buckets.
+     *
+     * @param other data to be merged into this instance (is not modified)
+     * @return this instance
+     * @throws IllegalArgumentException if <code>other</code> is no <code>DoubleDataSketch</code> or
+     * its relative accuracy differs
+     */
+    @Override
+    public DoubleData merge(DoubleData other) {
+        if (!(other instanceof DoubleDataSketch)) {
+            throw new IllegalArgumentException("only a DoubleDataSketch can be merged (was " + other.getClass().getSimpleName() + ")");
+        }
+
+        DoubleDataSketch otherSketch = (DoubleDataSketch) other;
+        checkCompatible(otherSketch);
+        zeroCount += otherSketch.zeroCount;
+        for (int i = 0; i < otherSketch.counts.length; ++i) {
+            if (otherSketch.counts[i] > 0) {
+                // ensureBucket() may replace counts -> must be called before counts is accessed
+                int index = ensureBucket(otherSketch.offset + i);
+                counts[index] += otherSketch.counts[i];
+            }
+        }
+
+        return super.merge(other);
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        zeroCount = 0;
+        counts = new long[0];
+        offset = 0;
+    }
+
+    /**
+     * @return relative accuracy of the percentiles
+     */
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    /**
+     * Returns the n-th percentile of all values added.
+     *
+     * @param percentile percentile as floating point number (median = 50.0)
+     * @return value at n-th percentile (accurate to the relative accuracy) or <code>NaN</code>, if
+     * no value was added
+     */
+    public double getPercentile(double percentile) {
+        if (getN() == 0) {
+            return Double.NaN;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * getN()));
+        long cumulativeCount = zeroCount;
+        if (cumulativeCount >= rank) {
+            return Math.max(0, getMin());
+        }
+
+        for (int i = 0; i < counts.length; ++i) {
+            cumulativeCount += counts[i];
+            if (cumulativeCount >= rank) {
+                // middle of the bucket has the relative accuracy to every value in the bucket
+                double value = 2 * Math.pow(gamma, offset + i) / (gamma + 1);
+                return Math.min(getMax(), Math.max(getMin(), value));
+            }
+        }
+
+        return getMax();
+    }
+
+    /**
+     * Computes the two-sample Kolmogorov-Smirnov statistic D of two sketches: the maximum distance
+     * between their cumulative distribution functions evaluated at the bucket boundaries.
+     *
+     * @param first first distribution
+     * @param second second distribution
+     * @return value between 0 (same distribution) and 1 or <code>NaN</code>, if a sketch is empty
+     */
+    public static double getKolmogorovSmirnovStatistic(DoubleDataSketch first, DoubleDataSketch second) {
+        first.checkCompatible(second);
+        if (first.getN() == 0 || second.getN() == 0) {
+            return Double.NaN;
+        }
+
+        double firstN = first.getN();
+        double secondN = second.getN();
+        long firstCount = first.zeroCount;
+        long secondCount = second.zeroCount;
+        double statistic = Math.abs(firstCount / firstN - secondCount / secondN);
+
+        int from = Math.min(first.offset, second.offset);
+        int to = Math.max(first.offset + first.counts.length, second.offset + second.counts.length);
+        for (int bucket = from; bucket < to; ++bucket) {
+            firstCount += first.getCount(bucket);
+            secondCount += second.getCount(bucket);
+            statistic = Math.max(statistic, Math.abs(firstCount / firstN - secondCount / secondN));
+        }
+
+        return statistic;
+    }
+
+    /**
+     * Returns the probability to observe a Kolmogorov-Smirnov statistic of at least <code>statistic</code>
+     * for two samples of the same distribution (p-value; asymptotic Kolmogorov distribution).
+     *
+     * @param statistic Kolmogorov-Smirnov statistic D
+     * @param firstN size of the first sample
+     * @param secondN size of the second sample
+     * @return probability between 0 and 1; small values indicate different distributions
+     */
+    public static double getKolmogorovSmirnovProbability(double statistic, long firstN, long secondN) {
+        if (Double.isNaN(statistic) || firstN == 0 || secondN == 0) {
+            return Double.NaN;
+        }
+
+        double effectiveN = Math.sqrt((double) firstN * secondN / (firstN + secondN));
+        double lambda = (effectiveN + 0.12 + 0.11 / effectiveN) * statistic;
+        if (lambda < 0.2) {
+            // series converges too slowly; probability is 1 for all practical purposes
+            return 1;
+        }
+
+        double sum = 0;
+        double sign = 1;
+        for (int k = 1; k <= 100; ++k) {
+            double term = sign * Math.exp(-2 * k * k * lambda * lambda);
+            sum += term;
+            if (Math.abs(term) < 1e-10 * Math.abs(sum)) {
+                break;
+            }
+            sign = -sign;
+        }
+
+        return Math.min(1, Math.max(0, 2 * sum));
+    }
+
+    private void count(double x, long weight) {
+        if (x <= MIN_VALUE) {
+            zeroCount += weight;
+        }
+        else {
+            int index = ensureBucket((int) Math.ceil(Math.log(x) / logGamma));
+            counts[index] += weight;
+        }
+    }
+
+    private long getCount(int bucket) {
+        int index = bucket - offset;
+        return index >= 0 && index < counts.length ? counts[index] : 0;
+    }
+
+    /**
+     * Makes sure, that <code>bucket</code> is within <code>counts</code>.
+     *
+     * @return index of <code>bucket</code> in <code>counts</code>
+     */
+    private int ensureBucket(int bucket) {
+        if (counts.length == 0) {
+            counts = new long[16];
+            offset = bucket - 8;
+        }
+        else if (bucket < offset) {
+            int grow = Math.max(offset - bucket, counts.length / 2);
+            long[] newCounts = new long[counts.length + grow];
+            System.arraycopy(counts, 0, newCounts, grow, counts.length);
+            counts = newCounts;
+            offset -= grow;
+        }
+        else if (bucket >= offset + counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(bucket - offset + 1, counts.length + counts.length / 2));
+        }
+
+        return bucket - offset;
+    }
+
+    private void checkCompatible(DoubleDataSketch other) {
+        if (gamma != other.gamma) {
+            throw new IllegalArgumentException("relative accuracy differs: " + relativeAccuracy + " / " + other.relativeAccuracy);
+        }
+    }
+}
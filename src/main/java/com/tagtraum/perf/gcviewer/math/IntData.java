@@ -13,26 +13,59 @@ public class IntData implements Serializable  {
 
     private int n;
     private long sum;
-    private long sumSquares;
+    private double mean;
+    private double squaredDeviations; // sum of squared deviations from the mean (Welford)
     private int min = Integer.MAX_VALUE;
 	private int max = Integer.MIN_VALUE;
 
     public void add(int x) {
         sum += x;
-        sumSquares += ((long)x)*((long)x);
         n++;
+        double delta = x - mean;
+        mean += delta / n;
+        squaredDeviations += delta * (x - mean);
         min = Math.min(min, x);
         max = Math.max(max, x);
     }
 
     public void add(int x, int weight) {
+        if (weight <= 0) {
+            return;
+        }
+
         sum += x * weight;
-        n += weight;
-        sumSquares += ((long)x)*((long)x)*(weight);
+        combine(weight, x, 0);
         min = Math.min(min, x);
         max = Math.max(max, x);
     }
 
+    /**
+     * Adds all values of <code>other</code> to this instance as if they had been added one by one. Uses the
+     * parallel variant of Welford's algorithm (Chan et al.), so the variance stays numerically stable.
+     *
+     * @param other data to be merged into this instance (is not modified)
+     * @return this instance
+     */
+    public IntData merge(IntData other) {
+        if (other.n == 0) {
+            return this;
+        }
+
+        sum += other.sum;
+        combine(other.n, other.mean, other.squaredDeviations);
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    private void combine(int otherN, double otherMean, double otherSquaredDeviations) {
+        double totalN = (double) n + otherN;
+        double delta = otherMean - mean;
+        squaredDeviations += otherSquaredDeviations + delta * delta * ((double) n * otherN / totalN);
+        mean += delta * (otherN / totalN);
+        n += otherN;
+    }
+
     public int getN() {
         return n;
     }
@@ -63,14 +96,13 @@ public class IntData implements Serializable  {
     public double variance() {
         if (n == 0) throw new IllegalStateException("n == 0");
         if (n==1) return 0;
-        final double dsum = sum;
-        final double dn = n;
-        return (sumSquares - dsum*dsum/dn)/(dn-1);
+        return squaredDeviations/(n-1);
     }
 
     public void reset() {
         sum = 0;
-        sumSquares = 0;
+        mean = 0;
+        squaredDeviations = 0;
         n = 0;
     }
 
@@ -97,7 +129,9 @@ public class IntData implements Serializable  {
             return false;
         if (sum != intData.sum)
             return false;
-        if (sumSquares != intData.sumSquares)
+        if (Double.compare(intData.mean, mean) != 0)
+            return false;
+        if (Double.compare(intData.squaredDeviations, squaredDeviations) != 0)
             return false;
         if (min != intData.min)
             return false;
@@ -109,7 +143,10 @@ public class IntData implements Serializable  {
     public int hashCode() {
         int result = n;
         result = 31 * result + (int) (sum ^ (sum >>> 32));
-        result = 31 * result + (int) (sumSquares ^ (sumSquares >>> 32));
+        long temp = Double.doubleToLongBits(mean);
+        result = 31 * result + (int) (temp ^ (temp >>> 32));
+        temp = Double.doubleToLongBits(squaredDeviations);
+        result = 31 * result + (int) (temp ^ (temp >>> 32));
         result = 31 * result + min;
         result = 31 * result + max;
         return result;
@@ -11,18 +11,56 @@ import java.io.Serializable;
  */
 public class RegressionLine implements Serializable {
 
-    private double sumX;
-    private double sumY;
-    private double sumXSquare;
-    private double sumXY;
+    // centered moments (Welford) instead of raw sums to avoid cancellation for large x / y values
+    private double meanX;
+    private double meanY;
+    private double coMomentXX;
+    private double coMomentXY;
     private int n;
 
     public void addPoint(double x, double y) {
-        sumX += x;
-        sumY += y;
-        sumXSquare += x*x;
-        sumXY += x*y;
         n++;
+        double deltaX = x - meanX;
+        meanX += deltaX / n;
+        meanY += (y - meanY) / n;
+        coMomentXX += deltaX * (x - meanX);
+        coMomentXY += deltaX * (y - meanY);
+    }
+
+    /**
+     * Adds all points of <code>other</code> to this line as if they had been added one by one
+     * (parallel update according to Chan et al.).
+     *
+     * @param other line to be merged into this instance (is not modified)
+     * @return this instance
+     */
+    public RegressionLine merge(RegressionLine other) {
+        return merge(other, 0);
+    }
+
+    /**
+     * Same as {@link #merge(RegressionLine)}, but all x values of <code>other</code> are shifted by
+     * <code>xOffset</code>. Useful for lines, whose x values are the index of the point.
+     *
+     * @param other line to be merged into this instance (is not modified)
+     * @param xOffset offset to be added to every x value of <code>other</code>
+     * @return this instance
+     */
+    public RegressionLine merge(RegressionLine other, double xOffset) {
+        if (other.n == 0) {
+            return this;
+        }
+
+        double totalN = (double) n + other.n;
+        double weight = (double) n * other.n / totalN;
+        double deltaX = other.meanX + xOffset - meanX;
+        double deltaY = other.meanY - meanY;
+        coMomentXX += other.coMomentXX + deltaX * deltaX * weight;
+        coMomentXY += other.coMomentXY + deltaX * deltaY * weight;
+        meanX += deltaX * (other.n / totalN);
+        meanY += deltaY * (other.n / totalN);
+        n += other.n;
+        return this;
     }
 
     public int getPointCount() {
@@ -38,14 +76,14 @@ public class RegressionLine implements Serializable {
     }
 
     public double slope() {
-        return slope(n, sumX, sumY, sumXY, sumXSquare);
+        return coMomentXY / coMomentXX;
     }
 
     public void reset() {
-        sumX = 0;
-        sumY = 0;
-        sumXSquare = 0;
-        sumXY = 0;
+        meanX = 0;
+        meanY = 0;
+        coMomentXX = 0;
+        coMomentXY = 0;
         n = 0;
     }
 
@@ -71,13 +109,13 @@ public class RegressionLine implements Serializable {
 
         RegressionLine that = (RegressionLine) o;
 
-        if (Double.compare(that.sumX, sumX) != 0)
+        if (Double.compare(that.meanX, meanX) != 0)
             return false;
-        if (Double.compare(that.sumY, sumY) != 0)
+        if (Double.compare(that.meanY, meanY) != 0)
             return false;
-        if (Double.compare(that.sumXSquare, sumXSquare) != 0)
+        if (Double.compare(that.coMomentXX, coMomentXX) != 0)
             return false;
-        if (Double.compare(that.sumXY, sumXY) != 0)
+        if (Double.compare(that.coMomentXY, coMomentXY) != 0)
             return false;
         return n == that.n;
 
@@ -87,13 +125,13 @@ public class RegressionLine implements Serializable {
     public int hashCode() {
         int result;
         long temp;
-        temp = Double.doubleToLongBits(sumX);
+        temp = Double.doubleToLongBits(meanX);
         result = (int) (temp ^ (temp >>> 32));
-        temp = Double.doubleToLongBits(sumY);
+        temp = Double.doubleToLongBits(meanY);
         result = 31 * result + (int) (temp ^ (temp >>> 32));
-        temp = Double.doubleToLongBits(sumXSquare);
+        temp = Double.doubleToLongBits(coMomentXX);
         result = 31 * result + (int) (temp ^ (temp >>> 32));
-        temp = Double.doubleToLongBits(sumXY);
+        temp = Double.doubleToLongBits(coMomentXY);
         result = 31 * result + (int) (temp ^ (temp >>> 32));
         result = 31 * result + n;
         return result;
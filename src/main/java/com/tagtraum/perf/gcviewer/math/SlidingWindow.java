@@ -0,0 +1,159 @@
+package com.tagtraum.perf.gcviewer.math;
+
+import java.util.Arrays;
+
+/**
+ * Aggregates of the values added during the last <code>width</code> units of time (sum, count and
+ * max). Values must be added in the order of their timestamps; every value is added and evicted
+ * exactly once, so a series of n values is aggregated in O(n) time.
+ *
+ * <p>The sum is kept incrementally; the max is the head of a monotonic deque, which only holds
+ * values that may still become the max of the window after all greater, older values have been
+ * evicted.</p>
+ */
+public class SlidingWindow {
+    private final double width;
+
+    /** all values of the window in the order they were added */
+    private final DoubleRing timestamps = new DoubleRing();
+    private final DoubleRing values = new DoubleRing();
+    /** candidates for the max in descending order of their values */
+    private final DoubleRing maxTimestamps = new DoubleRing();
+    private final DoubleRing maxValues = new DoubleRing();
+
+    private double sum;
+
+    /**
+     * @param width width of the window (same unit as the timestamps)
+     */
+    public SlidingWindow(double width) {
+        if (width <= 0) {
+            throw new IllegalArgumentException("width must be > 0: " + width);
+        }
+
+        this.width = width;
+    }
+
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+     * Adds <code>value</code> at <code>timestamp</code>; values older than <code>timestamp - width</code>
+     * are evicted.
+     *
+     * @param timestamp timestamp of the value; must not be smaller than the timestamp of the last value
+     * @param value value to be added
+     */
+    public void add(double timestamp, double value) {
+        advanceTo(timestamp);
+
+        timestamps.addLast(timestamp);
+        values.addLast(value);
+        sum += value;
+
+        while (!maxValues.isEmpty() && maxValues.getLast() <= value) {
+            maxValues.removeLast();
+            maxTimestamps.removeLast();
+        }
+        maxValues.addLast(value);
+        maxTimestamps.addLast(timestamp);
+    }
+
+    /**
+     * Moves the end of the window to <code>timestamp</code> evicting all values older than
+     * <code>timestamp - width</code>.
+     *
+     * @param timestamp new end of the window
+     */
+    public void advanceTo(double timestamp) {
+        double start = timestamp - width;
+        while (!timestamps.isEmpty() && timestamps.getFirst() < start) {
+            timestamps.removeFirst();
+            sum -= values.removeFirst();
+        }
+        while (!maxTimestamps.isEmpty() && maxTimestamps.getFirst() < start) {
+            maxTimestamps.removeFirst();
+            maxValues.removeFirst();
+        }
+
+        if (timestamps.isEmpty()) {
+            // no rounding errors left from values added and evicted
+            sum = 0;
+        }
+    }
+
+    /**
+     * @return number of values in the window
+     */
+    public int getCount() {
+        return timestamps.size();
+    }
+
+    /**
+     * @return sum of the values in the window
+     */
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * @return max of the values in the window; 0 if the window is empty
+     */
+    public double getMax() {
+        return maxValues.isEmpty() ? 0 : maxValues.getFirst();
+    }
+
+    /**
+     * Growable ring buffer of primitive doubles.
+     */
+    private static class DoubleRing {
+        private double[] elements = new double[16];
+        private int head;
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void addLast(double value) {
+            if (size == elements.length) {
+                grow();
+            }
+            elements[(head + size) % elements.length] = value;
+            ++size;
+        }
+
+        double getFirst() {
+            return elements[head];
+        }
+
+        double getLast() {
+            return elements[(head + size - 1) % elements.length];
+        }
+
+        double removeFirst() {
+            double value = elements[head];
+            head = (head + 1) % elements.length;
+            --size;
+            return value;
+        }
+
+        double removeLast() {
+            --size;
+            return elements[(head + size) % elements.length];
+        }
+
+        private void grow() {
+            double[] newElements = Arrays.copyOf(elements, elements.length * 2);
+            // move the elements before head to the end of the old elements
+            // -> elements are contiguous starting at head
+            System.arraycopy(elements, 0, newElements, elements.length, head);
+            elements = newElements;
+        }
+    }
+}
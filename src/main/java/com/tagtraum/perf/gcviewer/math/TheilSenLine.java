@@ -0,0 +1,182 @@
+package com.tagtraum.perf.gcviewer.math;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Robust regression line (Theil-Sen estimator): the slope is the median of the slopes of all pairs
+ * of points, the intercept the median of <code>y - slope * x</code>. Unlike {@link RegressionLine}
+ * (least squares), up to 29% outliers don't influence the line.
+ * <p>
+ * Points are kept in a sample of at most <code>capacity</code> points: when the sample is full,
+ * every second point is dropped and from then on only every second point is added (systematic
+ * sample of every n-th point). Adding points is therefore O(1) amortized and the memory is bounded
+ * for any number of points; {@link #slope()} takes O(capacity<sup>2</sup>).
+ */
+public class TheilSenLine implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** default maximum number of points in the sample */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final double[] x;
+    private final double[] y;
+    private int sampleSize;
+    /** only every stride-th point is added to the sample */
+    private long stride = 1;
+    private long n;
+
+    public TheilSenLine() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity maximum number of points in the sample (&gt;= 2)
+     */
+    public TheilSenLine(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity must be >= 2 (was " + capacity + ")");
+        }
+
+        this.x = new double[capacity];
+        this.y = new double[capacity];
+    }
+
+    public void addPoint(double x, double y) {
+        if (n++ % stride != 0) {
+            return;
+        }
+
+        if (sampleSize == this.x.length) {
+            // keep every second point; the point to be added is the next one of the new stride
+            sampleSize = (sampleSize + 1) / 2;
+            for (int i = 0; i < sampleSize; ++i) {
+                this.x[i] = this.x[2 * i];
+                this.y[i] = this.y[2 * i];
+            }
+            stride *= 2;
+            if ((n - 1) % stride != 0) {
+                return;
+            }
+        }
+
+        this.x[sampleSize] = x;
+        this.y[sampleSize] = y;
+        ++sampleSize;
+    }
+
+    /**
+     * @return number of points added
+     */
+    public long getPointCount() {
+        return n;
+    }
+
+    /**
+     * @return number of points in the sample, which is used to compute the line
+     */
+    public int getSampleSize() {
+        return sampleSize;
+    }
+
+    /**
+     * @param index index of the point in the sample (0 &lt;= index &lt; {@link #getSampleSize()})
+     * @return x of the point
+     */
+    public double getSampleX(int index) {
+        return x[index];
+    }
+
+    /**
+     * @param index index of the point in the sample (0 &lt;= index &lt; {@link #getSampleSize()})
+     * @return y of the point
+     */
+    public double getSampleY(int index) {
+        return y[index];
+    }
+
+    public boolean isLine() {
+        return sampleSize > 1 && x[0] != x[sampleSize - 1];
+    }
+
+    public boolean hasPoints() {
+        return n != 0;
+    }
+
+    /**
+     * @return median of the slopes of all pairs of sample points with different x or <code>NaN</code>,
+     * if there is no such pair
+     */
+    public double slope() {
+        return slope(0, sampleSize);
+    }
+
+    /**
+     * @return median of <code>y - slope * x</code> of the sample points or <code>NaN</code>, if
+     * {@link #slope()} is not available
+     */
+    public double intercept() {
+        return intercept(slope(), 0, sampleSize);
+    }
+
+    /**
+     * Slope of the sample points <code>from</code> (inclusive) to <code>to</code> (exclusive).
+     *
+     * @param from index of the first sample point
+     * @param to index after the last sample point
+     * @return median of the slopes of all pairs of points with different x or <code>NaN</code>
+     */
+    public double slope(int from, int to) {
+        int count = to - from;
+        double[] slopes = new double[count * (count - 1) / 2];
+        int slopeCount = 0;
+        for (int i = from; i < to; ++i) {
+            for (int j = i + 1; j < to; ++j) {
+                if (x[j] != x[i]) {
+                    slopes[slopeCount++] = (y[j] - y[i]) / (x[j] - x[i]);
+                }
+            }
+        }
+
+        return median(slopes, slopeCount);
+    }
+
+    /**
+     * Intercept of a line with <code>slope</code> through the sample points <code>from</code>
+     * (inclusive) to <code>to</code> (exclusive).
+     *
+     * @param slope slope of the line
+     * @param from index of the first sample point
+     * @param to index after the last sample point
+     * @return median of <code>y - slope * x</code> or <code>NaN</code>
+     */
+    public double intercept(double slope, int from, int to) {
+        if (Double.isNaN(slope)) {
+            return Double.NaN;
+        }
+
+        double[] intercepts = new double[to - from];
+        for (int i = from; i < to; ++i) {
+            intercepts[i - from] = y[i] - slope * x[i];
+        }
+
+        return median(intercepts, intercepts.length);
+    }
+
+    public void reset() {
+        sampleSize = 0;
+        stride = 1;
+        n = 0;
+    }
+
+    private static double median(double[] values, int count) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+
+        Arrays.sort(values, 0, count);
+        return count % 2 == 1
+                ? values[count / 2]
+                : (values[count / 2 - 1] + values[count / 2]) / 2;
+    }
+}
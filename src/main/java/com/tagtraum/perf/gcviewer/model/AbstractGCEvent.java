@@ -85,7 +85,7 @@ public abstract class AbstractGCEvent<T extends AbstractGCEvent<T>> implements S
             clonedEvent.setDateStamp(ZonedDateTime.from(this.getDatestamp()));
         }
         if (getExtendedType() != null) {
-            clonedEvent.setExtendedType(new ExtendedType(getExtendedType().getType(), getExtendedType().fullName));
+            clonedEvent.setExtendedType(new ExtendedType(getExtendedType().getType(), getExtendedType().fullName, getExtendedType().cause));
         }
         if (details != null) {
             List<T> detailClones = new ArrayList<>();
@@ -103,7 +103,7 @@ public abstract class AbstractGCEvent<T extends AbstractGCEvent<T>> implements S
     public AbstractGCEvent<T> cloneAndMerge(AbstractGCEvent<T> otherEvent) {
         try {
             AbstractGCEvent<T> clonedEvent = (AbstractGCEvent<T>)otherEvent.clone();
-            clonedEvent.setExtendedType(new ExtendedType(getExtendedType().getType(), getExtendedType().fullName + "+" + clonedEvent.getExtendedType().fullName));
+            clonedEvent.setExtendedType(new ExtendedType(getExtendedType().getType(), getExtendedType().fullName + "+" + clonedEvent.getExtendedType().fullName, getExtendedType().cause));
             clonedEvent.setPreUsed(clonedEvent.getPreUsed() + getPreUsed());
             clonedEvent.setPostUsed(clonedEvent.getPostUsed() + getPostUsed());
             clonedEvent.setTotal(clonedEvent.getTotal() + getTotal());
@@ -275,6 +275,17 @@ public abstract class AbstractGCEvent<T extends AbstractGCEvent<T>> implements S
         return getExtendedType().getName().contains("System");
     }
 
+    /**
+     * Returns the cause of this event as printed with -XX:+PrintGCCause or unified jvm logging
+     * (e.g. "Allocation Failure" or "G1 Evacuation Pause"); for safepoints the name of the vm
+     * operation (e.g. "G1CollectForAllocation").
+     *
+     * @return cause of this event or <code>null</code>, if the log doesn't contain it
+     */
+    public String getCause() {
+        return getExtendedType().getCause();
+    }
+
     public boolean isInc() {
         return getExtendedType().getType() == GCEvent.Type.INC_GC;
     }
@@ -372,14 +383,16 @@ public abstract class AbstractGCEvent<T extends AbstractGCEvent<T>> implements S
 
         private String fullName;
         private Type type;
+        private String cause;
 
         private ExtendedType(Type type) {
-            this(type, type.getName());
+            this(type, type.getName(), null);
         }
 
-        private ExtendedType(Type type, String fullName) {
+        private ExtendedType(Type type, String fullName, String cause) {
             this.type = type;
             this.fullName = fullName.intern();
+            this.cause = cause != null ? cause.intern() : null;
         }
 
         public static ExtendedType lookup(Type type) {
@@ -387,13 +400,22 @@ public abstract class AbstractGCEvent<T extends AbstractGCEvent<T>> implements S
         }
 
         public static ExtendedType lookup(Type type, String fullName) {
+            return lookup(type, fullName, null);
+        }
+
+        /**
+         * @param type type of the event
+         * @param fullName name of the event as found in the log
+         * @param cause cause of the event contained in <code>fullName</code> or <code>null</code>
+         * @return shared instance for <code>fullName</code>
+         */
+        public static ExtendedType lookup(Type type, String fullName, String cause) {
             ExtendedType extType = WRAPPER_MAP.get(fullName);
-            if (extType == null) {
-                extType = new ExtendedType(type, fullName);
+            if (extType == null || (extType.cause == null && cause != null)) {
+                extType = new ExtendedType(type, fullName, cause);
                 WRAPPER_MAP.put(fullName, extType);
             }
 
-
             return extType;
         }
 
@@ -405,6 +427,13 @@ public abstract class AbstractGCEvent<T extends AbstractGCEvent<T>> implements S
             return type;
         }
 
+        /**
+         * @return cause contained in the name (interned) or <code>null</code>
+         */
+        public String getCause() {
+            return cause;
+        }
+
         public GcPattern getPattern() {
             return type.getPattern();
         }
@@ -538,6 +567,8 @@ public abstract class AbstractGCEvent<T extends AbstractGCEvent<T>> implements S
         public static final Type PERM = new Type("Perm", Generation.PERM, Concurrency.SERIAL, GcPattern.GC_MEMORY);
         // since about java 7_u45 these have a time stamp prepended
         public static final Type APPLICATION_STOPPED_TIME = new Type("Total time for which application threads were stopped", Generation.OTHER, Concurrency.SERIAL, GcPattern.GC_PAUSE, CollectionType.VM_OPERATION);
+        // java 13: unified jvm logging "safepoint" lines replace APPLICATION_STOPPED_TIME
+        public static final Type UJL_SAFEPOINT = new Type("Safepoint", Generation.OTHER, Concurrency.SERIAL, GcPattern.GC_PAUSE, CollectionType.VM_OPERATION);
         // java 8: perm gen is moved to metaspace
         public static final Type METASPACE = new Type("Metaspace", Generation.PERM, Concurrency.SERIAL, GcPattern.GC_MEMORY);
 
@@ -727,6 +758,12 @@ public abstract class AbstractGCEvent<T extends AbstractGCEvent<T>> implements S
         public static final Type UJL_ZGC_ALLOCATION_STALL = new Type("Allocation Stall", Generation.TENURED, Concurrency.SERIAL, GcPattern.GC_PAUSE);
         public static final Type UJL_ZGC_RELOCATION_STALL = new Type("Relocation Stall", Generation.TENURED, Concurrency.SERIAL, GcPattern.GC_PAUSE);
 
+        // types of events received as GarbageCollectionNotificationInfo from a running jvm (JMX)
+        public static final Type JMX_PAUSE = new Type("jmx.Pause", Generation.TENURED, Concurrency.SERIAL, GcPattern.GC_MEMORY_PAUSE);
+        public static final Type JMX_CONCURRENT_CYCLE = new Type("jmx.Concurrent Cycle", Generation.TENURED, Concurrency.CONCURRENT, GcPattern.GC_PAUSE);
+        public static final Type JMX_YOUNG = new Type("jmx.Young", Generation.YOUNG, Concurrency.SERIAL, GcPattern.GC_MEMORY);
+        public static final Type JMX_OLD = new Type("jmx.Old", Generation.TENURED, Concurrency.SERIAL, GcPattern.GC_MEMORY);
+
         // IBM Types
         // TODO: are scavenge always young only??
         public static final Type IBM_AF = new Type("af", Generation.YOUNG);
@@ -0,0 +1,335 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Detects anomalous regions of a gc log while it is being parsed: every event is passed to
+ * {@link #add(AbstractGCEvent)} (done by {@link GCModel#add(AbstractGCEvent)}), which updates
+ * the detectors in constant time and memory. Anomalies of the same {@link Kind} less than
+ * {@link #MERGE_GAP} seconds apart are merged into one interval.
+ * <ul>
+ * <li>{@link Kind#PAUSE_OUTLIER}: robust z-score of a pause relative to an exponentially weighted
+ * moving average and mean absolute deviation of the previous pauses (separately for full and
+ * other collections). Outliers are winsorized before they are added to the baseline, so that
+ * they don't hide each other.</li>
+ * <li>{@link Kind#FOOTPRINT_GROWTH}: allocated heap grows by more than
+ * {@link #FOOTPRINT_GROWTH_THRESHOLD} relative to its moving average.</li>
+ * <li>{@link Kind#FULL_GC_STORM}: at least {@link #FULL_GC_STORM_COUNT} full collections within
+ * {@link #FULL_GC_STORM_WINDOW} seconds.</li>
+ * <li>{@link Kind#TO_SPACE_EXHAUSTED}: G1 collections, which ran out of to-space.</li>
+ * </ul>
+ */
+public class AnomalyDetector implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** anomalies of the same kind closer than this many seconds are merged into one interval */
+    public static final double MERGE_GAP = 60;
+    /** number of events to establish a baseline before pause outliers / footprint growth are detected */
+    public static final int MIN_BASELINE_EVENTS = 20;
+    /** weight of the newest value in the moving averages */
+    public static final double SMOOTHING_FACTOR = 0.05;
+    /** pauses with a robust z-score above this value are outliers */
+    public static final double PAUSE_OUTLIER_THRESHOLD = 4;
+    /** relative growth of the allocated heap above its moving average considered as sudden (20%) */
+    public static final double FOOTPRINT_GROWTH_THRESHOLD = 0.2;
+    /** number of full collections within {@link #FULL_GC_STORM_WINDOW} considered as storm */
+    public static final int FULL_GC_STORM_COUNT = 3;
+    /** width of the window in seconds, in which {@link #FULL_GC_STORM_COUNT} full collections are a storm */
+    public static final double FULL_GC_STORM_WINDOW = 60;
+
+    /** ratio of the standard deviation to the mean absolute deviation of a normal distribution */
+    private static final double MEAN_ABSOLUTE_DEVIATION_TO_SIGMA = Math.sqrt(Math.PI / 2);
+    /** the deviation of pauses is at least this fraction of their mean (avoids outliers in very steady series) */
+    private static final double MIN_RELATIVE_DEVIATION = 0.1;
+    /** the deviation of pauses is at least this many seconds */
+    private static final double MIN_DEVIATION = 0.0005;
+
+    /**
+     * Kinds of anomalies; {@link Anomaly#getValue()} and {@link Anomaly#getBaseline()} depend on
+     * the kind.
+     */
+    public enum Kind {
+        /** value: longest pause in the interval (s); baseline: expected pause (s) */
+        PAUSE_OUTLIER("pauseOutlier"),
+        /** value: largest allocated heap in the interval (K); baseline: allocated heap before (K) */
+        FOOTPRINT_GROWTH("footprintGrowth"),
+        /** value: longest full gc pause since the storm was detected (s); baseline: <code>NaN</code> */
+        FULL_GC_STORM("fullGcStorm"),
+        /** value: longest pause in the interval (s); baseline: <code>NaN</code> */
+        TO_SPACE_EXHAUSTED("toSpaceExhausted");
+
+        private final String name;
+
+        Kind(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Interval of the log containing one or more anomalous events of the same kind.
+     */
+    public static class Anomaly implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final Kind kind;
+        private final double start;
+        private double end;
+        private int eventCount;
+        private double value;
+        private final double baseline;
+
+        Anomaly(Kind kind, double start, double end, int eventCount, double value, double baseline) {
+            this.kind = kind;
+            this.start = start;
+            this.end = end;
+            this.eventCount = eventCount;
+            this.value = value;
+            this.baseline = baseline;
+        }
+
+        private Anomaly(Anomaly other) {
+            this(other.kind, other.start, other.end, other.eventCount, other.value, other.baseline);
+        }
+
+        private void extend(double end, double value) {
+            this.end = Math.max(this.end, end);
+            this.value = Math.max(this.value, value);
+            ++eventCount;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * @return timestamp (s) of the start of the first anomalous event
+         */
+        public double getStart() {
+            return start;
+        }
+
+        /**
+         * @return timestamp (s) of the end of the last anomalous event
+         */
+        public double getEnd() {
+            return end;
+        }
+
+        public double getDuration() {
+            return end - start;
+        }
+
+        /**
+         * @return number of anomalous events in this interval
+         */
+        public int getEventCount() {
+            return eventCount;
+        }
+
+        /**
+         * @return most extreme value of the interval (see {@link Kind})
+         */
+        public double getValue() {
+            return value;
+        }
+
+        /**
+         * @return expected value, when the interval started (see {@link Kind})
+         */
+        public double getBaseline() {
+            return baseline;
+        }
+
+        @Override
+        public String toString() {
+            return kind.getName() + " [" + start + " - " + end + "]: events=" + eventCount + ", value=" + value + ", baseline=" + baseline;
+        }
+    }
+
+    /**
+     * Exponentially weighted moving average and mean absolute deviation of pauses.
+     */
+    private static class PauseBaseline implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private int n;
+        private double mean;
+        private double deviation;
+
+        private void copy(PauseBaseline other) {
+            n = other.n;
+            mean = other.mean;
+            deviation = other.deviation;
+        }
+
+        private double getScale() {
+            return MEAN_ABSOLUTE_DEVIATION_TO_SIGMA * Math.max(deviation, Math.max(mean * MIN_RELATIVE_DEVIATION, MIN_DEVIATION));
+        }
+
+        /**
+         * @return <code>true</code>, if <code>pause</code> is an outlier
+         */
+        private boolean add(double pause) {
+            if (n == 0) {
+                mean = pause;
+                ++n;
+                return false;
+            }
+
+            double scale = getScale();
+            boolean isOutlier = n >= MIN_BASELINE_EVENTS && (pause - mean) / scale > PAUSE_OUTLIER_THRESHOLD;
+            // winsorize, so that outliers don't shift the baseline
+            double value = Math.min(pause, mean + PAUSE_OUTLIER_THRESHOLD * scale);
+            double difference = value - mean;
+            mean += SMOOTHING_FACTOR * difference;
+            deviation += SMOOTHING_FACTOR * (Math.abs(difference) - deviation);
+            ++n;
+            return isOutlier;
+        }
+    }
+
+    private List<Anomaly> anomalies = new ArrayList<>();
+    /** index of the last anomaly of every kind in anomalies (-1 if none) */
+    private int[] lastAnomalyIndex = new int[Kind.values().length];
+
+    private PauseBaseline pauseBaseline = new PauseBaseline();
+    private PauseBaseline fullGcPauseBaseline = new PauseBaseline();
+
+    private int footprintCount;
+    private double footprintBaseline;
+
+    /** ring buffer with the timestamps of the last full collections */
+    private double[] fullGcTimestamps = new double[FULL_GC_STORM_COUNT];
+    private int fullGcCount;
+
+    public AnomalyDetector() {
+        for (int i = 0; i < lastAnomalyIndex.length; ++i) {
+            lastAnomalyIndex[i] = -1;
+        }
+    }
+
+    /**
+     * Returns a copy of this detector, which is not changed, if more events are added to this
+     * detector.
+     *
+     * @return copy of this detector
+     */
+    public AnomalyDetector copy() {
+        AnomalyDetector copy = new AnomalyDetector();
+        for (Anomaly anomaly : anomalies) {
+            copy.anomalies.add(new Anomaly(anomaly));
+        }
+        System.arraycopy(lastAnomalyIndex, 0, copy.lastAnomalyIndex, 0, lastAnomalyIndex.length);
+        copy.pauseBaseline.copy(pauseBaseline);
+        copy.fullGcPauseBaseline.copy(fullGcPauseBaseline);
+        copy.footprintCount = footprintCount;
+        copy.footprintBaseline = footprintBaseline;
+        System.arraycopy(fullGcTimestamps, 0, copy.fullGcTimestamps, 0, fullGcTimestamps.length);
+        copy.fullGcCount = fullGcCount;
+        return copy;
+    }
+
+    /**
+     * Updates all detectors with <code>event</code>. Only stop the world gc events are considered.
+     *
+     * @param event event to be added
+     */
+    public void add(AbstractGCEvent<?> event) {
+        if (!(event instanceof GCEvent) || !event.isStopTheWorld()) {
+            return;
+        }
+
+        double start = event.getTimestamp();
+        double end = start + event.getPause();
+        boolean isFull = event.isFull();
+
+        PauseBaseline baseline = isFull ? fullGcPauseBaseline : pauseBaseline;
+        double expectedPause = baseline.mean;
+        if (baseline.add(event.getPause())) {
+            addAnomaly(Kind.PAUSE_OUTLIER, start, end, 1, event.getPause(), expectedPause);
+        }
+
+        if (event.getTotal() > 0) {
+            updateFootprint(event.getTotal(), start, end);
+        }
+
+        if (isFull) {
+            updateFullGcStorm(event.getPause(), start, end);
+        }
+
+        if (isToSpaceExhausted(event)) {
+            addAnomaly(Kind.TO_SPACE_EXHAUSTED, start, end, 1, event.getPause(), Double.NaN);
+        }
+    }
+
+    /**
+     * @return all anomalies in the order they were detected
+     */
+    public List<Anomaly> getAnomalies() {
+        return Collections.unmodifiableList(anomalies);
+    }
+
+    /**
+     * @param kind kind of anomalies to be counted
+     * @return number of anomalous intervals of <code>kind</code>
+     */
+    public int getAnomalyCount(Kind kind) {
+        int count = 0;
+        for (Anomaly anomaly : anomalies) {
+            if (anomaly.getKind() == kind) {
+                ++count;
+            }
+        }
+
+        return count;
+    }
+
+    private void updateFootprint(int total, double start, double end) {
+        if (footprintCount == 0) {
+            footprintBaseline = total;
+        }
+        else if (footprintCount >= MIN_BASELINE_EVENTS && total > footprintBaseline * (1 + FOOTPRINT_GROWTH_THRESHOLD)) {
+            addAnomaly(Kind.FOOTPRINT_GROWTH, start, end, 1, total, footprintBaseline);
+            // new level -> a step is reported once, continuous growth in several events
+            footprintBaseline = total;
+        }
+        else {
+            footprintBaseline += SMOOTHING_FACTOR * (total - footprintBaseline);
+        }
+        ++footprintCount;
+    }
+
+    private void updateFullGcStorm(double pause, double start, double end) {
+        fullGcTimestamps[fullGcCount % FULL_GC_STORM_COUNT] = start;
+        ++fullGcCount;
+        // next slot to be overwritten contains the oldest of the last FULL_GC_STORM_COUNT full gcs
+        double oldestTimestamp = fullGcTimestamps[fullGcCount % FULL_GC_STORM_COUNT];
+        if (fullGcCount >= FULL_GC_STORM_COUNT && start - oldestTimestamp <= FULL_GC_STORM_WINDOW) {
+            // pauses of the earlier full gcs are not kept -> value is the longest pause since the storm was detected
+            addAnomaly(Kind.FULL_GC_STORM, oldestTimestamp, end, FULL_GC_STORM_COUNT, pause, Double.NaN);
+        }
+    }
+
+    private boolean isToSpaceExhausted(AbstractGCEvent<?> event) {
+        String type = event.getTypeAsString();
+        return type.contains("to-space") || type.contains(AbstractGCEvent.Type.UJL_G1_TO_SPACE_EXHAUSTED.getName());
+    }
+
+    private void addAnomaly(Kind kind, double start, double end, int eventCount, double value, double baseline) {
+        int index = lastAnomalyIndex[kind.ordinal()];
+        if (index >= 0 && start - anomalies.get(index).getEnd() <= MERGE_GAP) {
+            anomalies.get(index).extend(end, value);
+        }
+        else {
+            lastAnomalyIndex[kind.ordinal()] = anomalies.size();
+            anomalies.add(new Anomaly(kind, start, end, eventCount, value, baseline));
+        }
+    }
+}
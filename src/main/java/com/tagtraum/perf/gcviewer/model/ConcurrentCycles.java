@@ -0,0 +1,387 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import com.tagtraum.perf.gcviewer.math.DoubleDataSketch;
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Type;
+
+/**
+ * Concurrent collection cycles of a {@link GCModel} reconstructed from its concurrent events
+ * (CMS, G1, Shenandoah and ZGC).
+ * <p>
+ * Events with a gc number (unified jvm logging, <code>-XX:+PrintGCID</code>) belong to the cycle
+ * with the same number: the cycle starts with the first concurrent event of the number and is
+ * complete after the end marker ({@link AbstractGCEvent#isConcurrentCollectionEnd()} or the
+ * "Garbage Collection" summary of ZGC). As later events with the same number may still follow
+ * (e.g. Shenandoah logs "Concurrent cleanup" twice), a cycle is only finished, when the next cycle
+ * starts. Events without gc number are paired by the start and end markers
+ * ({@link AbstractGCEvent#isConcurrentCollectionStart()} /
+ * {@link AbstractGCEvent#isConcurrentCollectionEnd()}).
+ * <p>
+ * A cycle, which is still running, when a full collection starts, is interrupted by the full
+ * collection; a cycle, which never reaches its end marker before the next cycle starts (e.g. an
+ * aborted G1 concurrent mark or a "Concurrent Undo Cycle") is aborted. Only completed cycles are
+ * counted in the durations.
+ * <p>
+ * The cycles are reconstructed in one pass over the events in O(n) for n events; only the open
+ * cycles (usually one) are kept during the pass, all results are collected in
+ * {@link DoubleDataSketch}es (constant memory).
+ */
+public class ConcurrentCycles {
+    /**
+     * a cycle is back to back, if it starts less than this factor times the duration of the
+     * previous cycle after the previous cycle
+     */
+    public static final double BACK_TO_BACK_FACTOR = 1;
+
+    /**
+     * Kind of work of a concurrent phase.
+     */
+    public enum Phase {
+        /** marking including precleaning and root scanning */
+        MARKING("marking"),
+        /** sweeping, cleanup and reset */
+        SWEEPING("sweeping"),
+        /** relocation, evacuation and updating references */
+        RELOCATION("relocation"),
+        /** all other phases (e.g. reference processing, class unloading) */
+        OTHER("other");
+
+        private final String name;
+
+        Phase(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Cycle, which is still open during the pass over the events.
+     */
+    private static class Cycle {
+        private final int number;
+        private final double start;
+        private double end;
+        private boolean complete;
+        private double pauseTime;
+        private final double[] phaseTimes = new double[Phase.values().length];
+
+        private Cycle(int number, double start) {
+            this.number = number;
+            this.start = start;
+            this.end = start;
+        }
+    }
+
+    private final DoubleDataSketch duration = new DoubleDataSketch();
+    private final DoubleDataSketch pauseTime = new DoubleDataSketch();
+    private final DoubleDataSketch interval = new DoubleDataSketch();
+    private final DoubleDataSketch[] phaseTimes = new DoubleDataSketch[Phase.values().length];
+    private final Map<Integer, Cycle> openCycles = new LinkedHashMap<>();
+    private double mutatorOverlap;
+    private int abortedCount;
+    private int interruptedByFullGcCount;
+    private int unfinishedCount;
+    private int backToBackCount;
+    private double lastCycleStart = Double.NaN;
+    private double lastCycleEnd = Double.NaN;
+    private double firstTimestamp = Double.MAX_VALUE;
+    private double lastTimestamp = -Double.MAX_VALUE;
+
+    private ConcurrentCycles() {
+        for (int i = 0; i < phaseTimes.length; ++i) {
+            phaseTimes[i] = new DoubleDataSketch();
+        }
+    }
+
+    /**
+     * @param model model to be analysed
+     * @return concurrent cycles of the model
+     */
+    public static ConcurrentCycles compute(GCModel model) {
+        ConcurrentCycles concurrentCycles = new ConcurrentCycles();
+        for (Iterator<AbstractGCEvent<?>> i = model.getEvents(); i.hasNext(); ) {
+            AbstractGCEvent<?> event = i.next();
+            if (event.isConcurrent()) {
+                concurrentCycles.addConcurrentEvent(event);
+            }
+            else if (event.isStopTheWorld()) {
+                concurrentCycles.addStopTheWorldEvent(event);
+            }
+        }
+
+        concurrentCycles.finishPass();
+        return concurrentCycles;
+    }
+
+    /**
+     * @param event concurrent event
+     * @return kind of work of the phase
+     */
+    public static Phase getPhase(AbstractGCEvent<?> event) {
+        String name = event.getExtendedType().getType().getName().toLowerCase(Locale.ENGLISH);
+        if (name.contains("relocat") || name.contains("evacuat") || name.contains("update ref")) {
+            return Phase.RELOCATION;
+        }
+        else if (name.contains("mark") || name.contains("preclean") || name.contains("root-region")) {
+            return Phase.MARKING;
+        }
+        else if (name.contains("sweep") || name.contains("cleanup") || name.contains("reset")) {
+            return Phase.SWEEPING;
+        }
+
+        return Phase.OTHER;
+    }
+
+    /**
+     * @return <code>true</code>, if the pause of the event is the duration of the whole cycle
+     * (G1 unified jvm logging)
+     */
+    private boolean isCycleMarker(AbstractGCEvent<?> event) {
+        Type type = event.getExtendedType().getType();
+        return type == Type.UJL_G1_CONCURRENT_CYCLE
+                || type == Type.UJL_G1_CONCURRENT_MARK_CYCLE
+                || type == Type.UJL_G1_CONCURRENT_UNDO_CYCLE;
+    }
+
+    private void addConcurrentEvent(AbstractGCEvent<?> event) {
+        firstTimestamp = Math.min(firstTimestamp, event.getTimestamp() - event.getPause());
+        lastTimestamp = Math.max(lastTimestamp, event.getTimestamp());
+        int number = event.getNumber();
+        Cycle cycle = openCycles.get(number);
+        if (number < 0) {
+            if (event.isConcurrentCollectionStart()) {
+                if (cycle != null) {
+                    // end marker missing
+                    finishCycle(cycle, false);
+                }
+                cycle = openCycle(number, event);
+            }
+        }
+        else if (cycle == null) {
+            // concurrent cycles of one collector don't overlap
+            finishOpenCycles(false);
+            cycle = openCycle(number, event);
+        }
+
+        if (cycle == null) {
+            // phase outside of a cycle
+            return;
+        }
+
+        cycle.end = Math.max(cycle.end, event.getTimestamp());
+        if (!isCycleMarker(event)) {
+            cycle.phaseTimes[getPhase(event).ordinal()] += event.getPause();
+        }
+        if (event.isConcurrentCollectionEnd()) {
+            cycle.complete = true;
+            if (number < 0) {
+                finishCycle(cycle, false);
+            }
+        }
+    }
+
+    private void addStopTheWorldEvent(AbstractGCEvent<?> event) {
+        firstTimestamp = Math.min(firstTimestamp, event.getTimestamp());
+        lastTimestamp = Math.max(lastTimestamp, event.getTimestamp() + event.getPause());
+        if (event.isFull()) {
+            finishOpenCycles(true);
+            return;
+        }
+
+        for (Cycle cycle : openCycles.values()) {
+            if (event.getTimestamp() >= cycle.start) {
+                cycle.pauseTime += event.getPause();
+            }
+            if (cycle.number >= 0 && event.getNumber() == cycle.number) {
+                cycle.end = Math.max(cycle.end, event.getTimestamp() + event.getPause());
+                if (event.getExtendedType().getType() == Type.UJL_ZGC_GARBAGE_COLLECTION) {
+                    cycle.complete = true;
+                }
+            }
+        }
+    }
+
+    private Cycle openCycle(int number, AbstractGCEvent<?> event) {
+        // timestamps of concurrent events are logged at the end of the phase
+        Cycle cycle = new Cycle(number, event.getTimestamp() - event.getPause());
+        if (!Double.isNaN(lastCycleEnd)) {
+            double gap = Math.max(0, cycle.start - lastCycleEnd);
+            interval.add(gap);
+            if (gap < BACK_TO_BACK_FACTOR * (lastCycleEnd - lastCycleStart)) {
+                ++backToBackCount;
+            }
+        }
+
+        openCycles.put(number, cycle);
+        return cycle;
+    }
+
+    private void finishOpenCycles(boolean fullGc) {
+        for (Cycle cycle : openCycles.values().toArray(new Cycle[0])) {
+            finishCycle(cycle, fullGc && !cycle.complete);
+        }
+    }
+
+    private void finishCycle(Cycle cycle, boolean interruptedByFullGc) {
+        openCycles.remove(cycle.number);
+        if (interruptedByFullGc) {
+            ++interruptedByFullGcCount;
+        }
+        else if (cycle.complete) {
+            double cycleDuration = cycle.end - cycle.start;
+            duration.add(cycleDuration);
+            pauseTime.add(cycle.pauseTime);
+            mutatorOverlap += Math.max(0, cycleDuration - cycle.pauseTime);
+            for (int i = 0; i < phaseTimes.length; ++i) {
+                phaseTimes[i].add(cycle.phaseTimes[i]);
+            }
+        }
+        else {
+            ++abortedCount;
+        }
+
+        lastCycleStart = cycle.start;
+        lastCycleEnd = cycle.end;
+    }
+
+    private void finishPass() {
+        for (Cycle cycle : openCycles.values().toArray(new Cycle[0])) {
+            if (cycle.complete) {
+                finishCycle(cycle, false);
+            }
+            else {
+                ++unfinishedCount;
+            }
+        }
+        openCycles.clear();
+    }
+
+    /**
+     * @return <code>true</code>, if at least one cycle was started
+     */
+    public boolean hasCycles() {
+        return getStartedCount() > 0;
+    }
+
+    /**
+     * @return number of completed cycles
+     */
+    public int getCycleCount() {
+        return duration.getN();
+    }
+
+    /**
+     * @return number of all cycles (completed, aborted, interrupted by a full collection and
+     * unfinished at the end of the log)
+     */
+    public int getStartedCount() {
+        return getCycleCount() + abortedCount + interruptedByFullGcCount + unfinishedCount;
+    }
+
+    /**
+     * @return number of cycles, which didn't reach their end marker before the next cycle started
+     */
+    public int getAbortedCount() {
+        return abortedCount;
+    }
+
+    /**
+     * @return number of cycles, which were still running, when a full collection started
+     */
+    public int getInterruptedByFullGcCount() {
+        return interruptedByFullGcCount;
+    }
+
+    /**
+     * @return share of the started cycles interrupted by a full collection (0..1) or
+     * <code>NaN</code>, if there are no cycles
+     */
+    public double getInterruptedByFullGcRate() {
+        return hasCycles() ? interruptedByFullGcCount / (double) getStartedCount() : Double.NaN;
+    }
+
+    /**
+     * @return number of cycles, which were still running at the end of the log
+     */
+    public int getUnfinishedCount() {
+        return unfinishedCount;
+    }
+
+    /**
+     * @return durations of the completed cycles from the start of the first to the end of the last
+     * phase (s)
+     */
+    public DoubleDataSketch getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return sum of the stop the world pauses during each completed cycle (s)
+     */
+    public DoubleDataSketch getPauseTime() {
+        return pauseTime;
+    }
+
+    /**
+     * @param phase kind of work
+     * @return time spent in concurrent phases of kind <code>phase</code> per completed cycle (s)
+     */
+    public DoubleDataSketch getPhaseTime(Phase phase) {
+        return phaseTimes[phase.ordinal()];
+    }
+
+    /**
+     * @return time between the end of a cycle and the start of the next cycle (s)
+     */
+    public DoubleDataSketch getInterval() {
+        return interval;
+    }
+
+    /**
+     * @return number of cycles, which started back to back with the previous cycle (see
+     * {@link #BACK_TO_BACK_FACTOR})
+     */
+    public int getBackToBackCount() {
+        return backToBackCount;
+    }
+
+    /**
+     * @return share of the cycles after the first one, which started back to back (0..1) or
+     * <code>NaN</code>, if there are less than two cycles
+     */
+    public double getBackToBackRate() {
+        return interval.getN() > 0 ? backToBackCount / (double) interval.getN() : Double.NaN;
+    }
+
+    /**
+     * @return time of the completed cycles, where the application ran concurrently to the
+     * collector (duration without stop the world pauses; s)
+     */
+    public double getMutatorOverlap() {
+        return mutatorOverlap;
+    }
+
+    /**
+     * @return share of the mutator overlap in the duration of the completed cycles (0..1) or
+     * <code>NaN</code>, if there are no completed cycles
+     */
+    public double getMutatorOverlapShare() {
+        return duration.getSum() > 0 ? mutatorOverlap / duration.getSum() : Double.NaN;
+    }
+
+    /**
+     * @return share of the time from the start of the first to the end of the last event, where a
+     * completed cycle was running (0..1) or <code>NaN</code>, if there are no completed cycles
+     */
+    public double getRunningTimeShare() {
+        double runningTime = lastTimestamp - firstTimestamp;
+        return runningTime > 0 && getCycleCount() > 0 ? Math.min(1, duration.getSum() / runningTime) : Double.NaN;
+    }
+}
@@ -1,5 +1,6 @@
 package com.tagtraum.perf.gcviewer.model;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -14,7 +15,6 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -26,29 +26,42 @@ import java.util.logging.Logger;
 
 import com.tagtraum.perf.gcviewer.math.DoubleData;
 import com.tagtraum.perf.gcviewer.math.DoubleDataPercentile;
+import com.tagtraum.perf.gcviewer.math.DoubleDataSketch;
 import com.tagtraum.perf.gcviewer.math.IntData;
 import com.tagtraum.perf.gcviewer.math.RegressionLine;
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.CollectionType;
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Generation;
+import com.tagtraum.perf.gcviewer.util.AppendOnlyList;
 
 /**
  * Collection of GCEvents.
  *
  * @author <a href="mailto:hs@tagtraum.com">Hendrik Schreiber</a>
  */
-public class GCModel implements Serializable {
+public class GCModel implements Serializable, Closeable {
 
     private static final long serialVersionUID = -6479685723904770990L;
 
     private static final Logger LOG = Logger.getLogger(GCModel.class.getName());
 
+    /**
+     * System property to choose where events are stored. If set to {@value #EVENT_STORAGE_MAPPED},
+     * events are written to a memory mapped file (see {@link MappedGCEventStore}), which allows
+     * to read logs with more events than fit into the java heap. Default is the java heap.
+     */
+    public static final String PROPERTY_EVENT_STORAGE = "gcviewer.eventStorage";
+    public static final String EVENT_STORAGE_MAPPED = "mapped";
+
+    /** returned by {@link #getPromotion(GCEvent)} for events without promotion information */
+    static final long NO_PROMOTION = Long.MIN_VALUE;
+
+    private transient MappedGCEventStore eventStore; // null, if events are stored on the heap
+    private transient GCModel heapCopy; // events of eventStore copied for snapshots (see createSnapshot())
     private List<AbstractGCEvent<?>> allEvents;
     private List<AbstractGCEvent<?>> stopTheWorldEvents;
     private List<GCEvent> gcEvents;
-    private List<AbstractGCEvent<?>> gcPhases;
     private List<AbstractGCEvent<?>> vmOperationEvents;
     private List<ConcurrentGCEvent> concurrentGCEvents;
-    private List<GCEvent> currentNoFullGCEvents;
     private List<GCEvent> fullGCEvents;
     private FileInformation fileInformation = new FileInformation();
 
@@ -57,6 +70,8 @@ public class GCModel implements Serializable {
     private Map<String, DoubleData> gcEventPhases; // pause information about all phases for garbage collection events
     private Map<String, DoubleData> concurrentGcEventPauses; // pause information about all concurrent events
     private Map<String, DoubleData> vmOperationEventPauses; // pause information about vm operations ("application stopped")
+    private Map<String, DoubleData> causePauses; // pause information about stop the world gc events by cause
+    private Map<String, Map<String, DoubleData>> typeCausePauses; // pause information about stop the world gc events by type and cause
 
     private IntData heapAllocatedSizes; // allocated heap size of every event
     private IntData tenuredAllocatedSizes; // allocated tenured size of every event that has this information
@@ -72,6 +87,9 @@ public class GCModel implements Serializable {
 
     private IntData promotion; // promotion from young to tenured generation during young collections
 
+    private AnomalyDetector anomalyDetector; // anomalous regions detected while events are added
+    private SafepointStatistics safepointStatistics; // time to safepoint / at safepoint of vm operations
+
     private double firstPauseTimeStamp = Double.MAX_VALUE;
     private double lastPauseTimeStamp = 0;
     private DoubleData totalPause;
@@ -97,6 +115,13 @@ public class GCModel implements Serializable {
     private RegressionLine relativePostFullGCIncrease;
     private URL url;
 
+    // needed to merge models without replaying their events (see merge(GCModel))
+    private GCEvent firstGcEvent; // first event, which was used to calculate pauseInterval
+    private RegressionLine leadingPostGCSlope; // currentPostGCSlope, when first full gc occurred
+    private RegressionLine leadingRelativePostGCIncrease; // currentRelativePostGCIncrease, when first full gc occurred
+    private DoubleData postGCSlopeAfterFirstFullGC; // postGCSlope without contribution of leadingPostGCSlope
+    private DoubleData relativePostGCIncreaseAfterFirstFullGC; // relativePostGCIncrease without leadingRelativePostGCIncrease
+
     /**
      * Contains information about a file.
      *
@@ -184,15 +209,37 @@ public class GCModel implements Serializable {
         }
     }
 
+    /**
+     * Creates a model storing its events as configured by {@link #PROPERTY_EVENT_STORAGE}.
+     */
     public GCModel() {
-        this.allEvents = new ArrayList<AbstractGCEvent<?>>();
-        this.stopTheWorldEvents = new ArrayList<AbstractGCEvent<?>>();
-        this.gcEvents = new ArrayList<GCEvent>();
-        this.vmOperationEvents = new ArrayList<AbstractGCEvent<?>>();
-        this.gcPhases = new ArrayList<AbstractGCEvent<?>>();
-        this.concurrentGCEvents = new ArrayList<ConcurrentGCEvent>();
-        this.fullGCEvents = new ArrayList<GCEvent>();
-        this.currentNoFullGCEvents = new ArrayList<GCEvent>();
+        this(EVENT_STORAGE_MAPPED.equals(System.getProperty(PROPERTY_EVENT_STORAGE)) ? createEventStore() : null);
+    }
+
+    /**
+     * Creates a model storing its events in <code>eventStore</code>.
+     *
+     * @param eventStore store for the events or <code>null</code> to store them on the java heap
+     */
+    public GCModel(MappedGCEventStore eventStore) {
+        this.eventStore = eventStore;
+        if (eventStore != null) {
+            this.allEvents = eventStore.asList();
+            this.stopTheWorldEvents = eventStore.newIndexList();
+            this.gcEvents = eventStore.newIndexList();
+            this.vmOperationEvents = eventStore.newIndexList();
+            this.concurrentGCEvents = eventStore.newIndexList();
+            this.fullGCEvents = eventStore.newIndexList();
+        }
+        else {
+            // append only -> snapshots share the events instead of copying them (see createSnapshot())
+            this.allEvents = new AppendOnlyList<AbstractGCEvent<?>>();
+            this.stopTheWorldEvents = new AppendOnlyList<AbstractGCEvent<?>>();
+            this.gcEvents = new AppendOnlyList<GCEvent>();
+            this.vmOperationEvents = new AppendOnlyList<AbstractGCEvent<?>>();
+            this.concurrentGCEvents = new AppendOnlyList<ConcurrentGCEvent>();
+            this.fullGCEvents = new AppendOnlyList<GCEvent>();
+        }
         this.currentPostGCSlope = new RegressionLine();
         this.postFullGCSlope = new RegressionLine();
         this.postGCSlope = new DoubleData();
@@ -211,12 +258,18 @@ public class GCModel implements Serializable {
         this.currentRelativePostGCIncrease = new RegressionLine();
         this.relativePostGCIncrease = new DoubleData();
         this.relativePostFullGCIncrease = new RegressionLine();
+        this.leadingPostGCSlope = new RegressionLine();
+        this.leadingRelativePostGCIncrease = new RegressionLine();
+        this.postGCSlopeAfterFirstFullGC = new DoubleData();
+        this.relativePostGCIncreaseAfterFirstFullGC = new DoubleData();
 
         this.fullGcEventPauses = new TreeMap<String, DoubleData>();
         this.gcEventPauses = new TreeMap<String, DoubleData>();
         this.gcEventPhases = new TreeMap<String, DoubleData>();
         this.concurrentGcEventPauses = new TreeMap<String, DoubleData>();
         this.vmOperationEventPauses = new TreeMap<String, DoubleData>();
+        this.causePauses = new TreeMap<String, DoubleData>();
+        this.typeCausePauses = new TreeMap<String, Map<String, DoubleData>>();
 
         this.heapAllocatedSizes = new IntData();
         this.permAllocatedSizes = new IntData();
@@ -232,6 +285,44 @@ public class GCModel implements Serializable {
         this.postConcurrentCycleUsedHeapSizes = new IntData();
 
         this.promotion = new IntData();
+
+        this.anomalyDetector = new AnomalyDetector();
+        this.safepointStatistics = new SafepointStatistics();
+    }
+
+    private static MappedGCEventStore createEventStore() {
+        try {
+            return new MappedGCEventStore();
+        }
+        catch (IOException e) {
+            LOG.log(Level.WARNING, "Failed to create memory mapped event store; using java heap (" + e.toString() + ")", e);
+            return null;
+        }
+    }
+
+    /**
+     * @return <code>true</code>, if events are stored in a memory mapped file instead of the java heap
+     */
+    public boolean isEventStoreMapped() {
+        return eventStore != null;
+    }
+
+    /**
+     * Releases the memory mapped file of the events and deletes it. Afterwards, the events of this
+     * model can't be accessed any more (its statistics still can). Does nothing, if the events are
+     * stored on the java heap; may be called more than once.
+     */
+    @Override
+    public void close() {
+        if (eventStore != null) {
+            try {
+                eventStore.close();
+            }
+            catch (IOException e) {
+                LOG.log(Level.WARNING, "Failed to close memory mapped event store " + eventStore.getFile() + " (" + e.toString() + ")", e);
+            }
+        }
+        heapCopy = null;
     }
 
     public long getLastModified() {
@@ -409,7 +500,38 @@ public class GCModel implements Serializable {
         return data;
     }
 
+    /**
+     * Pauses by cause are only counted in logarithmic buckets (constant memory per cause).
+     */
+    private DoubleData getCauseDoubleData(String key, Map<String, DoubleData> causeMap) {
+        DoubleData data = causeMap.get(key);
+        if (data == null) {
+            data = new DoubleDataSketch();
+            causeMap.put(key, data);
+        }
+
+        return data;
+    }
+
+    private Map<String, DoubleData> getCauseMap(String type) {
+        Map<String, DoubleData> causeMap = typeCausePauses.get(type);
+        if (causeMap == null) {
+            causeMap = new TreeMap<String, DoubleData>();
+            typeCausePauses.put(type, causeMap);
+        }
+
+        return causeMap;
+    }
+
     public void add(AbstractGCEvent<?> abstractEvent) {
+        add(abstractEvent, false);
+    }
+
+    /**
+     * @param isAdjusted <code>true</code>, if the event has already been added to another model
+     * (its pause and timestamp must not be adjusted again)
+     */
+    private void add(AbstractGCEvent<?> abstractEvent, boolean isAdjusted) {
         makeSureHasTimeStamp(abstractEvent);
 
         allEvents.add(abstractEvent);
@@ -428,10 +550,13 @@ public class GCModel implements Serializable {
             // collect statistics about all stop the world events
             GCEvent event = (GCEvent) abstractEvent;
             addGcEvent(event);
+            if (event.getCause() != null && event.isStopTheWorld()) {
+                addCausePause(event);
+            }
         }
         else if (abstractEvent instanceof VmOperationEvent) {
             VmOperationEvent vmOperationEvent = (VmOperationEvent) abstractEvent;
-            addVmOperationEvent(vmOperationEvent);
+            addVmOperationEvent(vmOperationEvent, isAdjusted);
         }
 
         if (size() == 1 || (size() > 1 && abstractEvent.getTimestamp() > 0.0)) {
@@ -445,6 +570,231 @@ public class GCModel implements Serializable {
             // as well
             totalPause.add(abstractEvent.getPause());
         }
+        anomalyDetector.add(abstractEvent);
+    }
+
+    /**
+     * Appends all events of <code>other</code> to this model and combines the statistics of both models
+     * without replaying the events of <code>other</code> (statistics are merged in constant time).
+     * The events of <code>other</code> are taken as they were parsed (no pause or timestamp
+     * adjustments relative to the events of this model are done).
+     * <p>
+     * Exceptions are the anomalies and the safepoint outliers: whether an event is anomalous depends on
+     * the events before it, so the events of <code>other</code> are replayed through the
+     * {@link AnomalyDetector} and the {@link SafepointStatistics} (linear in the size of <code>other</code>,
+     * constant time only, if this model is empty).
+     * <p>
+     * If the events of <code>other</code> depend on the last events of this model in a way that
+     * can't be derived from the statistics (first event without timestamp, concurrency helper as first gc event)
+     * or one of the models stores its events in a {@link MappedGCEventStore},
+     * they are replayed using {@link #add(AbstractGCEvent)}.
+     *
+     * @param other model to be appended to this model
+     */
+    public void merge(GCModel other) {
+        if (other.size() == 0) {
+            return;
+        }
+        if (isEventStoreMapped() || other.isEventStoreMapped() || (size() > 0 && needsReplay(other))) {
+            for (Iterator<AbstractGCEvent<?>> iterator = other.getEvents(); iterator.hasNext(); ) {
+                add(iterator.next());
+            }
+            return;
+        }
+
+        AbstractGCEvent<?> lastEvent = getLastEventAdded();
+        if (lastEvent != null
+                && lastEvent.isConcurrentCollectionEnd()
+                && !lastEvent.hasMemoryInformation()
+                && other.get(0) instanceof GCEvent) {
+
+            updatePostConcurrentCycleUsedSizes((GCEvent) other.get(0));
+        }
+
+        mergePauseIntervals(other);
+        mergePostGCSlopes(other);
+        mergeAnomalies(other);
+        mergeSafepointStatistics(other);
+
+        allEvents.addAll(other.allEvents);
+        stopTheWorldEvents.addAll(other.stopTheWorldEvents);
+        gcEvents.addAll(other.gcEvents);
+        vmOperationEvents.addAll(other.vmOperationEvents);
+        concurrentGCEvents.addAll(other.concurrentGCEvents);
+        fullGCEvents.addAll(other.fullGCEvents);
+
+        mergePauseMap(fullGcEventPauses, other.fullGcEventPauses);
+        mergePauseMap(gcEventPauses, other.gcEventPauses);
+        mergePauseMap(gcEventPhases, other.gcEventPhases);
+        mergePauseMap(concurrentGcEventPauses, other.concurrentGcEventPauses);
+        mergePauseMap(vmOperationEventPauses, other.vmOperationEventPauses);
+        mergeCausePauseMap(causePauses, other.causePauses);
+        for (Map.Entry<String, Map<String, DoubleData>> entry : other.typeCausePauses.entrySet()) {
+            mergeCausePauseMap(getCauseMap(entry.getKey()), entry.getValue());
+        }
+
+        heapAllocatedSizes.merge(other.heapAllocatedSizes);
+        tenuredAllocatedSizes.merge(other.tenuredAllocatedSizes);
+        youngAllocatedSizes.merge(other.youngAllocatedSizes);
+        permAllocatedSizes.merge(other.permAllocatedSizes);
+        heapUsedSizes.merge(other.heapUsedSizes);
+        tenuredUsedSizes.merge(other.tenuredUsedSizes);
+        youngUsedSizes.merge(other.youngUsedSizes);
+        permUsedSizes.merge(other.permUsedSizes);
+        postConcurrentCycleUsedTenuredSizes.merge(other.postConcurrentCycleUsedTenuredSizes);
+        postConcurrentCycleUsedHeapSizes.merge(other.postConcurrentCycleUsedHeapSizes);
+        promotion.merge(other.promotion);
+
+        firstPauseTimeStamp = Math.min(firstPauseTimeStamp, other.firstPauseTimeStamp);
+        lastPauseTimeStamp = Math.max(lastPauseTimeStamp, other.lastPauseTimeStamp);
+        totalPause.merge(other.totalPause);
+        fullGCPause.merge(other.fullGCPause);
+        gcPause.merge(other.gcPause);
+        vmOperationPause.merge(other.vmOperationPause);
+        initiatingOccupancyFraction.merge(other.initiatingOccupancyFraction);
+        freedMemory += other.freedMemory;
+        postGCUsedMemory.merge(other.postGCUsedMemory);
+        postFullGCUsedHeap.merge(other.postFullGCUsedHeap);
+        freedMemoryByGC.merge(other.freedMemoryByGC);
+        freedMemoryByFullGC.merge(other.freedMemoryByFullGC);
+        postFullGCSlope.merge(other.postFullGCSlope);
+        if (format == null) {
+            format = other.format;
+        }
+    }
+
+    /**
+     * Returns a snapshot of this model containing all events added so far. The snapshot is never
+     * changed afterwards, even if more events are added to this model, so it can be displayed
+     * (e.g. on the event dispatch thread) while this model is still being filled. Must be called
+     * on the thread adding events to this model.
+     * <p>
+     * For models storing their events on the java heap, the event lists of the snapshot share
+     * the events added until now with this model (see {@link AppendOnlyList}) and only the
+     * statistics are copied, so the cost doesn't depend on the number of events. The event objects
+     * themselves are not copied: they must not be changed any more after they have been added to
+     * the model (which the readers don't). Events of a {@link MappedGCEventStore} are copied to the
+     * java heap, because the store may be closed while the snapshot is still in use: only the events
+     * added since the last snapshot are added to a copy of this model on the heap, which is kept
+     * for the next snapshot.
+     *
+     * @return snapshot of this model
+     */
+    public GCModel createSnapshot() {
+        GCModel source = this;
+        if (isEventStoreMapped()) {
+            if (heapCopy == null) {
+                heapCopy = new GCModel((MappedGCEventStore) null);
+            }
+            for (int i = heapCopy.size(); i < size(); i++) {
+                heapCopy.add(allEvents.get(i), true);
+            }
+            source = heapCopy;
+        }
+
+        GCModel snapshot = new GCModel((MappedGCEventStore) null);
+        snapshot.merge(source);
+        snapshot.format = format;
+        snapshot.url = url;
+        snapshot.fileInformation = fileInformation;
+        return snapshot;
+    }
+
+    private boolean needsReplay(GCModel other) {
+        if (other.get(0).getTimestamp() < 0.000001) {
+            // timestamp must be derived from datestamp of first event of this model
+            return true;
+        }
+        if (lastGcPauseTimeStamp > 0 && other.firstGcEvent != null && other.firstGcEvent.isConcurrencyHelper()) {
+            return true;
+        }
+        return lastFullGcPauseTimeStamp > 0 && other.fullGCEvents.size() > 0 && other.fullGCEvents.get(0).isConcurrencyHelper();
+    }
+
+    private void mergePauseIntervals(GCModel other) {
+        if (other.firstGcEvent != null) {
+            if (lastGcPauseTimeStamp > 0 && other.firstGcEvent.getTimestamp() - lastGcPauseTimeStamp >= 0) {
+                pauseInterval.add(other.firstGcEvent.getTimestamp() - lastGcPauseTimeStamp);
+            }
+            if (firstGcEvent == null) {
+                firstGcEvent = other.firstGcEvent;
+            }
+            lastGcPauseTimeStamp = other.lastGcPauseTimeStamp;
+        }
+        pauseInterval.merge(other.pauseInterval);
+
+        if (other.fullGCEvents.size() > 0) {
+            double otherFirstFullGcTimeStamp = other.fullGCEvents.get(0).getTimestamp();
+            if (lastFullGcPauseTimeStamp > 0 && otherFirstFullGcTimeStamp - lastFullGcPauseTimeStamp >= 0) {
+                fullGcPauseInterval.add(otherFirstFullGcTimeStamp - lastFullGcPauseTimeStamp);
+            }
+            lastFullGcPauseTimeStamp = other.lastFullGcPauseTimeStamp;
+        }
+        fullGcPauseInterval.merge(other.fullGcPauseInterval);
+    }
+
+    private void mergePostGCSlopes(GCModel other) {
+        int currentPointCount = currentRelativePostGCIncrease.getPointCount();
+        relativePostFullGCIncrease.merge(other.relativePostFullGCIncrease, relativePostFullGCIncrease.getPointCount());
+        if (other.fullGCEvents.isEmpty()) {
+            // no full gc in other -> all its gc events continue the current slope
+            currentPostGCSlope.merge(other.currentPostGCSlope);
+            currentRelativePostGCIncrease.merge(other.currentRelativePostGCIncrease, currentPointCount);
+            return;
+        }
+
+        // first full gc of other terminates the current slope of this model
+        currentPostGCSlope.merge(other.leadingPostGCSlope);
+        currentRelativePostGCIncrease.merge(other.leadingRelativePostGCIncrease, currentPointCount);
+        closeCurrentPostGCSlope(fullGCEvents.isEmpty());
+
+        postGCSlope.merge(other.postGCSlopeAfterFirstFullGC);
+        relativePostGCIncrease.merge(other.relativePostGCIncreaseAfterFirstFullGC);
+        postGCSlopeAfterFirstFullGC.merge(other.postGCSlopeAfterFirstFullGC);
+        relativePostGCIncreaseAfterFirstFullGC.merge(other.relativePostGCIncreaseAfterFirstFullGC);
+        currentPostGCSlope.merge(other.currentPostGCSlope);
+        currentRelativePostGCIncrease.merge(other.currentRelativePostGCIncrease);
+    }
+
+    private void mergeAnomalies(GCModel other) {
+        if (size() == 0) {
+            anomalyDetector = other.anomalyDetector.copy();
+        }
+        else {
+            // detectors depend on the events before -> only the detectors are replayed
+            for (AbstractGCEvent<?> event : other.allEvents) {
+                anomalyDetector.add(event);
+            }
+        }
+    }
+
+    private void mergeSafepointStatistics(GCModel other) {
+        if (!safepointStatistics.hasSafepoints()) {
+            safepointStatistics = other.safepointStatistics.copy();
+            return;
+        }
+
+        // outliers depend on the safepoints before -> replayed
+        for (AbstractGCEvent<?> event : other.vmOperationEvents) {
+            safepointStatistics.add((VmOperationEvent) event);
+        }
+    }
+
+    private void mergePauseMap(Map<String, DoubleData> pauseMap, Map<String, DoubleData> otherPauseMap) {
+        for (Map.Entry<String, DoubleData> entry : otherPauseMap.entrySet()) {
+            getDoubleData(entry.getKey(), pauseMap).merge(entry.getValue());
+        }
+    }
+
+    private void mergeCausePauseMap(Map<String, DoubleData> causeMap, Map<String, DoubleData> otherCauseMap) {
+        for (Map.Entry<String, DoubleData> entry : otherCauseMap.entrySet()) {
+            getCauseDoubleData(entry.getKey(), causeMap).merge(entry.getValue());
+        }
+    }
+
+    private void addCausePause(GCEvent event) {
+        getCauseDoubleData(event.getCause(), causePauses).add(event.getPause());
+        getCauseDoubleData(event.getCause(), getCauseMap(event.getExtendedType().getType().getName())).add(event.getPause());
     }
 
     private void addConcurrentGcEvent(ConcurrentGCEvent concEvent) {
@@ -501,7 +851,6 @@ public class GCModel implements Serializable {
         gcEvents.add(event);
         postGCUsedMemory.add(event.getPostUsed());
         freedMemoryByGC.add(event.getPreUsed() - event.getPostUsed());
-        currentNoFullGCEvents.add(event);
         currentPostGCSlope.addPoint(event.getTimestamp(), event.getPostUsed());
         currentRelativePostGCIncrease.addPoint(currentRelativePostGCIncrease.getPointCount(), event.getPostUsed());
         gcPause.add(event.getPause());
@@ -522,11 +871,28 @@ public class GCModel implements Serializable {
         relativePostFullGCIncrease.addPoint(relativePostFullGCIncrease.getPointCount(), event.getPostUsed());
 
         // process no full-gc run data
+        closeCurrentPostGCSlope(fullGCEvents.size() == 1);
+    }
+
+    /**
+     * Adds the slope of the gc events since the last full gc to the statistics and resets the current slope.
+     *
+     * @param isFirstFullGc <code>true</code>, if the current slope is terminated by the first full gc
+     */
+    private void closeCurrentPostGCSlope(boolean isFirstFullGc) {
         if (currentPostGCSlope.hasPoints()) {
             // make sure we have at least _two_ data points
             if (currentPostGCSlope.isLine()) {
                 postGCSlope.add(currentPostGCSlope.slope(), currentPostGCSlope.getPointCount());
                 relativePostGCIncrease.add(currentRelativePostGCIncrease.slope(), currentRelativePostGCIncrease.getPointCount());
+                if (!isFirstFullGc) {
+                    postGCSlopeAfterFirstFullGC.add(currentPostGCSlope.slope(), currentPostGCSlope.getPointCount());
+                    relativePostGCIncreaseAfterFirstFullGC.add(currentRelativePostGCIncrease.slope(), currentRelativePostGCIncrease.getPointCount());
+                }
+            }
+            if (isFirstFullGc) {
+                leadingPostGCSlope.merge(currentPostGCSlope);
+                leadingRelativePostGCIncrease.merge(currentRelativePostGCIncrease);
             }
             currentPostGCSlope.reset();
             currentRelativePostGCIncrease.reset();
@@ -542,12 +908,12 @@ public class GCModel implements Serializable {
             phases = getDoubleData(phaseEvent.getTypeAsString(), gcEventPhases);
             phases.add(phaseEvent.getPause());
         }
-
-        gcPhases.addAll(event.getPhases());
     }
 
-    private void addVmOperationEvent(VmOperationEvent vmOperationEvent) {
-        adjustPause(vmOperationEvent);
+    private void addVmOperationEvent(VmOperationEvent vmOperationEvent, boolean isAdjusted) {
+        if (!isAdjusted) {
+            adjustPause(vmOperationEvent);
+        }
         if (vmOperationEvent.getTimestamp() < 0.000001) {
             setTimeStamp(vmOperationEvent);
         }
@@ -555,6 +921,7 @@ public class GCModel implements Serializable {
         vmOperationEvents.add(vmOperationEvent);
         DoubleData vmOpPauses = getDoubleData(vmOperationEvent.getTypeAsString(), vmOperationEventPauses);
         vmOpPauses.add(vmOperationEvent.getPause());
+        safepointStatistics.add(vmOperationEvent);
     }
 
     private void makeSureHasTimeStamp(AbstractGCEvent<?> abstractEvent) {
@@ -645,6 +1012,20 @@ public class GCModel implements Serializable {
      * @param event
      */
     private void updatePromotion(GCEvent event) {
+        long promotedMemory = getPromotion(event);
+        if (promotedMemory != NO_PROMOTION) {
+            promotion.add((int) promotedMemory);
+        }
+    }
+
+    /**
+     * Returns the memory promoted from young to tenured space by <code>event</code>.
+     *
+     * @param event event of any type
+     * @return memory promoted in KB or {@link #NO_PROMOTION}, if <code>event</code> is not a young
+     * collection with details about the young space
+     */
+    static long getPromotion(GCEvent event) {
         if (event.getGeneration().equals(Generation.YOUNG) && event.hasDetails() && !event.isFull()) {
 
             GCEvent youngEvent = null;
@@ -657,14 +1038,18 @@ public class GCModel implements Serializable {
             }
 
             if (youngEvent != null) {
-                promotion.add((youngEvent.getPreUsed() - youngEvent.getPostUsed())
-                        - (event.getPreUsed() - event.getPostUsed())
-                );
+                return (youngEvent.getPreUsed() - youngEvent.getPostUsed())
+                        - (event.getPreUsed() - event.getPostUsed());
             }
         }
+
+        return NO_PROMOTION;
     }
 
     private void updateGcPauseInterval(GCEvent event) {
+        if (firstGcEvent == null) {
+            firstGcEvent = event;
+        }
         if (lastGcPauseTimeStamp > 0) {
             if (!event.isConcurrencyHelper()) {
                 // JRockit sometimes has special timestamps that seem to go back in time,
@@ -898,6 +1283,22 @@ public class GCModel implements Serializable {
         return concurrentGcEventPauses;
     }
 
+    /**
+     * @return pauses of the stop the world gc events with a known cause by cause (see
+     * {@link AbstractGCEvent#getCause()}); the values are {@link DoubleDataSketch}es.
+     */
+    public Map<String, DoubleData> getCausePauses() {
+        return causePauses;
+    }
+
+    /**
+     * @return pauses of the stop the world gc events with a known cause by type name (without cause)
+     * and cause; the values are {@link DoubleDataSketch}es.
+     */
+    public Map<String, Map<String, DoubleData>> getTypeCausePauses() {
+        return typeCausePauses;
+    }
+
     /**
      * @return Throughput in percent.
      */
@@ -987,6 +1388,20 @@ public class GCModel implements Serializable {
         return promotion;
     }
 
+    /**
+     * @return detector containing the anomalous regions of this model (see {@link AnomalyDetector})
+     */
+    public AnomalyDetector getAnomalyDetector() {
+        return anomalyDetector;
+    }
+
+    /**
+     * @return time to safepoint / at safepoint of the vm operations of this model (see {@link SafepointStatistics})
+     */
+    public SafepointStatistics getSafepointStatistics() {
+        return safepointStatistics;
+    }
+
     /**
      * @return Footprint in KB.
      */
@@ -1034,7 +1449,8 @@ public class GCModel implements Serializable {
     }
 
     public boolean hasCorrectTimestamp() {
-        return format == Format.IBM_VERBOSE_GC || format == Format.SUN_X_LOG_GC || format == Format.SUN_1_2_2VERBOSE_GC || format == Format.UNIFIED_JVM_LOGGING;
+        return format == Format.IBM_VERBOSE_GC || format == Format.SUN_X_LOG_GC || format == Format.SUN_1_2_2VERBOSE_GC || format == Format.UNIFIED_JVM_LOGGING
+                || format == Format.JMX;
     }
 
     public boolean hasDateStamp() {
@@ -1113,5 +1529,6 @@ public class GCModel implements Serializable {
         public static final Format SUN_1_2_2VERBOSE_GC = new Format("Sun 1.2.2 -verbose:gc");
         public static final Format UNIFIED_JVM_LOGGING = new Format("Unified jvm logging -Xlog:gc");
         public static final Format GO = new Format("Go");
+        public static final Format JMX = new Format("JMX GarbageCollectionNotificationInfo");
     }
 }
@@ -0,0 +1,88 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Identifies a running jvm, whose garbage collections are received as JMX notifications
+ * (<code>com.sun.management.GarbageCollectionNotificationInfo</code>) instead of being read from a
+ * gc log file.
+ *
+ * <p>The resource name is either "{@value #PREFIX_PID}&lt;pid&gt;" for a jvm on the local machine
+ * (attached to using the attach api) or a JMX service url ("{@value #PREFIX_SERVICE_URL}...").</p>
+ */
+public class GcResourceJvm extends AbstractGcResource {
+    public static final String PREFIX_PID = "jvm:";
+    public static final String PREFIX_SERVICE_URL = "service:jmx:";
+    private static final AtomicInteger COUNT = new AtomicInteger(0);
+
+    public GcResourceJvm(String resourceName) {
+        super(resourceName, Logger.getLogger("GCResourceJvm".concat(Integer.toString(COUNT.incrementAndGet()))));
+
+        if (!isJvmResourceName(resourceName)) {
+            throw new IllegalArgumentException("resourceName must start with '" + PREFIX_PID + "' or '" + PREFIX_SERVICE_URL + "': " + resourceName);
+        }
+    }
+
+    /**
+     * Returns <code>true</code>, if <code>resourceName</code> identifies a running jvm.
+     *
+     * @param resourceName name of a resource
+     * @return <code>true</code> if <code>resourceName</code> can be used to create a {@link GcResourceJvm}
+     */
+    public static boolean isJvmResourceName(String resourceName) {
+        return resourceName != null
+                && (resourceName.startsWith(PREFIX_PID) || resourceName.startsWith(PREFIX_SERVICE_URL));
+    }
+
+    /**
+     * Returns the process id of the local jvm or <code>null</code>, if the jvm is identified by a service url.
+     *
+     * @return process id or <code>null</code>
+     */
+    public String getPid() {
+        return getResourceName().startsWith(PREFIX_PID) ? getResourceName().substring(PREFIX_PID.length()).trim() : null;
+    }
+
+    /**
+     * Returns the JMX service url of the jvm or <code>null</code>, if the jvm is identified by its process id.
+     *
+     * @return JMX service url or <code>null</code>
+     */
+    public String getServiceUrl() {
+        return getResourceName().startsWith(PREFIX_SERVICE_URL) ? getResourceName() : null;
+    }
+
+    /**
+     * The model of a running jvm is updated continuously while the jvm is connected; reading it
+     * again would only lose the events received so far.
+     *
+     * @return always <code>false</code>
+     */
+    @Override
+    public boolean hasUnderlyingResourceChanged() {
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        GcResourceJvm other = (GcResourceJvm) obj;
+        return getResourceName().equals(other.getResourceName());
+    }
+
+    @Override
+    public int hashCode() {
+        return getResourceName().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "GcResourceJvm [resourceName=" + getResourceName() + ", logger=" + getLogger() + ", model=" + getModel() + "]";
+    }
+}
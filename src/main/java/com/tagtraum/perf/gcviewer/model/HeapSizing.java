@@ -0,0 +1,593 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import com.tagtraum.perf.gcviewer.math.DoubleData;
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Generation;
+
+/**
+ * What-if analysis of heap sizes: replays the allocation and promotion observed in a {@link GCModel}
+ * against candidate sizes of heap and young generation (and initiating occupancies of the concurrent
+ * collector) to estimate the frequency of collections and the throughput, and recommends the
+ * smallest heap with (almost) the best throughput.
+ *
+ * <p>The events are visited once in {@link #compute(GCModel, double[], double[], double[])} and
+ * reduced to three compact primitive series (mutator time, allocated memory and promoted memory
+ * per allocated memory between two collections); every scenario is replayed over these arrays only (O(n + simulated
+ * collections)), so hundreds of scenarios take well below a second even for long logs.</p>
+ *
+ * <p>The replay is a simple model of a generational collector:</p>
+ * <ul>
+ * <li>the young generation fills with the observed allocation; every young collection costs the
+ * average observed young pause and promotes the memory allocated since the previous young collection
+ * times the promotion rate observed at this point of the log (the total promotion depends on the
+ * allocation, not on the number of young collections)</li>
+ * <li>the old generation starts with the live set (footprint after full gc or after concurrent
+ * cycles); if its occupancy reaches the initiating occupancy (fraction of the heap), a concurrent
+ * cycle is started, which lasts as long as the observed cycles and shrinks the old generation to the
+ * live set plus the memory promoted meanwhile</li>
+ * <li>if the old generation is full, a full collection costs the average observed full gc pause and
+ * shrinks the old generation to the live set</li>
+ * </ul>
+ * <p>Pauses of the concurrent cycles themselves (initial mark, remark) and fragmentation are not
+ * simulated. A scenario is not feasible, if the live set doesn't fit into its old generation.</p>
+ */
+public class HeapSizing {
+    /** default candidate heap sizes relative to the largest heap of the log */
+    public static final double[] DEFAULT_HEAP_FACTORS = {0.5, 0.75, 1, 1.25, 1.5, 2, 3, 4};
+    /** default candidate sizes of the young generation relative to the heap */
+    public static final double[] DEFAULT_YOUNG_RATIOS = {0.1, 0.2, 0.25, 1 / 3.0, 0.4, 0.5};
+    /** default candidate initiating occupancies (fraction of the heap; only concurrent collectors) */
+    public static final double[] DEFAULT_INITIATING_OCCUPANCY_FRACTIONS = {0.35, 0.45, 0.55, 0.65, 0.75};
+    /** scenarios with a throughput this many percentage points below the best one are not recommended */
+    public static final double THROUGHPUT_TOLERANCE = 0.5;
+
+    /** initiating occupancy used for the observed sizes, if the log doesn't contain one (default of G1) */
+    private static final double DEFAULT_INITIATING_OCCUPANCY_FRACTION = 0.45;
+    /** young generation used for the observed sizes, if the log doesn't contain it (NewRatio=2) */
+    private static final double DEFAULT_YOUNG_RATIO = 1 / 3.0;
+
+    /**
+     * Result of the replay for one combination of sizes.
+     */
+    public static class Scenario {
+        private final long heapSize;
+        private final long youngSize;
+        private final double initiatingOccupancyFraction;
+        private final double mutatorTime;
+        private final boolean cms;
+        private boolean feasible;
+        private int youngGcCount;
+        private int fullGcCount;
+        private int concurrentCycleCount;
+        private double pauseTime;
+        private double promotion;
+
+        private Scenario(long heapSize, long youngSize, double initiatingOccupancyFraction, double mutatorTime, boolean cms) {
+            this.heapSize = heapSize;
+            this.youngSize = youngSize;
+            this.initiatingOccupancyFraction = initiatingOccupancyFraction;
+            this.mutatorTime = mutatorTime;
+            this.cms = cms;
+        }
+
+        /**
+         * @return size of the heap (KB)
+         */
+        public long getHeapSize() {
+            return heapSize;
+        }
+
+        /**
+         * @return size of the young generation (KB)
+         */
+        public long getYoungSize() {
+            return youngSize;
+        }
+
+        /**
+         * @return size of the old generation (KB)
+         */
+        public long getOldSize() {
+            return heapSize - youngSize;
+        }
+
+        /**
+         * @return occupancy of the old generation starting a concurrent cycle as fraction of the heap
+         * (0..1) or <code>NaN</code>, if the collector has no concurrent cycles
+         */
+        public double getInitiatingOccupancyFraction() {
+            return initiatingOccupancyFraction;
+        }
+
+        /**
+         * @return <code>false</code>, if the live set doesn't fit into the old generation
+         */
+        public boolean isFeasible() {
+            return feasible;
+        }
+
+        public int getYoungGcCount() {
+            return youngGcCount;
+        }
+
+        public int getFullGcCount() {
+            return fullGcCount;
+        }
+
+        public int getConcurrentCycleCount() {
+            return concurrentCycleCount;
+        }
+
+        /**
+         * @return memory promoted by all simulated young collections (KB)
+         */
+        public double getPromotion() {
+            return promotion;
+        }
+
+        /**
+         * @return sum of the simulated pauses (s)
+         */
+        public double getPauseTime() {
+            return pauseTime;
+        }
+
+        /**
+         * @return young collections per minute of mutator time
+         */
+        public double getYoungGcRate() {
+            return getRate(youngGcCount);
+        }
+
+        /**
+         * @return full collections per minute of mutator time
+         */
+        public double getFullGcRate() {
+            return getRate(fullGcCount);
+        }
+
+        /**
+         * @return concurrent cycles per minute of mutator time
+         */
+        public double getConcurrentCycleRate() {
+            return getRate(concurrentCycleCount);
+        }
+
+        private double getRate(int count) {
+            return mutatorTime > 0 ? 60 * count / mutatorTime : Double.NaN;
+        }
+
+        /**
+         * @return time not spent in simulated pauses in percent or <code>NaN</code>, if the scenario
+         * is not feasible
+         */
+        public double getThroughput() {
+            if (!feasible) {
+                return Double.NaN;
+            }
+
+            return mutatorTime + pauseTime > 0 ? Math.min(100, 100 * mutatorTime / (mutatorTime + pauseTime)) : 100;
+        }
+
+        /**
+         * @return command line options of the jvm for the sizes of this scenario (sizes rounded to MB;
+         * the initiating occupancy is converted to a fraction of the old generation for CMS)
+         */
+        public String getJvmOptions() {
+            StringBuilder options = new StringBuilder();
+            options.append("-Xmx").append(toMegabytes(heapSize)).append("m -Xmn").append(toMegabytes(youngSize)).append('m');
+            if (!Double.isNaN(initiatingOccupancyFraction)) {
+                if (cms) {
+                    long percent = Math.min(100, Math.round(100 * initiatingOccupancyFraction * heapSize / getOldSize()));
+                    options.append(" -XX:CMSInitiatingOccupancyFraction=").append(percent);
+                }
+                else {
+                    options.append(" -XX:InitiatingHeapOccupancyPercent=").append(Math.round(100 * initiatingOccupancyFraction));
+                }
+            }
+
+            return options.toString();
+        }
+
+        private static long toMegabytes(long kilobytes) {
+            return Math.max(1, Math.round(kilobytes / 1024.0));
+        }
+
+        @Override
+        public String toString() {
+            return "Scenario [" + getJvmOptions() + ", feasible=" + feasible + ", youngGcCount=" + youngGcCount
+                    + ", fullGcCount=" + fullGcCount + ", concurrentCycleCount=" + concurrentCycleCount
+                    + ", throughput=" + getThroughput() + "]";
+        }
+    }
+
+    private double[] mutatorTimes;
+    private double[] allocations;
+    /** promoted memory per allocated memory (<code>NaN</code>, if unknown) */
+    private double[] promotionRates;
+    private int size;
+
+    private double totalMutatorTime;
+    /** promoted memory per allocated memory, where the log doesn't contain it */
+    private double averagePromotionRate;
+    private long liveSet;
+    private double youngPause;
+    private double fullPause;
+    private double concurrentCycleDuration;
+    private boolean concurrent;
+    private boolean cms;
+    /** occupancy of the old generation as fraction of the heap at the start of the observed concurrent cycles */
+    private final DoubleData initiatingOccupancyFractions = new DoubleData();
+
+    private Scenario observed;
+    private final List<Scenario> scenarios = new ArrayList<>();
+    private Scenario recommendation;
+
+    private HeapSizing(int initialCapacity) {
+        this.mutatorTimes = new double[initialCapacity];
+        this.allocations = new double[initialCapacity];
+        this.promotionRates = new double[initialCapacity];
+    }
+
+    /**
+     * Replays <code>model</code> against the default candidates ({@link #DEFAULT_HEAP_FACTORS},
+     * {@link #DEFAULT_YOUNG_RATIOS} and {@link #DEFAULT_INITIATING_OCCUPANCY_FRACTIONS}).
+     *
+     * @param model model to be analysed
+     * @return scenarios and recommendation
+     */
+    public static HeapSizing compute(GCModel model) {
+        return compute(model, DEFAULT_HEAP_FACTORS, DEFAULT_YOUNG_RATIOS, DEFAULT_INITIATING_OCCUPANCY_FRACTIONS);
+    }
+
+    /**
+     * Replays <code>model</code> against every combination of the candidates.
+     *
+     * @param model model to be analysed
+     * @param heapFactors candidate heap sizes relative to the largest heap of the log
+     * @param youngRatios candidate sizes of the young generation relative to the heap
+     * @param initiatingOccupancyFractions candidate initiating occupancies (fraction of the heap);
+     * ignored, if the log doesn't contain concurrent cycles
+     * @return scenarios and recommendation
+     */
+    public static HeapSizing compute(GCModel model,
+                                     double[] heapFactors,
+                                     double[] youngRatios,
+                                     double[] initiatingOccupancyFractions) {
+
+        long observedHeapSize = model.getHeapAllocatedSizes().getN() > 0 ? model.getHeapAllocatedSizes().getMax() : 0;
+        long observedYoungSize = model.getYoungAllocatedSizes().getN() > 0 ? model.getYoungAllocatedSizes().getMax() : 0;
+        if (observedYoungSize <= 0 || observedYoungSize >= observedHeapSize) {
+            observedYoungSize = Math.round(DEFAULT_YOUNG_RATIO * observedHeapSize);
+        }
+
+        HeapSizing heapSizing = new HeapSizing(1024);
+        heapSizing.extract(model, observedHeapSize > 0 ? observedYoungSize / (double) observedHeapSize : 0);
+        if (observedHeapSize <= 0 || heapSizing.size == 0) {
+            return heapSizing;
+        }
+
+        double observedInitiatingOccupancyFraction = Double.NaN;
+        if (heapSizing.concurrent) {
+            observedInitiatingOccupancyFraction = heapSizing.initiatingOccupancyFractions.getN() > 0
+                    ? heapSizing.initiatingOccupancyFractions.average()
+                    : DEFAULT_INITIATING_OCCUPANCY_FRACTION;
+        }
+        heapSizing.observed = heapSizing.replay(observedHeapSize, observedYoungSize, observedInitiatingOccupancyFraction);
+
+        double[] fractions = heapSizing.concurrent ? initiatingOccupancyFractions : new double[] {Double.NaN};
+        for (double heapFactor : heapFactors) {
+            long heapSize = Math.round(heapFactor * observedHeapSize);
+            for (double youngRatio : youngRatios) {
+                long youngSize = Math.round(youngRatio * heapSize);
+                for (double fraction : fractions) {
+                    heapSizing.scenarios.add(heapSizing.replay(heapSize, youngSize, fraction));
+                }
+            }
+        }
+
+        heapSizing.recommend();
+        return heapSizing;
+    }
+
+    /**
+     * Reduces the events of <code>model</code> to the primitive series and the constants of the replay.
+     *
+     * @param youngRatio size of the young generation relative to the heap
+     */
+    private void extract(GCModel model, double youngRatio) {
+        int lastPostUsed = -1;
+        double lastEnd = Double.NaN;
+        boolean lastYoung = false;
+        long minPostUsed = Long.MAX_VALUE;
+        double promotionSum = 0;
+        double promotionAllocationSum = 0;
+        double growthSum = 0;
+        double growthAllocationSum = 0;
+        double youngPauseSum = 0;
+        int youngPauseCount = 0;
+        for (Iterator<AbstractGCEvent<?>> i = model.getStopTheWorldEvents(); i.hasNext(); ) {
+            AbstractGCEvent<?> event = i.next();
+            if (!(event instanceof GCEvent) || !event.hasMemoryInformation()) {
+                continue;
+            }
+
+            GCEvent gcEvent = (GCEvent) event;
+            if (gcEvent.isInitialMark()) {
+                addInitiatingOccupancy(gcEvent, youngRatio);
+            }
+
+            boolean young = gcEvent.getGeneration().equals(Generation.YOUNG) && !gcEvent.isFull();
+            if (young) {
+                youngPauseSum += gcEvent.getPause();
+                ++youngPauseCount;
+            }
+
+            long promotion = GCModel.getPromotion(gcEvent);
+            if (lastPostUsed >= 0) {
+                double allocation = Math.max(0, gcEvent.getPreUsed() - lastPostUsed);
+                double promotionRate = Double.NaN;
+                if (promotion != GCModel.NO_PROMOTION) {
+                    promotionSum += Math.max(0, promotion);
+                    promotionAllocationSum += allocation;
+                    promotionRate = allocation > 0 ? Math.max(0, promotion) / allocation : Double.NaN;
+                }
+                else if (young && lastYoung && gcEvent.getPostUsed() > lastPostUsed) {
+                    // without details, the growth of the heap after young collections is the promotion
+                    growthSum += gcEvent.getPostUsed() - lastPostUsed;
+                    growthAllocationSum += allocation;
+                }
+
+                add(Math.max(0, gcEvent.getTimestamp() - lastEnd), allocation, promotionRate);
+            }
+
+            minPostUsed = Math.min(minPostUsed, gcEvent.getPostUsed());
+            lastPostUsed = gcEvent.getPostUsed();
+            lastEnd = gcEvent.getTimestamp() + gcEvent.getPause();
+            lastYoung = young;
+        }
+
+        for (int i = 0; i < size; ++i) {
+            totalMutatorTime += mutatorTimes[i];
+        }
+        if (promotionAllocationSum > 0) {
+            averagePromotionRate = promotionSum / promotionAllocationSum;
+        }
+        else {
+            averagePromotionRate = growthAllocationSum > 0 ? growthSum / growthAllocationSum : 0;
+        }
+
+        if (model.getFootprintAfterFullGC().getN() > 0) {
+            liveSet = model.getFootprintAfterFullGC().getMax();
+        }
+        else if (model.getPostConcurrentCycleHeapUsedSizes().getN() > 0) {
+            liveSet = Math.round(model.getPostConcurrentCycleHeapUsedSizes().average());
+        }
+        else {
+            liveSet = minPostUsed == Long.MAX_VALUE ? 0 : minPostUsed;
+        }
+
+        youngPause = youngPauseCount > 0 ? youngPauseSum / youngPauseCount : 0;
+        if (model.getFullGCPause().getN() > 0) {
+            fullPause = model.getFullGCPause().average();
+        }
+        else {
+            // no full collection in the log: the longest pause is a lower bound
+            fullPause = model.getPause().getN() > 0 ? model.getPause().getMax() : 0;
+        }
+
+        Iterator<ConcurrentGCEvent> concurrentEvents = model.getConcurrentGCEvents();
+        cms = concurrentEvents.hasNext() && concurrentEvents.next().getExtendedType().getName().startsWith("CMS");
+        ConcurrentCycles concurrentCycles = ConcurrentCycles.compute(model);
+        concurrent = concurrentCycles.hasCycles() || initiatingOccupancyFractions.getN() > 0;
+        concurrentCycleDuration = concurrentCycles.getDuration().getN() > 0 ? concurrentCycles.getDuration().average() : 0;
+    }
+
+    /**
+     * Adds the occupancy at the start of a concurrent cycle in the unit of the scenarios (old generation
+     * as fraction of the heap). The logs contain it in different units: CMS logs the old generation
+     * relative to the old generation ("CMS-initial-mark"), G1 the whole heap including the young
+     * generation. Without details about the generations, the young generation is assumed to be full
+     * (G1 starts concurrent cycles with a young collection).
+     */
+    private void addInitiatingOccupancy(GCEvent event, double youngRatio) {
+        if (event.getTotal() <= 0) {
+            return;
+        }
+
+        GCEvent tenured = event.getTenured();
+        if (tenured != null && tenured.getTotal() > 0 && tenured.getTotal() < event.getTotal()) {
+            initiatingOccupancyFractions.add(tenured.getPreUsed() / (double) event.getTotal());
+        }
+        else {
+            initiatingOccupancyFractions.add(Math.max(0, event.getPreUsed() / (double) event.getTotal() - youngRatio));
+        }
+    }
+
+    private void add(double mutatorTime, double allocation, double promotionRate) {
+        if (size == mutatorTimes.length) {
+            mutatorTimes = Arrays.copyOf(mutatorTimes, size * 2);
+            allocations = Arrays.copyOf(allocations, size * 2);
+            promotionRates = Arrays.copyOf(promotionRates, size * 2);
+        }
+
+        mutatorTimes[size] = mutatorTime;
+        allocations[size] = allocation;
+        promotionRates[size] = promotionRate;
+        ++size;
+    }
+
+    /**
+     * Replays the series against one combination of sizes.
+     */
+    private Scenario replay(long heapSize, long youngSize, double initiatingOccupancyFraction) {
+        Scenario scenario = new Scenario(heapSize, youngSize, initiatingOccupancyFraction, totalMutatorTime, cms);
+        long oldSize = heapSize - youngSize;
+        if (youngSize <= 0 || liveSet >= oldSize) {
+            return scenario;
+        }
+
+        scenario.feasible = true;
+        double initiatingOccupancy = initiatingOccupancyFraction * heapSize; // NaN: never starts a cycle
+        double youngUsed = 0;
+        double oldUsed = liveSet;
+        double cycleEnd = Double.NaN;
+        double promotedDuringCycle = 0;
+        // promotion of the memory allocated since the last young collection
+        double survivors = 0;
+        double intervalStart = 0;
+        for (int i = 0; i < size; ++i) {
+            double allocation = allocations[i];
+            double remaining = allocation;
+            double promotionRate = Double.isNaN(promotionRates[i]) ? averagePromotionRate : promotionRates[i];
+            while (youngUsed + remaining >= youngSize) {
+                remaining -= youngSize - youngUsed;
+                survivors += promotionRate * (youngSize - youngUsed);
+                youngUsed = 0;
+                double promotion = Math.min(youngSize, survivors);
+                survivors = 0;
+                scenario.promotion += promotion;
+                double time = intervalStart + (allocation > 0 ? mutatorTimes[i] * (allocation - remaining) / allocation : 0);
+
+                ++scenario.youngGcCount;
+                scenario.pauseTime += youngPause;
+                if (time >= cycleEnd) {
+                    oldUsed = liveSet + promotedDuringCycle;
+                    cycleEnd = Double.NaN;
+                }
+
+                oldUsed += promotion;
+                if (!Double.isNaN(cycleEnd)) {
+                    promotedDuringCycle += promotion;
+                }
+
+                if (oldUsed >= oldSize) {
+                    // promotion failed / concurrent mode failure
+                    ++scenario.fullGcCount;
+                    scenario.pauseTime += fullPause;
+                    oldUsed = liveSet;
+                    cycleEnd = Double.NaN;
+                }
+                else if (Double.isNaN(cycleEnd) && oldUsed >= initiatingOccupancy) {
+                    ++scenario.concurrentCycleCount;
+                    promotedDuringCycle = 0;
+                    cycleEnd = time + concurrentCycleDuration;
+                    if (concurrentCycleDuration <= 0) {
+                        oldUsed = liveSet;
+                        cycleEnd = Double.NaN;
+                    }
+                }
+            }
+
+            youngUsed += remaining;
+            survivors += promotionRate * remaining;
+            intervalStart += mutatorTimes[i];
+        }
+
+        return scenario;
+    }
+
+    /**
+     * Recommends the smallest feasible heap with the fewest full collections, whose throughput is at
+     * most {@link #THROUGHPUT_TOLERANCE} percentage points below the best one.
+     */
+    private void recommend() {
+        double bestThroughput = Double.NaN;
+        int fewestFullGcs = Integer.MAX_VALUE;
+        for (Scenario scenario : scenarios) {
+            if (scenario.isFeasible()) {
+                fewestFullGcs = Math.min(fewestFullGcs, scenario.getFullGcCount());
+                if (Double.isNaN(bestThroughput) || scenario.getThroughput() > bestThroughput) {
+                    bestThroughput = scenario.getThroughput();
+                }
+            }
+        }
+
+        for (Scenario scenario : scenarios) {
+            if (!scenario.isFeasible()
+                    || scenario.getFullGcCount() > fewestFullGcs
+                    || scenario.getThroughput() < bestThroughput - THROUGHPUT_TOLERANCE) {
+
+                continue;
+            }
+
+            if (recommendation == null
+                    || scenario.getHeapSize() < recommendation.getHeapSize()
+                    || (scenario.getHeapSize() == recommendation.getHeapSize()
+                        && scenario.getThroughput() > recommendation.getThroughput())) {
+
+                recommendation = scenario;
+            }
+        }
+    }
+
+    /**
+     * @return <code>true</code>, if the log contains enough information to replay any scenario
+     */
+    public boolean hasScenarios() {
+        return observed != null;
+    }
+
+    /**
+     * @return number of intervals between two collections replayed in every scenario
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the observed sizes replayed (to compare the model with the log) or <code>null</code>,
+     * if there are no scenarios
+     */
+    public Scenario getObserved() {
+        return observed;
+    }
+
+    /**
+     * @return all candidate scenarios in the order of the candidates
+     */
+    public List<Scenario> getScenarios() {
+        return Collections.unmodifiableList(scenarios);
+    }
+
+    /**
+     * @return recommended scenario or <code>null</code>, if no scenario is feasible
+     */
+    public Scenario getRecommendation() {
+        return recommendation;
+    }
+
+    /**
+     * @return memory surviving a full collection assumed in every scenario (KB)
+     */
+    public long getLiveSet() {
+        return liveSet;
+    }
+
+    /**
+     * @return memory promoted per allocated memory, where the log doesn't contain it
+     */
+    public double getAveragePromotionRate() {
+        return averagePromotionRate;
+    }
+
+    /**
+     * @return time between the collections replayed (s)
+     */
+    public double getMutatorTime() {
+        return totalMutatorTime;
+    }
+
+    /**
+     * @return <code>true</code>, if the collector has concurrent cycles (initiating occupancies are
+     * part of the scenarios)
+     */
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+}
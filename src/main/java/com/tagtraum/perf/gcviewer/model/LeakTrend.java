@@ -0,0 +1,438 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import com.tagtraum.perf.gcviewer.math.TheilSenLine;
+
+/**
+ * Memory leak trend of a {@link GCModel}: robust (Theil-Sen) regression lines over the heap
+ * occupancy after full collections (or after all collections, if there are not enough full
+ * collections), split into segments at the points, where the trend changes (change points).
+ * The trend of the last segment is extrapolated to estimate the time until the heap is exhausted.
+ * <p>
+ * The occupancy is sampled into a {@link TheilSenLine} of bounded size in O(n) for n events; the
+ * change points are found by binary segmentation of the sample, each split costing O(m) for m
+ * sample points. A split is accepted, if it reduces the squared error of least squares lines
+ * enough to pay for the additional parameters (bayesian information criterion with the noise
+ * estimated from the second differences of the sample). Single outliers are removed by a median
+ * filter before the segmentation.
+ */
+public class LeakTrend {
+    /** minimum number of points for a trend */
+    public static final int MIN_POINTS = 5;
+    /** minimum number of sample points of a segment */
+    private static final int MIN_SEGMENT_POINTS = 5;
+    private static final int MAX_SEGMENTS = 16;
+    /** parameters added by a split: slope and intercept of the new segment and the change point */
+    private static final int SPLIT_PARAMETERS = 3;
+    /** number of neighbouring points of the median filter, which removes single outliers before segmentation */
+    private static final int MEDIAN_FILTER_RADIUS = 2;
+    /** minimum standard deviation of the noise relative to the mean occupancy; smaller changes are not significant */
+    private static final double MIN_RELATIVE_NOISE = 0.001;
+
+    /**
+     * Occupancy, the trend is computed from.
+     */
+    public enum Source {
+        /** heap used after full collections */
+        POST_FULL_GC("postFullGC"),
+        /** heap used after all other collections */
+        POST_GC("postGC");
+
+        private final String name;
+
+        Source(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Part of the occupancy with one trend.
+     */
+    public static class Segment {
+        private final double start;
+        private final double end;
+        private final int sampleSize;
+        private final double slope;
+        private final double intercept;
+
+        private Segment(double start, double end, int sampleSize, double slope, double intercept) {
+            this.start = start;
+            this.end = end;
+            this.sampleSize = sampleSize;
+            this.slope = slope;
+            this.intercept = intercept;
+        }
+
+        /**
+         * @return timestamp of the first point of the segment (seconds)
+         */
+        public double getStart() {
+            return start;
+        }
+
+        /**
+         * @return timestamp of the last point of the segment (seconds)
+         */
+        public double getEnd() {
+            return end;
+        }
+
+        /**
+         * @return number of sample points in this segment
+         */
+        public int getSampleSize() {
+            return sampleSize;
+        }
+
+        /**
+         * @return Theil-Sen slope of the occupancy in this segment (kb/s)
+         */
+        public double getSlope() {
+            return slope;
+        }
+
+        /**
+         * @return Theil-Sen intercept of the occupancy in this segment (kb)
+         */
+        public double getIntercept() {
+            return intercept;
+        }
+
+        /**
+         * @param timestamp timestamp (seconds)
+         * @return occupancy of the regression line at <code>timestamp</code> (kb)
+         */
+        public double getOccupancy(double timestamp) {
+            return intercept + slope * timestamp;
+        }
+
+        @Override
+        public String toString() {
+            return "Segment [" + start + "-" + end + ", slope=" + slope + ", intercept=" + intercept
+                    + ", sampleSize=" + sampleSize + "]";
+        }
+    }
+
+    private final Source source;
+    private final long pointCount;
+    private final double overallSlope;
+    private final List<Segment> segments;
+    private final double heapLimit;
+    private final double lastTimestamp;
+
+    private LeakTrend(Source source, long pointCount, double overallSlope, List<Segment> segments,
+                      double heapLimit, double lastTimestamp) {
+
+        this.source = source;
+        this.pointCount = pointCount;
+        this.overallSlope = overallSlope;
+        this.segments = Collections.unmodifiableList(segments);
+        this.heapLimit = heapLimit;
+        this.lastTimestamp = lastTimestamp;
+    }
+
+    /**
+     * Computes the trend of the heap occupancy after full collections or (if <code>model</code>
+     * contains less than {@link #MIN_POINTS} full collections) after all collections.
+     *
+     * @param model model to be analysed
+     * @return leak trend of the model
+     */
+    public static LeakTrend compute(GCModel model) {
+        return compute(model, TheilSenLine.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param model model to be analysed
+     * @param capacity maximum number of points used to compute the trend
+     * @return leak trend of the model
+     */
+    public static LeakTrend compute(GCModel model, int capacity) {
+        Source source = Source.POST_FULL_GC;
+        TheilSenLine line = sample(model.getFullGCEvents(), capacity);
+        if (line.getPointCount() < MIN_POINTS) {
+            source = Source.POST_GC;
+            line = sample(model.getGCEvents(), capacity);
+        }
+
+        List<Segment> segments = new ArrayList<>();
+        double overallSlope = Double.NaN;
+        if (line.getPointCount() >= MIN_POINTS && line.isLine()) {
+            overallSlope = line.slope();
+
+            List<Integer> changePoints = new ArrayList<>();
+            new ChangePointFinder(line).split(0, line.getSampleSize(), changePoints);
+            Collections.sort(changePoints);
+            changePoints.add(line.getSampleSize());
+
+            int from = 0;
+            for (int to : changePoints) {
+                double slope = line.slope(from, to);
+                segments.add(new Segment(line.getSampleX(from),
+                        line.getSampleX(to - 1),
+                        to - from,
+                        slope,
+                        line.intercept(slope, from, to)));
+                from = to;
+            }
+        }
+
+        return new LeakTrend(source,
+                line.getPointCount(),
+                overallSlope,
+                segments,
+                model.getHeapAllocatedSizes().getMax(),
+                model.getLastPauseTimeStamp());
+    }
+
+    private static TheilSenLine sample(Iterator<GCEvent> events, int capacity) {
+        TheilSenLine line = new TheilSenLine(capacity);
+        while (events.hasNext()) {
+            GCEvent event = events.next();
+            if (event.getTotal() > 0) {
+                line.addPoint(event.getTimestamp(), event.getPostUsed());
+            }
+        }
+
+        return line;
+    }
+
+    /**
+     * @return <code>true</code>, if there were enough points to compute a trend
+     */
+    public boolean hasTrend() {
+        return !segments.isEmpty();
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    /**
+     * @return number of occupancy points (not only the sample, which was used for the computation)
+     */
+    public long getPointCount() {
+        return pointCount;
+    }
+
+    /**
+     * @return segments in chronological order (empty, if there is no trend)
+     */
+    public List<Segment> getSegments() {
+        return segments;
+    }
+
+    /**
+     * @return timestamps (seconds), where the trend changes
+     */
+    public double[] getChangePoints() {
+        double[] changePoints = new double[Math.max(0, segments.size() - 1)];
+        for (int i = 0; i < changePoints.length; ++i) {
+            changePoints[i] = segments.get(i + 1).getStart();
+        }
+
+        return changePoints;
+    }
+
+    /**
+     * @return Theil-Sen slope of the whole occupancy ignoring change points (kb/s) or
+     * <code>NaN</code>, if there is no trend
+     */
+    public double getOverallSlope() {
+        return overallSlope;
+    }
+
+    /**
+     * @return Theil-Sen slope of the last segment (kb/s) or <code>NaN</code>, if there is no trend
+     */
+    public double getSlope() {
+        return hasTrend() ? segments.get(segments.size() - 1).getSlope() : Double.NaN;
+    }
+
+    /**
+     * @return maximum allocated heap size of the model (kb), which is the limit for the extrapolation
+     */
+    public double getHeapLimit() {
+        return heapLimit;
+    }
+
+    /**
+     * Extrapolates the last segment from the last pause of the model to the heap limit.
+     *
+     * @return estimated time until the heap is exhausted (seconds), <code>POSITIVE_INFINITY</code>,
+     * if the occupancy doesn't grow or <code>NaN</code>, if there is no trend
+     */
+    public double getTimeToOutOfMemory() {
+        if (!hasTrend() || heapLimit <= 0) {
+            return Double.NaN;
+        }
+
+        Segment lastSegment = segments.get(segments.size() - 1);
+        if (lastSegment.getSlope() <= 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+
+        double occupancy = lastSegment.getOccupancy(Math.max(lastTimestamp, lastSegment.getEnd()));
+        return Math.max(0, (heapLimit - occupancy) / lastSegment.getSlope());
+    }
+
+    @Override
+    public String toString() {
+        return "LeakTrend [source=" + source.getName() + ", pointCount=" + pointCount
+                + ", overallSlope=" + overallSlope + ", segments=" + segments + "]";
+    }
+
+    /**
+     * Binary segmentation using the squared error of least squares lines, which is computed in
+     * O(1) for any range of the (median filtered) sample from prefix sums.
+     */
+    private static class ChangePointFinder {
+        private final int n;
+        private final double[] sumX;
+        private final double[] sumY;
+        private final double[] sumXX;
+        private final double[] sumXY;
+        private final double[] sumYY;
+        /** variance of the noise around the lines */
+        private final double noiseVariance;
+
+        public ChangePointFinder(TheilSenLine line) {
+            n = line.getSampleSize();
+            sumX = new double[n + 1];
+            sumY = new double[n + 1];
+            sumXX = new double[n + 1];
+            sumXY = new double[n + 1];
+            sumYY = new double[n + 1];
+
+            double[] filtered = medianFilter(line);
+
+            // center the values to keep the sums of squares precise
+            double x0 = line.getSampleX(0);
+            double y0 = filtered[0];
+            for (int i = 0; i < n; ++i) {
+                double x = line.getSampleX(i) - x0;
+                double y = filtered[i] - y0;
+                sumX[i + 1] = sumX[i] + x;
+                sumY[i + 1] = sumY[i] + y;
+                sumXX[i + 1] = sumXX[i] + x * x;
+                sumXY[i + 1] = sumXY[i] + x * y;
+                sumYY[i + 1] = sumYY[i] + y * y;
+            }
+
+            noiseVariance = estimateNoiseVariance(line);
+        }
+
+        /**
+         * Robust estimation of the variance of the noise: second differences cancel out linear
+         * trends and have 6 times the variance of the noise; the standard deviation of normal
+         * distributed values is 1.4826 * their median absolute deviation. Without noise (most
+         * points exactly on a line), every tiny deviation would be a change point; therefore
+         * the standard deviation is at least {@link #MIN_RELATIVE_NOISE} of the mean occupancy.
+         */
+        private double estimateNoiseVariance(TheilSenLine line) {
+            double mean = 0;
+            for (int i = 0; i < n; ++i) {
+                mean += line.getSampleY(i) / n;
+            }
+            double minSigma = MIN_RELATIVE_NOISE * Math.abs(mean);
+            if (n < 3) {
+                return minSigma * minSigma;
+            }
+
+            double[] differences = new double[n - 2];
+            for (int i = 1; i < n - 1; ++i) {
+                differences[i - 1] = Math.abs(line.getSampleY(i + 1) - 2 * line.getSampleY(i) + line.getSampleY(i - 1));
+            }
+
+            Arrays.sort(differences);
+            double sigma = Math.max(minSigma, 1.4826 * differences[differences.length / 2] / Math.sqrt(6));
+            return sigma * sigma;
+        }
+
+        /**
+         * Running median with a symmetric window, which is smaller near the ends of the sample;
+         * the end points are replaced using Tukey's end point rule (median of the point, its
+         * filtered neighbour and the extrapolation of the two filtered neighbours).
+         */
+        private double[] medianFilter(TheilSenLine line) {
+            double[] filtered = new double[n];
+            double[] window = new double[2 * MEDIAN_FILTER_RADIUS + 1];
+            for (int index = 0; index < n; ++index) {
+                int radius = Math.min(MEDIAN_FILTER_RADIUS, Math.min(index, n - 1 - index));
+                for (int i = index - radius; i <= index + radius; ++i) {
+                    window[i - index + radius] = line.getSampleY(i);
+                }
+
+                Arrays.sort(window, 0, 2 * radius + 1);
+                filtered[index] = window[radius];
+            }
+
+            if (n >= 3) {
+                filtered[0] = median(line.getSampleY(0), filtered[1], 3 * filtered[1] - 2 * filtered[2]);
+                filtered[n - 1] = median(line.getSampleY(n - 1), filtered[n - 2], 3 * filtered[n - 2] - 2 * filtered[n - 3]);
+            }
+
+            return filtered;
+        }
+
+        private static double median(double a, double b, double c) {
+            return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+        }
+
+        /**
+         * @return squared error of the least squares line through the points <code>from</code>
+         * (inclusive) to <code>to</code> (exclusive)
+         */
+        private double squaredError(int from, int to) {
+            int count = to - from;
+            double x = sumX[to] - sumX[from];
+            double y = sumY[to] - sumY[from];
+            double sxx = sumXX[to] - sumXX[from] - x * x / count;
+            double sxy = sumXY[to] - sumXY[from] - x * y / count;
+            double syy = sumYY[to] - sumYY[from] - y * y / count;
+            double error = sxx > 0 ? syy - sxy * sxy / sxx : syy;
+            // rounding errors of a (nearly) perfect fit must not look like an improvement
+            return error > 1e-9 * syy ? error : 0;
+        }
+
+        public void split(int from, int to, List<Integer> changePoints) {
+            int count = to - from;
+            if (count < 2 * MIN_SEGMENT_POINTS || changePoints.size() + 1 >= MAX_SEGMENTS) {
+                return;
+            }
+
+            double error = squaredError(from, to);
+            int bestSplit = -1;
+            double bestError = error;
+            for (int i = from + MIN_SEGMENT_POINTS; i <= to - MIN_SEGMENT_POINTS; ++i) {
+                double splitError = squaredError(from, i) + squaredError(i, to);
+                if (splitError < bestError) {
+                    bestError = splitError;
+                    bestSplit = i;
+                }
+            }
+
+            if (bestSplit < 0 || error <= 0) {
+                return;
+            }
+
+            // (error - bestError) / variance > k * ln(n); only an occupancy of 0 has no noise at all
+            if (noiseVariance > 0 && (error - bestError) / noiseVariance <= SPLIT_PARAMETERS * Math.log(n)) {
+                return;
+            }
+
+            changePoints.add(bestSplit);
+            split(from, bestSplit, changePoints);
+            split(bestSplit, to, changePoints);
+        }
+    }
+}
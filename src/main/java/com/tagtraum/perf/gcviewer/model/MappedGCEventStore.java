@@ -0,0 +1,487 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.ExtendedType;
+
+/**
+ * Stores the events of a {@link GCModel} as fixed width records in a memory mapped file in the
+ * temp directory instead of the java heap. Events are recreated upon every read access, so
+ * models can contain more events than fit into the heap.
+ *
+ * <p>Only the information needed for the charts and exports is stored: type, time- and datestamp,
+ * pause, duration, memory information, safepoint times of vm operations and up to {@value #MAX_DETAILS}
+ * detail events (one level deep; datestamps of detail events are assumed to be the same as the one of
+ * their parent). The rare events with more details are kept as objects on the java heap instead.
+ * Phases are not stored; they are only evaluated when the event is added to the model.</p>
+ *
+ * <p>The last event added is kept as object until the next event is added, because readers and
+ * {@link GCModel} still adjust it after adding it to the model.</p>
+ *
+ * <p>Not thread safe for writing (same as the {@link ArrayList}s used by {@link GCModel} by default).
+ * Events may be read by other threads (e.g. the event dispatch thread), while they are written; the
+ * mapped segments are only accessed while holding the lock of the store. {@link #close()} unmaps the
+ * segments, so that the file can be deleted on all platforms.</p>
+ *
+ * @see GCModel#PROPERTY_EVENT_STORAGE
+ */
+public class MappedGCEventStore implements Closeable {
+    private static final Logger LOG = Logger.getLogger(MappedGCEventStore.class.getName());
+
+    static final int MAX_DETAILS = 6;
+
+    private static final int KIND_GC_EVENT = 0;
+    private static final int KIND_G1_GC_EVENT = 1;
+    private static final int KIND_GC_EVENT_UJL = 2;
+    private static final int KIND_CONCURRENT_GC_EVENT = 3;
+    private static final int KIND_VM_OPERATION_EVENT = 4;
+
+    private static final int NO_DATESTAMP = -1;
+
+    // record layout
+    private static final int OFFSET_KIND = 0;
+    private static final int OFFSET_TYPE = 4;
+    private static final int OFFSET_TIMESTAMP = 8;
+    private static final int OFFSET_EPOCH_SECOND = 16;
+    private static final int OFFSET_NANO = 24;
+    private static final int OFFSET_ZONE_OFFSET = 28;
+    private static final int OFFSET_PAUSE = 32;
+    private static final int OFFSET_DURATION = 40;
+    private static final int OFFSET_PRE_USED = 48;
+    private static final int OFFSET_POST_USED = 52;
+    private static final int OFFSET_TOTAL = 56;
+    private static final int OFFSET_NUMBER = 60;
+    private static final int OFFSET_DETAIL_COUNT = 64;
+    private static final int OFFSET_DETAILS = 72;
+    // vm operations have no details -> their safepoint times are stored instead (time to safepoint as duration)
+    private static final int OFFSET_CLEANUP_TIME = OFFSET_DETAILS;
+    private static final int OFFSET_OPERATION_TIME = OFFSET_DETAILS + 8;
+
+    // detail layout (relative to start of detail)
+    private static final int DETAIL_OFFSET_TYPE = 0;
+    private static final int DETAIL_OFFSET_PRE_USED = 4;
+    private static final int DETAIL_OFFSET_POST_USED = 8;
+    private static final int DETAIL_OFFSET_TOTAL = 12;
+    private static final int DETAIL_OFFSET_NUMBER = 16;
+    private static final int DETAIL_OFFSET_HAS_DATESTAMP = 20;
+    private static final int DETAIL_OFFSET_PAUSE = 24;
+    private static final int DETAIL_OFFSET_TIMESTAMP = 32;
+    private static final int DETAIL_SIZE = 40;
+
+    static final int RECORD_SIZE = OFFSET_DETAILS + MAX_DETAILS * DETAIL_SIZE;
+    private static final int RECORDS_PER_SEGMENT = 1 << 16;
+    private static final long SEGMENT_SIZE = (long) RECORDS_PER_SEGMENT * RECORD_SIZE;
+
+    private final File file;
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final List<ExtendedType> types = new ArrayList<>();
+    private final Map<ExtendedType, Integer> typeIds = new HashMap<>();
+    /** events with more than MAX_DETAILS details by index (not written to the file) */
+    private final Map<Integer, AbstractGCEvent<?>> heapEvents = new HashMap<>();
+    private volatile int size;
+    private AbstractGCEvent<?> lastEvent;
+
+    /**
+     * Creates a new store backed by a temporary file, which is deleted, when the store is closed
+     * or the vm exits.
+     *
+     * @throws IOException file could not be created
+     */
+    public MappedGCEventStore() throws IOException {
+        file = File.createTempFile("gcviewer-events", ".bin");
+        file.deleteOnExit();
+        channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+    }
+
+    /**
+     * Appends <code>event</code> to this store.
+     *
+     * @param event event to be added
+     * @return index of the event
+     */
+    public synchronized int add(AbstractGCEvent<?> event) {
+        if (lastEvent != null) {
+            write(size - 1, lastEvent);
+        }
+        lastEvent = event;
+        return size++;
+    }
+
+    /**
+     * Returns the event at <code>index</code>. All events except for the last one are recreated
+     * upon every call.
+     *
+     * @param index index of event
+     * @return event at <code>index</code>
+     * @throws IndexOutOfBoundsException if <code>index</code> is out of bounds
+     */
+    public synchronized AbstractGCEvent<?> get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+        if (index == size - 1) {
+            return lastEvent;
+        }
+
+        return read(index);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the file all events are written to
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return view of this store as list; only {@link List#add(Object)} is supported for modifications
+     */
+    public List<AbstractGCEvent<?>> asList() {
+        return new EventList();
+    }
+
+    /**
+     * Creates a list holding only the indices of its events in this store. Only the event that was
+     * last added to this store can be added to the list.
+     *
+     * @param <T> type of the events in the list
+     * @return new empty list
+     */
+    public <T extends AbstractGCEvent<?>> List<T> newIndexList() {
+        return new IndexList<>();
+    }
+
+    /**
+     * @return <code>false</code>, if this store has been closed
+     */
+    boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (MappedByteBuffer segment : segments) {
+            Unmapper.unmap(segment);
+        }
+        segments.clear();
+        heapEvents.clear();
+        channel.close();
+    }
+
+    private int indexOfLastEvent(AbstractGCEvent<?> event) {
+        if (event == null || event != lastEvent) {
+            throw new IllegalArgumentException("only the last event added to the store can be referenced (" + event + ")");
+        }
+
+        return size - 1;
+    }
+
+    private ByteBuffer segment(int index) {
+        if (!channel.isOpen()) {
+            throw new IllegalStateException(file + " is closed");
+        }
+
+        int segmentIndex = index / RECORDS_PER_SEGMENT;
+        while (segments.size() <= segmentIndex) {
+            try {
+                segments.add(channel.map(FileChannel.MapMode.READ_WRITE, segments.size() * SEGMENT_SIZE, SEGMENT_SIZE));
+            }
+            catch (IOException e) {
+                throw new IllegalStateException("failed to map " + file + " (" + e.toString() + ")", e);
+            }
+        }
+
+        return segments.get(segmentIndex);
+    }
+
+    private int position(int index) {
+        return (index % RECORDS_PER_SEGMENT) * RECORD_SIZE;
+    }
+
+    private int typeId(ExtendedType type) {
+        Integer typeId = typeIds.get(type);
+        if (typeId == null) {
+            typeId = types.size();
+            types.add(type);
+            typeIds.put(type, typeId);
+        }
+
+        return typeId;
+    }
+
+    private void write(int index, AbstractGCEvent<?> event) {
+        if (countDetails(event) > MAX_DETAILS) {
+            if (heapEvents.isEmpty()) {
+                LOG.log(Level.WARNING, "events with more than " + MAX_DETAILS + " details are kept on the java heap (first: " + event + ")");
+            }
+            heapEvents.put(index, event);
+            return;
+        }
+
+        ByteBuffer buffer = segment(index);
+        int position = position(index);
+
+        buffer.putInt(position + OFFSET_KIND, kindOf(event));
+        buffer.putInt(position + OFFSET_TYPE, typeId(event.getExtendedType()));
+        buffer.putDouble(position + OFFSET_TIMESTAMP, event.getTimestamp());
+        ZonedDateTime datestamp = event.getDatestamp();
+        if (datestamp != null) {
+            buffer.putLong(position + OFFSET_EPOCH_SECOND, datestamp.toEpochSecond());
+            buffer.putInt(position + OFFSET_NANO, datestamp.getNano());
+            buffer.putInt(position + OFFSET_ZONE_OFFSET, datestamp.getOffset().getTotalSeconds());
+        }
+        else {
+            buffer.putInt(position + OFFSET_NANO, NO_DATESTAMP);
+        }
+        buffer.putDouble(position + OFFSET_PAUSE, event.getPause());
+        buffer.putDouble(position + OFFSET_DURATION,
+                event instanceof ConcurrentGCEvent ? ((ConcurrentGCEvent) event).getDuration() : 0);
+        if (event instanceof VmOperationEvent) {
+            VmOperationEvent vmOperationEvent = (VmOperationEvent) event;
+            buffer.putDouble(position + OFFSET_DURATION, vmOperationEvent.getTimeToSafepoint());
+            buffer.putDouble(position + OFFSET_CLEANUP_TIME, vmOperationEvent.getCleanupTime());
+            buffer.putDouble(position + OFFSET_OPERATION_TIME, vmOperationEvent.getOperationTime());
+        }
+        buffer.putInt(position + OFFSET_PRE_USED, event.getPreUsed());
+        buffer.putInt(position + OFFSET_POST_USED, event.getPostUsed());
+        buffer.putInt(position + OFFSET_TOTAL, event.getTotal());
+        buffer.putInt(position + OFFSET_NUMBER, event.getNumber());
+
+        int detailCount = 0;
+        for (Iterator<? extends AbstractGCEvent<?>> i = event.details(); i.hasNext(); detailCount++) {
+            AbstractGCEvent<?> detail = i.next();
+            int detailPosition = position + OFFSET_DETAILS + detailCount * DETAIL_SIZE;
+            buffer.putInt(detailPosition + DETAIL_OFFSET_TYPE, typeId(detail.getExtendedType()));
+            buffer.putInt(detailPosition + DETAIL_OFFSET_PRE_USED, detail.getPreUsed());
+            buffer.putInt(detailPosition + DETAIL_OFFSET_POST_USED, detail.getPostUsed());
+            buffer.putInt(detailPosition + DETAIL_OFFSET_TOTAL, detail.getTotal());
+            buffer.putInt(detailPosition + DETAIL_OFFSET_NUMBER, detail.getNumber());
+            buffer.putInt(detailPosition + DETAIL_OFFSET_HAS_DATESTAMP, detail.getDatestamp() != null ? 1 : 0);
+            buffer.putDouble(detailPosition + DETAIL_OFFSET_PAUSE, detail.getPause());
+            buffer.putDouble(detailPosition + DETAIL_OFFSET_TIMESTAMP, detail.getTimestamp());
+        }
+        buffer.putInt(position + OFFSET_DETAIL_COUNT, detailCount);
+    }
+
+    private int countDetails(AbstractGCEvent<?> event) {
+        int detailCount = 0;
+        for (Iterator<? extends AbstractGCEvent<?>> i = event.details(); i.hasNext(); i.next()) {
+            ++detailCount;
+        }
+
+        return detailCount;
+    }
+
+    private AbstractGCEvent<?> read(int index) {
+        AbstractGCEvent<?> heapEvent = heapEvents.get(index);
+        if (heapEvent != null) {
+            return heapEvent;
+        }
+
+        ByteBuffer buffer = segment(index);
+        int position = position(index);
+
+        AbstractGCEvent<?> event = newEvent(buffer.getInt(position + OFFSET_KIND));
+        event.setExtendedType(types.get(buffer.getInt(position + OFFSET_TYPE)));
+        event.setTimestamp(buffer.getDouble(position + OFFSET_TIMESTAMP));
+        int nano = buffer.getInt(position + OFFSET_NANO);
+        if (nano != NO_DATESTAMP) {
+            event.setDateStamp(ZonedDateTime.ofInstant(
+                    Instant.ofEpochSecond(buffer.getLong(position + OFFSET_EPOCH_SECOND), nano),
+                    ZoneOffset.ofTotalSeconds(buffer.getInt(position + OFFSET_ZONE_OFFSET))));
+        }
+        event.setPause(buffer.getDouble(position + OFFSET_PAUSE));
+        if (event instanceof ConcurrentGCEvent) {
+            ((ConcurrentGCEvent) event).setDuration(buffer.getDouble(position + OFFSET_DURATION));
+        }
+        else if (event instanceof VmOperationEvent) {
+            ((VmOperationEvent) event).setSafepointTimes(buffer.getDouble(position + OFFSET_DURATION),
+                    buffer.getDouble(position + OFFSET_CLEANUP_TIME),
+                    buffer.getDouble(position + OFFSET_OPERATION_TIME));
+        }
+        event.setPreUsed(buffer.getInt(position + OFFSET_PRE_USED));
+        event.setPostUsed(buffer.getInt(position + OFFSET_POST_USED));
+        event.setTotal(buffer.getInt(position + OFFSET_TOTAL));
+        event.setNumber(buffer.getInt(position + OFFSET_NUMBER));
+
+        if (event instanceof GCEvent) {
+            GCEvent gcEvent = (GCEvent) event;
+            int detailCount = buffer.getInt(position + OFFSET_DETAIL_COUNT);
+            for (int i = 0; i < detailCount; i++) {
+                int detailPosition = position + OFFSET_DETAILS + i * DETAIL_SIZE;
+                GCEvent detail = new GCEvent();
+                detail.setExtendedType(types.get(buffer.getInt(detailPosition + DETAIL_OFFSET_TYPE)));
+                detail.setPreUsed(buffer.getInt(detailPosition + DETAIL_OFFSET_PRE_USED));
+                detail.setPostUsed(buffer.getInt(detailPosition + DETAIL_OFFSET_POST_USED));
+                detail.setTotal(buffer.getInt(detailPosition + DETAIL_OFFSET_TOTAL));
+                detail.setNumber(buffer.getInt(detailPosition + DETAIL_OFFSET_NUMBER));
+                if (buffer.getInt(detailPosition + DETAIL_OFFSET_HAS_DATESTAMP) != 0) {
+                    detail.setDateStamp(gcEvent.getDatestamp());
+                }
+                detail.setPause(buffer.getDouble(detailPosition + DETAIL_OFFSET_PAUSE));
+                detail.setTimestamp(buffer.getDouble(detailPosition + DETAIL_OFFSET_TIMESTAMP));
+                gcEvent.add(detail);
+            }
+        }
+
+        return event;
+    }
+
+    private int kindOf(AbstractGCEvent<?> event) {
+        if (event instanceof G1GcEvent) {
+            return KIND_G1_GC_EVENT;
+        }
+        else if (event instanceof GCEventUJL) {
+            return KIND_GC_EVENT_UJL;
+        }
+        else if (event instanceof GCEvent) {
+            return KIND_GC_EVENT;
+        }
+        else if (event instanceof ConcurrentGCEvent) {
+            return KIND_CONCURRENT_GC_EVENT;
+        }
+        else if (event instanceof VmOperationEvent) {
+            return KIND_VM_OPERATION_EVENT;
+        }
+
+        throw new IllegalArgumentException("unsupported event class " + event.getClass().getName());
+    }
+
+    private AbstractGCEvent<?> newEvent(int kind) {
+        switch (kind) {
+            case KIND_GC_EVENT:
+                return new GCEvent();
+            case KIND_G1_GC_EVENT:
+                return new G1GcEvent();
+            case KIND_GC_EVENT_UJL:
+                return new GCEventUJL();
+            case KIND_CONCURRENT_GC_EVENT:
+                return new ConcurrentGCEvent();
+            case KIND_VM_OPERATION_EVENT:
+                return new VmOperationEvent();
+            default:
+                throw new IllegalStateException("unknown kind of event " + kind + " in " + file);
+        }
+    }
+
+    /**
+     * Releases mapped buffers immediately instead of waiting for the garbage collector, which keeps the
+     * file open (and undeletable on Windows) until then. Uses <code>sun.misc.Unsafe.invokeCleaner()</code>,
+     * if available; otherwise the buffers are left to the garbage collector.
+     */
+    private static class Unmapper {
+        private static final Object UNSAFE;
+        private static final Method INVOKE_CLEANER;
+
+        static {
+            Object unsafe = null;
+            Method invokeCleaner = null;
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                unsafe = theUnsafe.get(null);
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            }
+            catch (ReflectiveOperationException | RuntimeException e) {
+                LOG.log(Level.FINE, "mapped buffers can't be unmapped explicitly (" + e.toString() + ")");
+            }
+            UNSAFE = unsafe;
+            INVOKE_CLEANER = invokeCleaner;
+        }
+
+        static void unmap(MappedByteBuffer buffer) {
+            if (INVOKE_CLEANER == null) {
+                return;
+            }
+
+            try {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            }
+            catch (ReflectiveOperationException | RuntimeException e) {
+                LOG.log(Level.FINE, "failed to unmap buffer (" + e.toString() + ")");
+            }
+        }
+    }
+
+    /**
+     * List view of all events in the store.
+     */
+    private class EventList extends AbstractList<AbstractGCEvent<?>> implements RandomAccess {
+        @Override
+        public boolean add(AbstractGCEvent<?> event) {
+            MappedGCEventStore.this.add(event);
+            return true;
+        }
+
+        @Override
+        public AbstractGCEvent<?> get(int index) {
+            return MappedGCEventStore.this.get(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * List of a subset of the events in the store, which only holds their indices.
+     */
+    private class IndexList<T extends AbstractGCEvent<?>> extends AbstractList<T> implements RandomAccess {
+        private int[] indices = new int[16];
+        private int indexCount;
+
+        @Override
+        public boolean add(T event) {
+            if (indexCount == indices.length) {
+                indices = Arrays.copyOf(indices, indices.length * 2);
+            }
+            indices[indexCount++] = indexOfLastEvent(event);
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index < 0 || index >= indexCount) {
+                throw new IndexOutOfBoundsException("index: " + index + ", size: " + indexCount);
+            }
+            return (T) MappedGCEventStore.this.get(indices[index]);
+        }
+
+        @Override
+        public int size() {
+            return indexCount;
+        }
+    }
+}
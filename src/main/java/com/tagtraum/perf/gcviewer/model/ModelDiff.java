@@ -0,0 +1,230 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.tagtraum.perf.gcviewer.math.DoubleDataSketch;
+
+/**
+ * Compares two {@link GCModel}s (e.g. before and after changing jvm parameters): the differences of
+ * the aggregated values of the models, of the pause statistics per event type and a
+ * Kolmogorov-Smirnov test of the pause distributions.
+ *
+ * <p>The pauses are collected in one pass over the events of every model into
+ * {@link DoubleDataSketch}es, so that comparing very large models neither sorts nor copies their
+ * pauses.</p>
+ */
+public class ModelDiff {
+    /** name of the distribution of all stop the world pauses */
+    public static final String ALL_PAUSES = "all stop the world pauses";
+    /** percentiles compared for every event type */
+    public static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+    private final List<ValueDiff> valueDiffs = new ArrayList<>();
+    private final List<DistributionDiff> distributionDiffs = new ArrayList<>();
+
+    private ModelDiff() {
+    }
+
+    /**
+     * Compares <code>compared</code> with <code>baseline</code>.
+     *
+     * @param baseline model to compare with
+     * @param compared model to be compared
+     * @return differences between the models
+     */
+    public static ModelDiff compute(GCModel baseline, GCModel compared) {
+        ModelDiff diff = new ModelDiff();
+        diff.addValue(null, "throughput", "%", baseline.getThroughput(), compared.getThroughput());
+        diff.addValue(null, "runningTime", "s", baseline.getRunningTime(), compared.getRunningTime());
+        diff.addValue(null, "footprint", "K", baseline.getFootprint(), compared.getFootprint());
+        diff.addValue(null, "freedMemory", "K", baseline.getFreedMemory(), compared.getFreedMemory());
+        diff.addValue(null, "avgPromotion", "K",
+                baseline.getPromotion().getN() > 0 ? baseline.getPromotion().average() : Double.NaN,
+                compared.getPromotion().getN() > 0 ? compared.getPromotion().average() : Double.NaN);
+        diff.addValue(null, "totalPromotion", "K", baseline.getPromotion().getSum(), compared.getPromotion().getSum());
+        diff.addValue(null, "accumPause", "s", baseline.getPause().getSum(), compared.getPause().getSum());
+        diff.addValue(null, "fullGcPauseCount", "-", baseline.getFullGCPause().getN(), compared.getFullGCPause().getN());
+        diff.addValue(null, "gcPauseCount", "-", baseline.getGCPause().getN(), compared.getGCPause().getN());
+
+        Map<String, DoubleDataSketch> baselinePauses = collectPauses(baseline);
+        Map<String, DoubleDataSketch> comparedPauses = collectPauses(compared);
+        Set<String> names = new TreeSet<>(baselinePauses.keySet());
+        names.addAll(comparedPauses.keySet());
+        names.remove(ALL_PAUSES);
+        diff.addDistribution(ALL_PAUSES, baselinePauses, comparedPauses);
+        for (String name : names) {
+            diff.addDistribution(name, baselinePauses, comparedPauses);
+        }
+
+        return diff;
+    }
+
+    /**
+     * Collects the pauses of all stop the world events (also as {@link #ALL_PAUSES}) and the
+     * durations of all concurrent events per event type.
+     */
+    private static Map<String, DoubleDataSketch> collectPauses(GCModel model) {
+        Map<String, DoubleDataSketch> pauses = new TreeMap<>();
+        DoubleDataSketch allPauses = new DoubleDataSketch();
+        pauses.put(ALL_PAUSES, allPauses);
+        for (Iterator<AbstractGCEvent<?>> i = model.getStopTheWorldEvents(); i.hasNext(); ) {
+            AbstractGCEvent<?> event = i.next();
+            allPauses.add(event.getPause());
+            pauses.computeIfAbsent(event.getTypeAsString(), key -> new DoubleDataSketch()).add(event.getPause());
+        }
+        for (Iterator<ConcurrentGCEvent> i = model.getConcurrentGCEvents(); i.hasNext(); ) {
+            ConcurrentGCEvent event = i.next();
+            pauses.computeIfAbsent(event.getExtendedType().getName(), key -> new DoubleDataSketch()).add(event.getPause());
+        }
+
+        return pauses;
+    }
+
+    private void addDistribution(String name, Map<String, DoubleDataSketch> baselinePauses, Map<String, DoubleDataSketch> comparedPauses) {
+        DoubleDataSketch baseline = baselinePauses.getOrDefault(name, new DoubleDataSketch());
+        DoubleDataSketch compared = comparedPauses.getOrDefault(name, new DoubleDataSketch());
+
+        addValue(name, "count", "-", baseline.getN(), compared.getN());
+        addValue(name, "sum", "s", baseline.getSum(), compared.getSum());
+        for (double percentile : PERCENTILES) {
+            addValue(name, "p" + formatPercentile(percentile), "s", baseline.getPercentile(percentile), compared.getPercentile(percentile));
+        }
+        addValue(name, "max", "s",
+                baseline.getN() > 0 ? baseline.getMax() : Double.NaN,
+                compared.getN() > 0 ? compared.getMax() : Double.NaN);
+
+        distributionDiffs.add(new DistributionDiff(name, baseline, compared));
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+    }
+
+    private void addValue(String eventType, String name, String unit, double baseline, double compared) {
+        valueDiffs.add(new ValueDiff(eventType, name, unit, baseline, compared));
+    }
+
+    /**
+     * @return differences of the aggregated values: first of the whole models, then per event type
+     */
+    public List<ValueDiff> getValueDiffs() {
+        return Collections.unmodifiableList(valueDiffs);
+    }
+
+    /**
+     * @return comparison of the pause distributions: first of {@link #ALL_PAUSES}, then per event type
+     */
+    public List<DistributionDiff> getDistributionDiffs() {
+        return Collections.unmodifiableList(distributionDiffs);
+    }
+
+    /**
+     * Difference of one value between the baseline and the compared model.
+     */
+    public static class ValueDiff {
+        private final String eventType;
+        private final String name;
+        private final String unit;
+        private final double baseline;
+        private final double compared;
+
+        public ValueDiff(String eventType, String name, String unit, double baseline, double compared) {
+            this.eventType = eventType;
+            this.name = name;
+            this.unit = unit;
+            this.baseline = baseline;
+            this.compared = compared;
+        }
+
+        /**
+         * @return event type or <code>null</code>, if the value belongs to the whole model
+         */
+        public String getEventType() {
+            return eventType;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getUnit() {
+            return unit;
+        }
+
+        public double getBaseline() {
+            return baseline;
+        }
+
+        public double getCompared() {
+            return compared;
+        }
+
+        /**
+         * @return compared - baseline
+         */
+        public double getDelta() {
+            return compared - baseline;
+        }
+
+        /**
+         * @return change relative to the baseline in percent or <code>NaN</code>, if baseline is 0
+         */
+        public double getRelativeDelta() {
+            return baseline != 0 ? getDelta() * 100 / baseline : Double.NaN;
+        }
+    }
+
+    /**
+     * Kolmogorov-Smirnov test of the pause distributions of one event type.
+     */
+    public static class DistributionDiff {
+        private final String eventType;
+        private final DoubleDataSketch baseline;
+        private final DoubleDataSketch compared;
+        private final double statistic;
+        private final double probability;
+
+        public DistributionDiff(String eventType, DoubleDataSketch baseline, DoubleDataSketch compared) {
+            this.eventType = eventType;
+            this.baseline = baseline;
+            this.compared = compared;
+            this.statistic = DoubleDataSketch.getKolmogorovSmirnovStatistic(baseline, compared);
+            this.probability = DoubleDataSketch.getKolmogorovSmirnovProbability(statistic, baseline.getN(), compared.getN());
+        }
+
+        public String getEventType() {
+            return eventType;
+        }
+
+        public DoubleDataSketch getBaseline() {
+            return baseline;
+        }
+
+        public DoubleDataSketch getCompared() {
+            return compared;
+        }
+
+        /**
+         * @return maximum distance between the distributions (0..1) or <code>NaN</code>, if one of
+         * them is empty
+         */
+        public double getKolmogorovSmirnovStatistic() {
+            return statistic;
+        }
+
+        /**
+         * @return probability to observe this distance, if the pauses of both models had the same
+         * distribution (p-value; values &lt; 0.05 indicate a significant difference)
+         */
+        public double getKolmogorovSmirnovProbability() {
+            return probability;
+        }
+    }
+}
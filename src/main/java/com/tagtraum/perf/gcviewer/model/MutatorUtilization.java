@@ -0,0 +1,198 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Minimum mutator utilization (MMU) of a {@link GCModel}: for a window size w, the smallest fraction
+ * of any window of w seconds during the log, which was not spent in stop the world pauses. Unlike
+ * pause percentiles, the MMU shows, if short pauses are clustered close enough to hurt latency.
+ *
+ * <p>The pauses are merged into disjoint intervals once (O(n log n) for n pauses); every window size
+ * is then evaluated in O(n), because the worst window always starts at the beginning of a pause or
+ * ends at the end of a pause.</p>
+ */
+public class MutatorUtilization {
+    /** window sizes in seconds (1 ms - 60 s) of the MMU curve */
+    public static final double[] DEFAULT_WINDOW_SIZES = {
+            0.001, 0.002, 0.005,
+            0.01, 0.02, 0.05,
+            0.1, 0.2, 0.5,
+            1, 2, 5,
+            10, 20, 30, 60 };
+
+    private final double from;
+    private final double to;
+    private final double[] pauseStarts;
+    private final double[] pauseEnds;
+    /** pausePrefix[k]: sum of the lengths of all pauses before pause k */
+    private final double[] pausePrefix;
+
+    private MutatorUtilization(double from, double to, double[] pauseStarts, double[] pauseEnds, int pauseCount) {
+        this.from = from;
+        this.to = to;
+        this.pauseStarts = Arrays.copyOf(pauseStarts, pauseCount);
+        this.pauseEnds = Arrays.copyOf(pauseEnds, pauseCount);
+        this.pausePrefix = new double[pauseCount + 1];
+        for (int i = 0; i < pauseCount; ++i) {
+            pausePrefix[i + 1] = pausePrefix[i] + pauseEnds[i] - pauseStarts[i];
+        }
+    }
+
+    /**
+     * Collects the stop the world pauses of <code>model</code>.
+     *
+     * @param model model to be analysed
+     * @return mutator utilization of the model
+     */
+    public static MutatorUtilization compute(GCModel model) {
+        int n = 0;
+        double[] starts = new double[1024];
+        double[] ends = new double[1024];
+        double to = model.getFirstPauseTimeStamp();
+        for (Iterator<AbstractGCEvent<?>> i = model.getStopTheWorldEvents(); i.hasNext(); ) {
+            AbstractGCEvent<?> event = i.next();
+            double end = event.getTimestamp() + event.getPause();
+            to = Math.max(to, end);
+            if (event.getPause() <= 0) {
+                continue;
+            }
+
+            if (n == starts.length) {
+                starts = Arrays.copyOf(starts, n * 2);
+                ends = Arrays.copyOf(ends, n * 2);
+            }
+            starts[n] = event.getTimestamp();
+            ends[n] = end;
+            ++n;
+        }
+
+        return compute(model.getFirstPauseTimeStamp(), to, starts, ends, n);
+    }
+
+    /**
+     * Merges pauses [<code>starts[i]</code>, <code>ends[i]</code>] into disjoint intervals. They may be
+     * unordered and may overlap (timestamps in the logs are not always exact).
+     *
+     * @param from start of the log in seconds
+     * @param to end of the log in seconds
+     * @param starts start of every pause (sorted in place)
+     * @param ends end of every pause (sorted in place)
+     * @param n number of pauses
+     * @return mutator utilization
+     */
+    static MutatorUtilization compute(double from, double to, double[] starts, double[] ends, int n) {
+        // the union of the intervals only depends on the sorted starts and the sorted ends
+        Arrays.sort(starts, 0, n);
+        Arrays.sort(ends, 0, n);
+
+        double[] mergedStarts = new double[n];
+        double[] mergedEnds = new double[n];
+        int merged = 0;
+        int depth = 0;
+        int j = 0;
+        for (int i = 0; i < n; ) {
+            if (starts[i] <= ends[j]) {
+                if (depth == 0) {
+                    mergedStarts[merged] = starts[i];
+                }
+                ++depth;
+                ++i;
+            }
+            else {
+                --depth;
+                if (depth == 0) {
+                    mergedEnds[merged++] = ends[j];
+                }
+                ++j;
+            }
+        }
+        if (depth > 0) {
+            mergedEnds[merged++] = ends[n - 1];
+        }
+
+        return new MutatorUtilization(from, to, mergedStarts, mergedEnds, merged);
+    }
+
+    /**
+     * @return duration of the log in seconds
+     */
+    public double getDuration() {
+        return to - from;
+    }
+
+    /**
+     * Returns the minimum mutator utilization over all windows of <code>windowSize</code> seconds.
+     *
+     * @param windowSize width of the window in seconds
+     * @return utilization between 0 and 1 or <code>NaN</code>, if the log is shorter than
+     * <code>windowSize</code>
+     */
+    public double getMinimumUtilization(double windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize must be > 0 (was " + windowSize + ")");
+        }
+        if (windowSize > getDuration()) {
+            return Double.NaN;
+        }
+
+        double maxPaused = Math.max(pausedTime(from, windowSize), pausedTime(to - windowSize, windowSize));
+
+        // windows starting with a pause
+        PauseCursor windowStart = new PauseCursor();
+        PauseCursor windowEnd = new PauseCursor();
+        for (double start : pauseStarts) {
+            double a = clamp(start, windowSize);
+            maxPaused = Math.max(maxPaused, windowEnd.pausedUntil(a + windowSize) - windowStart.pausedUntil(a));
+        }
+
+        // windows ending with a pause
+        windowStart = new PauseCursor();
+        windowEnd = new PauseCursor();
+        for (double end : pauseEnds) {
+            double a = clamp(end - windowSize, windowSize);
+            maxPaused = Math.max(maxPaused, windowEnd.pausedUntil(a + windowSize) - windowStart.pausedUntil(a));
+        }
+
+        return Math.max(0, (windowSize - maxPaused) / windowSize);
+    }
+
+    /**
+     * @return minimum mutator utilization for all {@link #DEFAULT_WINDOW_SIZES}
+     */
+    public double[] getMinimumUtilizationCurve() {
+        double[] curve = new double[DEFAULT_WINDOW_SIZES.length];
+        for (int i = 0; i < curve.length; ++i) {
+            curve[i] = getMinimumUtilization(DEFAULT_WINDOW_SIZES[i]);
+        }
+
+        return curve;
+    }
+
+    private double clamp(double windowStart, double windowSize) {
+        return Math.min(Math.max(windowStart, from), to - windowSize);
+    }
+
+    private double pausedTime(double windowStart, double windowSize) {
+        return new PauseCursor().pausedUntil(windowStart + windowSize) - new PauseCursor().pausedUntil(windowStart);
+    }
+
+    /**
+     * Sums up the pauses until a point in time; the points in time must not decrease between calls,
+     * so that every pause is visited only once.
+     */
+    private class PauseCursor {
+        /** last pause starting before the current point in time */
+        private int index = -1;
+
+        public double pausedUntil(double time) {
+            while (index + 1 < pauseStarts.length && pauseStarts[index + 1] < time) {
+                ++index;
+            }
+
+            return index < 0
+                    ? 0
+                    : pausePrefix[index] + Math.min(time, pauseEnds[index]) - pauseStarts[index];
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Two dimensional histogram of the stop the world pauses of a {@link GCModel}: the running time
+ * is divided into time buckets of equal width, the pauses into logarithmic pause buckets
+ * ({@link #PAUSE_BUCKETS_PER_DECADE} per decade from {@link #MIN_PAUSE} to {@link #MAX_PAUSE};
+ * shorter and longer pauses are counted in the first / last bucket).
+ *
+ * <p>The counts are collected in one pass over the events (per event type and for all events) and
+ * stored as prefix sums over the time buckets, so that the histogram of the pauses of any range
+ * of time buckets is available in O(pause buckets).</p>
+ */
+public class PauseHeatmap {
+    /** default number of time buckets */
+    public static final int DEFAULT_TIME_BUCKETS = 1024;
+    /** lower bound of the second pause bucket (seconds) */
+    public static final double MIN_PAUSE = 0.0001;
+    /** upper bound of the second last pause bucket (seconds) */
+    public static final double MAX_PAUSE = 100;
+    public static final int PAUSE_BUCKETS_PER_DECADE = 4;
+
+    private static final int PAUSE_BUCKETS = (int) Math.round(Math.log10(MAX_PAUSE / MIN_PAUSE) * PAUSE_BUCKETS_PER_DECADE) + 2;
+
+    private final double start;
+    private final double bucketWidth;
+    private final int timeBuckets;
+    /** counts[(t * PAUSE_BUCKETS) + p]: number of pauses in pause bucket p in the time buckets before t */
+    private final long[] counts;
+    private final Map<String, long[]> countsByType;
+
+    private PauseHeatmap(double start, double bucketWidth, int timeBuckets, long[] counts, Map<String, long[]> countsByType) {
+        this.start = start;
+        this.bucketWidth = bucketWidth;
+        this.timeBuckets = timeBuckets;
+        this.counts = counts;
+        this.countsByType = countsByType;
+    }
+
+    /**
+     * Computes the heatmap of <code>model</code> with {@link #DEFAULT_TIME_BUCKETS} time buckets.
+     *
+     * @param model model to be analysed
+     * @return heatmap of the pauses of the model
+     */
+    public static PauseHeatmap compute(GCModel model) {
+        return compute(model, DEFAULT_TIME_BUCKETS);
+    }
+
+    /**
+     * @param model model to be analysed
+     * @param timeBuckets number of time buckets (&gt; 0)
+     * @return heatmap of the pauses of the model
+     */
+    public static PauseHeatmap compute(GCModel model, int timeBuckets) {
+        if (timeBuckets <= 0) {
+            throw new IllegalArgumentException("timeBuckets must be > 0 (was " + timeBuckets + ")");
+        }
+
+        double start = model.getFirstPauseTimeStamp();
+        double end = model.getLastPauseTimeStamp();
+        // the last pause must be inside the last bucket
+        double bucketWidth = end > start ? Math.nextUp((end - start) / timeBuckets) : 1;
+
+        long[] counts = new long[(timeBuckets + 1) * PAUSE_BUCKETS];
+        Map<String, long[]> countsByType = new TreeMap<>();
+        for (Iterator<AbstractGCEvent<?>> i = model.getStopTheWorldEvents(); i.hasNext(); ) {
+            AbstractGCEvent<?> event = i.next();
+            int timeBucket = Math.min(timeBuckets - 1, Math.max(0, (int) ((event.getTimestamp() - start) / bucketWidth)));
+            // counts of time bucket t are stored at t + 1 and summed up below
+            int index = (timeBucket + 1) * PAUSE_BUCKETS + getPauseBucket(event.getPause());
+            ++counts[index];
+            ++countsByType.computeIfAbsent(event.getTypeAsString(), type -> new long[counts.length])[index];
+        }
+
+        toPrefixSums(counts);
+        for (long[] typeCounts : countsByType.values()) {
+            toPrefixSums(typeCounts);
+        }
+
+        return new PauseHeatmap(start, bucketWidth, timeBuckets, counts, Collections.unmodifiableMap(countsByType));
+    }
+
+    private static void toPrefixSums(long[] counts) {
+        for (int i = PAUSE_BUCKETS; i < counts.length; ++i) {
+            counts[i] += counts[i - PAUSE_BUCKETS];
+        }
+    }
+
+    /**
+     * @param pause pause (seconds)
+     * @return index of the pause bucket of <code>pause</code>
+     */
+    public static int getPauseBucket(double pause) {
+        if (!(pause >= MIN_PAUSE)) {
+            return 0;
+        }
+
+        int bucket = (int) Math.floor(Math.log10(pause / MIN_PAUSE) * PAUSE_BUCKETS_PER_DECADE) + 1;
+        return Math.min(PAUSE_BUCKETS - 1, bucket);
+    }
+
+    /**
+     * @param pauseBucket index of a pause bucket
+     * @return smallest pause of the bucket (seconds)
+     */
+    public static double getPauseBucketLowerBound(int pauseBucket) {
+        return pauseBucket == 0 ? 0 : MIN_PAUSE * Math.pow(10, (pauseBucket - 1) / (double) PAUSE_BUCKETS_PER_DECADE);
+    }
+
+    /**
+     * @return number of pause buckets
+     */
+    public static int getPauseBucketCount() {
+        return PAUSE_BUCKETS;
+    }
+
+    /**
+     * @return timestamp of the start of the first time bucket
+     */
+    public double getStart() {
+        return start;
+    }
+
+    /**
+     * @return width of a time bucket (seconds)
+     */
+    public double getTimeBucketWidth() {
+        return bucketWidth;
+    }
+
+    /**
+     * @return number of time buckets
+     */
+    public int getTimeBucketCount() {
+        return timeBuckets;
+    }
+
+    /**
+     * @param timestamp timestamp (seconds)
+     * @return index of the time bucket containing <code>timestamp</code> (limited to the existing buckets)
+     */
+    public int getTimeBucket(double timestamp) {
+        return Math.min(timeBuckets - 1, Math.max(0, (int) Math.floor((timestamp - start) / bucketWidth)));
+    }
+
+    /**
+     * @return types of the events in this heatmap (see {@link AbstractGCEvent#getTypeAsString()})
+     */
+    public Set<String> getEventTypes() {
+        return countsByType.keySet();
+    }
+
+    /**
+     * Histogram of the pauses of all events in the time buckets <code>fromBucket</code> (inclusive)
+     * to <code>toBucket</code> (exclusive).
+     *
+     * @param fromBucket index of the first time bucket
+     * @param toBucket index after the last time bucket
+     * @return number of pauses per pause bucket
+     */
+    public long[] getCounts(int fromBucket, int toBucket) {
+        return getCounts(counts, fromBucket, toBucket);
+    }
+
+    /**
+     * Histogram of the pauses of the events of type <code>eventType</code> in the time buckets
+     * <code>fromBucket</code> (inclusive) to <code>toBucket</code> (exclusive).
+     *
+     * @param eventType type of the events (see {@link #getEventTypes()})
+     * @param fromBucket index of the first time bucket
+     * @param toBucket index after the last time bucket
+     * @return number of pauses per pause bucket (all 0, if there are no events of this type)
+     */
+    public long[] getCounts(String eventType, int fromBucket, int toBucket) {
+        long[] typeCounts = countsByType.get(eventType);
+        return typeCounts != null ? getCounts(typeCounts, fromBucket, toBucket) : new long[PAUSE_BUCKETS];
+    }
+
+    /**
+     * Histogram of the pauses of all events in the time buckets overlapping <code>from</code> -
+     * <code>to</code>.
+     *
+     * @param from start of the time range (seconds)
+     * @param to end of the time range (seconds)
+     * @return number of pauses per pause bucket
+     */
+    public long[] getCounts(double from, double to) {
+        return getCounts(getTimeBucket(from), getTimeBucket(to) + 1);
+    }
+
+    private long[] getCounts(long[] prefixCounts, int fromBucket, int toBucket) {
+        int from = Math.max(0, Math.min(timeBuckets, fromBucket));
+        int to = Math.max(from, Math.min(timeBuckets, toBucket));
+        long[] result = new long[PAUSE_BUCKETS];
+        for (int p = 0; p < PAUSE_BUCKETS; ++p) {
+            result[p] = prefixCounts[to * PAUSE_BUCKETS + p] - prefixCounts[from * PAUSE_BUCKETS + p];
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,250 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.tagtraum.perf.gcviewer.math.DoubleData;
+import com.tagtraum.perf.gcviewer.math.DoubleDataSketch;
+
+/**
+ * Splits the safepoints of a gc log into the time needed to reach the safepoint (time to safepoint,
+ * "TTSP") and the time spent at the safepoint (cleanup and vm operation including the gc itself).
+ * Every {@link VmOperationEvent} is passed to {@link #add(VmOperationEvent)} (done by
+ * {@link GCModel#add(AbstractGCEvent)}); events without safepoint times (see
+ * {@link VmOperationEvent#hasSafepointTimes()}) are ignored.
+ *
+ * <p>All times are collected in {@link DoubleDataSketch}es (constant memory). A time to safepoint is
+ * an outlier, if it is longer than {@link #OUTLIER_FACTOR} times the {@link #OUTLIER_PERCENTILE}th
+ * percentile of the times to safepoint before it (and longer than {@link #MIN_OUTLIER}); the
+ * percentile is established from {@link #MIN_BASELINE_SAFEPOINTS} safepoints on and updated every
+ * {@link #THRESHOLD_UPDATE_INTERVAL} safepoints.</p>
+ */
+public class SafepointStatistics implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** number of safepoints to establish a baseline before outliers are detected */
+    public static final int MIN_BASELINE_SAFEPOINTS = 50;
+    /** percentile of the previous times to safepoint used as baseline */
+    public static final double OUTLIER_PERCENTILE = 99;
+    /** times to safepoint longer than this factor times the baseline are outliers */
+    public static final double OUTLIER_FACTOR = 2;
+    /** times to safepoint shorter than this many seconds are never outliers */
+    public static final double MIN_OUTLIER = 0.001;
+    /** maximum number of outliers kept (all outliers are counted) */
+    public static final int MAX_OUTLIERS = 1000;
+
+    private static final int THRESHOLD_UPDATE_INTERVAL = 32;
+
+    /**
+     * Safepoint with an outlying time to safepoint.
+     */
+    public static class Outlier implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final double timestamp;
+        private final String operation;
+        private final double timeToSafepoint;
+        private final double operationTime;
+        private final double baseline;
+
+        public Outlier(double timestamp, String operation, double timeToSafepoint, double operationTime, double baseline) {
+            this.timestamp = timestamp;
+            this.operation = operation;
+            this.timeToSafepoint = timeToSafepoint;
+            this.operationTime = operationTime;
+            this.baseline = baseline;
+        }
+
+        public double getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * @return name of the vm operation or <code>null</code>, if the log doesn't contain it
+         */
+        public String getOperation() {
+            return operation;
+        }
+
+        /**
+         * @return time to safepoint (s)
+         */
+        public double getTimeToSafepoint() {
+            return timeToSafepoint;
+        }
+
+        /**
+         * @return time spent at the safepoint (s)
+         */
+        public double getOperationTime() {
+            return operationTime;
+        }
+
+        /**
+         * @return percentile of the times to safepoint before this one (s)
+         */
+        public double getBaseline() {
+            return baseline;
+        }
+
+        @Override
+        public String toString() {
+            return "Outlier [timestamp=" + timestamp + ", operation=" + operation
+                    + ", timeToSafepoint=" + timeToSafepoint + ", operationTime=" + operationTime
+                    + ", baseline=" + baseline + "]";
+        }
+    }
+
+    private final DoubleDataSketch timeToSafepoint = new DoubleDataSketch();
+    private final DoubleDataSketch cleanupTime = new DoubleDataSketch();
+    private final DoubleDataSketch operationTime = new DoubleDataSketch();
+    private final Map<String, DoubleData> timeToSafepointByOperation = new TreeMap<>();
+    private final List<Outlier> outliers = new ArrayList<>();
+    private int outlierCount;
+    private int timeToSafepointDominatedCount;
+    private double outlierBaseline = Double.NaN;
+    private int safepointsSinceBaselineUpdate;
+
+    /**
+     * Returns a copy of this instance, which is not changed, if more safepoints are added to this
+     * instance.
+     *
+     * @return copy of this instance
+     */
+    public SafepointStatistics copy() {
+        SafepointStatistics copy = new SafepointStatistics();
+        copy.timeToSafepoint.merge(timeToSafepoint);
+        copy.cleanupTime.merge(cleanupTime);
+        copy.operationTime.merge(operationTime);
+        for (Map.Entry<String, DoubleData> entry : timeToSafepointByOperation.entrySet()) {
+            copy.timeToSafepointByOperation.put(entry.getKey(), new DoubleDataSketch().merge(entry.getValue()));
+        }
+        copy.outliers.addAll(outliers);
+        copy.outlierCount = outlierCount;
+        copy.timeToSafepointDominatedCount = timeToSafepointDominatedCount;
+        copy.outlierBaseline = outlierBaseline;
+        copy.safepointsSinceBaselineUpdate = safepointsSinceBaselineUpdate;
+        return copy;
+    }
+
+    /**
+     * Adds the safepoint times of <code>event</code>.
+     *
+     * @param event event to be added
+     */
+    public void add(VmOperationEvent event) {
+        if (!event.hasSafepointTimes()) {
+            return;
+        }
+
+        double eventTimeToSafepoint = event.getTimeToSafepoint();
+        if (!Double.isNaN(outlierBaseline)
+                && eventTimeToSafepoint > MIN_OUTLIER
+                && eventTimeToSafepoint > OUTLIER_FACTOR * outlierBaseline) {
+
+            ++outlierCount;
+            if (outliers.size() < MAX_OUTLIERS) {
+                outliers.add(new Outlier(event.getTimestamp(), event.getCause(), eventTimeToSafepoint, event.getOperationTime(), outlierBaseline));
+            }
+        }
+        if (eventTimeToSafepoint > event.getOperationTime()) {
+            ++timeToSafepointDominatedCount;
+        }
+
+        timeToSafepoint.add(eventTimeToSafepoint);
+        cleanupTime.add(event.getCleanupTime());
+        operationTime.add(event.getOperationTime());
+        if (event.getCause() != null) {
+            DoubleData operationTimeToSafepoint = timeToSafepointByOperation.get(event.getCause());
+            if (operationTimeToSafepoint == null) {
+                operationTimeToSafepoint = new DoubleDataSketch();
+                timeToSafepointByOperation.put(event.getCause(), operationTimeToSafepoint);
+            }
+            operationTimeToSafepoint.add(eventTimeToSafepoint);
+        }
+
+        // the percentile is O(buckets) -> only updated now and then
+        if (timeToSafepoint.getN() >= MIN_BASELINE_SAFEPOINTS
+                && (Double.isNaN(outlierBaseline) || ++safepointsSinceBaselineUpdate >= THRESHOLD_UPDATE_INTERVAL)) {
+
+            outlierBaseline = timeToSafepoint.getPercentile(OUTLIER_PERCENTILE);
+            safepointsSinceBaselineUpdate = 0;
+        }
+    }
+
+    /**
+     * @return <code>true</code>, if at least one safepoint with safepoint times was added
+     */
+    public boolean hasSafepoints() {
+        return timeToSafepoint.getN() > 0;
+    }
+
+    /**
+     * @return times to safepoint (s)
+     */
+    public DoubleDataSketch getTimeToSafepoint() {
+        return timeToSafepoint;
+    }
+
+    /**
+     * @return safepoint cleanup times (s; 0, if the log doesn't contain them)
+     */
+    public DoubleDataSketch getCleanupTime() {
+        return cleanupTime;
+    }
+
+    /**
+     * @return times at the safepoint without cleanup (s)
+     */
+    public DoubleDataSketch getOperationTime() {
+        return operationTime;
+    }
+
+    /**
+     * @return total time of all safepoints (s)
+     */
+    public double getTotalTime() {
+        return timeToSafepoint.getSum() + cleanupTime.getSum() + operationTime.getSum();
+    }
+
+    /**
+     * @return share of the time to safepoint in the total time of all safepoints (0..1) or
+     * <code>NaN</code>, if there are no safepoints
+     */
+    public double getTimeToSafepointShare() {
+        return hasSafepoints() ? timeToSafepoint.getSum() / getTotalTime() : Double.NaN;
+    }
+
+    /**
+     * @return times to safepoint by name of the vm operation (only safepoints, where the log
+     * contains the name of the operation)
+     */
+    public Map<String, DoubleData> getTimeToSafepointByOperation() {
+        return Collections.unmodifiableMap(timeToSafepointByOperation);
+    }
+
+    /**
+     * @return number of safepoints, where reaching the safepoint took longer than the operation
+     */
+    public int getTimeToSafepointDominatedCount() {
+        return timeToSafepointDominatedCount;
+    }
+
+    /**
+     * @return number of safepoints with an outlying time to safepoint
+     */
+    public int getOutlierCount() {
+        return outlierCount;
+    }
+
+    /**
+     * @return the first {@link #MAX_OUTLIERS} safepoints with an outlying time to safepoint
+     */
+    public List<Outlier> getOutliers() {
+        return Collections.unmodifiableList(outliers);
+    }
+}
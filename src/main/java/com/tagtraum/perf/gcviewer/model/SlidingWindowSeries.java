@@ -0,0 +1,162 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import com.tagtraum.perf.gcviewer.math.SlidingWindow;
+
+/**
+ * Metrics of a {@link GCModel} over a sliding window of time: for every stop the world event, the
+ * metrics are computed over the window ending with this event. Unlike the aggregates of the model
+ * (e.g. {@link GCModel#getThroughput()}), the series show, when throughput dropped or allocation
+ * rate increased.
+ *
+ * <p>All series are computed in one pass over the stop the world events using {@link SlidingWindow}s
+ * (O(n) for n events, independent of the width of the window). At the beginning of the log,
+ * the window covers only the time since the first event.</p>
+ */
+public class SlidingWindowSeries {
+    /** default width of the window in seconds */
+    public static final double DEFAULT_WINDOW_SIZE = 60;
+
+    /**
+     * Metrics computed for every window.
+     */
+    public enum Metric {
+        /** time not spent in stop the world pauses in percent */
+        THROUGHPUT("Throughput(%)"),
+        /** longest stop the world pause in seconds */
+        MAX_PAUSE("MaxPause(sec)"),
+        /** number of stop the world pauses per minute */
+        PAUSE_DENSITY("Pauses(1/min)"),
+        /** memory allocated between two collections in KB per second */
+        ALLOCATION_RATE("AllocationRate(K/sec)"),
+        /** memory promoted to tenured space by young collections in KB per second */
+        PROMOTION_RATE("PromotionRate(K/sec)");
+
+        private final String label;
+
+        Metric(String label) {
+            this.label = label;
+        }
+
+        /**
+         * @return name of the metric including its unit
+         */
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final double windowSize;
+    private double[] timestamps;
+    private final double[][] values;
+    private int size;
+
+    private SlidingWindowSeries(double windowSize, int initialCapacity) {
+        this.windowSize = windowSize;
+        this.timestamps = new double[initialCapacity];
+        this.values = new double[Metric.values().length][initialCapacity];
+    }
+
+    /**
+     * Computes the series of all metrics of <code>model</code> over a window of <code>windowSize</code>
+     * seconds.
+     *
+     * @param model model to be analysed
+     * @param windowSize width of the window in seconds
+     * @return series of metrics
+     */
+    public static SlidingWindowSeries compute(GCModel model, double windowSize) {
+        SlidingWindowSeries series = new SlidingWindowSeries(windowSize, 1024);
+        SlidingWindow pauses = new SlidingWindow(windowSize);
+        SlidingWindow allocations = new SlidingWindow(windowSize);
+        SlidingWindow promotions = new SlidingWindow(windowSize);
+
+        double firstTimestamp = model.getFirstPauseTimeStamp();
+        int lastPostUsed = -1;
+        for (Iterator<AbstractGCEvent<?>> i = model.getStopTheWorldEvents(); i.hasNext(); ) {
+            AbstractGCEvent<?> event = i.next();
+            double timestamp = event.getTimestamp();
+            pauses.add(timestamp, event.getPause());
+
+            if (event instanceof GCEvent && event.hasMemoryInformation()) {
+                GCEvent gcEvent = (GCEvent) event;
+                if (lastPostUsed >= 0 && gcEvent.getPreUsed() >= lastPostUsed) {
+                    allocations.add(timestamp, gcEvent.getPreUsed() - lastPostUsed);
+                }
+                lastPostUsed = gcEvent.getPostUsed();
+
+                long promotion = GCModel.getPromotion(gcEvent);
+                if (promotion != GCModel.NO_PROMOTION) {
+                    promotions.add(timestamp, promotion);
+                }
+            }
+
+            double end = timestamp + event.getPause();
+            pauses.advanceTo(end);
+            allocations.advanceTo(end);
+            promotions.advanceTo(end);
+
+            double width = Math.min(windowSize, end - firstTimestamp);
+            if (width <= 0) {
+                continue;
+            }
+
+            series.add(timestamp,
+                    Math.max(0, 100 * (width - pauses.getSum()) / width),
+                    pauses.getMax(),
+                    60 * pauses.getCount() / width,
+                    allocations.getSum() / width,
+                    promotions.getSum() / width);
+        }
+
+        return series;
+    }
+
+    private void add(double timestamp, double... metricValues) {
+        if (size == timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, size * 2);
+            for (int i = 0; i < values.length; ++i) {
+                values[i] = Arrays.copyOf(values[i], size * 2);
+            }
+        }
+
+        timestamps[size] = timestamp;
+        for (int i = 0; i < values.length; ++i) {
+            values[i][size] = metricValues[i];
+        }
+        ++size;
+    }
+
+    /**
+     * @return width of the window in seconds
+     */
+    public double getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * @return number of points in every series
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index index of the point
+     * @return timestamp of the event ending the window of point <code>index</code>
+     */
+    public double getTimestamp(int index) {
+        return timestamps[index];
+    }
+
+    /**
+     * @param metric metric
+     * @param index index of the point
+     * @return value of <code>metric</code> in the window of point <code>index</code>
+     */
+    public double getValue(Metric metric, int index) {
+        return values[metric.ordinal()][index];
+    }
+}
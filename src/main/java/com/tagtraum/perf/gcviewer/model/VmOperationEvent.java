@@ -9,6 +9,52 @@ package com.tagtraum.perf.gcviewer.model;
  * @author <a href="mailto:gcviewer@gmx.ch">Joerg Wuethrich</a>
  */
 public class VmOperationEvent extends AbstractGCEvent<VmOperationEvent> {
+    private double timeToSafepoint = Double.NaN;
+    private double cleanupTime = Double.NaN;
+    private double operationTime = Double.NaN;
+
+    /**
+     * Sets the times of the safepoint of this event as logged by the jvm (not adjusted by
+     * {@link GCModel}, like the pause).
+     *
+     * @param timeToSafepoint time to reach the safepoint ("Stopping threads took" / "Reaching safepoint"; s)
+     * @param cleanupTime safepoint cleanup time (0, if not logged; s)
+     * @param operationTime time at the safepoint without cleanup (s)
+     */
+    public void setSafepointTimes(double timeToSafepoint, double cleanupTime, double operationTime) {
+        this.timeToSafepoint = timeToSafepoint;
+        this.cleanupTime = cleanupTime;
+        this.operationTime = operationTime;
+    }
+
+    /**
+     * @return <code>true</code>, if the log contains the time to safepoint of this event
+     */
+    public boolean hasSafepointTimes() {
+        return !Double.isNaN(timeToSafepoint);
+    }
+
+    /**
+     * @return time to reach the safepoint (s) or <code>NaN</code>, if not logged
+     */
+    public double getTimeToSafepoint() {
+        return timeToSafepoint;
+    }
+
+    /**
+     * @return safepoint cleanup time (s) or <code>NaN</code>, if the time to safepoint is not logged
+     */
+    public double getCleanupTime() {
+        return cleanupTime;
+    }
+
+    /**
+     * @return time at the safepoint without cleanup (s) or <code>NaN</code>, if the time to
+     * safepoint is not logged
+     */
+    public double getOperationTime() {
+        return operationTime;
+    }
 
     @Override
     public void toStringBuffer(StringBuffer sb) {
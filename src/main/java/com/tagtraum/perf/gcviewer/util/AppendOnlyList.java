@@ -0,0 +1,137 @@
+package com.tagtraum.perf.gcviewer.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * List, which only supports appending elements. The elements are stored in chunks of fixed size,
+ * which are never reallocated, and an element is never changed once it has been added.
+ *
+ * <p>Because of this, {@link #addAll(Collection)} on an empty list shares the elements of another
+ * <code>AppendOnlyList</code> in constant time instead of copying them: the new list sees exactly
+ * the elements, which had been added to the other list until then; elements added later to either
+ * list are not visible to the other one (the shared chunks are copied on the first
+ * {@link #add(Object)} to the new list). This allows a copy of a list to be read by another thread
+ * (e.g. the event dispatch thread), while one thread keeps appending to the original, if the copy is
+ * handed over safely (e.g. using {@link javax.swing.SwingUtilities#invokeLater(Runnable)}).</p>
+ *
+ * <p>Not thread safe for writing.</p>
+ *
+ * @param <E> type of the elements
+ */
+public class AppendOnlyList<E> extends AbstractList<E> implements RandomAccess, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private transient Object[][] chunks = new Object[4][];
+    private transient int size;
+    /** <code>true</code>, if the chunks are shared with another list */
+    private transient boolean isShared;
+
+    @Override
+    public boolean add(E element) {
+        if (isShared) {
+            unshare();
+        }
+
+        int chunkIndex = size >>> CHUNK_SHIFT;
+        if (chunkIndex == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        if (chunks[chunkIndex] == null) {
+            chunks[chunkIndex] = new Object[CHUNK_SIZE];
+        }
+        chunks[chunkIndex][size & CHUNK_MASK] = element;
+        ++size;
+        ++modCount;
+        return true;
+    }
+
+    /**
+     * Appends all elements of <code>collection</code>. If this list is empty and
+     * <code>collection</code> is an <code>AppendOnlyList</code>, its elements are shared instead
+     * of copied.
+     *
+     * @param collection elements to be appended
+     * @return <code>true</code>, if this list was changed
+     */
+    @Override
+    public boolean addAll(Collection<? extends E> collection) {
+        if (size == 0 && collection instanceof AppendOnlyList) {
+            AppendOnlyList<?> other = (AppendOnlyList<?>) collection;
+            chunks = other.chunks;
+            size = other.size;
+            isShared = true;
+            ++modCount;
+            return size > 0;
+        }
+
+        boolean isChanged = false;
+        for (E element : collection) {
+            isChanged |= add(element);
+        }
+
+        return isChanged;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+
+        return (E) chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Copies the directory of the chunks and the last chunk, which isn't full yet, because the
+     * other list sharing them may append elements to them.
+     */
+    private void unshare() {
+        int chunkCount = (size + CHUNK_SIZE - 1) >>> CHUNK_SHIFT;
+        Object[][] newChunks = new Object[Math.max(4, chunkCount * 2)][];
+        System.arraycopy(chunks, 0, newChunks, 0, chunkCount);
+        int lastChunkSize = size & CHUNK_MASK;
+        if (lastChunkSize > 0) {
+            Object[] lastChunk = new Object[CHUNK_SIZE];
+            System.arraycopy(chunks[chunkCount - 1], 0, lastChunk, 0, lastChunkSize);
+            newChunks[chunkCount - 1] = lastChunk;
+        }
+        chunks = newChunks;
+        isShared = false;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        // only the elements of this list (shared chunks may contain elements of another list)
+        out.defaultWriteObject();
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeObject(get(i));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        chunks = new Object[4][];
+        int elementCount = in.readInt();
+        for (int i = 0; i < elementCount; i++) {
+            add((E) in.readObject());
+        }
+    }
+}
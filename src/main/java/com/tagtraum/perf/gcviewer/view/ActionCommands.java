@@ -9,6 +9,7 @@ package com.tagtraum.perf.gcviewer.view;
 public enum ActionCommands {
     ABOUT,
     ARRANGE,
+    COMPARE,
     EXIT,
     EXPORT,
     SHOW_LICENSE,
@@ -1,5 +1,7 @@
 package com.tagtraum.perf.gcviewer.view;
 
+import com.tagtraum.perf.gcviewer.imp.DataReaderFacade;
+import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.model.GcResourceFile;
 import com.tagtraum.perf.gcviewer.model.GCResource;
 import com.tagtraum.perf.gcviewer.util.LocalisationHelper;
@@ -151,17 +153,22 @@ public class ChartPanelView implements PropertyChangeListener {
             updateModel(gcResource);
             updateTabDisplay(gcResource);
         }
+        else if (DataReaderFacade.MODEL_SNAPSHOT.equals(evt.getPropertyName())) {
+            // show what has been read so far, while the rest of the file is still being loaded
+            GCModel snapshot = (GCModel) evt.getNewValue();
+            boolean hadData = modelChartAndDetailsPanel.isEnabledAt(0);
+            updateModel(snapshot);
+            enableTabs(snapshot.size() > 0);
+            if (!hadData && snapshot.size() > 0 && !gcResource.isReload()) {
+                modelChartAndDetailsPanel.setSelectedIndex(0);
+            }
+        }
     }
     
     private void updateTabDisplay(GCResource gcResource) {
         // enable only "parser" panel, as long as model contains no data
         boolean modelHasData = gcResource.getModel() != null && gcResource.getModel().size() > 0;
-        for (int i = 0; i < modelChartAndDetailsPanel.getTabCount(); ++i) {
-            modelChartAndDetailsPanel.setEnabledAt(i, 
-                    modelHasData
-                    || modelChartAndDetailsPanel.getTitleAt(i).equals(
-                            LocalisationHelper.getString("data_panel_tab_parser")));
-        }
+        enableTabs(modelHasData);
         
         if (!gcResource.isReload()) {
             if (modelHasData) {
@@ -172,14 +179,27 @@ public class ChartPanelView implements PropertyChangeListener {
             }
         }
     }
+
+    private void enableTabs(boolean modelHasData) {
+        for (int i = 0; i < modelChartAndDetailsPanel.getTabCount(); ++i) {
+            modelChartAndDetailsPanel.setEnabledAt(i, 
+                    modelHasData
+                    || modelChartAndDetailsPanel.getTitleAt(i).equals(
+                            LocalisationHelper.getString("data_panel_tab_parser")));
+        }
+    }
     
     private void updateModel(GCResource gcResource) {
-        this.modelMetricsPanel.setModel(gcResource.getModel());
-        this.modelChart.setModel(gcResource.getModel(), preferences);
-        this.modelDetailsPanel.setModel(gcResource.getModel());
+        updateModel(gcResource.getModel());
         this.viewBar.setTitle(gcResource.getResourceName());
     }
 
+    private void updateModel(GCModel model) {
+        this.modelMetricsPanel.setModel(model);
+        this.modelChart.setModel(model, preferences);
+        this.modelDetailsPanel.setModel(model);
+    }
+
     private static class ViewBar extends JPanel {
         private JLabel title = new JLabel();
         private ViewBarButton closeButton = new ViewBarButton("close.png", "close_selected.png");
@@ -47,6 +47,24 @@ public abstract class ChartRenderer extends JComponent {
         return linePaint;
     }
 
+    /**
+     * Resets geometry cached by this renderer. Is called whenever the size of the chart changes
+     * (zoom, window resize, reload).
+     */
+    public void resetGeometry() {
+        // nothing cached by default
+    }
+
+    /**
+     * Returns <code>true</code>, if this renderer paints geometry matching the current state of
+     * the chart (as opposed to geometry still being computed in the background).
+     *
+     * @return <code>true</code> if painted geometry is up to date
+     */
+    public boolean isGeometryCurrent() {
+        return true;
+    }
+
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
         Graphics2D g2d = (Graphics2D)g;
@@ -0,0 +1,236 @@
+package com.tagtraum.perf.gcviewer.view;
+
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cache of offscreen images ("tiles") of the chart in {@link ModelChartImpl}. A tile covers
+ * {@link #TILE_WIDTH} pixels of the chart in x and the full height of the chart. Tiles are kept for
+ * every combination of scale factor, position, size and visible renderers, so that scrolling
+ * only copies images and zooming back to a previous scale factor does not render again.
+ *
+ * <p>The memory of the tiles is limited by a {@link TileMemory} shared by the caches of all charts
+ * (default: {@link #MAX_BYTES}), so it doesn't grow with the number of open charts, their height
+ * or the scale of the device (HiDPI). If it is exceeded, the least recently used tiles of any chart
+ * are discarded. All tiles must be discarded with {@link #clear()}, whenever the content of the chart
+ * changes in a way not covered by {@link Key} (new model, new preferences) or the chart is closed.
+ * Must only be used on the event dispatch thread.</p>
+ */
+class ChartTileCache {
+    /** width of a tile in pixels of the chart */
+    static final int TILE_WIDTH = 512;
+    /** maximum memory of the tiles of all charts together (bytes) */
+    static final long MAX_BYTES = 64L * 1024 * 1024;
+
+    private static final TileMemory SHARED_MEMORY = new TileMemory(MAX_BYTES);
+
+    private final TileMemory memory;
+    private final Map<Key, BufferedImage> tiles = new HashMap<>();
+
+    public ChartTileCache() {
+        this(SHARED_MEMORY);
+    }
+
+    /**
+     * @param memory limits the memory of the tiles of this cache together with other caches
+     */
+    ChartTileCache(TileMemory memory) {
+        this.memory = memory;
+    }
+
+    /**
+     * Returns the tile for <code>key</code> or <code>null</code> if not cached.
+     *
+     * @param key identifies the tile
+     * @return cached tile or <code>null</code>
+     */
+    public BufferedImage get(Key key) {
+        BufferedImage tile = tiles.get(key);
+        if (tile != null) {
+            memory.use(this, key);
+        }
+
+        return tile;
+    }
+
+    public void put(Key key, BufferedImage tile) {
+        if (tiles.put(key, tile) != null) {
+            memory.remove(this, key);
+        }
+        memory.add(this, key, tile);
+    }
+
+    public int size() {
+        return tiles.size();
+    }
+
+    /**
+     * Discards all tiles.
+     */
+    public void clear() {
+        for (Key key : tiles.keySet()) {
+            memory.remove(this, key);
+        }
+        tiles.clear();
+    }
+
+    /**
+     * Returns the index of the tile containing pixel <code>x</code>.
+     *
+     * @param x x-coordinate in the chart
+     * @return index of the tile
+     */
+    public static int getTileIndex(int x) {
+        return Math.floorDiv(x, TILE_WIDTH);
+    }
+
+    /**
+     * Memory of the tiles of several caches, which discards the least recently used tiles of any
+     * cache, if the limit is exceeded.
+     */
+    static class TileMemory {
+        private final long maxBytes;
+        /** size of every tile in bytes in the order of its last use */
+        private final Map<CacheKey, Long> tileBytes = new LinkedHashMap<>(64, 0.75f, true);
+        private long bytes;
+
+        /**
+         * @param maxBytes maximum memory of all tiles (bytes)
+         */
+        public TileMemory(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        /**
+         * @return memory of all tiles (bytes)
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        void add(ChartTileCache cache, Key key, BufferedImage tile) {
+            // tiles are TYPE_INT_ARGB: 4 bytes per pixel
+            long size = 4L * tile.getWidth() * tile.getHeight();
+            tileBytes.put(new CacheKey(cache, key), size);
+            bytes += size;
+
+            // the tile just added is the last one and always kept
+            Iterator<Map.Entry<CacheKey, Long>> iterator = tileBytes.entrySet().iterator();
+            while (bytes > maxBytes && tileBytes.size() > 1) {
+                Map.Entry<CacheKey, Long> eldest = iterator.next();
+                iterator.remove();
+                bytes -= eldest.getValue();
+                eldest.getKey().cache.tiles.remove(eldest.getKey().key);
+            }
+        }
+
+        void use(ChartTileCache cache, Key key) {
+            // moves the tile to the end of the access order
+            tileBytes.get(new CacheKey(cache, key));
+        }
+
+        void remove(ChartTileCache cache, Key key) {
+            Long size = tileBytes.remove(new CacheKey(cache, key));
+            if (size != null) {
+                bytes -= size;
+            }
+        }
+    }
+
+    /**
+     * Identifies a tile in a {@link TileMemory}.
+     */
+    private static class CacheKey {
+        private final ChartTileCache cache;
+        private final Key key;
+
+        public CacheKey(ChartTileCache cache, Key key) {
+            this.cache = cache;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey cacheKey = (CacheKey) o;
+            return cache == cacheKey.cache && key.equals(cacheKey.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(cache) + key.hashCode();
+        }
+    }
+
+    /**
+     * Identifies a tile by everything the rendered image depends on.
+     */
+    static class Key {
+        private final double scaleFactor;
+        private final int tileIndex;
+        private final int height;
+        private final double deviceScale;
+        private final long visibleRenderers;
+        private final boolean antiAlias;
+
+        /**
+         * @param scaleFactor scale factor of the chart
+         * @param tileIndex index of the tile (see {@link ChartTileCache#getTileIndex(int)})
+         * @param height height of the chart in pixels
+         * @param deviceScale scale of the device the tile is drawn on (HiDPI)
+         * @param visibleRenderers one bit per renderer set, if it is visible
+         * @param antiAlias <code>true</code>, if lines are antialiased
+         */
+        public Key(double scaleFactor, int tileIndex, int height, double deviceScale, long visibleRenderers, boolean antiAlias) {
+            this.scaleFactor = scaleFactor;
+            this.tileIndex = tileIndex;
+            this.height = height;
+            this.deviceScale = deviceScale;
+            this.visibleRenderers = visibleRenderers;
+            this.antiAlias = antiAlias;
+        }
+
+        public int getTileIndex() {
+            return tileIndex;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Double.compare(key.scaleFactor, scaleFactor) == 0
+                    && tileIndex == key.tileIndex
+                    && height == key.height
+                    && Double.compare(key.deviceScale, deviceScale) == 0
+                    && visibleRenderers == key.visibleRenderers
+                    && antiAlias == key.antiAlias;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scaleFactor, tileIndex, height, deviceScale, visibleRenderers, antiAlias);
+        }
+
+        @Override
+        public String toString() {
+            return "Key [scaleFactor=" + scaleFactor + ", tileIndex=" + tileIndex + ", height=" + height
+                    + ", deviceScale=" + deviceScale + ", visibleRenderers=" + Long.toBinaryString(visibleRenderers)
+                    + ", antiAlias=" + antiAlias + "]";
+        }
+    }
+
+}
@@ -582,6 +582,48 @@ public class GCDocument extends JInternalFrame implements PropertyChangeListener
             return chartPanelViews.get(0).getModelChart().isShowConcurrentCollectionBeginEnd();
         }
 
+        @Override
+        public void setShowSlidingThroughput(boolean showSlidingThroughput) {
+            preferences.setGcLineProperty(GCPreferences.SLIDING_THROUGHPUT, showSlidingThroughput);
+            for (ChartPanelView chartPanelView : chartPanelViews) {
+                chartPanelView.getModelChart().setShowSlidingThroughput(showSlidingThroughput);
+            }
+        }
+
+        @Override
+        public boolean isShowSlidingThroughput() {
+            if (chartPanelViews.isEmpty()) return false;
+            return chartPanelViews.get(0).getModelChart().isShowSlidingThroughput();
+        }
+
+        @Override
+        public void setShowAnomalies(boolean showAnomalies) {
+            preferences.setGcLineProperty(GCPreferences.ANOMALIES, showAnomalies);
+            for (ChartPanelView chartPanelView : chartPanelViews) {
+                chartPanelView.getModelChart().setShowAnomalies(showAnomalies);
+            }
+        }
+
+        @Override
+        public boolean isShowAnomalies() {
+            if (chartPanelViews.isEmpty()) return false;
+            return chartPanelViews.get(0).getModelChart().isShowAnomalies();
+        }
+
+        @Override
+        public void setShowPauseHeatmap(boolean showPauseHeatmap) {
+            preferences.setGcLineProperty(GCPreferences.PAUSE_HEATMAP, showPauseHeatmap);
+            for (ChartPanelView chartPanelView : chartPanelViews) {
+                chartPanelView.getModelChart().setShowPauseHeatmap(showPauseHeatmap);
+            }
+        }
+
+        @Override
+        public boolean isShowPauseHeatmap() {
+            if (chartPanelViews.isEmpty()) return false;
+            return chartPanelViews.get(0).getModelChart().isShowPauseHeatmap();
+        }
+
         @Override
         public void resetPolygonCache() {
             for (ChartPanelView chartPanelView : chartPanelViews) {
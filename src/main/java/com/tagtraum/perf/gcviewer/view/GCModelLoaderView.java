@@ -106,6 +106,8 @@ public class GCModelLoaderView extends JPanel implements PropertyChangeListener,
             }
             else if (SwingWorker.StateValue.DONE == evt.getNewValue()) {
                 progressBar.setValue(100);
+                // show remaining messages and summary of repeated warnings
+                textAreaLogHandler.flush();
                 final int nErrors = textAreaLogHandler.getErrorCount();
 
                 messageLabel.setText(LocalisationHelper.getString("datareader_parseerror_dialog_message", nErrors));
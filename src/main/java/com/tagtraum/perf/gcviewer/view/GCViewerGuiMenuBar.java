@@ -23,6 +23,8 @@ import com.tagtraum.perf.gcviewer.view.util.OSXSupport;
  */
 public class GCViewerGuiMenuBar extends JMenuBar {
     private Map<String, JCheckBoxMenuItem> viewMenuItemMap;
+    /** state of the view menu items when they were added */
+    private Map<String, Boolean> viewMenuItemDefaultMap;
     private JMenu fileMenu;
     private RecentGCResourcesModel recentResourceNamesModel;
     private JMenu viewMenu;
@@ -35,6 +37,7 @@ public class GCViewerGuiMenuBar extends JMenuBar {
         super();
         
         viewMenuItemMap = new HashMap<>();
+        viewMenuItemDefaultMap = new HashMap<>();
         
         fileMenu = new JMenu(LocalisationHelper.getString("main_frame_menu_file"));
         fileMenu.setMnemonic(LocalisationHelper.getString("main_frame_menu_mnemonic_file").charAt(0));
@@ -84,6 +87,7 @@ public class GCViewerGuiMenuBar extends JMenuBar {
     public void addToViewMenu(String key, JCheckBoxMenuItem menuItem) {
         viewMenu.add(menuItem);
         viewMenuItemMap.put(key, menuItem);
+        viewMenuItemDefaultMap.put(key, menuItem.getState());
     }
     
     public void addToViewMenu(Action action) {
@@ -99,6 +103,7 @@ public class GCViewerGuiMenuBar extends JMenuBar {
      */
     public void addToViewMenuInvisible(String key, JCheckBoxMenuItem menuItem) {
         viewMenuItemMap.put(key, menuItem);
+        viewMenuItemDefaultMap.put(key, menuItem.getState());
     }
     
     /**
@@ -143,6 +148,17 @@ public class GCViewerGuiMenuBar extends JMenuBar {
     public Map<String, JCheckBoxMenuItem> getViewMenuItems() {
         return Collections.unmodifiableMap(viewMenuItemMap);
     }
+
+    /**
+     * Returns the state of a view menu item when it was added, which is its state, if the
+     * preferences don't contain it yet.
+     *
+     * @param key key of the view menu item
+     * @return default state of the view menu item
+     */
+    public boolean getViewMenuItemDefault(String key) {
+        return viewMenuItemDefaultMap.getOrDefault(key, true);
+    }
     
     public JMenu getWindowMenu() {
         return windowMenu;
@@ -60,6 +60,18 @@ public interface ModelChart {
     
     boolean isShowConcurrentCollectionBeginEnd();
 
+    void setShowSlidingThroughput(boolean showSlidingThroughput);
+
+    boolean isShowSlidingThroughput();
+
+    void setShowAnomalies(boolean showAnomalies);
+
+    boolean isShowAnomalies();
+
+    void setShowPauseHeatmap(boolean showPauseHeatmap);
+
+    boolean isShowPauseHeatmap();
+
     void setRunningTime(double runningTime);
 
     void setFootprint(long footPrint);
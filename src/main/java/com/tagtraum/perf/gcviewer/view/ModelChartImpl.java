@@ -6,6 +6,7 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Rectangle;
@@ -14,6 +15,7 @@ import java.awt.event.ComponentListener;
 import java.awt.event.InputEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.text.DateFormat;
@@ -35,13 +37,15 @@ import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.util.TimeFormat;
 import com.tagtraum.perf.gcviewer.view.model.GCPreferences;
 import com.tagtraum.perf.gcviewer.view.model.PropertyChangeEventConsts;
+import com.tagtraum.perf.gcviewer.view.renderer.AnomalyRenderer;
 import com.tagtraum.perf.gcviewer.view.renderer.ConcurrentGcBegionEndRenderer;
 import com.tagtraum.perf.gcviewer.view.renderer.FullGCLineRenderer;
 import com.tagtraum.perf.gcviewer.view.renderer.GCRectanglesRenderer;
 import com.tagtraum.perf.gcviewer.view.renderer.GCTimesRenderer;
 import com.tagtraum.perf.gcviewer.view.renderer.IncLineRenderer;
 import com.tagtraum.perf.gcviewer.view.renderer.InitialMarkLevelRenderer;
-import com.tagtraum.perf.gcviewer.view.renderer.PolygonChartRenderer;
+import com.tagtraum.perf.gcviewer.view.renderer.PauseHeatmapRenderer;
+import com.tagtraum.perf.gcviewer.view.renderer.SlidingThroughputRenderer;
 import com.tagtraum.perf.gcviewer.view.renderer.TotalHeapRenderer;
 import com.tagtraum.perf.gcviewer.view.renderer.TotalTenuredRenderer;
 import com.tagtraum.perf.gcviewer.view.renderer.TotalYoungRenderer;
@@ -84,7 +88,11 @@ public class ModelChartImpl extends JScrollPane implements ModelChart, ChangeLis
     private UsedYoungRenderer usedYoungRenderer;
     private InitialMarkLevelRenderer initialMarkLevelRenderer;
     private ConcurrentGcBegionEndRenderer concurrentGcLineRenderer;
+    private SlidingThroughputRenderer slidingThroughputRenderer;
+    private AnomalyRenderer anomalyRenderer;
+    private PauseHeatmapRenderer pauseHeatmapRenderer;
     private boolean antiAlias;
+    private boolean renderInBackground = true;
     private TimeOffsetPanel timeOffsetPanel;
     private int lastViewPortWidth = 0;
 
@@ -119,6 +127,8 @@ public class ModelChartImpl extends JScrollPane implements ModelChart, ChangeLis
         chart.add(incLineRenderer, gridBagConstraints);
         concurrentGcLineRenderer = new ConcurrentGcBegionEndRenderer(this);
         chart.add(concurrentGcLineRenderer, gridBagConstraints);
+        slidingThroughputRenderer = new SlidingThroughputRenderer(this);
+        chart.add(slidingThroughputRenderer, gridBagConstraints);
         gcTimesRenderer = new GCTimesRenderer(this);
         chart.add(gcTimesRenderer, gridBagConstraints);
         usedYoungRenderer = new UsedYoungRenderer(this);
@@ -129,6 +139,10 @@ public class ModelChartImpl extends JScrollPane implements ModelChart, ChangeLis
         chart.add(totalYoungRenderer, gridBagConstraints);
         totalHeapRenderer = new TotalHeapRenderer(this);
         chart.add(totalHeapRenderer, gridBagConstraints);
+        anomalyRenderer = new AnomalyRenderer(this);
+        chart.add(anomalyRenderer, gridBagConstraints);
+        pauseHeatmapRenderer = new PauseHeatmapRenderer(this);
+        chart.add(pauseHeatmapRenderer, gridBagConstraints);
 
         setViewportView(chart);
         // This would make scrolling slower, but eliminates flickering...
@@ -258,6 +272,7 @@ public class ModelChartImpl extends JScrollPane implements ModelChart, ChangeLis
      * Resets the internal cache of the chart.
      */
     public void resetPolygonCache() {
+        chart.resetTiles();
         chart.resetPolygons();
     }
 
@@ -290,6 +305,28 @@ public class ModelChartImpl extends JScrollPane implements ModelChart, ChangeLis
     @Override
     public void setAntiAlias(boolean antiAlias) {
         this.antiAlias = antiAlias;
+        chart.resetTiles();
+    }
+
+    /**
+     * Returns <code>true</code>, if the renderers compute their geometry on worker threads
+     * (default).
+     *
+     * @return <code>true</code> if geometry is computed in the background
+     */
+    public boolean isRenderInBackground() {
+        return renderInBackground;
+    }
+
+    /**
+     * Sets whether the renderers compute their geometry on worker threads. Must be
+     * <code>false</code> if the chart is painted only once (e.g. into an image), because
+     * otherwise nothing would be painted.
+     *
+     * @param renderInBackground <code>true</code> to compute geometry in the background
+     */
+    public void setRenderInBackground(boolean renderInBackground) {
+        this.renderInBackground = renderInBackground;
     }
 
     @Override
@@ -438,8 +475,39 @@ public class ModelChartImpl extends JScrollPane implements ModelChart, ChangeLis
         return concurrentGcLineRenderer.isVisible();
     }
 
+    @Override
+    public void setShowSlidingThroughput(boolean showSlidingThroughput) {
+        slidingThroughputRenderer.setVisible(showSlidingThroughput);
+    }
+
+    @Override
+    public boolean isShowSlidingThroughput() {
+        return slidingThroughputRenderer.isVisible();
+    }
+
+    @Override
+    public void setShowAnomalies(boolean showAnomalies) {
+        anomalyRenderer.setVisible(showAnomalies);
+    }
+
+    @Override
+    public boolean isShowAnomalies() {
+        return anomalyRenderer.isVisible();
+    }
+
+    @Override
+    public void setShowPauseHeatmap(boolean showPauseHeatmap) {
+        pauseHeatmapRenderer.setVisible(showPauseHeatmap);
+    }
+
+    @Override
+    public boolean isShowPauseHeatmap() {
+        return pauseHeatmapRenderer.isVisible();
+    }
+
     public void setModel(GCModel model, GCPreferences preferences) {
         this.model = model;
+        chart.resetTiles();
 
         if (model.getFirstDateStamp() != null) {
             this.timeOffsetPanel.setDate(new Date(model.getFirstDateStamp().toInstant().toEpochMilli()));
@@ -465,6 +533,9 @@ public class ModelChartImpl extends JScrollPane implements ModelChart, ChangeLis
         setShowUsedYoungMemoryLine(preferences.getGcLineProperty(GCPreferences.USED_YOUNG_MEMORY));
         setShowInitialMarkLevel(preferences.getGcLineProperty(GCPreferences.INITIAL_MARK_LEVEL));
         setShowConcurrentCollectionBeginEnd(preferences.getGcLineProperty(GCPreferences.CONCURRENT_COLLECTION_BEGIN_END));
+        setShowSlidingThroughput(preferences.getGcLineProperty(GCPreferences.SLIDING_THROUGHPUT, false));
+        setShowAnomalies(preferences.getGcLineProperty(GCPreferences.ANOMALIES));
+        setShowPauseHeatmap(preferences.getGcLineProperty(GCPreferences.PAUSE_HEATMAP, false));
         setShowDateStamp(preferences.getGcLineProperty(GCPreferences.SHOW_DATE_STAMP, false));
     }
 
@@ -475,6 +546,7 @@ public class ModelChartImpl extends JScrollPane implements ModelChart, ChangeLis
     public void setRunningTime(double runningTime) {
         this.timestampRuler.setMaxUnit(runningTime);
         this.runningTime = runningTime;
+        chart.resetTiles();
         getRowHeader().revalidate();
         usedHeapRenderer.invalidate();
         chart.revalidate();
@@ -483,6 +555,7 @@ public class ModelChartImpl extends JScrollPane implements ModelChart, ChangeLis
     public void setFootprint(long footprint) {
         this.memoryRuler.setMaxUnit(footprint / 1024);
         this.footprint = footprint;
+        chart.resetTiles();
         getColumnHeader().revalidate();
         chart.revalidate();
     }
@@ -490,6 +563,7 @@ public class ModelChartImpl extends JScrollPane implements ModelChart, ChangeLis
     public void setMaxPause(double maxPause) {
         this.pauseRuler.setMaxUnit(maxPause);
         this.maxPause = maxPause;
+        chart.resetTiles();
         getColumnHeader().revalidate();
         chart.revalidate();
     }
@@ -502,7 +576,12 @@ public class ModelChartImpl extends JScrollPane implements ModelChart, ChangeLis
         return maxPause;
     }
 
+    /**
+     * Panel containing all renderers. While shown on screen, the renderers are painted into
+     * {@link ChartTileCache tiles}, so that scrolling only needs to copy images.
+     */
     private class Chart extends JPanel implements ComponentListener {
+        private final ChartTileCache tileCache = new ChartTileCache();
 
         public Chart() {
             setBackground(Color.WHITE);
@@ -519,16 +598,109 @@ public class ModelChartImpl extends JScrollPane implements ModelChart, ChangeLis
         }
 
         /**
-         * Reset the cached polygons of all {@link PolygonChartRenderer}s stored in this chart.
+         * Reset the cached polygons and other geometry of all {@link ChartRenderer}s stored in this chart.
          */
         public void resetPolygons() {
             for (Component component : getComponents()) {
-                if (component instanceof PolygonChartRenderer) {
-                    ((PolygonChartRenderer)component).resetPolygon();
+                if (component instanceof ChartRenderer) {
+                    ((ChartRenderer)component).resetGeometry();
                 }
             }
         }
 
+        /**
+         * Discards all tiles. Must be called whenever the content of the chart changes
+         * independently of scale factor, size or visibility of renderers.
+         */
+        public void resetTiles() {
+            tileCache.clear();
+        }
+
+        @Override
+        public void removeNotify() {
+            // chart closed: leave the memory shared by all charts to the others
+            resetTiles();
+            super.removeNotify();
+        }
+
+        @Override
+        protected void paintChildren(Graphics g) {
+            Rectangle clip = g.getClipBounds();
+            if (!isShowing() || !(g instanceof Graphics2D) || clip == null || getHeight() <= 0) {
+                // e.g. painting into an image: tiles would not be reused
+                super.paintChildren(g);
+                return;
+            }
+
+            Graphics2D g2d = (Graphics2D) g;
+            double deviceScale = g2d.getTransform().getScaleX();
+            long visibleRenderers = getVisibleRenderers();
+            for (int tileIndex = ChartTileCache.getTileIndex(clip.x);
+                 tileIndex <= ChartTileCache.getTileIndex(clip.x + clip.width - 1);
+                 tileIndex++) {
+
+                ChartTileCache.Key key = new ChartTileCache.Key(getScaleFactor(),
+                        tileIndex,
+                        getHeight(),
+                        deviceScale,
+                        visibleRenderers,
+                        isAntiAlias());
+                BufferedImage tile = tileCache.get(key);
+                if (tile == null) {
+                    tile = paintTile(tileIndex, deviceScale);
+                    // geometry still being computed in the background must not be kept
+                    if (isGeometryCurrent()) {
+                        tileCache.put(key, tile);
+                    }
+                }
+                g2d.drawImage(tile, tileIndex * ChartTileCache.TILE_WIDTH, 0, ChartTileCache.TILE_WIDTH, getHeight(), null);
+            }
+        }
+
+        private BufferedImage paintTile(int tileIndex, double deviceScale) {
+            int tileX = tileIndex * ChartTileCache.TILE_WIDTH;
+            BufferedImage tile = new BufferedImage((int) Math.ceil(ChartTileCache.TILE_WIDTH * deviceScale),
+                    (int) Math.ceil(getHeight() * deviceScale),
+                    BufferedImage.TYPE_INT_ARGB);
+            Graphics2D tileGraphics = tile.createGraphics();
+            try {
+                tileGraphics.scale(deviceScale, deviceScale);
+                tileGraphics.translate(-tileX, 0);
+                tileGraphics.setClip(tileX, 0, ChartTileCache.TILE_WIDTH, getHeight());
+                super.paintChildren(tileGraphics);
+            }
+            finally {
+                tileGraphics.dispose();
+            }
+
+            return tile;
+        }
+
+        private long getVisibleRenderers() {
+            long visibleRenderers = 0;
+            Component[] components = getComponents();
+            for (int i = 0; i < components.length && i < Long.SIZE; i++) {
+                if (components[i].isVisible()) {
+                    visibleRenderers |= 1L << i;
+                }
+            }
+
+            return visibleRenderers;
+        }
+
+        private boolean isGeometryCurrent() {
+            for (Component component : getComponents()) {
+                if (component.isVisible()
+                        && component instanceof ChartRenderer
+                        && !((ChartRenderer) component).isGeometryCurrent()) {
+
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
         @Override
         public void componentResized(ComponentEvent e) {
             resetPolygons();
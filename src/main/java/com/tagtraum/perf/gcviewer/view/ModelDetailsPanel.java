@@ -9,6 +9,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.TreeMap;
 import javax.swing.BorderFactory;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
@@ -19,6 +20,7 @@ import javax.swing.table.TableModel;
 
 import com.tagtraum.perf.gcviewer.math.DoubleData;
 import com.tagtraum.perf.gcviewer.math.DoubleDataPercentile;
+import com.tagtraum.perf.gcviewer.math.DoubleDataSketch;
 import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.util.LocalisationHelper;
 
@@ -38,10 +40,17 @@ public class ModelDetailsPanel extends JPanel {
     private DoubleDataMapModel concurrentGcEventModel;
 
     private DoubleDataMapTable vmOperationTable;
+    private DoubleDataMapModel timeToSafepointModel;
+    private DoubleDataMapTable timeToSafepointTable;
     
     private DoubleDataMapModel gcPhasesModel;
     private DoubleDataMapTable gcPhasesTable;
 
+    private DoubleDataMapModel causeModel;
+    private DoubleDataMapTable causeTable;
+    private DoubleDataMapModel typeCauseModel;
+    private DoubleDataMapTable typeCauseTable;
+
     public ModelDetailsPanel() {
         super();
 
@@ -59,13 +68,19 @@ public class ModelDetailsPanel extends JPanel {
         fullGcEventModel = new DoubleDataMapModel();
         vmOperationEventModel = new DoubleDataMapModel();
         concurrentGcEventModel = new DoubleDataMapModel();
+        timeToSafepointModel = new DoubleDataMapModel();
         gcPhasesModel = new DoubleDataMapModel();
+        causeModel = new DoubleDataMapModel();
+        typeCauseModel = new DoubleDataMapModel();
 
         DoubleDataMapTable gcTable = new DoubleDataMapTable(LocalisationHelper.getString("data_panel_group_gc_pauses"), gcEventModel);
         DoubleDataMapTable fullGcTable = new DoubleDataMapTable(LocalisationHelper.getString("data_panel_group_full_gc_pauses"), fullGcEventModel);
         vmOperationTable = new DoubleDataMapTable(LocalisationHelper.getString("data_panel_vm_op_overhead"), vmOperationEventModel);
+        timeToSafepointTable = new DoubleDataMapTable(LocalisationHelper.getString("data_panel_group_time_to_safepoint"), timeToSafepointModel);
         DoubleDataMapTable concurrentGcTable = new DoubleDataMapTable(LocalisationHelper.getString("data_panel_group_concurrent_gc_events"), concurrentGcEventModel);
         gcPhasesTable = new DoubleDataMapTable(LocalisationHelper.getString("data_panel_group_gc_phases"), gcPhasesModel);
+        causeTable = new DoubleDataMapTable(LocalisationHelper.getString("data_panel_group_cause_pauses"), causeModel);
+        typeCauseTable = new DoubleDataMapTable(LocalisationHelper.getString("data_panel_group_type_cause_pauses"), typeCauseModel);
 
         GridBagConstraints constraints = createGridBagConstraints();
         add(gcTable, constraints);
@@ -73,12 +88,21 @@ public class ModelDetailsPanel extends JPanel {
         constraints.gridy++;
         add(gcPhasesTable, constraints);
 
+        constraints.gridy++;
+        add(causeTable, constraints);
+
+        constraints.gridy++;
+        add(typeCauseTable, constraints);
+
         constraints.gridy++;
         add(fullGcTable, constraints);
 
         constraints.gridy++;
         add(vmOperationTable, constraints);
 
+        constraints.gridy++;
+        add(timeToSafepointTable, constraints);
+
         constraints.gridy++;
         add(concurrentGcTable, constraints);
 
@@ -115,6 +139,12 @@ public class ModelDetailsPanel extends JPanel {
         else {
             vmOperationEventModel.setModel(model.getVmOperationEventPauses(), totalPause, true);
         }
+        if (model.size() > 1 && model.getSafepointStatistics().getTimeToSafepointByOperation().size() == 0) {
+            remove(timeToSafepointTable);
+        }
+        else {
+            timeToSafepointModel.setModel(model.getSafepointStatistics().getTimeToSafepointByOperation(), totalPause, false);
+        }
         concurrentGcEventModel.setModel(model.getConcurrentEventPauses(), totalPause, false);
 
         if (model.size() > 1 && model.getGcEventPhases().size() == 0) {
@@ -124,9 +154,32 @@ public class ModelDetailsPanel extends JPanel {
             gcPhasesModel.setModel(model.getGcEventPhases(), totalPause, false);
         }
 
+        if (model.size() > 1 && model.getCausePauses().size() == 0) {
+            remove(causeTable);
+            remove(typeCauseTable);
+        }
+        else {
+            causeModel.setModel(model.getCausePauses(), totalPause, true);
+            typeCauseModel.setModel(getTypeCausePauses(model), totalPause, true);
+        }
+
         repaint();
     }
 
+    /**
+     * Flattens {@link GCModel#getTypeCausePauses()} to one entry per type and cause ("type (cause)").
+     */
+    private Map<String, DoubleData> getTypeCausePauses(GCModel model) {
+        Map<String, DoubleData> typeCausePauses = new TreeMap<String, DoubleData>();
+        for (Entry<String, Map<String, DoubleData>> typeEntry : model.getTypeCausePauses().entrySet()) {
+            for (Entry<String, DoubleData> causeEntry : typeEntry.getValue().entrySet()) {
+                typeCausePauses.put(typeEntry.getKey() + " (" + causeEntry.getKey() + ")", causeEntry.getValue());
+            }
+        }
+
+        return typeCausePauses;
+    }
+
     /**
      * Displays a {@link DoubleDataMapModel} as a table.
      *
@@ -397,12 +450,12 @@ public class ModelDetailsPanel extends JPanel {
                 entryList.add(pauseFormatter.format(entry.getValue().getMax()));
                 entryList.add(pauseFormatter.format(entry.getValue().average()));
                 entryList.add(pauseFormatter.format(entry.getValue().standardDeviation()));
-                entryList.add(pauseFormatter.format(((DoubleDataPercentile)entry.getValue()).getPercentile(50)));
-                entryList.add(pauseFormatter.format(((DoubleDataPercentile)entry.getValue()).getPercentile(75)));
-                entryList.add(pauseFormatter.format(((DoubleDataPercentile)entry.getValue()).getPercentile(95)));
-                entryList.add(pauseFormatter.format(((DoubleDataPercentile)entry.getValue()).getPercentile(99)));
-                entryList.add(pauseFormatter.format(((DoubleDataPercentile)entry.getValue()).getPercentile(99.5)));
-                entryList.add(pauseFormatter.format(((DoubleDataPercentile)entry.getValue()).getPercentile(99.9)));
+                entryList.add(pauseFormatter.format(getPercentile(entry.getValue(), 50)));
+                entryList.add(pauseFormatter.format(getPercentile(entry.getValue(), 75)));
+                entryList.add(pauseFormatter.format(getPercentile(entry.getValue(), 95)));
+                entryList.add(pauseFormatter.format(getPercentile(entry.getValue(), 99)));
+                entryList.add(pauseFormatter.format(getPercentile(entry.getValue(), 99.5)));
+                entryList.add(pauseFormatter.format(getPercentile(entry.getValue(), 99.9)));
                 entryList.add(pauseFormatter.format(entry.getValue().getSum()));
                 entryList.add(percentFormatter.format(entry.getValue().getSum() / totalSum * 100));
 
@@ -432,6 +485,17 @@ public class ModelDetailsPanel extends JPanel {
             return dataList;
         }
 
+        /**
+         * Percentiles are available for {@link DoubleDataPercentile} and {@link DoubleDataSketch}.
+         */
+        private double getPercentile(DoubleData data, double percentile) {
+            if (data instanceof DoubleDataSketch) {
+                return ((DoubleDataSketch) data).getPercentile(percentile);
+            }
+
+            return ((DoubleDataPercentile) data).getPercentile(percentile);
+        }
+
         /**
          * @see javax.swing.table.TableModel#getRowCount()
          */
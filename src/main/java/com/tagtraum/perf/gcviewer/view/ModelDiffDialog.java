@@ -0,0 +1,212 @@
+package com.tagtraum.perf.gcviewer.view;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.Frame;
+import java.awt.event.ActionEvent;
+import java.io.File;
+import java.text.NumberFormat;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.BorderFactory;
+import javax.swing.BoxLayout;
+import javax.swing.JButton;
+import javax.swing.JFileChooser;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.table.AbstractTableModel;
+
+import com.tagtraum.perf.gcviewer.exp.DataWriter;
+import com.tagtraum.perf.gcviewer.exp.DataWriterType;
+import com.tagtraum.perf.gcviewer.exp.impl.DataWriterFactory;
+import com.tagtraum.perf.gcviewer.exp.impl.ModelDiffDataWriter;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.ModelDiff;
+import com.tagtraum.perf.gcviewer.model.ModelDiff.DistributionDiff;
+import com.tagtraum.perf.gcviewer.model.ModelDiff.ValueDiff;
+import com.tagtraum.perf.gcviewer.util.LocalisationHelper;
+
+/**
+ * Shows the {@link ModelDiff} of two models side by side and allows to export it as
+ * {@link DataWriterType#DIFF}.
+ */
+public class ModelDiffDialog extends ScreenCenteredDialog {
+    private static final String ACTION_EXPORT = "export";
+
+    private final GCModel baseline;
+    private final GCModel compared;
+    private final NumberFormat valueFormatter;
+    private final NumberFormat percentFormatter;
+
+    /**
+     * @param f owner of this dialog
+     * @param baseline model to compare with
+     * @param baselineName name of the baseline (title of its window)
+     * @param compared model to be compared
+     * @param comparedName name of the compared model (title of its window)
+     */
+    public ModelDiffDialog(Frame f, GCModel baseline, String baselineName, GCModel compared, String comparedName) {
+        super(f, LocalisationHelper.getString("compare_dialog_title") + ": " + comparedName + " / " + baselineName);
+        this.baseline = baseline;
+        this.compared = compared;
+
+        valueFormatter = NumberFormat.getInstance();
+        valueFormatter.setMaximumFractionDigits(5);
+        percentFormatter = NumberFormat.getInstance();
+        percentFormatter.setMaximumFractionDigits(1);
+        percentFormatter.setMinimumFractionDigits(1);
+
+        ModelDiff diff = ModelDiff.compute(baseline, compared);
+
+        JPanel tablesPanel = new JPanel();
+        tablesPanel.setLayout(new BoxLayout(tablesPanel, BoxLayout.Y_AXIS));
+        tablesPanel.add(createTablePanel(LocalisationHelper.getString("compare_dialog_values"),
+                new ValueDiffTableModel(diff.getValueDiffs()), 400));
+        tablesPanel.add(createTablePanel(LocalisationHelper.getString("compare_dialog_distributions"),
+                new DistributionDiffTableModel(diff.getDistributionDiffs()), 150));
+        getContentPane().add(tablesPanel, BorderLayout.CENTER);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
+        JButton exportButton = new JButton(LocalisationHelper.getString("main_frame_menuitem_export"));
+        exportButton.setActionCommand(ACTION_EXPORT);
+        exportButton.addActionListener(this);
+        buttonPanel.add(exportButton);
+        JButton okButton = new JButton(LocalisationHelper.getString("button_ok"));
+        okButton.setActionCommand(ACTION_OK);
+        okButton.addActionListener(this);
+        buttonPanel.add(okButton);
+        getContentPane().add(buttonPanel, BorderLayout.SOUTH);
+
+        pack();
+    }
+
+    private JPanel createTablePanel(String title, AbstractTableModel tableModel, int height) {
+        JTable table = new JTable(tableModel);
+        table.setAutoCreateRowSorter(true);
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setPreferredSize(new Dimension(800, height));
+
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBorder(BorderFactory.createTitledBorder(title));
+        panel.add(scrollPane, BorderLayout.CENTER);
+        return panel;
+    }
+
+    private String format(double value, NumberFormat formatter) {
+        return Double.isNaN(value) ? "n/a" : formatter.format(value);
+    }
+
+    private void export() {
+        JFileChooser saveDialog = new JFileChooser();
+        saveDialog.setDialogTitle(LocalisationHelper.getString("fileexport_dialog_title"));
+        if (saveDialog.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        File file = saveDialog.getSelectedFile();
+        if (file.toString().indexOf('.') == -1) {
+            file = new File(file.toString() + ".csv");
+        }
+
+        Map<String, Object> configuration = new HashMap<>();
+        configuration.put(ModelDiffDataWriter.BASELINE_MODEL, baseline);
+        try (DataWriter writer = DataWriterFactory.getDataWriter(file, DataWriterType.DIFF, configuration)) {
+            writer.write(compared);
+        }
+        catch (Exception e) {
+            JOptionPane.showMessageDialog(this, e.getLocalizedMessage(), LocalisationHelper.getString("fileexport_dialog_write_file_failed"), JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        if (ACTION_EXPORT.equals(e.getActionCommand())) {
+            export();
+        }
+        else {
+            super.actionPerformed(e);
+        }
+    }
+
+    private class ValueDiffTableModel extends AbstractTableModel {
+        private final String[] columnNames = {
+                LocalisationHelper.getString("data_panel_details_name"), "", "baseline", "compared", "delta", "delta %" };
+        private final List<ValueDiff> valueDiffs;
+
+        public ValueDiffTableModel(List<ValueDiff> valueDiffs) {
+            this.valueDiffs = valueDiffs;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columnNames[column];
+        }
+
+        @Override
+        public int getRowCount() {
+            return valueDiffs.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columnNames.length;
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            ValueDiff valueDiff = valueDiffs.get(rowIndex);
+            switch (columnIndex) {
+                case 0: return valueDiff.getEventType() != null ? valueDiff.getEventType() : "";
+                case 1: return valueDiff.getName() + " (" + valueDiff.getUnit() + ")";
+                case 2: return format(valueDiff.getBaseline(), valueFormatter);
+                case 3: return format(valueDiff.getCompared(), valueFormatter);
+                case 4: return format(valueDiff.getDelta(), valueFormatter);
+                case 5: return format(valueDiff.getRelativeDelta(), percentFormatter);
+                default: throw new IllegalArgumentException("column " + columnIndex);
+            }
+        }
+    }
+
+    private class DistributionDiffTableModel extends AbstractTableModel {
+        private final String[] columnNames = {
+                LocalisationHelper.getString("data_panel_details_name"), "n baseline", "n compared", "KS statistic", "KS probability" };
+        private final List<DistributionDiff> distributionDiffs;
+
+        public DistributionDiffTableModel(List<DistributionDiff> distributionDiffs) {
+            this.distributionDiffs = distributionDiffs;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return columnNames[column];
+        }
+
+        @Override
+        public int getRowCount() {
+            return distributionDiffs.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columnNames.length;
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            DistributionDiff distributionDiff = distributionDiffs.get(rowIndex);
+            switch (columnIndex) {
+                case 0: return distributionDiff.getEventType();
+                case 1: return Integer.toString(distributionDiff.getBaseline().getN());
+                case 2: return Integer.toString(distributionDiff.getCompared().getN());
+                case 3: return format(distributionDiff.getKolmogorovSmirnovStatistic(), valueFormatter);
+                case 4: return format(distributionDiff.getKolmogorovSmirnovProbability(), valueFormatter);
+                default: throw new IllegalArgumentException("column " + columnIndex);
+            }
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.tagtraum.perf.gcviewer.view;
 
+import com.tagtraum.perf.gcviewer.model.ConcurrentCycles;
 import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.LeakTrend;
+import com.tagtraum.perf.gcviewer.model.MutatorUtilization;
+import com.tagtraum.perf.gcviewer.model.SafepointStatistics;
 import com.tagtraum.perf.gcviewer.util.LocalisationHelper;
 import com.tagtraum.perf.gcviewer.util.MemoryFormat;
 import com.tagtraum.perf.gcviewer.util.TimeFormat;
@@ -20,6 +24,8 @@ import java.util.Map;
  * @author <a href="mailto:hs@tagtraum.com">Hendrik Schreiber</a>
  */
 public class ModelMetricsPanel extends JTabbedPane {
+    /** longer estimated times to OOM (seconds) are not worth mentioning */
+    private static final long MAX_TIME_TO_OUT_OF_MEMORY = 364l * 24 * 60 * 60;
 
     private NumberFormat pauseFormatter;
     private DateFormat totalTimeFormatter;
@@ -36,6 +42,7 @@ public class ModelMetricsPanel extends JTabbedPane {
     private SummaryTab summaryTab;
     private MemoryTab memoryTab;
     private PauseTab pauseTab;
+    private MutatorUtilizationTab mutatorUtilizationTab;
 
 
     public ModelMetricsPanel() {
@@ -75,6 +82,8 @@ public class ModelMetricsPanel extends JTabbedPane {
         addTab(LocalisationHelper.getString("data_panel_tab_memory"), memoryTab);
         pauseTab = new PauseTab();
         addTab(LocalisationHelper.getString("data_panel_tab_pause"), pauseTab);
+        mutatorUtilizationTab = new MutatorUtilizationTab();
+        addTab(LocalisationHelper.getString("data_panel_tab_mmu"), mutatorUtilizationTab);
     }
 
     private String sigmaMemoryFormat(double value) {
@@ -86,6 +95,7 @@ public class ModelMetricsPanel extends JTabbedPane {
         memoryTab.setModel(model);
         pauseTab.setModel(model);
         summaryTab.setModel(model);
+        mutatorUtilizationTab.setModel(model);
         repaint();
     }
 
@@ -234,6 +244,10 @@ public class ModelMetricsPanel extends JTabbedPane {
             
             addEntry(LocalisationHelper.getString("data_panel_slopeafterfullgc"));
             addEntry(LocalisationHelper.getString("data_panel_slopeaftergc"));
+
+            addEntry(LocalisationHelper.getString("data_panel_leaktrend_slope"));
+            addEntry(LocalisationHelper.getString("data_panel_leaktrend_changepoints"));
+            addEntry(LocalisationHelper.getString("data_panel_leaktrend_timetooom"));
             
             addEntry(LocalisationHelper.getString("data_panel_memory_initiatingoccupancyfraction"));
             
@@ -340,6 +354,23 @@ public class ModelMetricsPanel extends JTabbedPane {
             updateValue(LocalisationHelper.getString("data_panel_slopeaftergc"),
         			gcSlopeDataAvailable ? footprintSlopeFormatter.format(model.getPostGCSlope()) + "/s" : "n/a",
         			gcSlopeDataAvailable);
+
+            LeakTrend leakTrend = LeakTrend.compute(model);
+            double[] changePoints = leakTrend.getChangePoints();
+            double timeToOutOfMemory = leakTrend.getTimeToOutOfMemory();
+            updateValue(LocalisationHelper.getString("data_panel_leaktrend_slope"),
+                    leakTrend.hasTrend() ? footprintSlopeFormatter.format(leakTrend.getSlope()) + "/s"
+                            + " (" + footprintSlopeFormatter.format(leakTrend.getOverallSlope()) + "/s)" : "n/a",
+                    leakTrend.hasTrend());
+            updateValue(LocalisationHelper.getString("data_panel_leaktrend_changepoints"),
+                    leakTrend.hasTrend() ? changePoints.length
+                            + (changePoints.length > 0 ? " (" + gcTimeFormatter.format(changePoints[changePoints.length - 1]) + "s)" : "") : "n/a",
+                    leakTrend.hasTrend());
+            updateValue(LocalisationHelper.getString("data_panel_leaktrend_timetooom"),
+                    Double.isNaN(timeToOutOfMemory) ? "n/a"
+                            : timeToOutOfMemory >= MAX_TIME_TO_OUT_OF_MEMORY ? "> " + totalTimeFormatter.format(new Date(MAX_TIME_TO_OUT_OF_MEMORY * 1000l))
+                            : totalTimeFormatter.format(new Date((long)timeToOutOfMemory * 1000l)),
+                    !Double.isNaN(timeToOutOfMemory) && timeToOutOfMemory < MAX_TIME_TO_OUT_OF_MEMORY);
         	
             updateValue(LocalisationHelper.getString("data_panel_memory_initiatingoccupancyfraction"),
         	        initiatingOccFractionAvailable ? 
@@ -386,6 +417,21 @@ public class ModelMetricsPanel extends JTabbedPane {
             addEntry(LocalisationHelper.getString("data_panel_avg_gcpause"));
             addEntry(LocalisationHelper.getString("data_panel_min_max_gc_pause"));
 
+            newGroup(LocalisationHelper.getString("data_panel_group_safepoints"), true);
+            addEntry(LocalisationHelper.getString("data_panel_safepoint_ttsp_acc"));
+            addEntry(LocalisationHelper.getString("data_panel_safepoint_ttsp_avg_p99"));
+            addEntry(LocalisationHelper.getString("data_panel_safepoint_ttsp_max"));
+            addEntry(LocalisationHelper.getString("data_panel_safepoint_ttsp_dominated"));
+            addEntry(LocalisationHelper.getString("data_panel_safepoint_ttsp_outliers"));
+
+            newGroup(LocalisationHelper.getString("data_panel_group_concurrent_cycles"), true);
+            addEntry(LocalisationHelper.getString("data_panel_concurrent_cycles_count"));
+            addEntry(LocalisationHelper.getString("data_panel_concurrent_cycles_avg_max"));
+            addEntry(LocalisationHelper.getString("data_panel_concurrent_cycles_running_time"));
+            addEntry(LocalisationHelper.getString("data_panel_concurrent_cycles_mutator_overlap"));
+            addEntry(LocalisationHelper.getString("data_panel_concurrent_cycles_back_to_back"));
+            addEntry(LocalisationHelper.getString("data_panel_concurrent_cycles_interrupted"));
+
             fixGroupsHeight();
         }
 
@@ -458,6 +504,77 @@ public class ModelMetricsPanel extends JTabbedPane {
             		gcDataAvailable ? pauseFormatter.format(model.getGCPause().getMin()) + "s / " + pauseFormatter.format(model.getGCPause().getMax()) + "s": "n/a", 
             		gcDataAvailable);
 
+            SafepointStatistics safepoints = model.getSafepointStatistics();
+            boolean safepointDataAvailable = safepoints.hasSafepoints();
+            updateValue(LocalisationHelper.getString("data_panel_safepoint_ttsp_acc"),
+                    safepointDataAvailable ? gcTimeFormatter.format(safepoints.getTimeToSafepoint().getSum()) + "s (" + percentFormatter.format(safepoints.getTimeToSafepointShare() * 100) + "%)" : "n/a",
+                    safepointDataAvailable);
+            updateValue(LocalisationHelper.getString("data_panel_safepoint_ttsp_avg_p99"),
+                    safepointDataAvailable ? pauseFormatter.format(safepoints.getTimeToSafepoint().average()) + "s / " + pauseFormatter.format(safepoints.getTimeToSafepoint().getPercentile(99)) + "s" : "n/a",
+                    safepointDataAvailable);
+            updateValue(LocalisationHelper.getString("data_panel_safepoint_ttsp_max"),
+                    safepointDataAvailable ? pauseFormatter.format(safepoints.getTimeToSafepoint().getMax()) + "s" : "n/a",
+                    safepointDataAvailable);
+            updateValue(LocalisationHelper.getString("data_panel_safepoint_ttsp_dominated"),
+                    safepointDataAvailable ? Integer.toString(safepoints.getTimeToSafepointDominatedCount()) : "n/a",
+                    safepointDataAvailable);
+            updateValue(LocalisationHelper.getString("data_panel_safepoint_ttsp_outliers"),
+                    safepointDataAvailable ? Integer.toString(safepoints.getOutlierCount()) : "n/a",
+                    safepointDataAvailable);
+
+            ConcurrentCycles concurrentCycles = ConcurrentCycles.compute(model);
+            boolean cycleDataAvailable = concurrentCycles.getCycleCount() > 0;
+            boolean intervalDataAvailable = concurrentCycles.getInterval().getN() > 0;
+            updateValue(LocalisationHelper.getString("data_panel_concurrent_cycles_count"),
+                    concurrentCycles.getCycleCount() + " / " + concurrentCycles.getStartedCount(),
+                    concurrentCycles.hasCycles());
+            updateValue(LocalisationHelper.getString("data_panel_concurrent_cycles_avg_max"),
+                    cycleDataAvailable ? pauseFormatter.format(concurrentCycles.getDuration().average()) + "s / " + pauseFormatter.format(concurrentCycles.getDuration().getMax()) + "s" : "n/a",
+                    cycleDataAvailable);
+            updateValue(LocalisationHelper.getString("data_panel_concurrent_cycles_running_time"),
+                    cycleDataAvailable ? gcTimeFormatter.format(concurrentCycles.getDuration().getSum()) + "s (" + percentFormatter.format(concurrentCycles.getRunningTimeShare() * 100) + "%)" : "n/a",
+                    cycleDataAvailable);
+            updateValue(LocalisationHelper.getString("data_panel_concurrent_cycles_mutator_overlap"),
+                    cycleDataAvailable ? gcTimeFormatter.format(concurrentCycles.getMutatorOverlap()) + "s (" + percentFormatter.format(concurrentCycles.getMutatorOverlapShare() * 100) + "%)" : "n/a",
+                    cycleDataAvailable);
+            updateValue(LocalisationHelper.getString("data_panel_concurrent_cycles_back_to_back"),
+                    intervalDataAvailable ? concurrentCycles.getBackToBackCount() + " (" + percentFormatter.format(concurrentCycles.getBackToBackRate() * 100) + "%)" : "n/a",
+                    intervalDataAvailable);
+            updateValue(LocalisationHelper.getString("data_panel_concurrent_cycles_interrupted"),
+                    concurrentCycles.hasCycles() ? concurrentCycles.getInterruptedByFullGcCount() + " (" + percentFormatter.format(concurrentCycles.getInterruptedByFullGcRate() * 100) + "%)" : "n/a",
+                    concurrentCycles.hasCycles());
+
+        }
+    }
+
+    private class MutatorUtilizationTab extends ValuesTab {
+
+        public MutatorUtilizationTab() {
+            super();
+
+            newGroup(LocalisationHelper.getString("data_panel_group_mmu"), true);
+            for (double windowSize : MutatorUtilization.DEFAULT_WINDOW_SIZES) {
+                addEntry(getWindowSizeLabel(windowSize));
+            }
+
+            fixGroupsHeight();
+        }
+
+        private String getWindowSizeLabel(double windowSize) {
+            return windowSize < 1
+                    ? Math.round(windowSize * 1000) + " ms"
+                    : Math.round(windowSize) + " s";
+        }
+
+        public void setModel(GCModel model) {
+            MutatorUtilization mutatorUtilization = MutatorUtilization.compute(model);
+            double[] curve = mutatorUtilization.getMinimumUtilizationCurve();
+            for (int i = 0; i < curve.length; ++i) {
+                boolean available = model.hasCorrectTimestamp() && !Double.isNaN(curve[i]);
+                updateValue(getWindowSizeLabel(MutatorUtilization.DEFAULT_WINDOW_SIZES[i]),
+                        available ? percentFormatter.format(curve[i] * 100) + "%" : "n/a",
+                        available);
+            }
         }
     }
 
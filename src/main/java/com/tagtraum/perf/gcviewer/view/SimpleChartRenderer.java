@@ -47,6 +47,8 @@ public class SimpleChartRenderer {
     private void drawAndSaveToStream(ChartDrawingParameters params) throws IOException {
         ModelChartImpl pane = new ModelChartImpl();
         pane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_NEVER);
+        // the chart is painted only once -> don't wait for background computations
+        pane.setRenderInBackground(false);
 
         pane.setModel(params.model, params.gcPreferences);
         pane.setFootprint(params.model.getFootprint());
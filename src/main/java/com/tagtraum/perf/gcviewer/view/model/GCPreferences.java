@@ -31,6 +31,9 @@ public class GCPreferences {
     public static final String YOUNG_MEMORY = "youngmemory";
     public static final String INITIAL_MARK_LEVEL = "initialmarklevel";
     public static final String CONCURRENT_COLLECTION_BEGIN_END = "concurrentcollectionbeginend";
+    public static final String SLIDING_THROUGHPUT = "slidingthroughput";
+    public static final String ANOMALIES = "anomalies";
+    public static final String PAUSE_HEATMAP = "pauseheatmap";
     public static final String ANTI_ALIAS = "antialias";
     
     public static final String SHOW_DATA_PANEL = "showdatapanel";
@@ -12,6 +12,7 @@ import java.util.stream.Collectors;
 
 import com.tagtraum.perf.gcviewer.model.GCResource;
 import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+import com.tagtraum.perf.gcviewer.model.GcResourceJvm;
 import com.tagtraum.perf.gcviewer.model.GcResourceSeries;
 
 /**
@@ -54,6 +55,10 @@ public class GCResourceGroup {
     }
 
     private String getResourceUrlString(String resource) {
+        if (GcResourceJvm.isJvmResourceName(resource)) {
+            return resource;
+        }
+
         URL url = null;
         try {
             if (resource.startsWith("http") || resource.startsWith("file")) {
@@ -74,6 +79,8 @@ public class GCResourceGroup {
     private String getResourceUrlString(GCResource gcResource) {
         if (gcResource instanceof GcResourceFile)
             return ((GcResourceFile) gcResource).getResourceNameAsUrlString();
+        else if (gcResource instanceof GcResourceJvm)
+            return gcResource.getResourceName();
         else if (gcResource instanceof GcResourceSeries) {
             StringJoiner joiner = new StringJoiner(SERIES_SEPARATOR);
             for (GCResource inner : ((GcResourceSeries) gcResource).getResourcesInOrder()) {
@@ -105,6 +112,9 @@ public class GCResourceGroup {
         if (entry.contains(SERIES_SEPARATOR)) {
             resource = getGcResourceSeries(entry);
         }
+        else if (GcResourceJvm.isJvmResourceName(entry)) {
+            resource = new GcResourceJvm(entry);
+        }
         else {
             resource = new GcResourceFile(entry);
         }
@@ -0,0 +1,68 @@
+package com.tagtraum.perf.gcviewer.view.renderer;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Paint;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+
+import com.tagtraum.perf.gcviewer.model.AnomalyDetector;
+import com.tagtraum.perf.gcviewer.model.AnomalyDetector.Anomaly;
+import com.tagtraum.perf.gcviewer.model.AnomalyDetector.Kind;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.view.ChartRenderer;
+import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
+
+/**
+ * Highlights the anomalous regions found by the {@link AnomalyDetector} of the model with a
+ * translucent background and a bar at the top of the chart (one colour per {@link Kind}).
+ */
+public class AnomalyRenderer extends ChartRenderer {
+    public static final Paint DEFAULT_LINEPAINT = Color.RED;
+    private static final int BAR_HEIGHT = 4;
+    private static final int BACKGROUND_ALPHA = 40;
+
+    public AnomalyRenderer(ModelChartImpl modelChart) {
+        super(modelChart);
+        setLinePaint(DEFAULT_LINEPAINT);
+    }
+
+    /**
+     * @param kind kind of anomaly
+     * @return colour of <code>kind</code> in the chart
+     */
+    public static Color getColor(Kind kind) {
+        switch (kind) {
+            case PAUSE_OUTLIER : return Color.RED;
+            case FOOTPRINT_GROWTH : return Color.ORANGE;
+            case FULL_GC_STORM : return Color.MAGENTA;
+            case TO_SPACE_EXHAUSTED : return Color.BLUE;
+            default : throw new IllegalArgumentException("unknown kind " + kind);
+        }
+    }
+
+    public void paintComponent(Graphics2D g2d) {
+        // rectangles are aligned to pixels
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+
+        GCModel model = getModelChart().getModel();
+        double scaleFactor = getModelChart().getScaleFactor();
+        Rectangle clip = g2d.getClipBounds();
+        int height = getHeight();
+        for (Anomaly anomaly : model.getAnomalyDetector().getAnomalies()) {
+            int x = (int) (scaleFactor * (anomaly.getStart() - model.getFirstPauseTimeStamp()));
+            // very short anomalies must be visible, too
+            int width = Math.max(2, (int) Math.ceil(scaleFactor * anomaly.getDuration()));
+            if (clip != null && (x + width < clip.x || x > clip.x + clip.width)) {
+                continue;
+            }
+
+            Color color = getColor(anomaly.getKind());
+            g2d.setPaint(new Color(color.getRed(), color.getGreen(), color.getBlue(), BACKGROUND_ALPHA));
+            g2d.fillRect(x, 0, width, height);
+            g2d.setPaint(color);
+            g2d.fillRect(x, 0, width, BAR_HEIGHT);
+        }
+    }
+
+}
@@ -0,0 +1,158 @@
+package com.tagtraum.perf.gcviewer.view.renderer;
+
+import java.awt.geom.AffineTransform;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.swing.SwingUtilities;
+
+import com.tagtraum.perf.gcviewer.view.ChartRenderer;
+
+/**
+ * Holds the geometry (polygon, rectangles, ...) of a {@link ChartRenderer} and computes it on a
+ * worker thread, so that zooming or resizing the chart does not block the event dispatch thread.
+ *
+ * <p>All renderers share one pool of worker threads; every renderer has at most one computation
+ * running at any time. Until a new geometry is available, the last one is returned together with
+ * the scale it was computed for ({@link #getTransform(double, int)}). Finished geometries are
+ * swapped in on the event dispatch thread, so all methods of this class except the computation
+ * itself are only used on the event dispatch thread. The computation gets the state of the chart
+ * as {@link ChartParameters} captured on the event dispatch thread and must not read the chart
+ * itself.</p>
+ *
+ * @param <T> type of the geometry
+ */
+class BackgroundGeometry<T> {
+    private static final Logger LOGGER = Logger.getLogger(BackgroundGeometry.class.getName());
+
+    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            new ThreadFactory());
+
+    private final ChartRenderer renderer;
+    private T geometry;
+    private double geometryScaleFactor;
+    private int geometryHeight;
+    private int generation;
+    private boolean stale = true;
+    private boolean computing;
+
+    BackgroundGeometry(ChartRenderer renderer) {
+        this.renderer = renderer;
+    }
+
+    /**
+     * Marks the current geometry as outdated. It is still returned by {@link #get(Function, boolean)}
+     * until the new geometry has been computed.
+     */
+    void reset() {
+        ++generation;
+        stale = true;
+    }
+
+    /**
+     * Returns the most recent geometry and starts computing a new one, if it is outdated.
+     *
+     * @param computation computes the geometry for the given state of the chart
+     * @param inBackground <code>true</code>, if the computation should be done on a worker thread;
+     * <code>false</code> to compute it immediately (e.g. when drawing to an image)
+     * @return most recent geometry; <code>null</code> if none has been computed yet
+     */
+    T get(Function<ChartParameters, T> computation, boolean inBackground) {
+        if (stale) {
+            if (!inBackground) {
+                ChartParameters parameters = ChartParameters.of(renderer);
+                swap(computation.apply(parameters), parameters);
+            }
+            else if (!computing) {
+                submit(computation, ChartParameters.of(renderer));
+            }
+        }
+
+        return geometry;
+    }
+
+    /**
+     * Returns <code>true</code>, if the geometry returned by {@link #get(Function, boolean)} was
+     * computed for the current state of the chart.
+     *
+     * @return <code>true</code> if geometry is up to date
+     */
+    boolean isCurrent() {
+        return !stale && geometry != null;
+    }
+
+    /**
+     * Returns the transformation needed to draw the most recent geometry with the given scale factor
+     * and height of the chart. Geometries are scaled in x by the scale factor and in y by the height
+     * (y values being measured from the top of the chart).
+     *
+     * @param scaleFactor current scale factor of the chart
+     * @param height current height of the chart
+     * @return transformation from the most recent geometry to the current chart
+     */
+    AffineTransform getTransform(double scaleFactor, int height) {
+        if (geometry == null || geometryScaleFactor <= 0 || geometryHeight <= 0) {
+            return new AffineTransform();
+        }
+
+        return AffineTransform.getScaleInstance(scaleFactor / geometryScaleFactor, height / (double) geometryHeight);
+    }
+
+    private void submit(Function<ChartParameters, T> computation, ChartParameters parameters) {
+        final int submittedGeneration = generation;
+        computing = true;
+        EXECUTOR.execute(() -> {
+            T result = null;
+            try {
+                result = computation.apply(parameters);
+            }
+            catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "failed to compute geometry of " + renderer.getClass().getSimpleName(), e);
+            }
+
+            final T computedGeometry = result;
+            SwingUtilities.invokeLater(() -> {
+                computing = false;
+                if (submittedGeneration == generation) {
+                    if (computedGeometry != null) {
+                        swap(computedGeometry, parameters);
+                    }
+                    else {
+                        // don't retry a failed computation until the chart changes
+                        stale = false;
+                    }
+                }
+                // either show the new geometry or start computing the next one
+                renderer.repaint();
+            });
+        });
+    }
+
+    private void swap(T geometry, ChartParameters parameters) {
+        this.geometry = geometry;
+        this.geometryScaleFactor = parameters.getScaleFactor();
+        this.geometryHeight = parameters.getHeight();
+        this.stale = false;
+    }
+
+    /**
+     * Creates daemon threads, so that running computations don't prevent the application from exiting.
+     */
+    private static class ThreadFactory implements java.util.concurrent.ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "gcviewer-chart-geometry-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }
+    }
+
+}
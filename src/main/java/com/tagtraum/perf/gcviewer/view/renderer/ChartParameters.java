@@ -0,0 +1,62 @@
+package com.tagtraum.perf.gcviewer.view.renderer;
+
+import com.tagtraum.perf.gcviewer.view.ChartRenderer;
+import com.tagtraum.perf.gcviewer.view.ModelChart;
+
+/**
+ * State of the chart, which the geometry of a renderer depends on. It is captured on the event
+ * dispatch thread, when a computation is started, so that computations running on worker threads
+ * (see {@link BackgroundGeometry}) don't read Swing components, and the resulting geometry is known
+ * to match the scale factor and height it is drawn for.
+ */
+public final class ChartParameters {
+    private final double scaleFactor;
+    private final int height;
+    private final double maxPause;
+    private final long footprint;
+    private final boolean showTenured;
+
+    public ChartParameters(double scaleFactor, int height, double maxPause, long footprint, boolean showTenured) {
+        this.scaleFactor = scaleFactor;
+        this.height = height;
+        this.maxPause = maxPause;
+        this.footprint = footprint;
+        this.showTenured = showTenured;
+    }
+
+    /**
+     * Captures the current state of the chart of <code>renderer</code>. Must be called on the
+     * event dispatch thread.
+     *
+     * @param renderer renderer whose geometry is to be computed
+     * @return current parameters of the chart
+     */
+    static ChartParameters of(ChartRenderer renderer) {
+        ModelChart modelChart = renderer.getModelChart();
+        return new ChartParameters(modelChart.getScaleFactor(),
+                renderer.getHeight(),
+                modelChart.getMaxPause(),
+                modelChart.getFootprint(),
+                modelChart.isShowTenured());
+    }
+
+    public double getScaleFactor() {
+        return scaleFactor;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public double getMaxPause() {
+        return maxPause;
+    }
+
+    public long getFootprint() {
+        return footprint;
+    }
+
+    public boolean isShowTenured() {
+        return showTenured;
+    }
+}
@@ -5,9 +5,12 @@ import java.awt.Graphics2D;
 import java.awt.Paint;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.util.Arrays;
 import java.util.Iterator;
 
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
+import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.model.VmOperationEvent;
 import com.tagtraum.perf.gcviewer.view.ChartRenderer;
 import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
@@ -20,6 +23,7 @@ import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
 public class GCRectanglesRenderer extends ChartRenderer {
     public static final Paint DEFAULT_LINEPAINT = Color.GRAY;
     private Paint brighter;
+    private final BackgroundGeometry<Rectangles> rectanglesGeometry = new BackgroundGeometry<>(this);
 
     public GCRectanglesRenderer(ModelChartImpl modelChart) {
         super(modelChart);
@@ -36,58 +40,126 @@ public class GCRectanglesRenderer extends ChartRenderer {
         }
     }
 
+    @Override
+    public void resetGeometry() {
+        rectanglesGeometry.reset();
+    }
+
+    @Override
+    public boolean isGeometryCurrent() {
+        return rectanglesGeometry.isCurrent();
+    }
+
     public void paintComponent(Graphics2D g2d) {
         // make sure that we ignore the AntiAliasing flag as it does not make sense for vertical lines
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
-        final double scaleFactor = getModelChart().getScaleFactor();
-        final double scaledHeight = (getHeight() / getModelChart().getMaxPause());
+        GCModel model = getModelChart().getModel();
+        Rectangles rectangles = rectanglesGeometry.get(
+                parameters -> computeRectangles(parameters, model),
+                getModelChart().isRenderInBackground());
+        if (rectangles == null) {
+            // first rectangles are still being computed
+            return;
+        }
 
-        int lastWidth = Integer.MIN_VALUE;
-        int lastHeight = Integer.MIN_VALUE;
-        int lastX = Integer.MIN_VALUE;
-        int lastY = Integer.MIN_VALUE;
+        AffineTransform oldTransform = null;
+        if (!rectanglesGeometry.isCurrent()) {
+            // show the previous rectangles scaled to the current size until the new ones are available
+            oldTransform = g2d.getTransform();
+            g2d.transform(rectanglesGeometry.getTransform(getModelChart().getScaleFactor(), getHeight()));
+        }
 
         Rectangle clip = g2d.getClipBounds();
         int leftBoundary = clip.x;
         int rightBoundary = clip.x + clip.width;
+        for (int i = 0; i < rectangles.size && rectangles.x[i] < rightBoundary; i++) {
+            if ((rectangles.x[i] + rectangles.width[i]) > leftBoundary) {
+                // make sure only visible rectangles are drawn
+                g2d.setPaint(rectangles.paint[i]);
+                g2d.fillRect(rectangles.x[i], rectangles.y[i], rectangles.width[i], rectangles.height[i]);
+            }
+        }
+
+        if (oldTransform != null) {
+            g2d.setTransform(oldTransform);
+        }
+    }
+
+    private Rectangles computeRectangles(ChartParameters parameters, GCModel model) {
+        final double scaleFactor = parameters.getScaleFactor();
+        final int chartHeight = parameters.getHeight();
+        final double scaledHeight = (chartHeight / parameters.getMaxPause());
 
-        for (Iterator<AbstractGCEvent<?>> i = getModelChart().getModel().getStopTheWorldEvents(); i.hasNext() && lastX < rightBoundary;) {
+        Rectangles rectangles = new Rectangles();
+        int lastWidth = Integer.MIN_VALUE;
+        int lastHeight = Integer.MIN_VALUE;
+        int lastX = Integer.MIN_VALUE;
+        int lastY = Integer.MIN_VALUE;
+
+        for (Iterator<AbstractGCEvent<?>> i = model.getStopTheWorldEvents(); i.hasNext();) {
             AbstractGCEvent<?> event = i.next();
             double pause = event.getPause();
             int width = (int) Math.max(Math.abs(scaleFactor * pause), 1.0d);
             int height = (int) (pause * scaledHeight);
-            int x = (int) (scaleFactor * (event.getTimestamp() - getModelChart().getModel().getFirstPauseTimeStamp() - event.getPause()));
-            int y = getHeight() - (int) (pause * scaledHeight);
+            int x = (int) (scaleFactor * (event.getTimestamp() - model.getFirstPauseTimeStamp() - event.getPause()));
+            int y = chartHeight - (int) (pause * scaledHeight);
             if (lastX != x || lastY != y || lastWidth != width || lastHeight != height) {
-                if ((x + width) > leftBoundary && x < rightBoundary) {
-                    // make sure only visible rectangles are drawn
-                    if (event.isFull()) {
-                        g2d.setPaint(Color.BLACK);
-                    }
-                    else if (event.isInitialMark()) {
-                        g2d.setPaint(Color.BLUE);
-                    }
-                    else if (event.isRemark()) {
-                        g2d.setPaint(Color.ORANGE);
-                    }
-                    else if (event.getExtendedType().getType() == AbstractGCEvent.Type.INC_GC) {
-                        g2d.setPaint(brighter);
-                    }
-                    else if (event instanceof VmOperationEvent) {
-                        g2d.setPaint(Color.RED);
-                    }
-                    else {
-                        g2d.setPaint(getLinePaint());
-                    }
-                    g2d.fillRect(x, y, width, height);
+                Paint paint;
+                if (event.isFull()) {
+                    paint = Color.BLACK;
+                }
+                else if (event.isInitialMark()) {
+                    paint = Color.BLUE;
+                }
+                else if (event.isRemark()) {
+                    paint = Color.ORANGE;
+                }
+                else if (event.getExtendedType().getType() == AbstractGCEvent.Type.INC_GC) {
+                    paint = brighter;
                 }
+                else if (event instanceof VmOperationEvent) {
+                    paint = Color.RED;
+                }
+                else {
+                    paint = getLinePaint();
+                }
+                rectangles.add(x, y, width, height, paint);
                 lastWidth = width;
                 lastHeight = height;
                 lastX = x;
                 lastY = y;
             }
         }
+
+        return rectangles;
     }
 
+    /**
+     * Rectangles of all pauses in chart coordinates.
+     */
+    private static class Rectangles {
+        private int size;
+        private int[] x = new int[256];
+        private int[] y = new int[256];
+        private int[] width = new int[256];
+        private int[] height = new int[256];
+        private Paint[] paint = new Paint[256];
+
+        public void add(int x, int y, int width, int height, Paint paint) {
+            if (size == this.x.length) {
+                this.x = Arrays.copyOf(this.x, size * 2);
+                this.y = Arrays.copyOf(this.y, size * 2);
+                this.width = Arrays.copyOf(this.width, size * 2);
+                this.height = Arrays.copyOf(this.height, size * 2);
+                this.paint = Arrays.copyOf(this.paint, size * 2);
+            }
+            this.x[size] = x;
+            this.y[size] = y;
+            this.width[size] = width;
+            this.height[size] = height;
+            this.paint[size] = paint;
+            ++size;
+        }
+    }
 
 }
@@ -5,7 +5,6 @@ import java.awt.Paint;
 import java.awt.Polygon;
 import java.util.Iterator;
 
-import com.tagtraum.perf.gcviewer.view.ModelChart;
 import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
 import com.tagtraum.perf.gcviewer.model.GCModel;
@@ -17,7 +16,7 @@ import com.tagtraum.perf.gcviewer.model.GCModel;
  * Time: 3:31:21 PM
  * @author <a href="mailto:hs@tagtraum.com">Hendrik Schreiber</a>
  */
-public class GCTimesRenderer extends PolygonChartRenderer {
+public class GCTimesRenderer extends PyramidChartRenderer {
     public static final Paint DEFAULT_LINEPAINT = Color.GREEN;
 
     public GCTimesRenderer(ModelChartImpl modelChart) {
@@ -27,14 +26,21 @@ public class GCTimesRenderer extends PolygonChartRenderer {
         setDrawLine(true);
     }
 
-    public Polygon computePolygon(ModelChart modelChart, GCModel model) {
-        ScaledPolygon polygon = createTimeScaledPolygon();
-        for (Iterator<AbstractGCEvent<?>> i = model.getStopTheWorldEvents(); i.hasNext();) {
-            AbstractGCEvent<?> event = i.next();
-            polygon.addPoint(event.getTimestamp() - model.getFirstPauseTimeStamp(), event.getPause());
-        }
+    public Polygon computePolygon(ChartParameters parameters, GCModel model) {
+        ScaledPolygon polygon = createTimeScaledPolygon(parameters);
+        addPoints(polygon, getPyramid(model), parameters.getScaleFactor());
         // dummy point to make the polygon complete
         polygon.addPoint(model.getRunningTime(), 0.0d);
         return polygon;
     }
+
+    @Override
+    protected LevelOfDetailPyramid createPyramid(GCModel model) {
+        LevelOfDetailPyramid pyramid = new LevelOfDetailPyramid();
+        for (Iterator<AbstractGCEvent<?>> i = model.getStopTheWorldEvents(); i.hasNext();) {
+            AbstractGCEvent<?> event = i.next();
+            pyramid.addPoint(event.getTimestamp() - model.getFirstPauseTimeStamp(), event.getPause());
+        }
+        return pyramid;
+    }
 }
@@ -7,7 +7,6 @@ import java.util.Iterator;
 
 import com.tagtraum.perf.gcviewer.model.GCEvent;
 import com.tagtraum.perf.gcviewer.model.GCModel;
-import com.tagtraum.perf.gcviewer.view.ModelChart;
 import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
 
 /**
@@ -27,8 +26,8 @@ public class InitialMarkLevelRenderer extends PolygonChartRenderer {
         setDrawLine(true);
     }
 
-    public Polygon computePolygon(ModelChart modelChart, GCModel model) {
-        ScaledPolygon polygon = createMemoryScaledPolygon();
+    public Polygon computePolygon(ChartParameters parameters, GCModel model) {
+        ScaledPolygon polygon = createMemoryScaledPolygon(parameters);
         for (Iterator<GCEvent> i = model.getGCEvents(); i.hasNext();) {
             GCEvent event = i.next();
             if (event.isInitialMark()) {
@@ -0,0 +1,203 @@
+package com.tagtraum.perf.gcviewer.view.renderer;
+
+import java.util.Arrays;
+
+/**
+ * Precomputed level of detail pyramid over a series of (x, y) points with non decreasing x values.
+ *
+ * <p>The x range of the series is split into buckets; for every bucket the first, the last, the
+ * lowest and the highest point are kept (M4 aggregation). Each coarser level merges two neighbouring
+ * buckets of the level below. When a chart is drawn at a certain scale, {@link #getPoints(double)}
+ * picks the coarsest level whose buckets are not wider than one pixel. The number of points returned
+ * therefore depends on the width of the chart in pixels and not on the number of points in the series,
+ * while all minima and maxima of the series stay visible.</p>
+ *
+ * <p>Points are added with {@link #addPoint(double, double)}; the levels are built lazily on the
+ * first query after a point was added.</p>
+ */
+public class LevelOfDetailPyramid {
+    /** number of points per bucket on the finest level (on average) */
+    private static final int POINTS_PER_BASE_BUCKET = 4;
+
+    private double[] xValues = new double[1024];
+    private double[] yValues = new double[1024];
+    private int size;
+
+    /** bucket width of the finest level in units of x */
+    private double baseBucketWidth;
+    /** levels[0] is the finest level; every level holds 4 indexes (first, min, max, last) per bucket */
+    private int[][] levels;
+
+    /**
+     * Adds a point to the series. x values are expected to be non decreasing; smaller values are
+     * assigned to the bucket of the previous point.
+     *
+     * @param x x-value
+     * @param y y-value
+     */
+    public void addPoint(double x, double y) {
+        if (size == xValues.length) {
+            xValues = Arrays.copyOf(xValues, size * 2);
+            yValues = Arrays.copyOf(yValues, size * 2);
+        }
+        xValues[size] = x;
+        yValues[size] = y;
+        ++size;
+        levels = null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of aggregated levels (not counting the raw series).
+     *
+     * @return number of levels
+     */
+    public int getLevelCount() {
+        ensureLevels();
+        return levels.length;
+    }
+
+    /**
+     * Returns the points needed to draw this series with <code>scaleFactor</code> pixels per
+     * unit of x. The result contains at most 4 points per bucket (at most 8 per pixel) in the
+     * order of the series.
+     *
+     * @param scaleFactor pixels per unit of x
+     * @return x values in <code>[0][]</code>, y values in <code>[1][]</code>
+     */
+    public double[][] getPoints(double scaleFactor) {
+        ensureLevels();
+        int level = getLevel(scaleFactor);
+        if (level < 0) {
+            return new double[][] {Arrays.copyOf(xValues, size), Arrays.copyOf(yValues, size)};
+        }
+
+        int[] buckets = levels[level];
+        double[] x = new double[buckets.length];
+        double[] y = new double[buckets.length];
+        int count = 0;
+        int lastIndex = -1;
+        int[] indexes = new int[4];
+        for (int bucket = 0; bucket < buckets.length; bucket += 4) {
+            if (buckets[bucket] < 0) {
+                continue;
+            }
+            System.arraycopy(buckets, bucket, indexes, 0, 4);
+            Arrays.sort(indexes);
+            for (int index : indexes) {
+                if (index != lastIndex) {
+                    x[count] = xValues[index];
+                    y[count] = yValues[index];
+                    ++count;
+                    lastIndex = index;
+                }
+            }
+        }
+
+        return new double[][] {Arrays.copyOf(x, count), Arrays.copyOf(y, count)};
+    }
+
+    /**
+     * Returns the index of the coarsest level with buckets not wider than one pixel or -1, if the
+     * raw series has to be used.
+     *
+     * @param scaleFactor pixels per unit of x
+     * @return index into <code>levels</code> or -1
+     */
+    int getLevel(double scaleFactor) {
+        ensureLevels();
+        if (levels.length == 0 || scaleFactor <= 0) {
+            return levels.length - 1;
+        }
+
+        double pixelWidth = 1 / scaleFactor;
+        int level = -1;
+        double bucketWidth = baseBucketWidth;
+        while (level + 1 < levels.length && bucketWidth <= pixelWidth) {
+            ++level;
+            bucketWidth *= 2;
+        }
+
+        return level;
+    }
+
+    private void ensureLevels() {
+        if (levels != null) {
+            return;
+        }
+
+        if (size < POINTS_PER_BASE_BUCKET * 2) {
+            levels = new int[0][];
+            return;
+        }
+
+        int bucketCount = Integer.highestOneBit(size / POINTS_PER_BASE_BUCKET);
+        double range = xValues[size - 1] - xValues[0];
+        if (range <= 0) {
+            levels = new int[0][];
+            return;
+        }
+
+        baseBucketWidth = range / bucketCount;
+        int levelCount = Integer.numberOfTrailingZeros(bucketCount) + 1;
+        levels = new int[levelCount][];
+        levels[0] = createBaseLevel(bucketCount);
+        for (int level = 1; level < levelCount; level++) {
+            levels[level] = mergeLevel(levels[level - 1]);
+        }
+    }
+
+    private int[] createBaseLevel(int bucketCount) {
+        int[] buckets = new int[bucketCount * 4];
+        Arrays.fill(buckets, -1);
+        int bucket = 0;
+        for (int i = 0; i < size; i++) {
+            int pointBucket = Math.min(bucketCount - 1, (int) ((xValues[i] - xValues[0]) / baseBucketWidth));
+            // keep buckets in the order of the series even if x values are not strictly ordered
+            bucket = Math.max(bucket, pointBucket);
+            int offset = bucket * 4;
+            if (buckets[offset] < 0) {
+                buckets[offset] = i;
+                buckets[offset + 1] = i;
+                buckets[offset + 2] = i;
+            }
+            else {
+                if (yValues[i] < yValues[buckets[offset + 1]]) {
+                    buckets[offset + 1] = i;
+                }
+                if (yValues[i] > yValues[buckets[offset + 2]]) {
+                    buckets[offset + 2] = i;
+                }
+            }
+            buckets[offset + 3] = i;
+        }
+
+        return buckets;
+    }
+
+    private int[] mergeLevel(int[] finer) {
+        int[] buckets = new int[finer.length / 2];
+        for (int offset = 0; offset < buckets.length; offset += 4) {
+            int left = offset * 2;
+            int right = left + 4;
+            if (finer[left] < 0) {
+                System.arraycopy(finer, right, buckets, offset, 4);
+            }
+            else if (finer[right] < 0) {
+                System.arraycopy(finer, left, buckets, offset, 4);
+            }
+            else {
+                buckets[offset] = finer[left];
+                buckets[offset + 1] = yValues[finer[right + 1]] < yValues[finer[left + 1]] ? finer[right + 1] : finer[left + 1];
+                buckets[offset + 2] = yValues[finer[right + 2]] > yValues[finer[left + 2]] ? finer[right + 2] : finer[left + 2];
+                buckets[offset + 3] = finer[right + 3];
+            }
+        }
+
+        return buckets;
+    }
+
+}
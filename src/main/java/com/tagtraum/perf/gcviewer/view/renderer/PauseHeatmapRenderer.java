@@ -0,0 +1,115 @@
+package com.tagtraum.perf.gcviewer.view.renderer;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Paint;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.PauseHeatmap;
+import com.tagtraum.perf.gcviewer.view.ChartRenderer;
+import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
+
+/**
+ * Renders the {@link PauseHeatmap} of the model in the background of the chart: the pause axis
+ * is logarithmic from the shortest to the longest pause bucket containing pauses (bottom to
+ * top); the more pauses a cell contains, the darker it is.
+ *
+ * <p>The heatmap is computed once per model; zooming only queries the prefix sums of the
+ * heatmap for the time buckets of each pixel column.</p>
+ */
+public class PauseHeatmapRenderer extends ChartRenderer {
+    public static final Paint DEFAULT_LINEPAINT = new Color(128, 0, 160);
+    private static final int MIN_ALPHA = 30;
+    private static final int MAX_ALPHA = 220;
+
+    private PauseHeatmap heatmap;
+    private GCModel heatmapModel;
+    private int heatmapModelSize;
+
+    public PauseHeatmapRenderer(ModelChartImpl modelChart) {
+        super(modelChart);
+        setLinePaint(DEFAULT_LINEPAINT);
+    }
+
+    private PauseHeatmap getHeatmap(GCModel model) {
+        // the model grows, while a log file is watched
+        if (heatmap == null || heatmapModel != model || heatmapModelSize != model.size()) {
+            heatmap = PauseHeatmap.compute(model);
+            heatmapModel = model;
+            heatmapModelSize = model.size();
+        }
+
+        return heatmap;
+    }
+
+    public void paintComponent(Graphics2D g2d) {
+        // rectangles are aligned to pixels
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+
+        PauseHeatmap heatmap = getHeatmap(getModelChart().getModel());
+        int timeBuckets = heatmap.getTimeBucketCount();
+        long[] allCounts = heatmap.getCounts(0, timeBuckets);
+        int minPauseBucket = 0;
+        while (minPauseBucket < allCounts.length && allCounts[minPauseBucket] == 0) {
+            ++minPauseBucket;
+        }
+        if (minPauseBucket == allCounts.length) {
+            // no pauses
+            return;
+        }
+        int maxPauseBucket = allCounts.length - 1;
+        while (allCounts[maxPauseBucket] == 0) {
+            --maxPauseBucket;
+        }
+
+        // one column per time bucket or per pixel, whichever is wider
+        double bucketScale = getModelChart().getScaleFactor() * heatmap.getTimeBucketWidth();
+        Rectangle clip = g2d.getClipBounds();
+        int left = clip != null ? Math.max(0, clip.x) : 0;
+        int right = clip != null ? clip.x + clip.width : getWidth();
+        List<int[]> columnBounds = new ArrayList<>();
+        List<long[]> columnCounts = new ArrayList<>();
+        long maxCount = 0;
+        int x = left;
+        while (x < right) {
+            int fromBucket = (int) (x / bucketScale);
+            if (fromBucket >= timeBuckets) {
+                break;
+            }
+
+            int nextX = Math.max(x + 1, (int) Math.ceil((fromBucket + 1) * bucketScale));
+            int toBucket = Math.max(fromBucket + 1, (int) (nextX / bucketScale));
+            long[] counts = heatmap.getCounts(fromBucket, toBucket);
+            for (int p = minPauseBucket; p <= maxPauseBucket; ++p) {
+                maxCount = Math.max(maxCount, counts[p]);
+            }
+            columnBounds.add(new int[] { x, nextX });
+            columnCounts.add(counts);
+            x = nextX;
+        }
+
+        Color color = (Color) getLinePaint();
+        double bandHeight = getHeight() / (double) (maxPauseBucket - minPauseBucket + 1);
+        double logMaxCount = Math.log1p(maxCount);
+        for (int column = 0; column < columnBounds.size(); ++column) {
+            int[] bounds = columnBounds.get(column);
+            long[] counts = columnCounts.get(column);
+            for (int p = minPauseBucket; p <= maxPauseBucket; ++p) {
+                if (counts[p] == 0) {
+                    continue;
+                }
+
+                int alpha = MIN_ALPHA + (int) ((MAX_ALPHA - MIN_ALPHA) * Math.log1p(counts[p]) / logMaxCount);
+                int top = getHeight() - (int) Math.round((p - minPauseBucket + 1) * bandHeight);
+                int bottom = getHeight() - (int) Math.round((p - minPauseBucket) * bandHeight);
+                g2d.setPaint(new Color(color.getRed(), color.getGreen(), color.getBlue(), alpha));
+                g2d.fillRect(bounds[0], top, bounds[1] - bounds[0], Math.max(1, bottom - top));
+            }
+        }
+    }
+
+}
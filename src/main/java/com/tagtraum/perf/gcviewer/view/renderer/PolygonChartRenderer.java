@@ -4,10 +4,10 @@ import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.GcPattern;
 import com.tagtraum.perf.gcviewer.model.GCEvent;
 import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.view.ChartRenderer;
-import com.tagtraum.perf.gcviewer.view.ModelChart;
 import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
 
 import java.awt.*;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.Point2D;
 import java.util.Arrays;
 
@@ -22,7 +22,7 @@ import java.util.Arrays;
 public abstract class PolygonChartRenderer extends ChartRenderer {
     private boolean drawPolygon;
     private Paint fillPaint;
-    private Polygon polygon;
+    private final BackgroundGeometry<Polygon> polygonGeometry = new BackgroundGeometry<>(this);
     private Polygon clippedPolygon = new Polygon();
 
     public PolygonChartRenderer(ModelChartImpl modelChart) {
@@ -40,10 +40,22 @@ public abstract class PolygonChartRenderer extends ChartRenderer {
 
     /**
      * Reset the internally cached polygon. Should always be done when size of chart is changed
-     * in some way (zoom, window resize, reload), but not more often.
+     * in some way (zoom, window resize, reload), but not more often. The polygon is recomputed
+     * in the background; until it is available the previous polygon is drawn scaled to the
+     * new size of the chart.
      */
     public void resetPolygon() {
-        polygon = null;
+        polygonGeometry.reset();
+    }
+
+    @Override
+    public void resetGeometry() {
+        resetPolygon();
+    }
+
+    @Override
+    public boolean isGeometryCurrent() {
+        return (!drawPolygon && !isDrawLine()) || polygonGeometry.isCurrent();
     }
 
     /**
@@ -51,11 +63,27 @@ public abstract class PolygonChartRenderer extends ChartRenderer {
      */
     public void paintComponent(Graphics2D g2d) {
         if ((!drawPolygon) && (!isDrawLine())) return;
+        // don't recompute polygon for each paint event
+        GCModel model = getModelChart().getModel();
+        Polygon polygon = polygonGeometry.get(
+                parameters -> computePolygon(parameters, model),
+                getModelChart().isRenderInBackground());
         if (polygon == null) {
-            // don't recompute polygon for each paint event
-            polygon = computePolygon(getModelChart(), getModelChart().getModel());
+            // first polygon is still being computed
+            return;
+        }
+
+        Polygon visiblePolygon;
+        AffineTransform oldTransform = null;
+        if (polygonGeometry.isCurrent()) {
+            visiblePolygon = initClippedPolygon(polygon, g2d.getClip());
+        }
+        else {
+            // show the previous polygon scaled to the current size until the new one is available
+            oldTransform = g2d.getTransform();
+            g2d.transform(polygonGeometry.getTransform(getModelChart().getScaleFactor(), getHeight()));
+            visiblePolygon = polygon;
         }
-        clippedPolygon = initClippedPolygon(polygon, g2d.getClip());
         if (drawPolygon) {
             // don't antialias the polygon, if we are going to antialias the bounding lines
             Object oldAAHint = g2d.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
@@ -63,14 +91,17 @@ public abstract class PolygonChartRenderer extends ChartRenderer {
                 g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
             }
             g2d.setPaint(createPaint(polygon));
-            g2d.fillPolygon(clippedPolygon);
+            g2d.fillPolygon(visiblePolygon);
             if (isDrawLine()) {
                 g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, oldAAHint);
             }
         }
         if (isDrawLine()) {
             g2d.setPaint(getLinePaint());
-            g2d.drawPolyline(clippedPolygon.xpoints, clippedPolygon.ypoints, clippedPolygon.npoints-1);
+            g2d.drawPolyline(visiblePolygon.xpoints, visiblePolygon.ypoints, visiblePolygon.npoints-1);
+        }
+        if (oldTransform != null) {
+            g2d.setTransform(oldTransform);
         }
     }
 
@@ -166,7 +197,15 @@ public abstract class PolygonChartRenderer extends ChartRenderer {
         return insertionBoundary;
     }
 
-    public abstract Polygon computePolygon(ModelChart modelChart, GCModel model);
+    /**
+     * Computes the polygon of <code>model</code>. Is called on a worker thread and must therefore
+     * only use <code>parameters</code> instead of the state of the chart.
+     *
+     * @param parameters state of the chart captured on the event dispatch thread
+     * @param model model to be rendered
+     * @return polygon in chart coordinates
+     */
+    public abstract Polygon computePolygon(ChartParameters parameters, GCModel model);
 
     protected Paint createPaint(Polygon polygon) {
         if (fillPaint instanceof GradientPaint) {
@@ -180,12 +219,12 @@ public abstract class PolygonChartRenderer extends ChartRenderer {
         }
     }
 
-    protected ScaledPolygon createTimeScaledPolygon() {
-        return new ScaledPolygon(getModelChart().getScaleFactor(), getHeight()/(getModelChart().getMaxPause()), getHeight());
+    protected ScaledPolygon createTimeScaledPolygon(ChartParameters parameters) {
+        return new ScaledPolygon(parameters.getScaleFactor(), parameters.getHeight()/(parameters.getMaxPause()), parameters.getHeight());
     }
 
-    protected ScaledPolygon createMemoryScaledPolygon() {
-        return new ScaledPolygon(getModelChart().getScaleFactor(), getHeight()/((double)getModelChart().getFootprint()), getHeight());
+    protected ScaledPolygon createMemoryScaledPolygon(ChartParameters parameters) {
+        return new ScaledPolygon(parameters.getScaleFactor(), parameters.getHeight()/((double)parameters.getFootprint()), parameters.getHeight());
     }
 
     private static int getLowestY(Polygon polygon) {
@@ -0,0 +1,60 @@
+package com.tagtraum.perf.gcviewer.view.renderer;
+
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
+
+/**
+ * Superclass for components rendering a series of points of the model, which is kept in a
+ * {@link LevelOfDetailPyramid}, so that only the points visible at the current zoom level
+ * are added to the polygon.
+ */
+public abstract class PyramidChartRenderer extends PolygonChartRenderer {
+    private LevelOfDetailPyramid pyramid;
+    private GCModel pyramidModel;
+    private int pyramidModelSize;
+
+    public PyramidChartRenderer(ModelChartImpl modelChart) {
+        super(modelChart);
+    }
+
+    /**
+     * Returns the {@link LevelOfDetailPyramid} of <code>model</code> as built by
+     * {@link #createPyramid(GCModel)}. The pyramid is only rebuilt, if the model has changed
+     * since the last call; zooming or resizing the chart reuses it.
+     *
+     * @param model model to be rendered
+     * @return pyramid of the points rendered by this renderer
+     */
+    protected LevelOfDetailPyramid getPyramid(GCModel model) {
+        if (pyramid == null || pyramidModel != model || pyramidModelSize != model.size()) {
+            pyramid = createPyramid(model);
+            pyramidModel = model;
+            pyramidModelSize = model.size();
+        }
+
+        return pyramid;
+    }
+
+    /**
+     * Builds the series of points rendered by this renderer.
+     *
+     * @param model model to be rendered
+     * @return pyramid containing all points of the series
+     */
+    protected abstract LevelOfDetailPyramid createPyramid(GCModel model);
+
+    /**
+     * Adds the points of the pyramid needed at the scale factor of the chart to
+     * <code>polygon</code>.
+     *
+     * @param polygon polygon to add the points to
+     * @param pyramid pyramid of the model
+     * @param scaleFactor scale factor of the chart
+     */
+    protected void addPoints(ScaledPolygon polygon, LevelOfDetailPyramid pyramid, double scaleFactor) {
+        double[][] points = pyramid.getPoints(scaleFactor);
+        for (int i = 0; i < points[0].length; i++) {
+            polygon.addPoint(points[0][i], points[1][i]);
+        }
+    }
+}
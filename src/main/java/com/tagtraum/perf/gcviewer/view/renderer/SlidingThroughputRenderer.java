@@ -0,0 +1,46 @@
+package com.tagtraum.perf.gcviewer.view.renderer;
+
+import java.awt.Color;
+import java.awt.Paint;
+import java.awt.Polygon;
+
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.SlidingWindowSeries;
+import com.tagtraum.perf.gcviewer.model.SlidingWindowSeries.Metric;
+import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
+
+/**
+ * Draws the throughput over a sliding window of {@link SlidingWindowSeries#DEFAULT_WINDOW_SIZE}
+ * seconds; the height of the chart corresponds to 100%.
+ */
+public class SlidingThroughputRenderer extends PyramidChartRenderer {
+    public static final Paint DEFAULT_LINEPAINT = Color.ORANGE;
+
+    public SlidingThroughputRenderer(ModelChartImpl modelChart) {
+        super(modelChart);
+        setLinePaint(DEFAULT_LINEPAINT);
+        setDrawPolygon(false);
+        setDrawLine(true);
+    }
+
+    @Override
+    public Polygon computePolygon(ChartParameters parameters, GCModel model) {
+        ScaledPolygon polygon = new ScaledPolygon(parameters.getScaleFactor(), parameters.getHeight() / 100.0, parameters.getHeight());
+        addPoints(polygon, getPyramid(model), parameters.getScaleFactor());
+        if (polygon.npoints > 0) {
+            // dummy point to make the polygon complete (the last point is not drawn)
+            polygon.addPoint(polygon.xpoints[polygon.npoints - 1], polygon.ypoints[polygon.npoints - 1]);
+        }
+        return polygon;
+    }
+
+    @Override
+    protected LevelOfDetailPyramid createPyramid(GCModel model) {
+        SlidingWindowSeries series = SlidingWindowSeries.compute(model, SlidingWindowSeries.DEFAULT_WINDOW_SIZE);
+        LevelOfDetailPyramid pyramid = new LevelOfDetailPyramid();
+        for (int i = 0; i < series.size(); ++i) {
+            pyramid.addPoint(series.getTimestamp(i) - model.getFirstPauseTimeStamp(), series.getValue(Metric.THROUGHPUT, i));
+        }
+        return pyramid;
+    }
+}
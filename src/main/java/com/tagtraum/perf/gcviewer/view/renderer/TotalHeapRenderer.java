@@ -8,7 +8,6 @@ import java.util.Iterator;
 
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
 import com.tagtraum.perf.gcviewer.model.GCModel;
-import com.tagtraum.perf.gcviewer.view.ModelChart;
 import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
 
 /**
@@ -30,8 +29,8 @@ public class TotalHeapRenderer extends PolygonChartRenderer {
         setDrawLine(true);
     }
 
-    public Polygon computePolygon(ModelChart modelChart, GCModel model) {
-        ScaledPolygon polygon = createMemoryScaledPolygon();
+    public Polygon computePolygon(ChartParameters parameters, GCModel model) {
+        ScaledPolygon polygon = createMemoryScaledPolygon(parameters);
         polygon.addPoint(0.0d, 0.0d);
         int lastTotal = 0;
         for (Iterator<AbstractGCEvent<?>> i = model.getEvents(); i.hasNext();) {
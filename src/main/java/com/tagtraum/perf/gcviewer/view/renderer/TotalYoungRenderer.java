@@ -9,7 +9,6 @@ import java.util.Iterator;
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
 import com.tagtraum.perf.gcviewer.model.GCEvent;
 import com.tagtraum.perf.gcviewer.model.GCModel;
-import com.tagtraum.perf.gcviewer.view.ModelChart;
 import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
 
 /**
@@ -32,8 +31,8 @@ public class TotalYoungRenderer extends PolygonChartRenderer {
         setDrawLine(true);
     }
 
-    public Polygon computePolygon(ModelChart modelChart, GCModel model) {
-        ScaledPolygon polygon = createMemoryScaledPolygon();
+    public Polygon computePolygon(ChartParameters parameters, GCModel model) {
+        ScaledPolygon polygon = createMemoryScaledPolygon(parameters);
         polygon.addPoint(0.0d, 0.0d);
         double lastTenured = 0;
         double lastYoung = 0;
@@ -46,7 +45,7 @@ public class TotalYoungRenderer extends PolygonChartRenderer {
                 GCEvent young = event.getYoung();
                 GCEvent tenured = event.getTenured();
                 if (hasMemoryInformation(event) && young != null && tenured != null) {
-                    if (modelChart.isShowTenured()) {
+                    if (parameters.isShowTenured()) {
                         tenuredSize = tenured.getTotal();
                     }
                     youngSize = young.getTotal();
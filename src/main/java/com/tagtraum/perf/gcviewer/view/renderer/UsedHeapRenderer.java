@@ -7,7 +7,6 @@ import java.util.Iterator;
 
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
 import com.tagtraum.perf.gcviewer.model.GCModel;
-import com.tagtraum.perf.gcviewer.view.ModelChart;
 import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
 
 /**
@@ -17,7 +16,7 @@ import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
  * Time: 3:31:21 PM
  * @author <a href="mailto:hs@tagtraum.com">Hendrik Schreiber</a>
  */
-public class UsedHeapRenderer extends PolygonChartRenderer {
+public class UsedHeapRenderer extends PyramidChartRenderer {
     public static final Paint DEFAULT_LINEPAINT = Color.BLUE;
 
     public UsedHeapRenderer(ModelChartImpl modelChart) {
@@ -27,20 +26,27 @@ public class UsedHeapRenderer extends PolygonChartRenderer {
         setDrawLine(true);
     }
 
-    public Polygon computePolygon(ModelChart modelChart, GCModel model) {
-        ScaledPolygon polygon = createMemoryScaledPolygon();
+    public Polygon computePolygon(ChartParameters parameters, GCModel model) {
+        ScaledPolygon polygon = createMemoryScaledPolygon(parameters);
+        addPoints(polygon, getPyramid(model), parameters.getScaleFactor());
+        // dummy point to make the polygon complete
+        polygon.addPoint(model.getRunningTime(), 0.0d);
+        //System.out.println("last x coord " + polygon.xpoints[polygon.npoints-1]);
+        return polygon;
+    }
+
+    @Override
+    protected LevelOfDetailPyramid createPyramid(GCModel model) {
+        LevelOfDetailPyramid pyramid = new LevelOfDetailPyramid();
         for (Iterator<AbstractGCEvent<?>> i = model.getEvents(); i.hasNext();) {
             AbstractGCEvent<?> event = i.next();
             // e.g. "GC remark" of G1 algorithm does not contain memory information
             if (event.getTotal() > 0) {
                 final double timestamp = event.getTimestamp() - model.getFirstPauseTimeStamp() - event.getPause();
-                polygon.addPoint(timestamp, event.getPreUsed());
-                polygon.addPoint(timestamp + event.getPause(), event.getPostUsed());
+                pyramid.addPoint(timestamp, event.getPreUsed());
+                pyramid.addPoint(timestamp + event.getPause(), event.getPostUsed());
             }
         }
-        // dummy point to make the polygon complete
-        polygon.addPoint(model.getRunningTime(), 0.0d);
-        //System.out.println("last x coord " + polygon.xpoints[polygon.npoints-1]);
-        return polygon;
+        return pyramid;
     }
 }
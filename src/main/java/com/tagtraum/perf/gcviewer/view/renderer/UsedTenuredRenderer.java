@@ -8,7 +8,6 @@ import java.util.Iterator;
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
 import com.tagtraum.perf.gcviewer.model.GCEvent;
 import com.tagtraum.perf.gcviewer.model.GCModel;
-import com.tagtraum.perf.gcviewer.view.ModelChart;
 import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
 
 /**
@@ -17,7 +16,7 @@ import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
  * @author <a href="mailto:gcviewer@gmx.ch">Joerg Wuethrich</a>
  * <p>created on: 22.07.2012</p>
  */
-public class UsedTenuredRenderer extends PolygonChartRenderer {
+public class UsedTenuredRenderer extends PyramidChartRenderer {
     public static final Paint DEFAULT_LINEPAINT = Color.MAGENTA.darker();
 
     public UsedTenuredRenderer(ModelChartImpl modelChart) {
@@ -28,8 +27,17 @@ public class UsedTenuredRenderer extends PolygonChartRenderer {
     }
 
     @Override
-    public Polygon computePolygon(ModelChart modelChart, GCModel model) {
-        ScaledPolygon polygon = createMemoryScaledPolygon();
+    public Polygon computePolygon(ChartParameters parameters, GCModel model) {
+        ScaledPolygon polygon = createMemoryScaledPolygon(parameters);
+        addPoints(polygon, getPyramid(model), parameters.getScaleFactor());
+        // dummy point to make the polygon complete
+        polygon.addPoint(model.getRunningTime(), 0.0d);
+        return polygon;
+    }
+
+    @Override
+    protected LevelOfDetailPyramid createPyramid(GCModel model) {
+        LevelOfDetailPyramid pyramid = new LevelOfDetailPyramid();
         for (Iterator<AbstractGCEvent<?>> i = model.getStopTheWorldEvents(); i.hasNext();) {
             AbstractGCEvent<?> abstractGCEvent = i.next();
             if (abstractGCEvent instanceof GCEvent) {
@@ -40,15 +48,13 @@ public class UsedTenuredRenderer extends PolygonChartRenderer {
                     // e.g. "GC remark" of G1 algorithm does not contain memory information
                     if (tenuredEvent.getTotal() > 0) {
                         final double timestamp = event.getTimestamp() - model.getFirstPauseTimeStamp() - event.getPause();
-                        polygon.addPoint(timestamp, tenuredEvent.getPreUsed());
-                        polygon.addPoint(timestamp + event.getPause(), tenuredEvent.getPostUsed());
+                        pyramid.addPoint(timestamp, tenuredEvent.getPreUsed());
+                        pyramid.addPoint(timestamp + event.getPause(), tenuredEvent.getPostUsed());
                     }
                 }
             }
         }
-        // dummy point to make the polygon complete
-        polygon.addPoint(model.getRunningTime(), 0.0d);
-        return polygon;
+        return pyramid;
     }
 
 }
@@ -8,7 +8,6 @@ import java.util.Iterator;
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
 import com.tagtraum.perf.gcviewer.model.GCEvent;
 import com.tagtraum.perf.gcviewer.model.GCModel;
-import com.tagtraum.perf.gcviewer.view.ModelChart;
 import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
 
 /**
@@ -29,8 +28,8 @@ public class UsedYoungRenderer extends PolygonChartRenderer {
     }
 
     @Override
-    public Polygon computePolygon(ModelChart modelChart, GCModel model) {
-        ScaledPolygon polygon = createMemoryScaledPolygon();
+    public Polygon computePolygon(ChartParameters parameters, GCModel model) {
+        ScaledPolygon polygon = createMemoryScaledPolygon(parameters);
         GCEvent lastTenuredEvent = null;
         GCEvent tenuredEvent = null;
         for (Iterator<AbstractGCEvent<?>> i = model.getStopTheWorldEvents(); i.hasNext();) {
@@ -42,7 +41,7 @@ public class UsedYoungRenderer extends PolygonChartRenderer {
                 int tenuredTotal = 0;
                 if (youngEvent != null) {
                     // event contains information about generation (only with -XX:+PrintGCDetails)
-                    if (modelChart.isShowTenured()) {
+                    if (parameters.isShowTenured()) {
                         if (tenuredEvent != null && tenuredEvent.getTotal() > 0) {
                             lastTenuredEvent = tenuredEvent;
                         }
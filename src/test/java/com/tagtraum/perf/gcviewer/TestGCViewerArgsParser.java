@@ -101,6 +101,19 @@ public class TestGCViewerArgsParser {
         assertEquals(gcViewerArgsParser.getChartFilePath(), "the_chart.png");
         assertEquals(gcViewerArgsParser.getType(), DataWriterType.CSV);
     }
+
+    @Test
+    public void diffWithBaseline() throws Exception {
+        String[] args = {"after_gc.log", "-b", "before_gc.log", "diff.csv", "-t", "DIFF"};
+        GCViewerArgsParser gcViewerArgsParser = new GCViewerArgsParser();
+        gcViewerArgsParser.parseArguments(args);
+
+        assertEquals(gcViewerArgsParser.getArgumentCount(), 2);
+        assertEquals(gcViewerArgsParser.getGcResource(), new GcResourceFile("after_gc.log"));
+        assertEquals(gcViewerArgsParser.getBaselineGcResource(), new GcResourceFile("before_gc.log"));
+        assertEquals(gcViewerArgsParser.getSummaryFilePath(), "diff.csv");
+        assertEquals(gcViewerArgsParser.getType(), DataWriterType.DIFF);
+    }
     
     @Test
     public void illegalType() {
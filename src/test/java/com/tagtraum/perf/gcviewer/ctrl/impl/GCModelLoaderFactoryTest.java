@@ -6,6 +6,7 @@ import static org.mockito.Mockito.mock;
 
 import com.tagtraum.perf.gcviewer.model.GCResource;
 import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+import com.tagtraum.perf.gcviewer.model.GcResourceJvm;
 import com.tagtraum.perf.gcviewer.model.GcResourceSeries;
 import org.junit.Rule;
 import org.junit.Test;
@@ -33,6 +34,12 @@ public class GCModelLoaderFactoryTest {
         assertThat(GCModelLoaderFactory.createFor(gcResource), instanceOf(GCModelSeriesLoaderImpl.class));
     }
 
+    @Test
+    public void createFor_GcResourceJvm() throws Exception {
+        GCResource gcResource = new GcResourceJvm(GcResourceJvm.PREFIX_PID + "1");
+        assertThat(GCModelLoaderFactory.createFor(gcResource), instanceOf(GCModelJvmLoaderImpl.class));
+    }
+
     @Test
     public void createFor_GcResourceUnknown() throws Exception {
         expectedException.expect(IllegalArgumentException.class);
@@ -0,0 +1,195 @@
+package com.tagtraum.perf.gcviewer.ctrl.impl;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.swing.SwingUtilities;
+
+import com.tagtraum.perf.gcviewer.imp.DataReaderException;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.GCResource;
+import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests {@link GCModelLoadScheduler}.
+ */
+public class TestGCModelLoadScheduler {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private GCModelLoadScheduler scheduler;
+
+    @Test
+    public void parallelismIsLimited() throws Exception {
+        scheduler = new GCModelLoadScheduler(2, () -> Long.MAX_VALUE);
+        BlockingLoader[] loaders = new BlockingLoader[4];
+        for (int i = 0; i < loaders.length; i++) {
+            loaders[i] = new BlockingLoader(createResource("gc" + i + ".log", 10));
+            execute(loaders[i]);
+        }
+
+        assertThat("started 0", loaders[0].awaitStarted(), is(true));
+        assertThat("started 1", loaders[1].awaitStarted(), is(true));
+        assertThat("running", onEdt(scheduler::getRunningCount), is(2));
+        assertThat("waiting", onEdt(scheduler::getWaitingCount), is(2));
+
+        loaders[0].finish();
+        assertThat("started 2", loaders[2].awaitStarted(), is(true));
+        assertThat("running after finish", onEdt(scheduler::getRunningCount), is(2));
+        assertThat("waiting after finish", onEdt(scheduler::getWaitingCount), is(1));
+
+        for (BlockingLoader loader : loaders) {
+            loader.finish();
+        }
+    }
+
+    @Test
+    public void selectedDocumentIsLoadedFirst() throws Exception {
+        scheduler = new GCModelLoadScheduler(1, () -> Long.MAX_VALUE);
+        BlockingLoader first = new BlockingLoader(createResource("first.log", 10));
+        BlockingLoader other = new BlockingLoader(createResource("other.log", 10));
+        BlockingLoader selected = new BlockingLoader(createResource("selected.log", 10));
+        scheduler.setIsSelected(gcResource -> gcResource == selected.getGcResource());
+        execute(first);
+        execute(other);
+        execute(selected);
+        assertThat("first started", first.awaitStarted(), is(true));
+
+        first.finish();
+
+        assertThat("selected started", selected.awaitStarted(), is(true));
+        assertThat("other not started", other.started.getCount(), is(1L));
+        selected.finish();
+        assertThat("other started", other.awaitStarted(), is(true));
+        other.finish();
+    }
+
+    @Test
+    public void loadersWaitForMemory() throws Exception {
+        // every file needs 20 * HEAP_BYTES_PER_LOG_BYTE = 60 bytes
+        scheduler = new GCModelLoadScheduler(4, () -> 100);
+        BlockingLoader first = new BlockingLoader(createResource("first.log", 20));
+        BlockingLoader second = new BlockingLoader(createResource("second.log", 20));
+        execute(first);
+        execute(second);
+        assertThat("first started", first.awaitStarted(), is(true));
+        assertThat("second waiting", onEdt(scheduler::getWaitingCount), is(1));
+
+        first.finish();
+
+        assertThat("second started", second.awaitStarted(), is(true));
+        second.finish();
+    }
+
+    @Test
+    public void cancelledLoaderIsNotStarted() throws Exception {
+        scheduler = new GCModelLoadScheduler(1, () -> Long.MAX_VALUE);
+        BlockingLoader first = new BlockingLoader(createResource("first.log", 10));
+        BlockingLoader cancelled = new BlockingLoader(createResource("cancelled.log", 10));
+        execute(first);
+        execute(cancelled);
+        assertThat("first started", first.awaitStarted(), is(true));
+
+        cancelled.getGcResource().setIsReadCancelled(true);
+        first.finish();
+        first.get();
+
+        assertThat("waiting", waitFor(() -> scheduler.getWaitingCount() == 0 && scheduler.getRunningCount() == 0), is(true));
+        assertThat("cancelled", cancelled.isCancelled(), is(true));
+        assertThat("not started", cancelled.started.getCount(), is(1L));
+    }
+
+    @Test
+    public void estimateMemory() throws Exception {
+        assertThat("file", GCModelLoadScheduler.estimateMemory(createResource("gc.log", 100)),
+                is(100 * GCModelLoadScheduler.HEAP_BYTES_PER_LOG_BYTE));
+        assertThat("http", GCModelLoadScheduler.estimateMemory(new GcResourceFile("http://localhost/gc.log")), is(0L));
+    }
+
+    private GCResource createResource(String name, int size) throws Exception {
+        File file = folder.newFile(name);
+        Files.write(file.toPath(), new byte[size]);
+        return new GcResourceFile(file.getAbsolutePath());
+    }
+
+    private void execute(BlockingLoader loader) throws Exception {
+        SwingUtilities.invokeAndWait(() -> scheduler.execute(loader));
+    }
+
+    private <T> T onEdt(Callable<T> callable) throws Exception {
+        AtomicReference<T> result = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                result.set(callable.call());
+            }
+            catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        return result.get();
+    }
+
+    /**
+     * Waits until <code>condition</code> (evaluated on the event dispatch thread) is fulfilled.
+     */
+    private boolean waitFor(Callable<Boolean> condition) throws Exception {
+        long timeout = System.currentTimeMillis() + 5000;
+        while (!onEdt(condition)) {
+            if (System.currentTimeMillis() > timeout) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+
+        return true;
+    }
+
+    /**
+     * Loader, that doesn't finish before {@link #finish()} is called.
+     */
+    private static class BlockingLoader extends AbstractGCModelLoaderImpl {
+        private final GCResource gcResource;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch finished = new CountDownLatch(1);
+
+        public BlockingLoader(GCResource gcResource) {
+            this.gcResource = gcResource;
+        }
+
+        @Override
+        protected GCModel loadGcModel() throws DataReaderException {
+            started.countDown();
+            try {
+                finished.await();
+            }
+            catch (InterruptedException e) {
+                throw new DataReaderException("interrupted", e);
+            }
+
+            return new GCModel();
+        }
+
+        @Override
+        public GCResource getGcResource() {
+            return gcResource;
+        }
+
+        public boolean awaitStarted() throws InterruptedException {
+            return started.await(5, TimeUnit.SECONDS);
+        }
+
+        public void finish() {
+            finished.countDown();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.tagtraum.perf.gcviewer.exp;
+
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+
+import com.tagtraum.perf.gcviewer.exp.impl.AnomalyDataWriter;
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Type;
+import com.tagtraum.perf.gcviewer.model.GCEvent;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests the export format of {@link AnomalyDataWriter}.
+ */
+public class AnomalyDataWriterTest {
+
+    @Test
+    public void write() throws Exception {
+        GCModel model = new GCModel();
+        model.add(new GCEvent(300, 900, 800, 1000, 0.5, Type.FULL_GC));
+        model.add(new GCEvent(310, 900, 800, 1000, 0.5, Type.FULL_GC));
+        model.add(new GCEvent(320, 900, 800, 1000, 0.5, Type.FULL_GC));
+        model.add(new GCEvent(330, 900, 900, 1000, 0.1, Type.G1_YOUNG_TO_SPACE_EXHAUSTED));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (AnomalyDataWriter writer = new AnomalyDataWriter(output)) {
+            writer.write(model);
+        }
+
+        String[] lines = output.toString().split("\r?\n");
+        assertThat("number of lines", lines.length, Matchers.is(3));
+        assertThat("header", lines[0], Matchers.is("Kind,Start(sec),End(sec),Duration(sec),EventCount,Value,Baseline"));
+        assertThat("storm", lines[1], Matchers.is("fullGcStorm,300.0,320.5,20.5,3,0.5,"));
+        assertThat("to-space exhausted", lines[2], Matchers.startsWith("toSpaceExhausted,330.0,330.1,"));
+        assertThat("to-space exhausted without baseline", lines[2], Matchers.endsWith(",1,0.1,"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.tagtraum.perf.gcviewer.exp;
+
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+
+import com.tagtraum.perf.gcviewer.exp.impl.HeapSizingDataWriter;
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Type;
+import com.tagtraum.perf.gcviewer.model.GCEvent;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.HeapSizing;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests the export format of {@link HeapSizingDataWriter}.
+ */
+public class HeapSizingDataWriterTest {
+
+    @Test
+    public void write() throws Exception {
+        GCModel model = new GCModel();
+        model.add(new GCEvent(0, 250000, 200000, 1000000, 0.2, Type.FULL_GC));
+        for (int i = 1; i <= 5; ++i) {
+            GCEvent event = new GCEvent(i, 300000, 200000, 1000000, 0.01, Type.GC);
+            event.add(new GCEvent(i, 100000, 0, 100000, 0.01, Type.DEF_NEW));
+            model.add(event);
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (HeapSizingDataWriter writer = new HeapSizingDataWriter(output)) {
+            writer.write(model);
+        }
+
+        String[] lines = output.toString().split("\r?\n");
+        assertThat("number of lines", lines.length, Matchers.is(3 + HeapSizing.DEFAULT_HEAP_FACTORS.length * HeapSizing.DEFAULT_YOUNG_RATIOS.length));
+        assertThat("header", lines[0], Matchers.is("Scenario,Heap(K),Young(K),InitiatingOccupancy(%),YoungGCs(1/min),FullGCs(1/min),ConcurrentCycles(1/min),Throughput(%),Options"));
+        assertThat("observed", lines[1], Matchers.startsWith("observed,1000000,100000,,"));
+        assertThat("observed options", lines[1], Matchers.endsWith(",-Xmx977m -Xmn98m"));
+        assertThat("recommended", lines[2], Matchers.startsWith("recommended,"));
+        assertThat("first candidate", lines[3], Matchers.startsWith("candidate,500000,50000,,"));
+        assertThat("first candidate options", lines[3], Matchers.endsWith(",-Xmx488m -Xmn49m"));
+    }
+
+    @Test
+    public void writeWithoutEvents() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (HeapSizingDataWriter writer = new HeapSizingDataWriter(output)) {
+            writer.write(new GCModel());
+        }
+
+        assertThat("header only", output.toString().split("\r?\n").length, Matchers.is(1));
+    }
+}
@@ -0,0 +1,57 @@
+package com.tagtraum.perf.gcviewer.exp;
+
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.tagtraum.perf.gcviewer.exp.impl.ModelDiffDataWriter;
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Type;
+import com.tagtraum.perf.gcviewer.model.GCEvent;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.ModelDiff;
+import org.hamcrest.Matchers;
+import org.junit.Test;
+
+/**
+ * Tests the export format of {@link ModelDiffDataWriter}.
+ */
+public class ModelDiffDataWriterTest {
+
+    private GCModel createModel(int fullGcCount) {
+        GCModel model = new GCModel();
+        model.add(new GCEvent(0.1, 800, 200, 1000, 0.01, Type.GC));
+        model.add(new GCEvent(0.2, 800, 200, 1000, 0.02, Type.GC));
+        for (int i = 0; i < fullGcCount; ++i) {
+            model.add(new GCEvent(1 + i, 900, 100, 1000, 0.5, Type.FULL_GC));
+        }
+
+        return model;
+    }
+
+    @Test
+    public void write() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Map<String, Object> configuration = new HashMap<>();
+        configuration.put(ModelDiffDataWriter.BASELINE_MODEL, createModel(2));
+        try (ModelDiffDataWriter writer = new ModelDiffDataWriter(output, configuration)) {
+            writer.write(createModel(0));
+        }
+
+        String csv = output.toString();
+        assertThat("header", csv, Matchers.startsWith("EventType,Name,Unit,Baseline,Compared,Delta,Delta(%)"));
+        assertThat("full gc pause count", csv, Matchers.containsString(",fullGcPauseCount,-,2.0,0.0,-2.0,-100.0"));
+        assertThat("full gc max", csv, Matchers.containsString("Full GC,max,s,0.5,,,"));
+        assertThat("distribution header", csv, Matchers.containsString("EventType,Count(Baseline),Count(Compared),KS-Statistic,KS-Probability"));
+        assertThat("all pauses", csv, Matchers.containsString(ModelDiff.ALL_PAUSES + ",4,2,"));
+    }
+
+    @Test(expected = IOException.class)
+    public void writeWithoutBaseline() throws Exception {
+        try (ModelDiffDataWriter writer = new ModelDiffDataWriter(new ByteArrayOutputStream(), null)) {
+            writer.write(createModel(0));
+        }
+    }
+}
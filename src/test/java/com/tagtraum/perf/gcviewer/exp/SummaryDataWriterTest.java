@@ -14,10 +14,13 @@ import com.tagtraum.perf.gcviewer.imp.DataReader;
 import com.tagtraum.perf.gcviewer.imp.DataReaderFactory;
 import com.tagtraum.perf.gcviewer.imp.DataReaderSun1_6_0;
 import com.tagtraum.perf.gcviewer.imp.GcLogType;
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.ExtendedType;
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Type;
+import com.tagtraum.perf.gcviewer.model.ConcurrentGCEvent;
 import com.tagtraum.perf.gcviewer.model.GCEvent;
 import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+import com.tagtraum.perf.gcviewer.model.VmOperationEvent;
 import com.tagtraum.perf.gcviewer.util.MemoryFormat;
 
 import org.hamcrest.Matchers;
@@ -80,6 +83,113 @@ public class SummaryDataWriterTest {
         assertThat("totalHeapAllocMax", csv, Matchers.containsString("totalHeapAllocMax; 999; K"));
     }
 
+    @Test
+    public void testWriteMutatorUtilization() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        SummaryDataWriter objectUnderTest = new SummaryDataWriter(output);
+
+        // pauses of createGcModel() overlap: the application is paused from 0.1 to 0.7 sec
+        GCModel model = createGcModel();
+        model.setFormat(GCModel.Format.SUN_X_LOG_GC);
+        objectUnderTest.write(model);
+
+        String csv = output.toString();
+
+        assertThat("mmu1ms", csv, Matchers.containsString("mmu1ms; " + percentFormatter.format(0.0) + "; %"));
+        assertThat("mmu1s", csv, Matchers.containsString("mmu1s; n.a.; %"));
+    }
+
+    @Test
+    public void testWriteAnomalies() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        SummaryDataWriter objectUnderTest = new SummaryDataWriter(output);
+
+        GCModel model = createGcModel();
+        model.add(new GCEvent(1.0, 900, 900, 1000, 0.1, Type.G1_YOUNG_TO_SPACE_EXHAUSTED));
+        objectUnderTest.write(model);
+
+        String csv = output.toString();
+
+        assertThat("anomalies", csv, Matchers.containsString("anomalies; 1; -"));
+        assertThat("to-space exhausted", csv, Matchers.containsString("toSpaceExhaustedAnomalies; 1; -"));
+        assertThat("pause outliers", csv, Matchers.containsString("pauseOutlierAnomalies; 0; -"));
+    }
+
+    @Test
+    public void testWriteLeakTrend() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        SummaryDataWriter objectUnderTest = new SummaryDataWriter(output);
+
+        GCModel model = createGcModel();
+        model.add(new GCEvent(0.5, 816, 612, 999, 0.3, Type.GC));
+        objectUnderTest.write(model);
+
+        String csv = output.toString();
+
+        assertThat("leakTrendSource", csv, Matchers.containsString("leakTrendSource; postGC; -"));
+        assertThat("leakTrendChangePoints", csv, Matchers.containsString("leakTrendChangePoints; 0; -"));
+        assertThat("timeToOutOfMemory", csv, Matchers.containsString("timeToOutOfMemory; 1; s"));
+    }
+
+    @Test
+    public void testWriteCausePauses() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        SummaryDataWriter objectUnderTest = new SummaryDataWriter(output);
+
+        GCModel model = createGcModel();
+        GCEvent event = new GCEvent(0.5, 999, 724, 999, 0.8, Type.FULL_GC);
+        event.setExtendedType(ExtendedType.lookup(Type.FULL_GC, "Full GC (System.gc())", "System.gc()"));
+        model.add(event);
+        objectUnderTest.write(model);
+
+        String csv = output.toString();
+
+        assertThat("pauseCauseCount", csv, Matchers.containsString("pauseCauseCount; 1; -"));
+        assertThat("pauseCauseSystemGcCount", csv, Matchers.containsString("pauseCauseSystemGcCount; 1; -"));
+        assertThat("pauseCauseSystemGcPc", csv, Matchers.containsString("pauseCauseSystemGcPc; " + percentFormatter.format(38.1) + "; %"));
+    }
+
+    @Test
+    public void testWriteSafepoints() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        SummaryDataWriter objectUnderTest = new SummaryDataWriter(output);
+
+        GCModel model = createGcModel();
+        VmOperationEvent safepoint = new VmOperationEvent();
+        safepoint.setTimestamp(0.6);
+        safepoint.setExtendedType(ExtendedType.lookup(Type.UJL_SAFEPOINT, "Safepoint \"Cleanup\"", "Cleanup"));
+        safepoint.setPause(0.004);
+        safepoint.setSafepointTimes(0.003, 0, 0.001);
+        model.add(safepoint);
+        objectUnderTest.write(model);
+
+        String csv = output.toString();
+
+        assertThat("safepointCount", csv, Matchers.containsString("safepointCount; 1; -"));
+        assertThat("timeToSafepointPc", csv, Matchers.containsString("timeToSafepointPc; " + percentFormatter.format(75.0) + "; %"));
+        assertThat("timeToSafepointDominated", csv, Matchers.containsString("timeToSafepointDominated; 1; -"));
+    }
+
+    @Test
+    public void testWriteConcurrentCycles() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        SummaryDataWriter objectUnderTest = new SummaryDataWriter(output);
+
+        GCModel model = createGcModel();
+        ConcurrentGCEvent start = new ConcurrentGCEvent();
+        start.setTimestamp(1);
+        start.setType(Type.CMS_CONCURRENT_MARK_START);
+        model.add(start);
+        model.add(new GCEvent(1.5, 999, 724, 999, 0.8, Type.FULL_GC));
+        objectUnderTest.write(model);
+
+        String csv = output.toString();
+
+        assertThat("concurrentCycleStarted", csv, Matchers.containsString("concurrentCycleStarted; 1; -"));
+        assertThat("concurrentCycleCount", csv, Matchers.containsString("concurrentCycleCount; 0; -"));
+        assertThat("concurrentCycleInterruptedByFullGcPc", csv, Matchers.containsString("concurrentCycleInterruptedByFullGcPc; " + percentFormatter.format(100.0) + "; %"));
+    }
+
     @Test
     public void testWriteWithFullGc() throws IOException {
         ByteArrayOutputStream output = new ByteArrayOutputStream();
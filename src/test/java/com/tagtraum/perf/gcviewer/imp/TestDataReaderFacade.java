@@ -10,6 +10,7 @@ import static org.junit.Assert.fail;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.MalformedURLException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
@@ -173,6 +174,82 @@ public class TestDataReaderFacade {
         assertThat(result.toString(), is(expectedModel.toString()));
     }
 
+    @Test
+    public void loadModelPublishesSnapshots() throws Exception {
+        List<GCModel> snapshots = new ArrayList<>();
+        List<Integer> sizesWhenPublished = new ArrayList<>();
+        dataReaderFacade.setSnapshotInterval(0);
+        dataReaderFacade.setProgressInterval(1);
+        dataReaderFacade.addPropertyChangeListener(evt -> {
+            if (DataReaderFacade.MODEL_SNAPSHOT.equals(evt.getPropertyName())) {
+                GCModel snapshot = (GCModel) evt.getNewValue();
+                snapshots.add(snapshot);
+                sizesWhenPublished.add(snapshot.size());
+            }
+        });
+
+        // file must be large enough to be read in several chunks
+        GCModel model = dataReaderFacade.loadModel(new GcResourceFile(
+                UnittestHelper.getResource(FOLDER.OPENJDK, "SampleSun1_6_0G1_gc_verbose.txt").getPath()));
+
+        assertThat("snapshots published", snapshots.size(), greaterThanOrEqualTo(2));
+        for (int i = 0; i < snapshots.size(); i++) {
+            GCModel snapshot = snapshots.get(i);
+            assertThat("snapshot " + i + " unchanged", snapshot.size(), is(sizesWhenPublished.get(i)));
+            assertThat("snapshot " + i + " first event", snapshot.get(0), is(model.get(0)));
+            assertThat("snapshot " + i + " last event", snapshot.get(snapshot.size() - 1), is(model.get(snapshot.size() - 1)));
+            if (i > 0) {
+                assertThat("snapshot " + i + " grows", snapshot.size(), greaterThanOrEqualTo(snapshots.get(i - 1).size()));
+            }
+        }
+    }
+
+    @Test
+    public void loadModelFromTailInputStream() throws Exception {
+        assertModelFromTailInputStream();
+    }
+
+    @Test
+    public void loadMappedModelFromTailInputStream() throws Exception {
+        System.setProperty(GCModel.PROPERTY_EVENT_STORAGE, GCModel.EVENT_STORAGE_MAPPED);
+        try {
+            assertModelFromTailInputStream();
+        }
+        finally {
+            System.clearProperty(GCModel.PROPERTY_EVENT_STORAGE);
+        }
+    }
+
+    private void assertModelFromTailInputStream() throws Exception {
+        GcResourceFile gcResource = new GcResourceFile(
+                UnittestHelper.getResource(FOLDER.OPENJDK, "SampleSun1_6_0G1_gc_verbose.txt").getPath());
+        GCModel expectedModel = dataReaderFacade.loadModel(gcResource);
+
+        TailInputStream in = new TailInputStream(Paths.get(gcResource.getResourceNameAsUrl().toURI()),
+                new LogFileWatcher(null),
+                gcResource.getLogger());
+        List<GCModel> snapshots = new ArrayList<>();
+        dataReaderFacade.addPropertyChangeListener(evt -> {
+            if (DataReaderFacade.MODEL_SNAPSHOT.equals(evt.getPropertyName())) {
+                snapshots.add((GCModel) evt.getNewValue());
+                // whole file has been read -> stop following it
+                try {
+                    in.close();
+                }
+                catch (IOException e) {
+                    fail(e.toString());
+                }
+            }
+        });
+
+        try (GCModel model = dataReaderFacade.loadModel(new GcResourceFile(gcResource.getResourceName()), in)) {
+            assertThat("number of snapshots", snapshots.size(), is(1));
+            assertThat("snapshot mapped", snapshots.get(0).isEventStoreMapped(), is(false));
+            assertThat("snapshot size", snapshots.get(0).size(), is(expectedModel.size()));
+            assertThat("model size", model.size(), is(expectedModel.size()));
+        }
+    }
+
     private int getJavaMajorVersion() {
         String javaVersion = System.getProperty("java.version");
         String[] javaVersionParts = javaVersion.split("\\.");
@@ -0,0 +1,137 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent;
+import com.tagtraum.perf.gcviewer.model.GCEvent;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.GcResourceJvm;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests {@link DataReaderJmx} with a child jvm running {@link GarbageProducer}.
+ */
+public class TestDataReaderJmx {
+    private Process childJvm;
+
+    @After
+    public void tearDown() {
+        if (childJvm != null) {
+            childJvm.destroy();
+        }
+    }
+
+    @Test
+    public void readChildJvm() throws Exception {
+        childJvm = new ProcessBuilder(new File(System.getProperty("java.home"), "bin" + File.separator + "java").getPath(),
+                "-Xmx64m",
+                "-cp", System.getProperty("java.class.path"),
+                GarbageProducer.class.getName())
+                .redirectErrorStream(true)
+                .start();
+        String pid = new BufferedReader(new InputStreamReader(childJvm.getInputStream(), "ASCII")).readLine();
+
+        GcResourceJvm gcResource = new GcResourceJvm(GcResourceJvm.PREFIX_PID + pid);
+        GCModel model = readUntilFirstSnapshot(gcResource);
+
+        assertThat("size", model.size(), greaterThan(0));
+        assertThat("format", model.getFormat(), notNullValue());
+        AbstractGCEvent<?> event = model.get(0);
+        assertThat("datestamp", event.getDatestamp(), notNullValue());
+        assertThat("type", event.getTypeAsString(), startsWith("Pause"));
+        assertThat("total heap", ((GCEvent) event).getTotal(), greaterThan(0));
+    }
+
+    @Test
+    public void readOwnJvm() throws Exception {
+        String name = ManagementFactory.getRuntimeMXBean().getName();
+        GcResourceJvm gcResource = new GcResourceJvm(GcResourceJvm.PREFIX_PID + name.substring(0, name.indexOf('@')));
+        Thread gcThread = new Thread(() -> {
+            while (!gcResource.isReadCancelled()) {
+                System.gc();
+                try {
+                    Thread.sleep(50);
+                }
+                catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        gcThread.start();
+
+        GCModel model = readUntilFirstSnapshot(gcResource);
+        gcThread.join();
+
+        assertThat("size", model.size(), greaterThan(0));
+        assertThat("full gc pauses (System.gc())", model.getFullGCPause().getN(), greaterThan(0));
+    }
+
+    private GCModel readUntilFirstSnapshot(GcResourceJvm gcResource) throws InterruptedException {
+        DataReaderJmx dataReader = new DataReaderJmx(gcResource);
+        dataReader.setBatchInterval(100);
+        CountDownLatch snapshotReceived = new CountDownLatch(1);
+        dataReader.addPropertyChangeListener(evt -> {
+            if (DataReaderFacade.MODEL_SNAPSHOT.equals(evt.getPropertyName())) {
+                snapshotReceived.countDown();
+            }
+        });
+
+        AtomicReference<GCModel> model = new AtomicReference<>();
+        AtomicReference<IOException> exception = new AtomicReference<>();
+        Thread readerThread = new Thread(() -> {
+            try {
+                model.set(dataReader.read());
+            }
+            catch (IOException e) {
+                exception.set(e);
+                snapshotReceived.countDown();
+            }
+        });
+        readerThread.start();
+
+        assertThat("snapshot received", snapshotReceived.await(60, TimeUnit.SECONDS), is(true));
+        gcResource.setIsReadCancelled(true);
+        readerThread.join(10000);
+        if (exception.get() != null) {
+            throw new AssertionError("reading failed", exception.get());
+        }
+
+        return model.get();
+    }
+
+    /**
+     * Main class of the child jvm: prints its pid and produces garbage until it is destroyed.
+     */
+    public static class GarbageProducer {
+        public static void main(String[] args) throws InterruptedException {
+            String name = ManagementFactory.getRuntimeMXBean().getName();
+            System.out.println(name.substring(0, name.indexOf('@')));
+            System.out.flush();
+
+            long deadline = System.currentTimeMillis() + 120_000;
+            while (System.currentTimeMillis() < deadline) {
+                byte[][] garbage = new byte[64][];
+                for (int i = 0; i < garbage.length; i++) {
+                    garbage[i] = new byte[64 * 1024];
+                }
+                if (garbage[0].length > 0) {
+                    Thread.sleep(10);
+                }
+            }
+        }
+    }
+}
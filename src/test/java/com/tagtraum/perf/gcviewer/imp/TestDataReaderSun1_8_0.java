@@ -19,6 +19,7 @@ import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Type;
 import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.model.GCResource;
 import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+import com.tagtraum.perf.gcviewer.model.VmOperationEvent;
 import com.tagtraum.perf.gcviewer.util.DateHelper;
 import org.junit.Test;
 
@@ -599,4 +600,18 @@ public class TestDataReaderSun1_8_0 {
 
     }
 
+    @Test
+    public void applicationStoppedTimeWithStoppingThreads() throws Exception {
+        GCModel model = getGCModelFromLogString(
+                "2015-09-18T18:18:04.343+0200: 319.347: [GC (Allocation Failure) [PSYoungGen: 16865K->2529K(19456K)] 16865K->16175K(62976K), 0.0250000 secs] [Times: user=0.06 sys=0.00, real=0.03 secs]"
+                + "\n2015-09-18T18:18:04.373+0200: 319.377: Total time for which application threads were stopped: 0.0298220 seconds, Stopping threads took: 0.0003530 seconds");
+
+        assertThat("gc count", model.size(), is(2));
+        VmOperationEvent vmOperationEvent = (VmOperationEvent) model.get(1);
+        assertThat("time to safepoint", vmOperationEvent.getTimeToSafepoint(), closeTo(0.0003530, 0.00000001));
+        assertThat("cleanup time", vmOperationEvent.getCleanupTime(), closeTo(0, 0.00000001));
+        assertThat("operation time", vmOperationEvent.getOperationTime(), closeTo(0.0298220 - 0.0003530, 0.00000001));
+        assertThat("safepoint count", model.getSafepointStatistics().getTimeToSafepoint().getN(), is(1));
+    }
+
 }
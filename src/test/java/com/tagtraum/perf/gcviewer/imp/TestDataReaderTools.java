@@ -0,0 +1,76 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.logging.Logger;
+
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.ExtendedType;
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Type;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link DataReaderTools}.
+ */
+public class TestDataReaderTools {
+
+    private DataReaderTools dataReaderTools;
+
+    @Before
+    public void setUp() {
+        dataReaderTools = new DataReaderTools(Logger.getLogger("TestDataReaderTools"));
+    }
+
+    @Test
+    public void parseTypeWithCause() {
+        ExtendedType type = dataReaderTools.parseTypeWithCause("GC (Allocation Failure)");
+
+        assertThat("type", type.getType(), equalTo(Type.GC));
+        assertThat("name", type.getName(), equalTo("GC (Allocation Failure)"));
+        assertThat("cause", type.getCause(), equalTo("Allocation Failure"));
+    }
+
+    @Test
+    public void parseTypeWithNestedParentheses() {
+        ExtendedType type = dataReaderTools.parseTypeWithCause("Full GC (System.gc())");
+
+        assertThat("type", type.getType(), equalTo(Type.FULL_GC));
+        assertThat("cause", type.getCause(), equalTo("System.gc()"));
+    }
+
+    @Test
+    public void parseTypeWithCauseInsideTypeName() {
+        ExtendedType type = dataReaderTools.parseTypeWithCause("GC pause (G1 Evacuation Pause) (young)");
+
+        assertThat("type", type.getType(), equalTo(Type.G1_YOUNG));
+        assertThat("cause", type.getCause(), equalTo("G1 Evacuation Pause"));
+    }
+
+    @Test
+    public void parseTypeUJLWithSubtypeAndCause() {
+        ExtendedType type = dataReaderTools.parseTypeWithCause("Pause Young (Normal) (G1 Evacuation Pause)");
+
+        assertThat("type", type.getType(), equalTo(Type.UJL_PAUSE_YOUNG));
+        assertThat("cause", type.getCause(), equalTo("G1 Evacuation Pause"));
+    }
+
+    @Test
+    public void parseTypeWithoutCause() {
+        ExtendedType type = dataReaderTools.parseTypeWithCause("GC pause (young)");
+
+        assertThat("type", type.getType(), equalTo(Type.G1_YOUNG));
+        assertThat("cause", type.getCause(), nullValue());
+    }
+
+    @Test
+    public void parseTypeCauseIsInterned() {
+        ExtendedType type1 = dataReaderTools.parseTypeWithCause("GC (Metadata GC Threshold)");
+        ExtendedType type2 = dataReaderTools.parseTypeWithCause("GC (Metadata GC Threshold)");
+
+        assertThat("same type instance", type1, sameInstance(type2));
+        assertThat("cause interned", type1.getCause(), sameInstance("Metadata GC Threshold".intern()));
+    }
+}
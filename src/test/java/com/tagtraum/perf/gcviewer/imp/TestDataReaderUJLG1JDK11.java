@@ -16,6 +16,7 @@ import com.tagtraum.perf.gcviewer.model.GCEvent;
 import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.model.GCResource;
 import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+import com.tagtraum.perf.gcviewer.model.VmOperationEvent;
 import org.junit.Test;
 
 /**
@@ -204,5 +205,7 @@ public class TestDataReaderUJLG1JDK11 {
         assertThat("number of events", model.size(), is(1));
         assertThat("event type", model.get(0).getExtendedType().getType(), is(Type.APPLICATION_STOPPED_TIME));
         assertThat("total heap", model.get(0).getPause(), closeTo(0.0047914, 0.0000001));
+        assertThat("time to safepoint", ((VmOperationEvent) model.get(0)).getTimeToSafepoint(), closeTo(0.0000103, 0.0000001));
+        assertThat("at safepoint", ((VmOperationEvent) model.get(0)).getOperationTime(), closeTo(0.0047811, 0.0000001));
     }
 }
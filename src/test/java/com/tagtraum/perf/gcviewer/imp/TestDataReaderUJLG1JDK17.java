@@ -13,11 +13,14 @@ import java.util.logging.Level;
 
 import com.tagtraum.perf.gcviewer.UnittestHelper;
 import com.tagtraum.perf.gcviewer.UnittestHelper.FOLDER;
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Type;
 import com.tagtraum.perf.gcviewer.model.ConcurrentGCEvent;
 import com.tagtraum.perf.gcviewer.model.GCEvent;
 import com.tagtraum.perf.gcviewer.model.GCModel;
 import com.tagtraum.perf.gcviewer.model.GCResource;
 import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+import com.tagtraum.perf.gcviewer.model.SafepointStatistics;
+import com.tagtraum.perf.gcviewer.model.VmOperationEvent;
 import org.junit.Test;
 
 /**
@@ -87,7 +90,9 @@ public class TestDataReaderUJLG1JDK17 {
     @Test
     public void testG1FullConcurrentMarkCycle() throws Exception {
         GCModel model = getGCModelFromLogFile("sample-ujl-jdk17-full-concurrent-cycle-g1-gc-all-safepont,os-cpu.txt");
-        assertThat("size", model.size(), is(11));
+        // 11 gc events + 9 safepoints
+        assertThat("size", model.size(), is(20));
+        assertThat("safepoint count", model.getVmOperationPause().getN(), is(9));
         assertThat("concurrent event count", model.getConcurrentEventPauses().size(), is(1));
 
         Iterator<ConcurrentGCEvent> concurrentGCEventIterator = model.getConcurrentGCEvents();
@@ -102,6 +107,44 @@ public class TestDataReaderUJLG1JDK17 {
         assertThat("iterator is finished", concurrentGCEventIterator.hasNext(), is(false));
     }
 
+    @Test
+    public void testSafepoint() throws Exception {
+        TestLogHandler handler = new TestLogHandler();
+        handler.setLevel(Level.WARNING);
+        GCResource gcResource = new GcResourceFile("byteArray");
+        gcResource.getLogger().addHandler(handler);
+        InputStream in = new ByteArrayInputStream(
+                ("[2022-01-29T16:34:51.654+0000][245ms][info][gc          ] GC(6) Pause Young (Normal) (G1 Evacuation Pause) 14M->14M(46M) 9.772ms\n" +
+                        "[2022-01-29T16:34:51.655+0000][246ms][info][safepoint   ] Safepoint \"G1CollectForAllocation\", Time since last: 1634200 ns, Reaching safepoint: 92800 ns, Cleanup: 7000 ns, At safepoint: 11166200 ns, Total: 11266000 ns\n" +
+                        "[2022-01-29T16:34:51.700+0000][291ms][info][safepoint   ] Safepoint \"Cleanup\", Time since last: 44000000 ns, Reaching safepoint: 3000000 ns, At safepoint: 10000 ns, Total: 3010000 ns\n")
+                        .getBytes());
+
+        DataReader reader = new DataReaderUnifiedJvmLogging(gcResource, in);
+        GCModel model = reader.read();
+
+        assertThat("number of warnings", handler.getCount(), is(0));
+        assertThat("number of events", model.size(), is(3));
+
+        VmOperationEvent safepoint = (VmOperationEvent) model.get(1);
+        assertThat("type", safepoint.getExtendedType().getType(), is(Type.UJL_SAFEPOINT));
+        assertThat("operation", safepoint.getCause(), is("G1CollectForAllocation"));
+        assertThat("time to safepoint", safepoint.getTimeToSafepoint(), closeTo(0.0000928, 0.0000000001));
+        assertThat("cleanup", safepoint.getCleanupTime(), closeTo(0.000007, 0.0000000001));
+        assertThat("at safepoint", safepoint.getOperationTime(), closeTo(0.0111662, 0.0000000001));
+        // overhead on top of the gc pause
+        assertThat("pause", safepoint.getPause(), closeTo(0.011266 - 0.009772, 0.0000000001));
+
+        VmOperationEvent cleanup = (VmOperationEvent) model.get(2);
+        assertThat("operation", cleanup.getCause(), is("Cleanup"));
+        assertThat("cleanup (not logged)", cleanup.getCleanupTime(), closeTo(0, 0.0000000001));
+        assertThat("pause", cleanup.getPause(), closeTo(0.00301, 0.0000000001));
+
+        SafepointStatistics safepoints = model.getSafepointStatistics();
+        assertThat("time to safepoint sum", safepoints.getTimeToSafepoint().getSum(), closeTo(0.0030928, 0.0000000001));
+        assertThat("time to safepoint dominated", safepoints.getTimeToSafepointDominatedCount(), is(1));
+        assertThat("operations", safepoints.getTimeToSafepointByOperation().keySet().toString(), is("[Cleanup, G1CollectForAllocation]"));
+    }
+
     @Test
     public void testG1ConcurrentUndoCycle() throws IOException {
         TestLogHandler handler = new TestLogHandler();
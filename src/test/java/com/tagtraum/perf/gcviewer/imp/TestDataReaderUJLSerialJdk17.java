@@ -39,11 +39,15 @@ public class TestDataReaderUJLSerialJdk17 {
         GCModel model = reader.read();
 
         assertThat("number of warnings", handler.getCount(), is(0));
-        assertThat("number of events", model.size(), is(1));
+        assertThat("number of events", model.size(), is(2));
         assertThat("event type", model.get(0).getExtendedType().getType(), is(Type.UJL_PAUSE_YOUNG));
         assertThat("event pause", model.get(0).getPause(), closeTo(0.00548, 0.0000001));
 
         assertThat("phases", model.getGcEventPhases().size(), is(0));
+
+        assertThat("safepoint type", model.get(1).getExtendedType().getType(), is(Type.UJL_SAFEPOINT));
+        assertThat("safepoint pause", model.get(1).getPause(), closeTo(0.0063307 - 0.00548, 0.0000001));
+        assertThat("time to safepoint", model.getSafepointStatistics().getTimeToSafepoint().getSum(), closeTo(0.0000514, 0.0000001));
     }
 
 }
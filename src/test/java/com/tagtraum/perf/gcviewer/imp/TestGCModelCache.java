@@ -0,0 +1,159 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.tagtraum.perf.gcviewer.UnittestHelper;
+import com.tagtraum.perf.gcviewer.UnittestHelper.FOLDER;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests {@link GCModelCache}.
+ */
+public class TestGCModelCache {
+    private static final String SAMPLE_FILE = "SampleSun1_6_0G1_gc_verbose.txt";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private GCModelCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new GCModelCache();
+    }
+
+    @Test
+    public void sameFileSharesModel() throws Exception {
+        GcResourceFile gcResource1 = createResource();
+        GcResourceFile gcResource2 = createResource();
+
+        GCModel model1 = cache.loadModel(gcResource1, evt -> {});
+        GCModel model2 = cache.loadModel(gcResource2, evt -> {});
+
+        assertThat("same model", model2, sameInstance(model1));
+        assertThat("size", model1.size(), greaterThan(0));
+        assertThat("number of cached models", cache.size(), is(1));
+    }
+
+    @Test
+    public void concurrentLoadsShareOneParse() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<GCModel>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                GcResourceFile gcResource = createResource();
+                futures.add(executor.submit(() -> cache.loadModel(gcResource, evt -> {})));
+            }
+
+            GCModel model = futures.get(0).get();
+            for (Future<GCModel> future : futures) {
+                assertThat("same model", future.get(), sameInstance(model));
+            }
+            assertThat("number of cached models", cache.size(), is(1));
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void lastReleaseRemovesModel() throws Exception {
+        GcResourceFile gcResource1 = createResource();
+        GcResourceFile gcResource2 = createResource();
+        cache.loadModel(gcResource1, evt -> {});
+        cache.loadModel(gcResource2, evt -> {});
+
+        cache.release(gcResource1);
+        assertThat("still referenced", cache.size(), is(1));
+        cache.release(gcResource2);
+        assertThat("not referenced any more", cache.size(), is(0));
+    }
+
+    @Test
+    public void replacedModelIsReleased() throws Exception {
+        GcResourceFile gcResource = createResource();
+        gcResource.setModel(cache.loadModel(gcResource, evt -> {}));
+
+        gcResource.setModel(new GCModel());
+
+        assertThat("not referenced any more", cache.size(), is(0));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void replacedMappedModelIsClosed() throws Exception {
+        GcResourceFile gcResource = createResource();
+        GCModel model;
+        System.setProperty(GCModel.PROPERTY_EVENT_STORAGE, GCModel.EVENT_STORAGE_MAPPED);
+        try {
+            model = cache.loadModel(gcResource, evt -> {});
+        }
+        finally {
+            System.clearProperty(GCModel.PROPERTY_EVENT_STORAGE);
+        }
+        gcResource.setModel(model);
+        assertThat("mapped", model.isEventStoreMapped(), is(true));
+
+        gcResource.setModel(new GCModel());
+
+        // events of a closed model can't be read any more
+        model.get(0);
+    }
+
+    @Test
+    public void releasedModelStaysOpenWhileShared() throws Exception {
+        GcResourceFile gcResource1 = createResource();
+        GcResourceFile gcResource2 = createResource();
+        GCModel model;
+        System.setProperty(GCModel.PROPERTY_EVENT_STORAGE, GCModel.EVENT_STORAGE_MAPPED);
+        try {
+            model = cache.loadModel(gcResource1, evt -> {});
+            gcResource1.setModel(model);
+            gcResource2.setModel(cache.loadModel(gcResource2, evt -> {}));
+        }
+        finally {
+            System.clearProperty(GCModel.PROPERTY_EVENT_STORAGE);
+        }
+
+        cache.release(gcResource1);
+        assertThat("still readable", model.get(0).getTimestamp(), is(gcResource2.getModel().get(0).getTimestamp()));
+        cache.release(gcResource2);
+        assertThat("not referenced any more", cache.size(), is(0));
+    }
+
+    @Test
+    public void changedFileIsParsedAgain() throws Exception {
+        File file = folder.newFile("gc.log");
+        Files.copy(UnittestHelper.getResourceAsStream(FOLDER.OPENJDK, SAMPLE_FILE), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING);
+        GCModel model1 = cache.loadModel(new GcResourceFile(file.getAbsolutePath()), evt -> {});
+
+        Files.write(file.toPath(), "\n".getBytes(), StandardOpenOption.APPEND);
+        GCModel model2 = cache.loadModel(new GcResourceFile(file.getAbsolutePath()), evt -> {});
+
+        assertThat("new model", model2, not(sameInstance(model1)));
+        assertThat("number of cached models", cache.size(), is(2));
+    }
+
+    private GcResourceFile createResource() throws Exception {
+        return new GcResourceFile(UnittestHelper.getResource(FOLDER.OPENJDK, SAMPLE_FILE).getPath());
+    }
+}
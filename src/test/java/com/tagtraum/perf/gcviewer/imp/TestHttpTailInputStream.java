@@ -0,0 +1,183 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link HttpTailInputStream} with an embedded http server standing in for a log server.
+ */
+public class TestHttpTailInputStream {
+    private HttpServer server;
+    private volatile byte[] content = new byte[0];
+    private volatile boolean supportsRanges = true;
+    /** number of bytes sent in response bodies */
+    private final AtomicLong bytesSent = new AtomicLong();
+    private final AtomicLong notModifiedCount = new AtomicLong();
+
+    private HttpTailInputStream in;
+    private Thread readerThread;
+    private final ByteArrayOutputStream received = new ByteArrayOutputStream();
+    private final Semaphore caughtUp = new Semaphore(0);
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/gc.log", this::handle);
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (in != null) {
+            in.close();
+        }
+        if (readerThread != null) {
+            readerThread.join(5000);
+        }
+        server.stop(0);
+    }
+
+    @Test
+    public void appendedDataIsRequestedAsRange() throws Exception {
+        content = bytes("first\n");
+        startReading();
+        assertThat("first", waitForContent("first\n"), is("first\n"));
+
+        content = bytes("first\nsecond\n");
+        assertThat("second", waitForContent("first\nsecond\n"), is("first\nsecond\n"));
+        assertThat("range requests", in.getRangeRequestCount(), is(1L));
+        assertThat("bytes sent", bytesSent.get(), is((long) "first\nsecond\n".length()));
+    }
+
+    @Test
+    public void unchangedFileIsNotDownloaded() throws Exception {
+        content = bytes("first\n");
+        startReading();
+        assertThat("first", waitForContent("first\n"), is("first\n"));
+
+        long timeout = System.currentTimeMillis() + 5000;
+        while (notModifiedCount.get() == 0 && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        assertThat("not modified", notModifiedCount.get(), greaterThan(0L));
+        assertThat("bytes sent", bytesSent.get(), is((long) "first\n".length()));
+    }
+
+    @Test
+    public void serverWithoutRanges() throws Exception {
+        supportsRanges = false;
+        content = bytes("first\n");
+        startReading();
+        assertThat("first", waitForContent("first\n"), is("first\n"));
+
+        content = bytes("first\nsecond\n");
+        assertThat("second", waitForContent("first\nsecond\n"), is("first\nsecond\n"));
+        assertThat("range requests", in.getRangeRequestCount(), is(0L));
+    }
+
+    @Test
+    public void truncatedFileIsReadFromStart() throws Exception {
+        content = bytes("first line\n");
+        startReading();
+        assertThat("first", waitForContent("first line\n"), is("first line\n"));
+
+        content = bytes("new\n");
+        assertThat("after truncation", waitForContent("first line\nnew\n"), is("first line\nnew\n"));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] data = content;
+        String eTag = "\"" + data.length + "\"";
+        exchange.getResponseHeaders().set("ETag", eTag);
+        if (eTag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModifiedCount.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        int start = 0;
+        int status = 200;
+        if (supportsRanges && range != null) {
+            start = Integer.parseInt(range.substring("bytes=".length(), range.length() - 1));
+            if (start >= data.length) {
+                exchange.getResponseHeaders().set("Content-Range", "bytes */" + data.length);
+                exchange.sendResponseHeaders(416, -1);
+                exchange.close();
+                return;
+            }
+            status = 206;
+            exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + (data.length - 1) + "/" + data.length);
+        }
+
+        exchange.sendResponseHeaders(status, data.length - start);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(data, start, data.length - start);
+        }
+        bytesSent.addAndGet(data.length - start);
+    }
+
+    private void startReading() throws IOException {
+        URL url = new URL("http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":"
+                + server.getAddress().getPort() + "/gc.log");
+        in = new HttpTailInputStream(url, Logger.getLogger(TestHttpTailInputStream.class.getName()));
+        in.setPollInterval(10);
+        in.setCaughtUpListener(caughtUp::release);
+        readerThread = new Thread(() -> {
+            byte[] buffer = new byte[16];
+            try {
+                int n;
+                while ((n = in.read(buffer, 0, buffer.length)) >= 0) {
+                    synchronized (received) {
+                        received.write(buffer, 0, n);
+                    }
+                }
+            }
+            catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    /**
+     * Waits until the reader has caught up with <code>expected</code> content.
+     */
+    private String waitForContent(String expected) throws InterruptedException {
+        long timeout = System.currentTimeMillis() + 10000;
+        String actual;
+        do {
+            caughtUp.tryAcquire(Math.max(1, timeout - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            synchronized (received) {
+                actual = new String(received.toByteArray(), StandardCharsets.US_ASCII);
+            }
+        } while (!actual.equals(expected) && System.currentTimeMillis() < timeout);
+
+        return actual;
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
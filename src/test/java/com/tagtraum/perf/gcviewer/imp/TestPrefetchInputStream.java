@@ -0,0 +1,148 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import com.tagtraum.perf.gcviewer.UnittestHelper;
+import com.tagtraum.perf.gcviewer.UnittestHelper.FOLDER;
+import org.junit.Test;
+
+/**
+ * Tests {@link PrefetchInputStream}.
+ */
+public class TestPrefetchInputStream {
+    private static final String SAMPLE_FILE = "SampleSun1_6_0G1_gc_verbose.txt";
+    private static final String SAMPLE_FILE_GZ = "SampleSun1_6_0PrintHeapAtGC.txt.gz";
+
+    @Test
+    public void contentIsReadAhead() throws Exception {
+        byte[] content = readSample(SAMPLE_FILE);
+        PrefetchInputStream in = PrefetchInputStream.start(new ByteArrayInputStream(content), content.length);
+
+        assertThat("content", readFully(in), is(content));
+    }
+
+    @Test
+    public void gzippedContentIsDecompressed() throws Exception {
+        byte[] compressedContent = readSample(SAMPLE_FILE_GZ);
+        byte[] content;
+        try (InputStream gzipIn = new GZIPInputStream(new ByteArrayInputStream(compressedContent))) {
+            content = readFully(gzipIn);
+        }
+
+        PrefetchInputStream in = PrefetchInputStream.start(new ByteArrayInputStream(compressedContent), compressedContent.length);
+
+        assertThat("content", readFully(in), is(content));
+    }
+
+    @Test
+    public void progressIsFiredOnReadingThread() throws Exception {
+        byte[] content = readSample(SAMPLE_FILE);
+        List<Integer> progress = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        PrefetchInputStream in = PrefetchInputStream.start(new ByteArrayInputStream(content), content.length);
+        in.addPropertyChangeListener(evt -> {
+            progress.add((Integer) evt.getNewValue());
+            threads.add(Thread.currentThread());
+        });
+
+        readFully(in);
+
+        assertThat("number of progress events", progress.size(), greaterThan(0));
+        assertThat("last progress", progress.get(progress.size() - 1), is(100));
+        for (Thread thread : threads) {
+            assertThat("thread", thread, is(Thread.currentThread()));
+        }
+    }
+
+    @Test
+    public void failureIsRethrownAfterDataRead() throws Exception {
+        PrefetchInputStream in = new PrefetchInputStream(4, 2);
+        InputStream source = new InputStream() {
+            private int count;
+
+            @Override
+            public int read() throws IOException {
+                if (count == 6) {
+                    throw new IOException("broken");
+                }
+                return 'a' + count++;
+            }
+        };
+        Thread producer = new Thread(() -> in.transfer(source));
+        producer.start();
+
+        byte[] buffer = new byte[4];
+        assertThat("first chunk", in.read(buffer), is(4));
+        try {
+            in.read(buffer);
+            fail("IOException expected");
+        }
+        catch (IOException e) {
+            assertThat("message", e.getMessage(), is("broken"));
+        }
+        producer.join(5000);
+    }
+
+    @Test
+    public void singleBytesAcrossChunks() throws Exception {
+        byte[] content = new byte[] { 1, (byte) 0xff, 3, (byte) 0x80, 5, 6, 7 };
+        PrefetchInputStream in = new PrefetchInputStream(3, 1);
+        Thread producer = new Thread(() -> in.transfer(new ByteArrayInputStream(content)));
+        producer.start();
+
+        for (byte expected : content) {
+            assertThat("byte", in.read(), is(expected & 0xff));
+        }
+        assertThat("end of stream", in.read(), is(-1));
+        producer.join(5000);
+    }
+
+    @Test
+    public void closeStopsProducer() throws Exception {
+        PrefetchInputStream in = new PrefetchInputStream(4, 2);
+        InputStream endlessSource = new InputStream() {
+            @Override
+            public int read() {
+                return 'a';
+            }
+        };
+        Thread producer = new Thread(() -> in.transfer(endlessSource));
+        producer.start();
+
+        assertThat("first byte", in.read(), is((int) 'a'));
+        in.close();
+        producer.join(5000);
+
+        assertThat("producer stopped", producer.isAlive(), is(false));
+        assertThat("end of stream after close", in.read(), is(-1));
+    }
+
+    private static byte[] readSample(String name) throws Exception {
+        return Files.readAllBytes(Paths.get(UnittestHelper.getResource(FOLDER.OPENJDK, name).toURI()));
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1000];
+        int n;
+        while ((n = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, n);
+        }
+
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,175 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import com.sun.net.httpserver.HttpServer;
+import com.tagtraum.perf.gcviewer.UnittestHelper;
+import com.tagtraum.perf.gcviewer.UnittestHelper.FOLDER;
+import com.tagtraum.perf.gcviewer.model.GCModel;
+import com.tagtraum.perf.gcviewer.model.GcResourceFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link RemoteLogFetcher} with an embedded http server. Virtual threads are used, if the jvm
+ * running the tests supports them.
+ */
+public class TestRemoteLogFetcher {
+    private static final String SAMPLE_FILE = "SampleSun1_6_0G1_gc_verbose.txt";
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private RemoteLogFetcher fetcher;
+    private byte[] content;
+
+    @Before
+    public void setUp() throws Exception {
+        content = Files.readAllBytes(Paths.get(UnittestHelper.getResource(FOLDER.OPENJDK, SAMPLE_FILE).toURI()));
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/" + SAMPLE_FILE, exchange -> {
+            exchange.sendResponseHeaders(200, content.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(content);
+            }
+        });
+        server.createContext("/" + SAMPLE_FILE + ".gz", exchange -> {
+            ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+            try (OutputStream out = new GZIPOutputStream(gzipped)) {
+                out.write(content);
+            }
+            exchange.sendResponseHeaders(200, gzipped.size());
+            try (OutputStream out = exchange.getResponseBody()) {
+                gzipped.writeTo(out);
+            }
+        });
+        server.createContext("/missing.log", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+
+        executor = createExecutor();
+        fetcher = new RemoteLogFetcher(executor);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+        System.clearProperty(RemoteLogFetcher.PROPERTY_VIRTUAL_THREADS);
+    }
+
+    @Test
+    public void contentIsDownloaded() throws Exception {
+        AtomicLong contentLength = new AtomicLong();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = fetcher.open(getUrl(SAMPLE_FILE), contentLength)) {
+            byte[] buffer = new byte[1000];
+            int n;
+            while ((n = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, n);
+            }
+        }
+
+        assertThat("content length", contentLength.get(), is((long) content.length));
+        assertThat("content", out.toByteArray(), is(content));
+    }
+
+    @Test
+    public void gzippedContentIsDecompressed() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = fetcher.open(getUrl(SAMPLE_FILE + ".gz"), new AtomicLong())) {
+            // parsed directly without another read ahead stage
+            assertThat("stream", in, instanceOf(PrefetchInputStream.class));
+            byte[] buffer = new byte[1000];
+            int n;
+            while ((n = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, n);
+            }
+        }
+
+        assertThat("content", out.toByteArray(), is(content));
+    }
+
+    @Test
+    public void errorOfServer() throws Exception {
+        try {
+            fetcher.open(getUrl("missing.log"), new AtomicLong());
+            fail("IOException expected");
+        }
+        catch (IOException e) {
+            assertThat("message", e.getMessage().startsWith("Server sent 404"), is(true));
+        }
+    }
+
+    @Test
+    public void closeBeforeEndOfDownload() throws Exception {
+        InputStream in = fetcher.open(getUrl(SAMPLE_FILE), new AtomicLong());
+        assertThat("first byte", in.read(), is(content[0] & 0xff));
+
+        in.close();
+
+        assertThat("end of stream after close", in.read(), is(-1));
+    }
+
+    @Test
+    public void loadModelOverHttp() throws Exception {
+        GCModel expectedModel = new DataReaderFacade().loadModel(
+                new GcResourceFile(UnittestHelper.getResource(FOLDER.OPENJDK, SAMPLE_FILE).getPath()));
+
+        System.setProperty(RemoteLogFetcher.PROPERTY_VIRTUAL_THREADS, "true");
+        DataReaderFacade dataReaderFacade = new DataReaderFacade();
+        List<Object> progress = new ArrayList<>();
+        dataReaderFacade.addPropertyChangeListener(evt -> {
+            if (DataReaderFacade.PROGRESS.equals(evt.getPropertyName())) {
+                progress.add(evt.getNewValue());
+            }
+        });
+        GCModel model = dataReaderFacade.loadModel(new GcResourceFile(getUrl(SAMPLE_FILE).toString()));
+
+        assertThat("size", model.size(), is(expectedModel.size()));
+        assertThat("pause", model.getPause().getSum(), is(expectedModel.getPause().getSum()));
+        assertThat("progress at end", progress.get(progress.size() - 1), is(100));
+    }
+
+    @Test
+    public void getInstanceNotEnabled() throws Exception {
+        assertThat("instance", RemoteLogFetcher.getInstance(), nullValue());
+    }
+
+    private URL getUrl(String file) throws IOException {
+        return new URL("http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":"
+                + server.getAddress().getPort() + "/" + file);
+    }
+
+    private static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.tagtraum.perf.gcviewer.imp;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests {@link TailInputStream}.
+ */
+public class TestTailInputStream {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private TailInputStream in;
+    private Thread readerThread;
+    private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+    private final Semaphore caughtUp = new Semaphore(0);
+    private volatile boolean endOfStream;
+
+    @After
+    public void tearDown() throws Exception {
+        if (in != null) {
+            in.close();
+        }
+        if (readerThread != null) {
+            readerThread.join(5000);
+        }
+    }
+
+    @Test
+    public void appendedDataIsRead() throws Exception {
+        Path file = write(folder.getRoot().toPath().resolve("gc.log"), "first\n", StandardOpenOption.CREATE_NEW);
+        startReading(file, LogFileWatcher.getInstance());
+        assertThat("first", waitForContent("first\n"), is("first\n"));
+
+        write(file, "second\n", StandardOpenOption.APPEND);
+        assertThat("second", waitForContent("first\nsecond\n"), is("first\nsecond\n"));
+    }
+
+    @Test
+    public void appendedDataIsReadWithoutWatcher() throws Exception {
+        Path file = write(folder.getRoot().toPath().resolve("gc.log"), "first\n", StandardOpenOption.CREATE_NEW);
+        startReading(file, new LogFileWatcher(null));
+        assertThat("first", waitForContent("first\n"), is("first\n"));
+
+        write(file, "second\n", StandardOpenOption.APPEND);
+        assertThat("second", waitForContent("first\nsecond\n"), is("first\nsecond\n"));
+    }
+
+    @Test
+    public void truncatedFileIsReadFromStart() throws Exception {
+        Path file = write(folder.getRoot().toPath().resolve("gc.log"), "first line\n", StandardOpenOption.CREATE_NEW);
+        startReading(file, LogFileWatcher.getInstance());
+        assertThat("first", waitForContent("first line\n"), is("first line\n"));
+
+        write(file, "new\n", StandardOpenOption.TRUNCATE_EXISTING);
+        assertThat("after truncation", waitForContent("first line\nnew\n"), is("first line\nnew\n"));
+    }
+
+    @Test
+    public void rotatedFileIsFollowed() throws Exception {
+        Path file0 = write(folder.getRoot().toPath().resolve("gc.log.0.current"), "first\n", StandardOpenOption.CREATE_NEW);
+        startReading(file0, LogFileWatcher.getInstance());
+        assertThat("first", waitForContent("first\n"), is("first\n"));
+
+        // same sequence as the jvm: end marker, rename of the old file, new file
+        String end = "2016-01-01T00:00:00.000+0100: " + AbstractDataReaderSun.LOGFILE_ROLLING_END + " \"gc.log.0\"\n";
+        write(file0, end, StandardOpenOption.APPEND);
+        Files.move(file0, folder.getRoot().toPath().resolve("gc.log.0"));
+        Path file1 = write(folder.getRoot().toPath().resolve("gc.log.1.current"), "second\n", StandardOpenOption.CREATE_NEW);
+
+        assertThat("rotated", waitForContent("first\n" + end + "second\n"), is("first\n" + end + "second\n"));
+        assertThat("path", in.getPath(), is(file1));
+    }
+
+    @Test
+    public void closeEndsStream() throws Exception {
+        Path file = write(folder.getRoot().toPath().resolve("gc.log"), "first\n", StandardOpenOption.CREATE_NEW);
+        startReading(file, LogFileWatcher.getInstance());
+        assertThat("first", waitForContent("first\n"), is("first\n"));
+
+        in.close();
+        readerThread.join(5000);
+        assertThat("end of stream", endOfStream, is(true));
+    }
+
+    private Path write(Path file, String text, StandardOpenOption option) throws IOException {
+        return Files.write(file, text.getBytes(StandardCharsets.US_ASCII), option, StandardOpenOption.WRITE);
+    }
+
+    private void startReading(Path file, LogFileWatcher watcher) throws IOException {
+        in = new TailInputStream(file, watcher, Logger.getLogger(TestTailInputStream.class.getName()));
+        in.setMinReadInterval(0);
+        in.setCaughtUpListener(caughtUp::release);
+        readerThread = new Thread(() -> {
+            byte[] buffer = new byte[16];
+            try {
+                int n;
+                while ((n = in.read(buffer, 0, buffer.length)) >= 0) {
+                    synchronized (content) {
+                        content.write(buffer, 0, n);
+                    }
+                }
+                endOfStream = true;
+            }
+            catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    /**
+     * Waits until the reader has caught up with <code>expected</code> content (several writes to the file
+     * may be read separately).
+     */
+    private String waitForContent(String expected) throws InterruptedException {
+        long timeout = System.currentTimeMillis() + 10000;
+        String actual;
+        do {
+            caughtUp.tryAcquire(Math.max(1, timeout - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            synchronized (content) {
+                actual = new String(content.toByteArray(), StandardCharsets.US_ASCII);
+            }
+        } while (!actual.equals(expected) && System.currentTimeMillis() < timeout);
+
+        return actual;
+    }
+}
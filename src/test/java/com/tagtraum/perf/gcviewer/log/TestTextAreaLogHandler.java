@@ -0,0 +1,124 @@
+package com.tagtraum.perf.gcviewer.log;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.swing.SwingUtilities;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the class {@link TextAreaLogHandler}.
+ */
+public class TestTextAreaLogHandler {
+
+    private TextAreaLogHandler handler;
+    private Logger logger;
+
+    @Before
+    public void setUp() {
+        handler = new TextAreaLogHandler();
+        logger = Logger.getLogger("TestTextAreaLogHandler" + System.nanoTime());
+        logger.setUseParentHandlers(false);
+        logger.addHandler(handler);
+    }
+
+    private String flushAndGetText() throws Exception {
+        AtomicReference<String> text = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> {
+            handler.flush();
+            text.set(handler.getTextArea().getText());
+        });
+        return text.get();
+    }
+
+    @Test
+    public void template() {
+        assertThat(TextAreaLogHandler.getTemplate("Failed to parse line number 12 (no match; line=\"[0.005s] foo\")"),
+                equalTo("Failed to parse line number # (no match; line=..."));
+        assertThat(TextAreaLogHandler.getTemplate("Expected memory and pause in the end of line number 3456 (line=\"x\")"),
+                equalTo(TextAreaLogHandler.getTemplate("Expected memory and pause in the end of line number 7 (line=\"y\")")));
+        assertThat(TextAreaLogHandler.getTemplate("Unknown gc type Line 17: 2.345: [GC"),
+                equalTo("Unknown gc type Line #: ..."));
+    }
+
+    @Test
+    public void repeatedWarningsAreAggregated() throws Exception {
+        for (int i = 1; i <= 10000; i++) {
+            logger.warning(String.format("Failed to parse line number %d (no match; line=\"%d: unknown\")", i, i));
+        }
+        logger.info("done");
+
+        String text = flushAndGetText();
+        assertThat("first occurrence", text, containsString("Failed to parse line number 1 (no match; line=\"1: unknown\")"));
+        assertThat("second occurrence", text, not(containsString("line number 2 (no match")));
+        assertThat("info", text, containsString("done"));
+        assertThat("summary", text, containsString("9999 more times: Failed to parse line number # (no match; line=..."));
+        assertThat("sample line numbers", text, containsString("(line numbers 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, ...)"));
+        assertThat("error count", handler.getErrorCount(), equalTo(10000));
+        assertThat("line count", text.split("\n").length, equalTo(3));
+    }
+
+    @Test
+    public void pendingRecordsAreBounded() throws Exception {
+        // block the event dispatch thread, so that no flush can happen while the records are published
+        CountDownLatch edtBlocked = new CountDownLatch(1);
+        CountDownLatch recordsPublished = new CountDownLatch(1);
+        SwingUtilities.invokeLater(() -> {
+            edtBlocked.countDown();
+            try {
+                recordsPublished.await(10, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat("event dispatch thread blocked", edtBlocked.await(10, TimeUnit.SECONDS), equalTo(true));
+
+        try {
+            for (int i = 0; i < TextAreaLogHandler.MAX_PENDING_RECORDS + 10; i++) {
+                logger.info("message");
+            }
+        }
+        finally {
+            recordsPublished.countDown();
+        }
+
+        String text = flushAndGetText();
+        assertThat("dropped", text, containsString("... 10 messages not shown ..."));
+        assertThat("lines", text.split("\n").length, equalTo(TextAreaLogHandler.MAX_PENDING_RECORDS + 1));
+    }
+
+    @Test
+    public void reset() throws Exception {
+        logger.warning("Failed to parse line number 1");
+        logger.warning("Failed to parse line number 2");
+        SwingUtilities.invokeAndWait(() -> handler.reset());
+
+        assertThat("text", flushAndGetText(), equalTo(""));
+        assertThat("error count", handler.getErrorCount(), equalTo(0));
+        assertThat("has errors", handler.hasErrors(), equalTo(false));
+    }
+
+    @Test
+    public void flushFromOtherThread() throws Exception {
+        logger.warning("Failed to parse line number 1");
+        logger.warning("Failed to parse line number 2");
+        handler.flush();
+
+        // flush posted to the event dispatch thread is done, when the next event is processed
+        AtomicReference<String> text = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> text.set(handler.getTextArea().getText()));
+        assertThat("text", text.get(), containsString("1 more times"));
+    }
+
+}
@@ -28,4 +28,66 @@ public class TestDoubleData {
         assertEquals("Simple std deviation", 1.1547005383792515, doubleData.standardDeviation(), 0.0000001);
     }
 
+    @Test
+    public void varianceIsStableForLargeValues() throws Exception {
+        DoubleData doubleData = new DoubleData();
+        for (int i = 0; i < 1000; i++) {
+            doubleData.add(1e9 + (i % 2));
+        }
+
+        assertEquals("variance", 0.25025025025, doubleData.variance(), 0.0000001);
+    }
+
+    @Test
+    public void mergeEqualsSequentialAdd() throws Exception {
+        DoubleData all = new DoubleData();
+        DoubleData first = new DoubleData();
+        DoubleData second = new DoubleData();
+        for (int i = 0; i < 100; i++) {
+            double x = Math.sin(i) * 10 + 5;
+            all.add(x);
+            if (i < 30) {
+                first.add(x);
+            }
+            else {
+                second.add(x);
+            }
+        }
+
+        first.merge(second);
+        assertEquals("n", all.getN(), first.getN());
+        assertEquals("sum", all.getSum(), first.getSum(), 0.0000001);
+        assertEquals("average", all.average(), first.average(), 0.0000001);
+        assertEquals("variance", all.variance(), first.variance(), 0.0000001);
+        assertEquals("min", all.getMin(), first.getMin(), 0.0);
+        assertEquals("max", all.getMax(), first.getMax(), 0.0);
+    }
+
+    @Test
+    public void mergeIntoEmpty() throws Exception {
+        DoubleData doubleData = new DoubleData();
+        doubleData.add(1);
+        doubleData.add(3);
+
+        DoubleData empty = new DoubleData();
+        empty.merge(doubleData);
+        assertEquals("average", 2, empty.average(), 0.0);
+        assertEquals("variance", 2, empty.variance(), 0.0);
+    }
+
+    @Test
+    public void weightedAdd() throws Exception {
+        DoubleData weighted = new DoubleData();
+        weighted.add(1, 2);
+        weighted.add(4, 1);
+
+        DoubleData single = new DoubleData();
+        single.add(1);
+        single.add(1);
+        single.add(4);
+
+        assertEquals("average", single.average(), weighted.average(), 0.0000001);
+        assertEquals("variance", single.variance(), weighted.variance(), 0.0000001);
+    }
+
 }
@@ -0,0 +1,120 @@
+package com.tagtraum.perf.gcviewer.math;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link DoubleDataSketch}.
+ */
+public class TestDoubleDataSketch {
+
+    @Test
+    public void percentilesWithinRelativeAccuracy() throws Exception {
+        Random random = new Random(3);
+        DoubleDataSketch sketch = new DoubleDataSketch();
+        double[] values = new double[10000];
+        for (int i = 0; i < values.length; ++i) {
+            // pauses from 0.1 ms to 10 sec
+            values[i] = Math.pow(10, -4 + random.nextDouble() * 5);
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double percentile : new double[] { 1, 10, 50, 90, 99, 99.9 }) {
+            double expected = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            assertThat("percentile " + percentile, sketch.getPercentile(percentile), closeTo(expected, expected * 0.01));
+        }
+        assertThat("max", sketch.getPercentile(100), closeTo(values[values.length - 1], 0.0));
+        assertThat("n", sketch.getN(), is(values.length));
+    }
+
+    @Test
+    public void zeroValues() throws Exception {
+        DoubleDataSketch sketch = new DoubleDataSketch();
+        sketch.add(0);
+        sketch.add(0);
+        sketch.add(0.5);
+
+        assertThat("median", sketch.getPercentile(50), closeTo(0, 0.0));
+        assertThat("max", sketch.getPercentile(100), closeTo(0.5, 0.0));
+    }
+
+    @Test
+    public void mergeSameAsAdd() throws Exception {
+        DoubleDataSketch first = new DoubleDataSketch();
+        DoubleDataSketch second = new DoubleDataSketch();
+        DoubleDataSketch all = new DoubleDataSketch();
+        for (int i = 1; i <= 100; ++i) {
+            (i % 2 == 0 ? first : second).add(i * 0.01);
+            all.add(i * 0.01);
+        }
+        // second sketch has buckets below the first one
+        second.add(0.0001);
+        all.add(0.0001);
+
+        first.merge(second);
+
+        assertThat("n", first.getN(), is(all.getN()));
+        for (double percentile : new double[] { 10, 50, 90 }) {
+            assertThat("percentile " + percentile, first.getPercentile(percentile), closeTo(all.getPercentile(percentile), 0.0));
+        }
+        assertThat("same distribution", DoubleDataSketch.getKolmogorovSmirnovStatistic(first, all), closeTo(0, 0.0));
+    }
+
+    @Test
+    public void kolmogorovSmirnov() throws Exception {
+        Random random = new Random(11);
+        DoubleDataSketch first = new DoubleDataSketch();
+        DoubleDataSketch sameDistribution = new DoubleDataSketch();
+        DoubleDataSketch shifted = new DoubleDataSketch();
+        for (int i = 0; i < 2000; ++i) {
+            first.add(0.05 + random.nextDouble() * 0.1);
+            sameDistribution.add(0.05 + random.nextDouble() * 0.1);
+            shifted.add(0.07 + random.nextDouble() * 0.1);
+        }
+
+        double statistic = DoubleDataSketch.getKolmogorovSmirnovStatistic(first, sameDistribution);
+        assertThat("same: statistic", statistic, lessThan(0.05));
+        assertThat("same: probability",
+                DoubleDataSketch.getKolmogorovSmirnovProbability(statistic, first.getN(), sameDistribution.getN()),
+                greaterThan(0.05));
+
+        statistic = DoubleDataSketch.getKolmogorovSmirnovStatistic(first, shifted);
+        assertThat("shifted: statistic", statistic, closeTo(0.2, 0.05));
+        assertThat("shifted: probability",
+                DoubleDataSketch.getKolmogorovSmirnovProbability(statistic, first.getN(), shifted.getN()),
+                lessThan(0.001));
+    }
+
+    @Test
+    public void mergePlainDoubleDataIsRejected() throws Exception {
+        DoubleDataSketch sketch = new DoubleDataSketch();
+        sketch.add(1);
+        DoubleData plain = new DoubleData();
+        plain.add(100);
+        try {
+            sketch.merge(plain);
+            fail("IllegalArgumentException expected");
+        }
+        catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        assertThat("n", sketch.getN(), is(1));
+        assertThat("median", sketch.getPercentile(50), closeTo(1, 0.01));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void differentAccuracy() throws Exception {
+        DoubleDataSketch.getKolmogorovSmirnovStatistic(new DoubleDataSketch(0.01), new DoubleDataSketch(0.02));
+    }
+}
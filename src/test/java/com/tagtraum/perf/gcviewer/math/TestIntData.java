@@ -31,4 +31,38 @@ public class TestIntData {
         assertEquals("Simple std deviation", 1.1547005383792515, intData.standardDeviation(), 0.0000001);
     }
 
+    @Test
+    public void mergeEqualsSequentialAdd() throws Exception {
+        IntData all = new IntData();
+        IntData first = new IntData();
+        IntData second = new IntData();
+        for (int i = 0; i < 100; i++) {
+            int x = 1_000_000 + (i * 7919) % 113;
+            all.add(x);
+            if (i < 60) {
+                first.add(x);
+            }
+            else {
+                second.add(x);
+            }
+        }
+
+        first.merge(second);
+        assertEquals("n", all.getN(), first.getN());
+        assertEquals("sum", all.getSum(), first.getSum());
+        assertEquals("variance", all.variance(), first.variance(), 0.0000001);
+        assertEquals("min", all.getMin(), first.getMin());
+        assertEquals("max", all.getMax(), first.getMax());
+    }
+
+    @Test
+    public void mergeEmpty() throws Exception {
+        IntData intData = new IntData();
+        intData.add(2);
+        intData.merge(new IntData());
+
+        assertEquals("n", 1, intData.getN());
+        assertEquals("min", 2, intData.getMin());
+    }
+
 }
@@ -20,4 +20,35 @@ public class TestRegressionLine {
         assertEquals("Simple regression line slope test", 1.0, RegressionLine.slope(x, y), 0.0);
     }
 
+    @Test
+    public void slopeOfPoints() throws Exception {
+        RegressionLine line = new RegressionLine();
+        line.addPoint(1e6, 3);
+        line.addPoint(1e6 + 1, 5);
+        line.addPoint(1e6 + 2, 7);
+
+        assertEquals("slope", 2.0, line.slope(), 0.0000001);
+    }
+
+    @Test
+    public void mergeEqualsSequentialAdd() throws Exception {
+        RegressionLine all = new RegressionLine();
+        RegressionLine first = new RegressionLine();
+        RegressionLine second = new RegressionLine();
+        for (int i = 0; i < 50; i++) {
+            double y = 3 * i + Math.cos(i);
+            all.addPoint(i, y);
+            if (i < 20) {
+                first.addPoint(i, y);
+            }
+            else {
+                second.addPoint(i - 20, y);
+            }
+        }
+
+        first.merge(second, 20);
+        assertEquals("point count", all.getPointCount(), first.getPointCount());
+        assertEquals("slope", all.slope(), first.slope(), 0.0000001);
+    }
+
 }
@@ -0,0 +1,73 @@
+package com.tagtraum.perf.gcviewer.math;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link SlidingWindow} against recomputing every window from scratch.
+ */
+public class TestSlidingWindow {
+
+    @Test
+    public void aggregatesOfWindow() throws Exception {
+        SlidingWindow window = new SlidingWindow(10);
+        window.add(0, 5);
+        window.add(4, 2);
+        window.add(8, 3);
+
+        assertEquals("count", 3, window.getCount());
+        assertEquals("sum", 10, window.getSum(), 0.0000001);
+        assertEquals("max", 5, window.getMax(), 0.0);
+
+        window.add(12, 1);
+        assertEquals("count after eviction", 3, window.getCount());
+        assertEquals("sum after eviction", 6, window.getSum(), 0.0000001);
+        assertEquals("max after eviction", 3, window.getMax(), 0.0);
+
+        window.advanceTo(30);
+        assertEquals("count of empty window", 0, window.getCount());
+        assertEquals("sum of empty window", 0, window.getSum(), 0.0);
+        assertEquals("max of empty window", 0, window.getMax(), 0.0);
+    }
+
+    @Test
+    public void sameAsBruteForce() throws Exception {
+        Random random = new Random(42);
+        int n = 5000;
+        double[] timestamps = new double[n];
+        double[] values = new double[n];
+        double timestamp = 0;
+        for (int i = 0; i < n; ++i) {
+            // bursts of values force the ring buffers to grow while they wrap around
+            timestamp += random.nextInt(10) == 0 ? random.nextDouble() * 20 : random.nextDouble() * 0.1;
+            timestamps[i] = timestamp;
+            values[i] = random.nextDouble() * 100;
+        }
+
+        SlidingWindow window = new SlidingWindow(5);
+        for (int i = 0; i < n; ++i) {
+            window.add(timestamps[i], values[i]);
+
+            int count = 0;
+            double sum = 0;
+            double max = 0;
+            for (int j = i; j >= 0 && timestamps[j] >= timestamps[i] - 5; --j) {
+                ++count;
+                sum += values[j];
+                max = Math.max(max, values[j]);
+            }
+
+            assertEquals("count " + i, count, window.getCount());
+            assertEquals("sum " + i, sum, window.getSum(), 0.000001);
+            assertEquals("max " + i, max, window.getMax(), 0.0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidWidth() throws Exception {
+        new SlidingWindow(0);
+    }
+}
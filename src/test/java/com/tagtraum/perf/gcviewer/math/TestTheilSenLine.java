@@ -0,0 +1,58 @@
+package com.tagtraum.perf.gcviewer.math;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link TheilSenLine}.
+ */
+public class TestTheilSenLine {
+
+    @Test
+    public void outliersDontInfluenceSlope() throws Exception {
+        TheilSenLine line = new TheilSenLine();
+        RegressionLine leastSquares = new RegressionLine();
+        for (int i = 0; i < 100; i++) {
+            double y = 2 * i + 10 + (i % 10 == 0 ? 1000 : 0);
+            line.addPoint(i, y);
+            leastSquares.addPoint(i, y);
+        }
+
+        assertEquals("slope", 2.0, line.slope(), 0.0000001);
+        assertEquals("intercept", 10.0, line.intercept(), 0.0000001);
+        assertTrue("least squares slope is influenced", Math.abs(leastSquares.slope() - 2.0) > 0.1);
+    }
+
+    @Test
+    public void sampleIsBounded() throws Exception {
+        TheilSenLine line = new TheilSenLine(16);
+        for (int i = 0; i < 1000; i++) {
+            line.addPoint(i, 3 * i);
+        }
+
+        assertEquals("point count", 1000, line.getPointCount());
+        assertTrue("sample size " + line.getSampleSize(), line.getSampleSize() <= 16 && line.getSampleSize() >= 8);
+        assertEquals("first point", 0.0, line.getSampleX(0), 0.0);
+        double stride = line.getSampleX(1) - line.getSampleX(0);
+        for (int i = 1; i < line.getSampleSize(); i++) {
+            assertEquals("equidistant sample " + i, stride, line.getSampleX(i) - line.getSampleX(i - 1), 0.0);
+        }
+        assertEquals("slope", 3.0, line.slope(), 0.0000001);
+    }
+
+    @Test
+    public void noLine() throws Exception {
+        TheilSenLine line = new TheilSenLine();
+        assertFalse("has points", line.hasPoints());
+        assertTrue("slope of empty line", Double.isNaN(line.slope()));
+
+        line.addPoint(1, 1);
+        line.addPoint(1, 2);
+        assertFalse("is line", line.isLine());
+        assertTrue("slope", Double.isNaN(line.slope()));
+        assertTrue("intercept", Double.isNaN(line.intercept()));
+    }
+}
@@ -0,0 +1,116 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Type;
+import com.tagtraum.perf.gcviewer.model.AnomalyDetector.Anomaly;
+import com.tagtraum.perf.gcviewer.model.AnomalyDetector.Kind;
+import org.junit.Test;
+
+/**
+ * Tests {@link AnomalyDetector} (using {@link GCModel#add(AbstractGCEvent)}).
+ */
+public class TestAnomalyDetector {
+
+    private GCEvent createYoungEvent(double timestamp, int total, double pause) {
+        return new GCEvent(timestamp, total / 2, total / 4, total, pause, Type.GC);
+    }
+
+    @Test
+    public void pauseOutlier() throws Exception {
+        GCModel model = new GCModel();
+        for (int i = 0; i < 100; ++i) {
+            double pause = 0.01 + (i % 3) * 0.001;
+            if (i == 5) {
+                // no baseline yet
+                pause = 1;
+            }
+            else if (i == 50) {
+                pause = 0.2;
+            }
+            else if (i == 52) {
+                pause = 0.25;
+            }
+            model.add(createYoungEvent(i, 1000, pause));
+        }
+
+        List<Anomaly> anomalies = model.getAnomalyDetector().getAnomalies();
+        assertThat("number of anomalies", anomalies.size(), is(1));
+        Anomaly anomaly = anomalies.get(0);
+        assertThat("kind", anomaly.getKind(), is(Kind.PAUSE_OUTLIER));
+        assertThat("start", anomaly.getStart(), closeTo(50, 0.0001));
+        assertThat("end", anomaly.getEnd(), closeTo(52.25, 0.0001));
+        assertThat("event count", anomaly.getEventCount(), is(2));
+        assertThat("value", anomaly.getValue(), closeTo(0.25, 0.0001));
+        assertThat("baseline", anomaly.getBaseline(), closeTo(0.011, 0.002));
+    }
+
+    @Test
+    public void footprintGrowth() throws Exception {
+        GCModel model = new GCModel();
+        for (int i = 0; i < 60; ++i) {
+            model.add(createYoungEvent(i, i < 30 ? 1000 : 1500, 0.01));
+        }
+
+        List<Anomaly> anomalies = model.getAnomalyDetector().getAnomalies();
+        assertThat("number of anomalies", anomalies.size(), is(1));
+        Anomaly anomaly = anomalies.get(0);
+        assertThat("kind", anomaly.getKind(), is(Kind.FOOTPRINT_GROWTH));
+        assertThat("start", anomaly.getStart(), closeTo(30, 0.0001));
+        assertThat("event count (step reported once)", anomaly.getEventCount(), is(1));
+        assertThat("value", anomaly.getValue(), closeTo(1500, 0.0001));
+        assertThat("baseline", anomaly.getBaseline(), closeTo(1000, 0.0001));
+    }
+
+    @Test
+    public void fullGcStorm() throws Exception {
+        GCModel model = new GCModel();
+        for (double timestamp : new double[] { 0, 100, 200, 300, 310, 320, 330 }) {
+            model.add(new GCEvent(timestamp, 900, 800, 1000, 0.5, Type.FULL_GC));
+        }
+
+        AnomalyDetector anomalyDetector = model.getAnomalyDetector();
+        assertThat("number of anomalies", anomalyDetector.getAnomalies().size(), is(1));
+        Anomaly anomaly = anomalyDetector.getAnomalies().get(0);
+        assertThat("kind", anomaly.getKind(), is(Kind.FULL_GC_STORM));
+        assertThat("start", anomaly.getStart(), closeTo(300, 0.0001));
+        assertThat("end", anomaly.getEnd(), closeTo(330.5, 0.0001));
+        assertThat("event count", anomaly.getEventCount(), is(4));
+        assertThat("count", anomalyDetector.getAnomalyCount(Kind.FULL_GC_STORM), is(1));
+    }
+
+    @Test
+    public void toSpaceExhausted() throws Exception {
+        GCModel model = new GCModel();
+        model.add(new GCEvent(10, 900, 900, 1000, 0.1, Type.G1_YOUNG_TO_SPACE_EXHAUSTED));
+        model.add(new GCEvent(20, 900, 900, 1000, 0.2, Type.G1_MIXED_TO_SPACE_EXHAUSTED));
+        model.add(new GCEvent(100, 500, 100, 1000, 0.01, Type.G1_YOUNG));
+        model.add(new GCEvent(200, 900, 900, 1000, 0.1, Type.G1_YOUNG_TO_SPACE_OVERFLOW));
+
+        List<Anomaly> anomalies = model.getAnomalyDetector().getAnomalies();
+        assertThat("number of anomalies", anomalies.size(), is(2));
+        assertThat("kind", anomalies.get(0).getKind(), is(Kind.TO_SPACE_EXHAUSTED));
+        assertThat("burst", anomalies.get(0).getEventCount(), is(2));
+        assertThat("burst value", anomalies.get(0).getValue(), closeTo(0.2, 0.0001));
+        assertThat("single", anomalies.get(1).getEventCount(), is(1));
+    }
+
+    @Test
+    public void snapshotNotChangedByLaterEvents() throws Exception {
+        GCModel model = new GCModel();
+        for (int i = 0; i < 30; ++i) {
+            model.add(createYoungEvent(i, 1000, 0.01));
+        }
+        model.add(createYoungEvent(30, 1000, 0.5));
+
+        GCModel snapshot = model.createSnapshot();
+        model.add(createYoungEvent(31, 1000, 0.6));
+
+        assertThat("model", model.getAnomalyDetector().getAnomalies().get(0).getEventCount(), is(2));
+        assertThat("snapshot", snapshot.getAnomalyDetector().getAnomalies().get(0).getEventCount(), is(1));
+    }
+}
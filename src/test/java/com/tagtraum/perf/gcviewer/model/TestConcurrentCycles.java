@@ -0,0 +1,110 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.tagtraum.perf.gcviewer.UnittestHelper;
+import com.tagtraum.perf.gcviewer.UnittestHelper.FOLDER;
+import com.tagtraum.perf.gcviewer.imp.DataReaderFacade;
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Type;
+import com.tagtraum.perf.gcviewer.model.ConcurrentCycles.Phase;
+import org.junit.Test;
+
+/**
+ * Tests {@link ConcurrentCycles}.
+ */
+public class TestConcurrentCycles {
+
+    private ConcurrentGCEvent createConcurrentEvent(double timestamp, int number, Type type, double pause) {
+        ConcurrentGCEvent event = new ConcurrentGCEvent();
+        event.setTimestamp(timestamp);
+        event.setNumber(number);
+        event.setType(type);
+        event.setPause(pause);
+        return event;
+    }
+
+    private GCModel loadModel(String fileName) throws Exception {
+        DataReaderFacade dataReader = new DataReaderFacade();
+        return dataReader.loadModel(new GcResourceFile(UnittestHelper.getResourceAsString(FOLDER.OPENJDK_UJL, fileName)));
+    }
+
+    @Test
+    public void cmsStartEndAndConcurrentModeFailure() throws Exception {
+        GCModel model = new GCModel();
+        model.add(createConcurrentEvent(1, -1, Type.CMS_CONCURRENT_MARK_START, 0));
+        model.add(createConcurrentEvent(1.5, -1, Type.CMS_CONCURRENT_MARK, 0.5));
+        model.add(new GCEvent(1.6, 1000, 500, 2000, 0.01, Type.GC));
+        model.add(createConcurrentEvent(2, -1, Type.CMS_CONCURRENT_SWEEP, 0.3));
+        model.add(createConcurrentEvent(2.1, -1, Type.CMS_CONCURRENT_RESET, 0.05));
+
+        // starts 0.4s after the end of the first cycle, which took 1.1s
+        model.add(createConcurrentEvent(2.5, -1, Type.CMS_CONCURRENT_MARK_START, 0));
+        model.add(new GCEvent(3, 1800, 600, 2000, 0.5, Type.FULL_GC));
+
+        model.add(createConcurrentEvent(10, -1, Type.CMS_CONCURRENT_MARK_START, 0));
+
+        ConcurrentCycles concurrentCycles = ConcurrentCycles.compute(model);
+        assertThat("started", concurrentCycles.getStartedCount(), is(3));
+        assertThat("completed", concurrentCycles.getCycleCount(), is(1));
+        assertThat("interrupted by full gc", concurrentCycles.getInterruptedByFullGcCount(), is(1));
+        assertThat("interrupted rate", concurrentCycles.getInterruptedByFullGcRate(), closeTo(1 / 3.0, 0.0001));
+        assertThat("unfinished", concurrentCycles.getUnfinishedCount(), is(1));
+        assertThat("aborted", concurrentCycles.getAbortedCount(), is(0));
+
+        assertThat("duration", concurrentCycles.getDuration().getSum(), closeTo(1.1, 0.0001));
+        assertThat("pause time", concurrentCycles.getPauseTime().getSum(), closeTo(0.01, 0.0001));
+        assertThat("mutator overlap", concurrentCycles.getMutatorOverlap(), closeTo(1.09, 0.0001));
+        assertThat("marking", concurrentCycles.getPhaseTime(Phase.MARKING).getSum(), closeTo(0.5, 0.0001));
+        assertThat("sweeping", concurrentCycles.getPhaseTime(Phase.SWEEPING).getSum(), closeTo(0.35, 0.0001));
+
+        assertThat("back to back", concurrentCycles.getBackToBackCount(), is(1));
+        assertThat("back to back rate", concurrentCycles.getBackToBackRate(), closeTo(0.5, 0.0001));
+    }
+
+    @Test
+    public void g1NumberedCyclesWithUndoCycle() throws Exception {
+        GCModel model = new GCModel();
+        model.add(createConcurrentEvent(1, 1, Type.UJL_G1_CONCURRENT_MARK_CYCLE, 0));
+        model.add(new GCEvent(1.1, 1000, 500, 2000, 0.02, Type.UJL_PAUSE_YOUNG));
+        model.add(createConcurrentEvent(1.2, 1, Type.UJL_G1_CONCURRENT_MARK_CYCLE, 0.2));
+
+        // never reaches an end marker
+        model.add(createConcurrentEvent(5, 3, Type.UJL_G1_CONCURRENT_UNDO_CYCLE, 0));
+        model.add(createConcurrentEvent(5.01, 3, Type.UJL_G1_CONCURRENT_UNDO_CYCLE, 0.01));
+
+        model.add(createConcurrentEvent(8, 4, Type.UJL_G1_CONCURRENT_MARK_CYCLE, 0));
+        model.add(createConcurrentEvent(8.5, 4, Type.UJL_G1_CONCURRENT_MARK_CYCLE, 0.5));
+
+        ConcurrentCycles concurrentCycles = ConcurrentCycles.compute(model);
+        assertThat("started", concurrentCycles.getStartedCount(), is(3));
+        assertThat("completed", concurrentCycles.getCycleCount(), is(2));
+        assertThat("aborted", concurrentCycles.getAbortedCount(), is(1));
+        assertThat("max duration", concurrentCycles.getDuration().getMax(), closeTo(0.5, 0.0001));
+        assertThat("mutator overlap", concurrentCycles.getMutatorOverlap(), closeTo(0.18 + 0.5, 0.0001));
+        assertThat("cycle markers are no phases", concurrentCycles.getPhaseTime(Phase.MARKING).getSum(), closeTo(0, 0.0001));
+        assertThat("back to back", concurrentCycles.getBackToBackCount(), is(0));
+    }
+
+    @Test
+    public void shenandoahCycle() throws Exception {
+        ConcurrentCycles concurrentCycles = ConcurrentCycles.compute(loadModel("Sample-ujl-shenandoah-jdk17.txt"));
+
+        assertThat("completed", concurrentCycles.getCycleCount(), is(1));
+        assertThat("started", concurrentCycles.getStartedCount(), is(1));
+        // from the start of "Concurrent reset" to the end of "Pause Final Update Refs"
+        assertThat("duration", concurrentCycles.getDuration().getSum(), closeTo(1.957 + 0.000099 - (1.491 - 0.025172), 0.000001));
+        assertThat("relocation", concurrentCycles.getPhaseTime(Phase.RELOCATION).getSum(), closeTo(0.223805, 0.000001));
+    }
+
+    @Test
+    public void zgcCycle() throws Exception {
+        ConcurrentCycles concurrentCycles = ConcurrentCycles.compute(loadModel("sample-ujl-zgc-gc-all.txt"));
+
+        assertThat("completed", concurrentCycles.getCycleCount(), is(1));
+        assertThat("unfinished", concurrentCycles.getUnfinishedCount(), is(0));
+        assertThat("marking", concurrentCycles.getPhaseTime(Phase.MARKING).getSum(), closeTo(0.005216, 0.000001));
+        assertThat("relocation", concurrentCycles.getPhaseTime(Phase.RELOCATION).getSum(), closeTo(0.007534, 0.000001));
+    }
+}
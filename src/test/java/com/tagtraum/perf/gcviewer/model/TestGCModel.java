@@ -17,6 +17,8 @@ import com.tagtraum.perf.gcviewer.UnittestHelper.FOLDER;
 import com.tagtraum.perf.gcviewer.imp.DataReaderException;
 import com.tagtraum.perf.gcviewer.imp.DataReaderFacade;
 import com.tagtraum.perf.gcviewer.math.DoubleData;
+import com.tagtraum.perf.gcviewer.math.DoubleDataPercentile;
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.ExtendedType;
 import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Type;
 import org.junit.Test;
 
@@ -84,4 +86,185 @@ public class TestGCModel {
         expectedTime = expectedTime.minus(1381, ChronoUnit.MILLIS);// 1,381s (diff between last and first timestamp
         assertThat(model.getStartDate(), is(expectedTime));
     }
+
+    @Test
+    public void merge_StatisticsEqualReplay() throws Exception {
+        GCModel replayed = new GCModel();
+        GCModel merged = new GCModel();
+        GCModel second = new GCModel();
+        for (int i = 0; i < 40; i++) {
+            replayed.add(createEventForMerge(i));
+            if (i < 17) {
+                merged.add(createEventForMerge(i));
+            }
+            else {
+                second.add(createEventForMerge(i));
+            }
+        }
+
+        merged.merge(second);
+
+        assertThat("size", merged.size(), is(replayed.size()));
+        assertThat("equals", merged, is(replayed));
+        assertThat("pause sum", merged.getPause().getSum(), closeTo(replayed.getPause().getSum(), 0.0000001));
+        assertThat("pause stddev", merged.getPause().standardDeviation(), closeTo(replayed.getPause().standardDeviation(), 0.0000001));
+        assertThat("pause interval n", merged.getPauseInterval().getN(), is(replayed.getPauseInterval().getN()));
+        assertThat("pause interval avg", merged.getPauseInterval().average(), closeTo(replayed.getPauseInterval().average(), 0.0000001));
+        assertThat("full gc interval n", merged.getFullGCPauseInterval().getN(), is(replayed.getFullGCPauseInterval().getN()));
+        assertThat("post gc slope", merged.getPostGCSlope(), closeTo(replayed.getPostGCSlope(), 0.0000001));
+        assertThat("relative post gc increase", merged.getRelativePostGCIncrease().average(), closeTo(replayed.getRelativePostGCIncrease().average(), 0.0000001));
+        assertThat("relative post full gc increase", merged.getRelativePostFullGCIncrease().slope(), closeTo(replayed.getRelativePostFullGCIncrease().slope(), 0.0000001));
+        assertThat("current post gc slope", merged.getCurrentPostGCSlope().slope(), closeTo(replayed.getCurrentPostGCSlope().slope(), 0.0000001));
+        assertThat("footprint after gc", merged.getFootprintAfterGC().average(), closeTo(replayed.getFootprintAfterGC().average(), 0.0000001));
+        assertThat("freed memory", merged.getFreedMemory(), is(replayed.getFreedMemory()));
+        assertThat("throughput", merged.getThroughput(), closeTo(replayed.getThroughput(), 0.0000001));
+        assertThat("gc pause percentiles", merged.getGcEventPauses().get(Type.GC.getName()).getN(), is(replayed.getGcEventPauses().get(Type.GC.getName()).getN()));
+        assertThat("anomalies", merged.getAnomalyDetector().getAnomalies().toString(), is(replayed.getAnomalyDetector().getAnomalies().toString()));
+    }
+
+    @Test
+    public void merge_AnomaliesAndSafepointsEqualReplay() throws Exception {
+        GCModel replayed = new GCModel();
+        GCModel merged = new GCModel();
+        GCModel second = new GCModel();
+        GCModel copied = new GCModel();
+        for (int i = 0; i < 100; i++) {
+            GCModel part = i < 40 ? merged : second;
+            if (i >= 40) {
+                copied.add(createEventForAnomalies(i));
+                copied.add(createSafepoint(i));
+            }
+            part.add(createEventForAnomalies(i));
+            part.add(createSafepoint(i));
+            replayed.add(createEventForAnomalies(i));
+            replayed.add(createSafepoint(i));
+        }
+
+        merged.merge(second);
+        GCModel empty = new GCModel();
+        empty.merge(copied);
+
+        assertThat("anomalies", merged.getAnomalyDetector().getAnomalies().toString(), is(replayed.getAnomalyDetector().getAnomalies().toString()));
+        assertThat("pause outliers", merged.getAnomalyDetector().getAnomalyCount(AnomalyDetector.Kind.PAUSE_OUTLIER), is(1));
+        SafepointStatistics mergedSafepoints = merged.getSafepointStatistics();
+        SafepointStatistics replayedSafepoints = replayed.getSafepointStatistics();
+        assertThat("safepoint count", mergedSafepoints.getTimeToSafepoint().getN(), is(replayedSafepoints.getTimeToSafepoint().getN()));
+        assertThat("safepoint outliers", mergedSafepoints.getOutliers().toString(), is(replayedSafepoints.getOutliers().toString()));
+        assertThat("safepoint outlier count", mergedSafepoints.getOutlierCount(), is(1));
+
+        assertThat("copied anomalies", empty.getAnomalyDetector().getAnomalies().toString(), is(copied.getAnomalyDetector().getAnomalies().toString()));
+        assertThat("copied safepoint outliers", empty.getSafepointStatistics().getOutliers().toString(), is(copied.getSafepointStatistics().getOutliers().toString()));
+        assertThat("copied time to safepoint", empty.getSafepointStatistics().getTimeToSafepoint().getPercentile(50), is(copied.getSafepointStatistics().getTimeToSafepoint().getPercentile(50)));
+        copied.add(createSafepoint(100));
+        assertThat("copy independent", empty.getSafepointStatistics().getTimeToSafepoint().getN(), is(60));
+    }
+
+    @Test
+    public void createSnapshot_NotChangedByLaterEvents() throws Exception {
+        GCModel model = new GCModel();
+        for (int i = 0; i < 20; i++) {
+            model.add(createEventForMerge(i));
+        }
+
+        GCModel snapshot = model.createSnapshot();
+        double throughput = snapshot.getThroughput();
+        DoubleDataPercentile gcPause = (DoubleDataPercentile) snapshot.getGCPause();
+        double median = gcPause.getPercentile(50);
+        for (int i = 20; i < 40; i++) {
+            model.add(createEventForMerge(i));
+        }
+
+        assertThat("size", snapshot.size(), is(20));
+        assertThat("pause n", snapshot.getPause().getN(), is(20));
+        assertThat("full gc count", snapshot.getFullGCPause().getN(), is(1));
+        assertThat("throughput", snapshot.getThroughput(), closeTo(throughput, 0.0000001));
+        assertThat("gc pause median", gcPause.getPercentile(50), closeTo(median, 0.0000001));
+        assertThat("gc pause values", gcPause.getDoubleData().size(), is(gcPause.getN()));
+        assertThat("model size", model.size(), is(40));
+    }
+
+    @Test
+    public void createSnapshot_SharesEvents() throws Exception {
+        GCModel model = new GCModel();
+        for (int i = 0; i < 20; i++) {
+            model.add(createEventForMerge(i));
+        }
+
+        GCModel snapshot = model.createSnapshot();
+        model.add(createEventForMerge(20));
+        snapshot.add(createEventForMerge(30));
+
+        assertThat("same event", snapshot.get(5) == model.get(5), is(true));
+        assertThat("snapshot size", snapshot.size(), is(21));
+        assertThat("snapshot last", snapshot.get(20).getTimestamp(), closeTo(31, 0.0000001));
+        assertThat("model last", model.get(20).getTimestamp(), closeTo(21, 0.0000001));
+    }
+
+    @Test
+    public void causePauses() throws Exception {
+        GCModel model = new GCModel();
+        model.add(createEventWithCause(1.0, Type.GC, "Allocation Failure", 0.1));
+        model.add(createEventWithCause(2.0, Type.GC, "Allocation Failure", 0.3));
+        model.add(createEventWithCause(3.0, Type.FULL_GC, "Allocation Failure", 1.0));
+        model.add(createEventWithCause(4.0, Type.FULL_GC, "System.gc()", 2.0));
+        model.add(new GCEvent(5.0, 200, 100, 1000, 0.5, Type.GC));
+
+        assertThat("causes", model.getCausePauses().keySet().toString(), is("[Allocation Failure, System.gc()]"));
+        DoubleData allocationFailure = model.getCausePauses().get("Allocation Failure");
+        assertThat("allocation failure n", allocationFailure.getN(), is(3));
+        assertThat("allocation failure sum", allocationFailure.getSum(), closeTo(1.4, 0.0000001));
+        assertThat("types", model.getTypeCausePauses().keySet().toString(), is("[Full GC, GC]"));
+        assertThat("gc allocation failure n", model.getTypeCausePauses().get("GC").get("Allocation Failure").getN(), is(2));
+        assertThat("full gc causes", model.getTypeCausePauses().get("Full GC").keySet().toString(), is("[Allocation Failure, System.gc()]"));
+    }
+
+    @Test
+    public void merge_CausePausesEqualReplay() throws Exception {
+        GCModel replayed = new GCModel();
+        GCModel merged = new GCModel();
+        GCModel second = new GCModel();
+        for (int i = 0; i < 20; i++) {
+            GCEvent event = createEventWithCause(1.0 + i, Type.GC, i % 3 == 0 ? "System.gc()" : "Allocation Failure", 0.01 + i * 0.001);
+            replayed.add(event);
+            (i < 7 ? merged : second).add(event);
+        }
+
+        merged.merge(second);
+
+        assertThat("causes", merged.getCausePauses().keySet(), is(replayed.getCausePauses().keySet()));
+        for (String cause : replayed.getCausePauses().keySet()) {
+            assertThat(cause + " n", merged.getCausePauses().get(cause).getN(), is(replayed.getCausePauses().get(cause).getN()));
+            assertThat(cause + " sum", merged.getCausePauses().get(cause).getSum(), closeTo(replayed.getCausePauses().get(cause).getSum(), 0.0000001));
+            assertThat(cause + " type n", merged.getTypeCausePauses().get("GC").get(cause).getN(), is(replayed.getTypeCausePauses().get("GC").get(cause).getN()));
+        }
+    }
+
+    private GCEvent createEventWithCause(double timestamp, Type type, String cause, double pause) {
+        GCEvent event = new GCEvent(timestamp, 200, 100, 1000, pause, type);
+        event.setExtendedType(ExtendedType.lookup(type, type.getName() + " (" + cause + ")", cause));
+        return event;
+    }
+
+    private GCEvent createEventForAnomalies(int i) {
+        // pause outlier after the baseline was established, which is detected in the second model
+        double pause = i == 70 ? 1.0 : 0.01 + (i % 5) * 0.001;
+        return new GCEvent(1.0 + i, 150, 100, 1000, pause, Type.GC);
+    }
+
+    private VmOperationEvent createSafepoint(int i) {
+        double timeToSafepoint = i == 80 ? 0.04 : 0.0002 + (i % 5) * 0.00001;
+        VmOperationEvent event = new VmOperationEvent();
+        event.setTimestamp(1.5 + i);
+        event.setExtendedType(ExtendedType.lookup(Type.UJL_SAFEPOINT, "Safepoint \"Cleanup\"", "Cleanup"));
+        event.setPause(timeToSafepoint + 0.001);
+        event.setSafepointTimes(timeToSafepoint, 0, 0.001);
+        return event;
+    }
+
+    private GCEvent createEventForMerge(int i) {
+        Type type = i % 11 == 10 ? Type.FULL_GC : Type.GC;
+        int postUsed = 100 + i * 3 + (i % 4);
+        return new GCEvent(1.0 + i, postUsed + 50, postUsed, 1000, 0.01 + (i % 5) * 0.002, type);
+    }
+
 }
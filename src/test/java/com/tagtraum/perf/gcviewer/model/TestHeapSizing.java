@@ -0,0 +1,183 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Type;
+import com.tagtraum.perf.gcviewer.model.HeapSizing.Scenario;
+import org.junit.Test;
+
+/**
+ * Tests {@link HeapSizing}.
+ */
+public class TestHeapSizing {
+
+    /**
+     * Full gc leaving a live set of 200000K in a heap of 1000000K followed by 20 young collections
+     * (young generation 100000K) every second, each allocating 100000K and promoting 10000K.
+     */
+    private GCModel createModel() {
+        GCModel model = new GCModel();
+        model.add(new GCEvent(0, 250000, 200000, 1000000, 0.2, Type.FULL_GC));
+        return model;
+    }
+
+    private void addYoungCollections(GCModel model) {
+        int postUsed = 200000;
+        for (int i = 1; i <= 20; ++i) {
+            GCEvent event = new GCEvent(i, postUsed + 100000, postUsed + 10000, 1000000, 0.01, Type.GC);
+            event.add(new GCEvent(i, 100000, 0, 100000, 0.01, Type.DEF_NEW));
+            model.add(event);
+            postUsed += 10000;
+        }
+    }
+
+    private ConcurrentGCEvent createConcurrentEvent(double timestamp, Type type, double pause) {
+        ConcurrentGCEvent event = new ConcurrentGCEvent();
+        event.setTimestamp(timestamp);
+        event.setType(type);
+        event.setPause(pause);
+        return event;
+    }
+
+    @Test
+    public void replayObservedSizes() throws Exception {
+        GCModel model = createModel();
+        addYoungCollections(model);
+
+        HeapSizing heapSizing = HeapSizing.compute(model);
+        assertThat("has scenarios", heapSizing.hasScenarios(), is(true));
+        assertThat("intervals", heapSizing.size(), is(20));
+        assertThat("live set", heapSizing.getLiveSet(), is(200000L));
+        assertThat("average promotion rate", heapSizing.getAveragePromotionRate(), closeTo(0.1, 0.000001));
+        assertThat("concurrent", heapSizing.isConcurrent(), is(false));
+        assertThat("scenarios", heapSizing.getScenarios().size(), is(HeapSizing.DEFAULT_HEAP_FACTORS.length * HeapSizing.DEFAULT_YOUNG_RATIOS.length));
+
+        Scenario observed = heapSizing.getObserved();
+        assertThat("observed heap", observed.getHeapSize(), is(1000000L));
+        assertThat("observed young", observed.getYoungSize(), is(100000L));
+        assertThat("observed young gcs", observed.getYoungGcCount(), is(20));
+        assertThat("observed full gcs", observed.getFullGcCount(), is(0));
+        double mutatorTime = 0.8 + 19 * 0.99;
+        assertThat("mutator time", heapSizing.getMutatorTime(), closeTo(mutatorTime, 0.000001));
+        assertThat("observed throughput", observed.getThroughput(), closeTo(100 * mutatorTime / (mutatorTime + 0.2), 0.000001));
+        assertThat("observed young gc rate", observed.getYoungGcRate(), closeTo(60 * 20 / mutatorTime, 0.000001));
+        assertThat("options", observed.getJvmOptions(), equalTo("-Xmx977m -Xmn98m"));
+    }
+
+    @Test
+    public void candidates() throws Exception {
+        GCModel model = createModel();
+        addYoungCollections(model);
+
+        HeapSizing heapSizing = HeapSizing.compute(model, new double[] {0.25, 1}, new double[] {0.05, 0.2}, new double[] {0.5});
+        List<Scenario> scenarios = heapSizing.getScenarios();
+        assertThat("scenarios", scenarios.size(), is(4));
+
+        assertThat("small young generation: feasible", scenarios.get(0).isFeasible(), is(true));
+        assertThat("small young generation: full gcs", scenarios.get(0).getFullGcCount(), greaterThan(0));
+        assertThat("live set doesn't fit", scenarios.get(1).isFeasible(), is(false));
+        assertThat("live set doesn't fit: throughput", Double.isNaN(scenarios.get(1).getThroughput()), is(true));
+        assertThat("large heap: young gcs", scenarios.get(2).getYoungGcCount(), is(40));
+        assertThat("large heap: full gcs", scenarios.get(2).getFullGcCount(), is(0));
+        assertThat("large young generation: young gcs", scenarios.get(3).getYoungGcCount(), is(10));
+
+        Scenario recommendation = heapSizing.getRecommendation();
+        assertThat("recommendation", recommendation, notNullValue());
+        assertThat("recommended heap", recommendation.getHeapSize(), is(1000000L));
+        assertThat("recommended young", recommendation.getYoungSize(), is(200000L));
+        assertThat("without concurrent cycles", Double.isNaN(recommendation.getInitiatingOccupancyFraction()), is(true));
+    }
+
+    @Test
+    public void promotionDependsOnAllocation() throws Exception {
+        GCModel model = createModel();
+        addYoungCollections(model);
+
+        HeapSizing heapSizing = HeapSizing.compute(model, new double[] {1}, new double[] {0.1, 0.05}, new double[] {0.5});
+        Scenario observedYoung = heapSizing.getScenarios().get(0);
+        Scenario halfYoung = heapSizing.getScenarios().get(1);
+        assertThat("young gcs", halfYoung.getYoungGcCount(), is(2 * observedYoung.getYoungGcCount()));
+        // 20 * 100000K allocated, 10% promoted
+        assertThat("promotion", observedYoung.getPromotion(), closeTo(200000, 0.0001));
+        assertThat("promotion of half young generation", halfYoung.getPromotion(), closeTo(observedYoung.getPromotion(), 0.0001));
+    }
+
+    @Test
+    public void initiatingOccupancy() throws Exception {
+        GCModel model = createModel();
+        model.add(createConcurrentEvent(0.5, Type.CMS_CONCURRENT_MARK_START, 0));
+        model.add(createConcurrentEvent(0.6, Type.CMS_CONCURRENT_RESET, 0.1));
+        addYoungCollections(model);
+
+        HeapSizing heapSizing = HeapSizing.compute(model, new double[] {1}, new double[] {0.1}, new double[] {0.3, 0.9});
+        assertThat("concurrent", heapSizing.isConcurrent(), is(true));
+        List<Scenario> scenarios = heapSizing.getScenarios();
+        assertThat("scenarios", scenarios.size(), is(2));
+
+        // old generation reaches 300000K after the 10th and 20th young collection
+        Scenario early = scenarios.get(0);
+        assertThat("concurrent cycles", early.getConcurrentCycleCount(), is(2));
+        assertThat("full gcs", early.getFullGcCount(), is(0));
+        assertThat("cms option", early.getJvmOptions(), equalTo("-Xmx977m -Xmn98m -XX:CMSInitiatingOccupancyFraction=33"));
+
+        Scenario late = scenarios.get(1);
+        assertThat("never initiated", late.getConcurrentCycleCount(), is(0));
+    }
+
+    @Test
+    public void observedInitiatingOccupancyCms() throws Exception {
+        GCModel model = createModel();
+        // CMS logs the occupancy of the old generation relative to the old generation (300000K of 900000K)
+        GCEvent initialMark = new GCEvent(0.5, 350000, 350000, 1000000, 0.01, Type.GC);
+        initialMark.add(new GCEvent(0.5, 300000, 300000, 900000, 0.01, Type.CMS_INITIAL_MARK));
+        model.add(initialMark);
+        model.add(createConcurrentEvent(0.6, Type.CMS_CONCURRENT_MARK_START, 0));
+        addYoungCollections(model);
+
+        Scenario observed = HeapSizing.compute(model).getObserved();
+        assertThat("fraction of the heap", observed.getInitiatingOccupancyFraction(), closeTo(0.3, 0.000001));
+        assertThat("cms option", observed.getJvmOptions(), equalTo("-Xmx977m -Xmn98m -XX:CMSInitiatingOccupancyFraction=33"));
+    }
+
+    @Test
+    public void observedInitiatingOccupancyG1() throws Exception {
+        GCModel model = createModel();
+        // G1 logs the occupancy of the whole heap including the young generation (100000K)
+        GCEvent initialMark = new GCEvent(0.5, 500000, 450000, 1000000, 0.01, Type.G1_YOUNG_INITIAL_MARK);
+        initialMark.add(new GCEvent(0.5, 100000, 0, 100000, 0.01, Type.G1_EDEN));
+        model.add(initialMark);
+        addYoungCollections(model);
+
+        Scenario observed = HeapSizing.compute(model).getObserved();
+        assertThat("fraction of the heap", observed.getInitiatingOccupancyFraction(), closeTo(0.4, 0.000001));
+        assertThat("g1 option", observed.getJvmOptions(), equalTo("-Xmx977m -Xmn98m -XX:InitiatingHeapOccupancyPercent=40"));
+    }
+
+    @Test
+    public void observedInitiatingOccupancyWithoutDetails() throws Exception {
+        GCModel model = createModel();
+        model.add(new GCEvent(0.5, 500000, 450000, 1000000, 0.01, Type.G1_YOUNG_INITIAL_MARK));
+        addYoungCollections(model);
+
+        // young generation (10% of the heap) is assumed to be full
+        Scenario observed = HeapSizing.compute(model).getObserved();
+        assertThat("fraction of the heap", observed.getInitiatingOccupancyFraction(), closeTo(0.4, 0.000001));
+    }
+
+    @Test
+    public void withoutMemoryInformation() throws Exception {
+        GCModel model = new GCModel();
+        model.add(createConcurrentEvent(0.5, Type.CMS_CONCURRENT_MARK_START, 0));
+
+        HeapSizing heapSizing = HeapSizing.compute(model);
+        assertThat("has scenarios", heapSizing.hasScenarios(), is(false));
+        assertThat("scenarios", heapSizing.getScenarios().size(), is(0));
+    }
+}
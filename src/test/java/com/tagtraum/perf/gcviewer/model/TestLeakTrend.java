@@ -0,0 +1,102 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Random;
+
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Type;
+import org.junit.Test;
+
+/**
+ * Tests {@link LeakTrend}.
+ */
+public class TestLeakTrend {
+
+    @Test
+    public void leakStartingInTheMiddle() throws Exception {
+        Random random = new Random(42);
+        GCModel model = new GCModel();
+        for (int i = 0; i < 100; ++i) {
+            double timestamp = i * 10;
+            // stable until 500s, leaking 100K/s afterwards
+            int postUsed = 100000 + (timestamp < 500 ? 0 : (int) (100 * (timestamp - 500))) + random.nextInt(2000);
+            if (i % 17 == 0) {
+                // outliers must not change the trend
+                postUsed += 300000;
+            }
+            model.add(new GCEvent(timestamp, postUsed + 200000, postUsed, 1000000, 1.0, Type.FULL_GC));
+        }
+
+        LeakTrend leakTrend = LeakTrend.compute(model);
+
+        assertThat("source", leakTrend.getSource(), is(LeakTrend.Source.POST_FULL_GC));
+        assertThat("point count", leakTrend.getPointCount(), is(100L));
+        assertThat("number of change points", leakTrend.getChangePoints().length, is(1));
+        assertThat("change point", leakTrend.getChangePoints()[0], closeTo(500, 30));
+        assertThat("slope before change point", leakTrend.getSegments().get(0).getSlope(), closeTo(0, 5));
+        assertThat("slope", leakTrend.getSlope(), closeTo(100, 5));
+        // heap used at 990s: 149000K -> 851000K left to 1000000K
+        assertThat("time to out of memory", leakTrend.getTimeToOutOfMemory(), closeTo(8510, 500));
+    }
+
+    @Test
+    public void stepWithoutNoise() throws Exception {
+        GCModel model = new GCModel();
+        for (int i = 0; i < 100; ++i) {
+            // constant until 500s, 100000K more afterwards, growing by 1K every 70s (far below any noise)
+            int postUsed = i < 50 ? 200000 : 300000 + (i - 50) / 7;
+            model.add(new GCEvent(i * 10, postUsed + 200000, postUsed, 1000000, 1.0, Type.FULL_GC));
+        }
+
+        LeakTrend leakTrend = LeakTrend.compute(model);
+
+        assertThat("number of change points", leakTrend.getChangePoints().length, is(1));
+        assertThat("change point", leakTrend.getChangePoints()[0], closeTo(500, 10));
+    }
+
+    @Test
+    public void stableAfterGc() throws Exception {
+        GCModel model = new GCModel();
+        for (int i = 0; i < 50; ++i) {
+            model.add(new GCEvent(i, 800, 200 + (i % 3) * 10, 1000, 0.01, Type.GC));
+        }
+
+        LeakTrend leakTrend = LeakTrend.compute(model);
+
+        assertThat("source", leakTrend.getSource(), is(LeakTrend.Source.POST_GC));
+        assertThat("number of change points", leakTrend.getChangePoints().length, is(0));
+        assertThat("slope", leakTrend.getSlope(), closeTo(0, 0.0001));
+        assertThat("time to out of memory", leakTrend.getTimeToOutOfMemory(), is(Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    public void sampledLeak() throws Exception {
+        GCModel model = new GCModel();
+        for (int i = 0; i < 10000; ++i) {
+            model.add(new GCEvent(i, 900000, 10000 + i * 10, 1000000, 0.01, Type.GC));
+        }
+
+        LeakTrend leakTrend = LeakTrend.compute(model, 64);
+
+        assertThat("point count", leakTrend.getPointCount(), is(10000L));
+        assertThat("number of change points", leakTrend.getChangePoints().length, is(0));
+        assertThat("slope", leakTrend.getSlope(), closeTo(10, 0.0001));
+        // 110000K - 10K/s at 9999s
+        assertThat("time to out of memory", leakTrend.getTimeToOutOfMemory(), closeTo(89001, 0.1));
+    }
+
+    @Test
+    public void notEnoughPoints() throws Exception {
+        GCModel model = new GCModel();
+        model.add(new GCEvent(1, 800, 200, 1000, 0.01, Type.GC));
+        model.add(new GCEvent(2, 800, 300, 1000, 0.01, Type.GC));
+
+        LeakTrend leakTrend = LeakTrend.compute(model);
+
+        assertThat("trend", leakTrend.hasTrend(), is(false));
+        assertThat("slope", Double.isNaN(leakTrend.getSlope()), is(true));
+        assertThat("time to out of memory", Double.isNaN(leakTrend.getTimeToOutOfMemory()), is(true));
+    }
+}
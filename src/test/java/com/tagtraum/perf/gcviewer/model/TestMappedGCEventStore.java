@@ -0,0 +1,229 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.time.ZonedDateTime;
+import java.util.Iterator;
+import java.util.List;
+
+import com.tagtraum.perf.gcviewer.UnittestHelper;
+import com.tagtraum.perf.gcviewer.UnittestHelper.FOLDER;
+import com.tagtraum.perf.gcviewer.imp.DataReaderFacade;
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Type;
+import org.junit.Test;
+
+/**
+ * Tests the class {@link MappedGCEventStore}.
+ */
+public class TestMappedGCEventStore {
+
+    @Test
+    public void readWriteGcEventWithDetails() throws Exception {
+        try (MappedGCEventStore store = new MappedGCEventStore()) {
+            GCEvent event = new GCEvent(1.5, 1000, 400, 2000, 0.25, Type.GC);
+            event.setDateStamp(ZonedDateTime.parse("2018-01-02T10:11:12.345+01:00"));
+            event.add(new GCEvent(1.5, 600, 10, 700, 0.25, Type.PAR_NEW));
+            store.add(event);
+            store.add(new GCEvent(2.5, 10, 5, 2000, 0.1, Type.FULL_GC));
+
+            AbstractGCEvent<?> readEvent = store.get(0);
+            assertThat("class", readEvent.getClass().getName(), is(GCEvent.class.getName()));
+            assertThat("toString", readEvent.toString(), is(event.toString()));
+            assertThat("datestamp", readEvent.getDatestamp(), is(event.getDatestamp()));
+            assertThat("young", ((GCEvent) readEvent).getYoung().getPreUsed(), is(600));
+            assertThat("typeAsString", readEvent.getTypeAsString(), is(event.getTypeAsString()));
+        }
+    }
+
+    @Test
+    public void eventWithMoreDetailsIsKept() throws Exception {
+        try (MappedGCEventStore store = new MappedGCEventStore()) {
+            GCEvent event = new GCEvent(1.5, 1000, 400, 2000, 0.25, Type.GC);
+            for (int i = 0; i <= MappedGCEventStore.MAX_DETAILS; i++) {
+                event.add(new GCEvent(1.5, 600 + i, 10, 700, 0.01, Type.PAR_NEW));
+            }
+            store.add(event);
+            store.add(new GCEvent(2.5, 10, 5, 2000, 0.1, Type.FULL_GC));
+
+            AbstractGCEvent<?> readEvent = store.get(0);
+            int detailCount = 0;
+            for (Iterator<? extends AbstractGCEvent<?>> i = readEvent.details(); i.hasNext(); i.next()) {
+                ++detailCount;
+            }
+            assertThat("details", detailCount, is(MappedGCEventStore.MAX_DETAILS + 1));
+            assertThat("toString", readEvent.toString(), is(event.toString()));
+            assertThat("next event", store.get(1).getTimestamp(), closeTo(2.5, 0.0000001));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void readAfterCloseFails() throws Exception {
+        MappedGCEventStore store = new MappedGCEventStore();
+        store.add(new GCEvent(1.0, 1000, 400, 2000, 0.25, Type.GC));
+        store.add(new GCEvent(2.0, 1000, 400, 2000, 0.25, Type.GC));
+        store.close();
+
+        store.get(0);
+    }
+
+    @Test
+    public void readWriteConcurrentEvent() throws Exception {
+        try (MappedGCEventStore store = new MappedGCEventStore()) {
+            ConcurrentGCEvent event = new ConcurrentGCEvent();
+            event.setType(Type.CMS_CONCURRENT_MARK);
+            event.setTimestamp(3.0);
+            event.setPause(0.2);
+            event.setDuration(0.4);
+            store.add(event);
+            store.add(new VmOperationEvent());
+
+            ConcurrentGCEvent readEvent = (ConcurrentGCEvent) store.get(0);
+            assertThat("duration", readEvent.getDuration(), closeTo(0.4, 0.0000001));
+            assertThat("toString", readEvent.toString(), is(event.toString()));
+        }
+    }
+
+    @Test
+    public void lastEventIsNotCopied() throws Exception {
+        try (MappedGCEventStore store = new MappedGCEventStore()) {
+            GCEvent event = new GCEvent(1.5, 1000, 400, 2000, 0.25, Type.GC);
+            store.add(event);
+
+            assertThat("same instance", store.get(0) == event, is(true));
+        }
+    }
+
+    @Test
+    public void indexListAcceptsOnlyLastEvent() throws Exception {
+        try (MappedGCEventStore store = new MappedGCEventStore()) {
+            List<GCEvent> fullGcEvents = store.newIndexList();
+            GCEvent event = new GCEvent(1.5, 1000, 400, 2000, 0.25, Type.FULL_GC);
+            store.add(new GCEvent(1.0, 1000, 400, 2000, 0.25, Type.GC));
+            store.add(event);
+            fullGcEvents.add(event);
+            store.add(new GCEvent(2.0, 1000, 400, 2000, 0.25, Type.GC));
+
+            assertThat("size", fullGcEvents.size(), is(1));
+            assertThat("timestamp", fullGcEvents.get(0).getTimestamp(), closeTo(1.5, 0.0000001));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void indexListRejectsOtherEvents() throws Exception {
+        try (MappedGCEventStore store = new MappedGCEventStore()) {
+            List<GCEvent> gcEvents = store.newIndexList();
+            store.add(new GCEvent(1.0, 1000, 400, 2000, 0.25, Type.GC));
+            gcEvents.add(new GCEvent(1.0, 1000, 400, 2000, 0.25, Type.GC));
+        }
+    }
+
+    @Test
+    public void closeModelClosesStore() throws Exception {
+        MappedGCEventStore store = new MappedGCEventStore();
+        GCModel model = new GCModel(store);
+        model.add(new GCEvent(1.0, 1000, 400, 2000, 0.25, Type.GC));
+        model.add(new GCEvent(2.0, 1000, 400, 2000, 0.25, Type.GC));
+        assertThat("open", store.isOpen(), is(true));
+
+        model.close();
+        assertThat("closed", store.isOpen(), is(false));
+        assertThat("file deleted", store.getFile().exists(), is(false));
+        assertThat("statistics still available", model.getPause().getN(), is(2));
+        model.close();
+    }
+
+    @Test
+    public void snapshotsOfMappedModel() throws Exception {
+        GCModel heapModel = new GCModel((MappedGCEventStore) null);
+        try (GCModel mappedModel = new GCModel(new MappedGCEventStore())) {
+            for (int i = 0; i < 10; i++) {
+                addGcAndVmOperation(heapModel, i);
+                addGcAndVmOperation(mappedModel, i);
+            }
+            GCModel firstSnapshot = mappedModel.createSnapshot();
+            for (int i = 10; i < 20; i++) {
+                addGcAndVmOperation(heapModel, i);
+                addGcAndVmOperation(mappedModel, i);
+            }
+            GCModel secondSnapshot = mappedModel.createSnapshot();
+
+            assertThat("first snapshot size", firstSnapshot.size(), is(20));
+            assertThat("first snapshot mapped", firstSnapshot.isEventStoreMapped(), is(false));
+            assertThat("second snapshot size", secondSnapshot.size(), is(40));
+            assertThat("vm operation pause", secondSnapshot.getVmOperationPause().getSum(), closeTo(heapModel.getVmOperationPause().getSum(), 0.0000001));
+            assertThat("model vm operation pause", mappedModel.getVmOperationPause().getSum(), closeTo(heapModel.getVmOperationPause().getSum(), 0.0000001));
+            for (int i = 0; i < heapModel.size(); i++) {
+                assertThat("event " + i, secondSnapshot.get(i).toString(), is(heapModel.get(i).toString()));
+            }
+        }
+    }
+
+    private void addGcAndVmOperation(GCModel model, int i) {
+        model.add(new GCEvent(1.0 + i, 1000, 400, 2000, 0.1, Type.GC));
+        VmOperationEvent vmOperation = new VmOperationEvent();
+        vmOperation.setType(Type.APPLICATION_STOPPED_TIME);
+        vmOperation.setTimestamp(1.3 + i);
+        // includes the pause of the gc event before
+        vmOperation.setPause(0.3);
+        model.add(vmOperation);
+    }
+
+    @Test
+    public void sunCmsModel() throws Exception {
+        assertModelsEqual(FOLDER.OPENJDK, "SampleSun1_6_0CMS.txt");
+    }
+
+    @Test
+    public void sunG1ApplicationStoppedModel() throws Exception {
+        assertModelsEqual(FOLDER.OPENJDK, "SampleSun1_7_0G1-ApplicationStopped.txt");
+    }
+
+    @Test
+    public void ujlG1Model() throws Exception {
+        assertModelsEqual(FOLDER.OPENJDK_UJL, "sample-ujl-g1-gc-all,safepoint,os+cpu.txt");
+    }
+
+    private void assertModelsEqual(FOLDER folder, String fileName) throws Exception {
+        GCResource gcResource = new GcResourceFile(UnittestHelper.getResourceAsString(folder, fileName));
+        DataReaderFacade dataReader = new DataReaderFacade();
+        GCModel heapModel = dataReader.loadModel(gcResource);
+        GCModel mappedModel;
+        System.setProperty(GCModel.PROPERTY_EVENT_STORAGE, GCModel.EVENT_STORAGE_MAPPED);
+        try {
+            mappedModel = dataReader.loadModel(new GcResourceFile(UnittestHelper.getResourceAsString(folder, fileName)));
+        }
+        finally {
+            System.clearProperty(GCModel.PROPERTY_EVENT_STORAGE);
+        }
+
+        try (GCModel closedModel = mappedModel) {
+            assertModelsEqual(heapModel, closedModel);
+        }
+    }
+
+    private void assertModelsEqual(GCModel heapModel, GCModel mappedModel) {
+        assertThat("mapped", mappedModel.isEventStoreMapped(), is(true));
+        assertThat("size", mappedModel.size(), is(heapModel.size()));
+        for (int i = 0; i < heapModel.size(); i++) {
+            assertThat("event " + i, mappedModel.get(i).toString(), is(heapModel.get(i).toString()));
+        }
+        assertThat("pause", mappedModel.getPause().getSum(), closeTo(heapModel.getPause().getSum(), 0.0000001));
+        assertThat("vm operation pause", mappedModel.getVmOperationPause().getSum(), closeTo(heapModel.getVmOperationPause().getSum(), 0.0000001));
+        assertThat("gc events", count(mappedModel.getGCEvents()), is(count(heapModel.getGCEvents())));
+        assertThat("full gc events", count(mappedModel.getFullGCEvents()), is(count(heapModel.getFullGCEvents())));
+        assertThat("stop the world events", count(mappedModel.getStopTheWorldEvents()), is(count(heapModel.getStopTheWorldEvents())));
+        assertThat("concurrent events", count(mappedModel.getConcurrentGCEvents()), is(count(heapModel.getConcurrentGCEvents())));
+        assertThat("running time", mappedModel.getRunningTime(), closeTo(heapModel.getRunningTime(), 0.0000001));
+    }
+
+    private int count(Iterator<?> iterator) {
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            ++count;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,86 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Type;
+import com.tagtraum.perf.gcviewer.model.ModelDiff.DistributionDiff;
+import com.tagtraum.perf.gcviewer.model.ModelDiff.ValueDiff;
+import org.junit.Test;
+
+/**
+ * Tests {@link ModelDiff}.
+ */
+public class TestModelDiff {
+
+    private GCModel createModel(double youngPause, int fullGcCount) {
+        GCModel model = new GCModel();
+        double timestamp = 0;
+        for (int i = 0; i < 100; ++i) {
+            model.add(new GCEvent(timestamp, 800, 200, 1000, youngPause, Type.GC));
+            timestamp += 1;
+        }
+        for (int i = 0; i < fullGcCount; ++i) {
+            model.add(new GCEvent(timestamp, 900, 100, 1000, 0.5, Type.FULL_GC));
+            timestamp += 1;
+        }
+
+        return model;
+    }
+
+    private ValueDiff getValueDiff(ModelDiff diff, String eventType, String name) {
+        for (ValueDiff valueDiff : diff.getValueDiffs()) {
+            if ((eventType == null ? valueDiff.getEventType() == null : eventType.equals(valueDiff.getEventType()))
+                    && name.equals(valueDiff.getName())) {
+
+                return valueDiff;
+            }
+        }
+
+        throw new AssertionError("no value " + eventType + " / " + name);
+    }
+
+    @Test
+    public void valueDiffs() throws Exception {
+        ModelDiff diff = ModelDiff.compute(createModel(0.01, 2), createModel(0.02, 0));
+
+        ValueDiff gcPauseCount = getValueDiff(diff, null, "gcPauseCount");
+        assertThat("gc pause count", gcPauseCount.getDelta(), closeTo(0, 0.0));
+        ValueDiff fullGcPauseCount = getValueDiff(diff, null, "fullGcPauseCount");
+        assertThat("full gc pause count", fullGcPauseCount.getDelta(), closeTo(-2, 0.0));
+        assertThat("full gc pause count %", fullGcPauseCount.getRelativeDelta(), closeTo(-100, 0.0001));
+
+        ValueDiff median = getValueDiff(diff, Type.GC.getName(), "p50");
+        assertThat("median baseline", median.getBaseline(), closeTo(0.01, 0.0001));
+        assertThat("median compared", median.getCompared(), closeTo(0.02, 0.0002));
+
+        ValueDiff fullGcCount = getValueDiff(diff, Type.FULL_GC.getName(), "count");
+        assertThat("full gc count", fullGcCount.getCompared(), closeTo(0, 0.0));
+        assertThat("full gc max in compared", Double.isNaN(getValueDiff(diff, Type.FULL_GC.getName(), "max").getCompared()), is(true));
+    }
+
+    @Test
+    public void distributionDiffs() throws Exception {
+        ModelDiff diff = ModelDiff.compute(createModel(0.01, 0), createModel(0.02, 0));
+
+        DistributionDiff allPauses = diff.getDistributionDiffs().get(0);
+        assertThat("all pauses first", allPauses.getEventType(), is(ModelDiff.ALL_PAUSES));
+        assertThat("statistic", allPauses.getKolmogorovSmirnovStatistic(), closeTo(1, 0.0));
+        assertThat("probability", allPauses.getKolmogorovSmirnovProbability(), lessThan(0.001));
+
+        diff = ModelDiff.compute(createModel(0.01, 0), createModel(0.01, 0));
+        assertThat("same statistic", diff.getDistributionDiffs().get(0).getKolmogorovSmirnovStatistic(), closeTo(0, 0.0));
+        assertThat("same probability", diff.getDistributionDiffs().get(0).getKolmogorovSmirnovProbability(), closeTo(1, 0.0));
+    }
+
+    @Test
+    public void modelValuesHaveNoEventType() throws Exception {
+        ModelDiff diff = ModelDiff.compute(new GCModel(), new GCModel());
+
+        assertThat("throughput", diff.getValueDiffs().get(0).getEventType(), nullValue());
+        assertThat("only all pauses", diff.getDistributionDiffs().size(), is(1));
+    }
+}
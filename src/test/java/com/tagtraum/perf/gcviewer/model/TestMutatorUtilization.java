@@ -0,0 +1,92 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Random;
+
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Type;
+import org.junit.Test;
+
+/**
+ * Tests {@link MutatorUtilization}.
+ */
+public class TestMutatorUtilization {
+
+    @Test
+    public void clusteredPauses() throws Exception {
+        GCModel model = new GCModel();
+        model.add(new GCEvent(0.0, 100, 50, 1000, 0.1, Type.GC));
+        // three pauses of 0.1 sec within 0.5 sec
+        model.add(new GCEvent(5.0, 100, 50, 1000, 0.1, Type.GC));
+        model.add(new GCEvent(5.2, 100, 50, 1000, 0.1, Type.GC));
+        model.add(new GCEvent(5.4, 100, 50, 1000, 0.1, Type.GC));
+        model.add(new GCEvent(10.0, 100, 50, 1000, 0.1, Type.GC));
+
+        MutatorUtilization mutatorUtilization = MutatorUtilization.compute(model);
+
+        assertThat("duration", mutatorUtilization.getDuration(), closeTo(10.1, 0.0001));
+        assertThat("window within pause", mutatorUtilization.getMinimumUtilization(0.05), closeTo(0, 0.0001));
+        assertThat("window of cluster", mutatorUtilization.getMinimumUtilization(0.5), closeTo(0.4, 0.0001));
+        assertThat("1 sec", mutatorUtilization.getMinimumUtilization(1), closeTo(0.7, 0.0001));
+        assertThat("whole log", mutatorUtilization.getMinimumUtilization(10.1), closeTo(1 - 0.5 / 10.1, 0.0001));
+        assertThat("longer than log", Double.isNaN(mutatorUtilization.getMinimumUtilization(11)), is(true));
+    }
+
+    @Test
+    public void overlappingPauses() throws Exception {
+        // [0, 1] and [0.5, 2] overlap -> 2 sec paused; [3, 4] separately
+        double[] starts = { 3, 0.5, 0 };
+        double[] ends = { 4, 2, 1 };
+
+        MutatorUtilization mutatorUtilization = MutatorUtilization.compute(0, 10, starts, ends, 3);
+
+        assertThat("2 sec", mutatorUtilization.getMinimumUtilization(2), closeTo(0, 0.0001));
+        assertThat("4 sec", mutatorUtilization.getMinimumUtilization(4), closeTo(0.25, 0.0001));
+        assertThat("10 sec", mutatorUtilization.getMinimumUtilization(10), closeTo(0.7, 0.0001));
+    }
+
+    @Test
+    public void sameAsBruteForce() throws Exception {
+        Random random = new Random(7);
+        int n = 500;
+        double[] starts = new double[n];
+        double[] ends = new double[n];
+        double timestamp = 0;
+        for (int i = 0; i < n; ++i) {
+            // pauses must not overlap for the brute force computation
+            timestamp += random.nextDouble() * (random.nextInt(5) == 0 ? 2 : 0.05);
+            starts[i] = timestamp;
+            timestamp += random.nextDouble() * 0.02;
+            ends[i] = timestamp;
+        }
+        double to = timestamp + 1;
+
+        MutatorUtilization mutatorUtilization = MutatorUtilization.compute(0, to, starts.clone(), ends.clone(), n);
+
+        for (double windowSize : new double[] { 0.001, 0.01, 0.1, 1, 10 }) {
+            // the worst window starts with a pause or ends with a pause
+            double maxPaused = 0;
+            for (int i = 0; i < n; ++i) {
+                for (double windowStart : new double[] { starts[i], ends[i] - windowSize }) {
+                    windowStart = Math.min(Math.max(windowStart, 0), to - windowSize);
+                    maxPaused = Math.max(maxPaused, pausedTime(starts, ends, windowStart, windowStart + windowSize));
+                }
+            }
+
+            assertThat("window " + windowSize,
+                    mutatorUtilization.getMinimumUtilization(windowSize),
+                    closeTo((windowSize - maxPaused) / windowSize, 0.000001));
+        }
+    }
+
+    private double pausedTime(double[] starts, double[] ends, double from, double to) {
+        double paused = 0;
+        for (int i = 0; i < starts.length; ++i) {
+            paused += Math.max(0, Math.min(to, ends[i]) - Math.max(from, starts[i]));
+        }
+
+        return paused;
+    }
+}
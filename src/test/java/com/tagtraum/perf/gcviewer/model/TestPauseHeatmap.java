@@ -0,0 +1,68 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Type;
+import org.junit.Test;
+
+/**
+ * Tests {@link PauseHeatmap}.
+ */
+public class TestPauseHeatmap {
+
+    private GCModel createModel() {
+        GCModel model = new GCModel();
+        for (int i = 0; i < 100; ++i) {
+            // 10ms pauses during the first half, 1s pauses during the second half
+            model.add(new GCEvent(i, 800, 200, 1000, i < 50 ? 0.01 : 1.0, Type.GC));
+        }
+        model.add(new GCEvent(99.5, 900, 100, 1000, 5, Type.FULL_GC));
+
+        return model;
+    }
+
+    @Test
+    public void pauseBuckets() throws Exception {
+        assertThat("0", PauseHeatmap.getPauseBucket(0), is(0));
+        assertThat("below min", PauseHeatmap.getPauseBucket(0.00005), is(0));
+        assertThat("min", PauseHeatmap.getPauseBucket(PauseHeatmap.MIN_PAUSE), is(1));
+        assertThat("one decade above min", PauseHeatmap.getPauseBucket(0.0015), is(1 + PauseHeatmap.PAUSE_BUCKETS_PER_DECADE));
+        assertThat("above max", PauseHeatmap.getPauseBucket(1000), is(PauseHeatmap.getPauseBucketCount() - 1));
+        assertThat("lower bound", PauseHeatmap.getPauseBucketLowerBound(1 + PauseHeatmap.PAUSE_BUCKETS_PER_DECADE), closeTo(0.001, 0.0000001));
+    }
+
+    @Test
+    public void countsOfTimeRanges() throws Exception {
+        PauseHeatmap heatmap = PauseHeatmap.compute(createModel(), 10);
+
+        assertThat("time bucket count", heatmap.getTimeBucketCount(), is(10));
+        assertThat("last event in last bucket", heatmap.getTimeBucket(99.5), is(9));
+
+        int shortPauses = PauseHeatmap.getPauseBucket(0.01);
+        int longPauses = PauseHeatmap.getPauseBucket(1.0);
+        long[] all = heatmap.getCounts(0, heatmap.getTimeBucketCount());
+        assertThat("all short pauses", all[shortPauses], is(50L));
+        assertThat("all long pauses", all[longPauses], is(50L));
+        assertThat("full gc", all[PauseHeatmap.getPauseBucket(5)], is(1L));
+
+        long[] firstHalf = heatmap.getCounts(0.0, 49.0);
+        assertThat("short pauses in first half", firstHalf[shortPauses], is(50L));
+        assertThat("long pauses in first half", firstHalf[longPauses], is(0L));
+
+        long[] secondHalf = heatmap.getCounts(5, 10);
+        assertThat("short pauses in second half", secondHalf[shortPauses], is(0L));
+        assertThat("long pauses in second half", secondHalf[longPauses], is(50L));
+    }
+
+    @Test
+    public void countsPerEventType() throws Exception {
+        PauseHeatmap heatmap = PauseHeatmap.compute(createModel(), 10);
+
+        assertThat("event types", heatmap.getEventTypes().size(), is(2));
+        assertThat("full gc", heatmap.getCounts(Type.FULL_GC.getName(), 0, 10)[PauseHeatmap.getPauseBucket(5)], is(1L));
+        assertThat("gc", heatmap.getCounts(Type.GC.getName(), 0, 10)[PauseHeatmap.getPauseBucket(5)], is(0L));
+        assertThat("unknown type", heatmap.getCounts("unknown", 0, 10)[PauseHeatmap.getPauseBucket(5)], is(0L));
+    }
+}
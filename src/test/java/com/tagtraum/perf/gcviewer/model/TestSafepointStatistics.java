@@ -0,0 +1,105 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.ExtendedType;
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Type;
+import com.tagtraum.perf.gcviewer.model.SafepointStatistics.Outlier;
+import org.junit.Test;
+
+/**
+ * Tests {@link SafepointStatistics} (using {@link GCModel#add(AbstractGCEvent)}).
+ */
+public class TestSafepointStatistics {
+
+    private VmOperationEvent createSafepoint(double timestamp, String operation, double timeToSafepoint, double operationTime) {
+        VmOperationEvent event = new VmOperationEvent();
+        event.setTimestamp(timestamp);
+        event.setExtendedType(ExtendedType.lookup(Type.UJL_SAFEPOINT, "Safepoint \"" + operation + "\"", operation));
+        event.setPause(timeToSafepoint + operationTime);
+        event.setSafepointTimes(timeToSafepoint, 0, operationTime);
+        return event;
+    }
+
+    @Test
+    public void timeToSafepointShare() throws Exception {
+        GCModel model = new GCModel();
+        model.add(createSafepoint(1, "G1CollectForAllocation", 0.001, 0.009));
+        model.add(createSafepoint(2, "Cleanup", 0.003, 0.001));
+
+        SafepointStatistics safepoints = model.getSafepointStatistics();
+        assertThat("has safepoints", safepoints.hasSafepoints(), is(true));
+        assertThat("total time", safepoints.getTotalTime(), closeTo(0.014, 0.0000001));
+        assertThat("time to safepoint share", safepoints.getTimeToSafepointShare(), closeTo(0.004 / 0.014, 0.0000001));
+        assertThat("dominated", safepoints.getTimeToSafepointDominatedCount(), is(1));
+        assertThat("operations", safepoints.getTimeToSafepointByOperation().keySet().toString(), equalTo("[Cleanup, G1CollectForAllocation]"));
+        assertThat("no outliers without baseline", safepoints.getOutlierCount(), is(0));
+    }
+
+    @Test
+    public void withoutSafepointTimes() throws Exception {
+        GCModel model = new GCModel();
+        VmOperationEvent event = new VmOperationEvent();
+        event.setTimestamp(1);
+        event.setType(Type.APPLICATION_STOPPED_TIME);
+        event.setPause(0.01);
+        model.add(event);
+
+        assertThat("has safepoints", model.getSafepointStatistics().hasSafepoints(), is(false));
+        assertThat("vm operation count", model.getVmOperationPause().getN(), is(1));
+    }
+
+    @Test
+    public void timeToSafepointOutlier() throws Exception {
+        GCModel model = new GCModel();
+        for (int i = 0; i < 100; ++i) {
+            double timeToSafepoint = 0.0001 + (i % 3) * 0.00001;
+            if (i == 5) {
+                // no baseline yet
+                timeToSafepoint = 0.003;
+            }
+            else if (i == 70) {
+                timeToSafepoint = 0.05;
+            }
+            model.add(createSafepoint(i, i == 70 ? "RevokeBias" : "Cleanup", timeToSafepoint, 0.002));
+        }
+
+        SafepointStatistics safepoints = model.getSafepointStatistics();
+        List<Outlier> outliers = safepoints.getOutliers();
+        assertThat("outlier count", safepoints.getOutlierCount(), is(1));
+        assertThat("number of outliers", outliers.size(), is(1));
+        Outlier outlier = outliers.get(0);
+        assertThat("timestamp", outlier.getTimestamp(), closeTo(70, 0.0001));
+        assertThat("operation", outlier.getOperation(), equalTo("RevokeBias"));
+        assertThat("time to safepoint", outlier.getTimeToSafepoint(), closeTo(0.05, 0.0000001));
+        assertThat("operation time", outlier.getOperationTime(), closeTo(0.002, 0.0000001));
+        assertThat("dominated", safepoints.getTimeToSafepointDominatedCount(), is(2));
+    }
+
+    @Test
+    public void mergeEqualsReplay() throws Exception {
+        GCModel model1 = new GCModel();
+        GCModel model2 = new GCModel();
+        GCModel replay = new GCModel();
+        for (int i = 0; i < 120; ++i) {
+            double timeToSafepoint = i == 100 ? 0.04 : 0.0002 + (i % 5) * 0.00001;
+            VmOperationEvent event = createSafepoint(i, "Cleanup", timeToSafepoint, 0.001);
+            (i < 60 ? model1 : model2).add(event);
+            replay.add(createSafepoint(i, "Cleanup", timeToSafepoint, 0.001));
+        }
+
+        model1.merge(model2);
+
+        SafepointStatistics merged = model1.getSafepointStatistics();
+        SafepointStatistics expected = replay.getSafepointStatistics();
+        assertThat("count", merged.getTimeToSafepoint().getN(), is(expected.getTimeToSafepoint().getN()));
+        assertThat("sum", merged.getTimeToSafepoint().getSum(), closeTo(expected.getTimeToSafepoint().getSum(), 0.0000001));
+        assertThat("outlier count", merged.getOutlierCount(), is(expected.getOutlierCount()));
+        assertThat("outliers", merged.getOutliers().toString(), equalTo(expected.getOutliers().toString()));
+    }
+}
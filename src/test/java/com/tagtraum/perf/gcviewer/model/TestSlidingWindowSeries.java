@@ -0,0 +1,84 @@
+package com.tagtraum.perf.gcviewer.model;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Iterator;
+
+import com.tagtraum.perf.gcviewer.UnittestHelper;
+import com.tagtraum.perf.gcviewer.UnittestHelper.FOLDER;
+import com.tagtraum.perf.gcviewer.imp.DataReaderFacade;
+import com.tagtraum.perf.gcviewer.model.AbstractGCEvent.Type;
+import com.tagtraum.perf.gcviewer.model.SlidingWindowSeries.Metric;
+import org.junit.Test;
+
+/**
+ * Tests {@link SlidingWindowSeries}.
+ */
+public class TestSlidingWindowSeries {
+
+    @Test
+    public void metricsOfWindow() throws Exception {
+        GCModel model = new GCModel();
+        model.add(new GCEvent(0.0, 100, 20, 1000, 0.5, Type.GC));
+        model.add(new GCEvent(5.0, 220, 40, 1000, 0.5, Type.GC));
+        model.add(new GCEvent(9.5, 340, 60, 1000, 0.5, Type.GC));
+        // spike: the first two pauses leave the window
+        model.add(new GCEvent(15.5, 1060, 80, 1000, 2.0, Type.GC));
+
+        SlidingWindowSeries series = SlidingWindowSeries.compute(model, 10);
+
+        assertThat("size", series.size(), is(4));
+        assertThat("timestamp", series.getTimestamp(2), closeTo(9.5, 0.0001));
+        // window [0, 10]: 1.5 sec of pauses
+        assertThat("throughput", series.getValue(Metric.THROUGHPUT, 2), closeTo(85, 0.0001));
+        assertThat("max pause", series.getValue(Metric.MAX_PAUSE, 2), closeTo(0.5, 0.0001));
+        assertThat("pauses per minute", series.getValue(Metric.PAUSE_DENSITY, 2), closeTo(18, 0.0001));
+        // (220 - 20) + (340 - 40) K in 10 sec
+        assertThat("allocation rate", series.getValue(Metric.ALLOCATION_RATE, 2), closeTo(50, 0.0001));
+
+        // window [7.5, 17.5]: 2.5 sec of pauses
+        assertThat("throughput after spike", series.getValue(Metric.THROUGHPUT, 3), closeTo(75, 0.0001));
+        assertThat("max pause after spike", series.getValue(Metric.MAX_PAUSE, 3), closeTo(2.0, 0.0001));
+        // (340 - 40) + (1060 - 60) K in 10 sec
+        assertThat("allocation rate after spike", series.getValue(Metric.ALLOCATION_RATE, 3), closeTo(130, 0.0001));
+    }
+
+    @Test
+    public void throughputOfWholeLog() throws Exception {
+        GCModel model = new DataReaderFacade().loadModel(new GcResourceFile(
+                UnittestHelper.getResource(FOLDER.OPENJDK, "SampleSun1_6_0CMS.txt").getPath()));
+
+        // window covering the whole log -> last value is the throughput of the model
+        SlidingWindowSeries series = SlidingWindowSeries.compute(model, model.getRunningTime() + 1);
+
+        int stopTheWorldEventCount = 0;
+        for (Iterator<AbstractGCEvent<?>> i = model.getStopTheWorldEvents(); i.hasNext(); i.next()) {
+            ++stopTheWorldEventCount;
+        }
+        assertThat("size", series.size(), is(stopTheWorldEventCount));
+        assertThat("throughput",
+                series.getValue(Metric.THROUGHPUT, series.size() - 1),
+                closeTo(model.getThroughput(), 0.0001));
+    }
+
+    @Test
+    public void promotionRate() throws Exception {
+        GCModel model = new GCModel();
+        // young space: 1000K -> 0K; heap: 1000K -> 200K => 200K promoted
+        model.add(createYoungCollection(0.0, 0.1, 1000, 200, 1000, 0));
+        // young space: 900K -> 0K; heap: 1100K -> 300K => 100K promoted
+        model.add(createYoungCollection(4.9, 0.1, 1100, 300, 900, 0));
+
+        SlidingWindowSeries series = SlidingWindowSeries.compute(model, 10);
+
+        assertThat("promotion rate", series.getValue(Metric.PROMOTION_RATE, 1), closeTo((200 + 100) / 5.0, 0.0001));
+    }
+
+    private GCEvent createYoungCollection(double timestamp, double pause, int heapPreUsed, int heapPostUsed, int youngPreUsed, int youngPostUsed) {
+        GCEvent event = new GCEvent(timestamp, heapPreUsed, heapPostUsed, 2000, pause, Type.GC);
+        event.add(new GCEvent(timestamp, youngPreUsed, youngPostUsed, 1000, pause, Type.DEF_NEW));
+        return event;
+    }
+}
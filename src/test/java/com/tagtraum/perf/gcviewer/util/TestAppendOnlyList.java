@@ -0,0 +1,95 @@
+package com.tagtraum.perf.gcviewer.util;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Tests the class {@link AppendOnlyList}.
+ */
+public class TestAppendOnlyList {
+
+    private AppendOnlyList<Integer> createList(int size) {
+        AppendOnlyList<Integer> list = new AppendOnlyList<>();
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    @Test
+    public void addAndGetOverSeveralChunks() throws Exception {
+        AppendOnlyList<Integer> list = createList(5000);
+
+        assertThat("size", list.size(), is(5000));
+        assertThat("first", list.get(0), is(0));
+        assertThat("chunk boundary", list.get(1024), is(1024));
+        assertThat("last", list.get(4999), is(4999));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getBeyondSize() throws Exception {
+        createList(10).get(10);
+    }
+
+    @Test
+    public void sharedElementsAreNotChangedByOriginal() throws Exception {
+        AppendOnlyList<Integer> original = createList(1500);
+        AppendOnlyList<Integer> copy = new AppendOnlyList<>();
+        copy.addAll(original);
+        original.add(-1);
+
+        assertThat("copy size", copy.size(), is(1500));
+        assertThat("original size", original.size(), is(1501));
+        assertThat("copy equals", copy, is(createList(1500)));
+    }
+
+    @Test
+    public void addToCopyDoesNotChangeOriginal() throws Exception {
+        AppendOnlyList<Integer> original = createList(1500);
+        AppendOnlyList<Integer> copy = new AppendOnlyList<>();
+        copy.addAll(original);
+        copy.add(-2);
+        original.add(-1);
+
+        assertThat("copy last", copy.get(1500), is(-2));
+        assertThat("original last", original.get(1500), is(-1));
+        assertThat("copy prefix", copy.subList(0, 1500), is(createList(1500)));
+    }
+
+    @Test
+    public void addAllToNonEmptyListAppends() throws Exception {
+        AppendOnlyList<Integer> list = createList(2);
+        list.addAll(Arrays.asList(7, 8));
+
+        assertThat("elements", list, is(Arrays.asList(0, 1, 7, 8)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void setIsNotSupported() throws Exception {
+        createList(2).set(0, 5);
+    }
+
+    @Test
+    public void serializeOnlyOwnElements() throws Exception {
+        AppendOnlyList<Integer> original = createList(10);
+        AppendOnlyList<Integer> copy = new AppendOnlyList<>();
+        copy.addAll(original);
+        original.add(10);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(copy);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertThat("deserialized", in.readObject(), is(createList(10)));
+        }
+    }
+}
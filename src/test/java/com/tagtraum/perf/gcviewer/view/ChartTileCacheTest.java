@@ -0,0 +1,104 @@
+package com.tagtraum.perf.gcviewer.view;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.awt.image.BufferedImage;
+
+import org.junit.Test;
+
+/**
+ * Tests the class {@link ChartTileCache}.
+ */
+public class ChartTileCacheTest {
+
+    private ChartTileCache.Key createKey(double scaleFactor, int tileIndex, long visibleRenderers) {
+        return new ChartTileCache.Key(scaleFactor, tileIndex, 300, 1.0, visibleRenderers, true);
+    }
+
+    private BufferedImage createTile() {
+        return new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    @Test
+    public void tileIndex() {
+        assertThat("0", ChartTileCache.getTileIndex(0), equalTo(0));
+        assertThat("last pixel of first tile", ChartTileCache.getTileIndex(ChartTileCache.TILE_WIDTH - 1), equalTo(0));
+        assertThat("first pixel of second tile", ChartTileCache.getTileIndex(ChartTileCache.TILE_WIDTH), equalTo(1));
+        assertThat("negative", ChartTileCache.getTileIndex(-1), equalTo(-1));
+    }
+
+    @Test
+    public void keyEquality() {
+        assertThat("same", createKey(1.5, 2, 0b101), equalTo(createKey(1.5, 2, 0b101)));
+        assertThat("scale factor", createKey(1.5, 2, 0b101), not(equalTo(createKey(1.8, 2, 0b101))));
+        assertThat("tile", createKey(1.5, 2, 0b101), not(equalTo(createKey(1.5, 3, 0b101))));
+        assertThat("visibility", createKey(1.5, 2, 0b101), not(equalTo(createKey(1.5, 2, 0b100))));
+    }
+
+    @Test
+    public void getAndClear() {
+        ChartTileCache cache = new ChartTileCache();
+        BufferedImage tile = createTile();
+        cache.put(createKey(1, 0, 1), tile);
+
+        assertThat("cached", cache.get(createKey(1, 0, 1)), sameInstance(tile));
+        assertThat("other visibility", cache.get(createKey(1, 0, 3)), nullValue());
+
+        cache.clear();
+        assertThat("after clear", cache.get(createKey(1, 0, 1)), nullValue());
+    }
+
+    @Test
+    public void leastRecentlyUsedIsDiscarded() {
+        // 1x1 pixel tiles: 4 bytes each
+        ChartTileCache cache = new ChartTileCache(new ChartTileCache.TileMemory(4 * 8));
+        for (int i = 0; i < 8; i++) {
+            cache.put(createKey(1, i, 1), createTile());
+        }
+        // use first tile -> second tile is now the least recently used one
+        cache.get(createKey(1, 0, 1));
+        cache.put(createKey(1, 8, 1), createTile());
+
+        assertThat("size", cache.size(), equalTo(8));
+        assertThat("recently used", cache.get(createKey(1, 0, 1)), notNullValue());
+        assertThat("least recently used", cache.get(createKey(1, 1, 1)), nullValue());
+    }
+
+    @Test
+    public void memoryIsSharedByCaches() {
+        ChartTileCache.TileMemory memory = new ChartTileCache.TileMemory(4 * 4);
+        ChartTileCache first = new ChartTileCache(memory);
+        ChartTileCache second = new ChartTileCache(memory);
+        for (int i = 0; i < 3; i++) {
+            first.put(createKey(1, i, 1), createTile());
+        }
+        second.put(createKey(1, 0, 1), createTile());
+        second.put(createKey(1, 1, 1), createTile());
+
+        assertThat("bytes", memory.getBytes(), equalTo(16L));
+        assertThat("first cache", first.size(), equalTo(2));
+        assertThat("least recently used of first cache", first.get(createKey(1, 0, 1)), nullValue());
+        assertThat("second cache", second.size(), equalTo(2));
+
+        first.clear();
+        assertThat("bytes after clear", memory.getBytes(), equalTo(8L));
+    }
+
+    @Test
+    public void tileLargerThanMemoryIsKept() {
+        ChartTileCache.TileMemory memory = new ChartTileCache.TileMemory(4);
+        ChartTileCache cache = new ChartTileCache(memory);
+        cache.put(createKey(1, 0, 1), createTile());
+        cache.put(createKey(1, 1, 1), new BufferedImage(2, 2, BufferedImage.TYPE_INT_ARGB));
+
+        assertThat("size", cache.size(), equalTo(1));
+        assertThat("last tile", cache.get(createKey(1, 1, 1)), notNullValue());
+        assertThat("bytes", memory.getBytes(), equalTo(16L));
+    }
+
+}
@@ -0,0 +1,159 @@
+package com.tagtraum.perf.gcviewer.view.renderer;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.awt.geom.AffineTransform;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import javax.swing.SwingUtilities;
+
+import com.tagtraum.perf.gcviewer.view.ModelChartImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the class {@link BackgroundGeometry}.
+ */
+public class TestBackgroundGeometry {
+
+    private GCTimesRenderer renderer;
+    private BackgroundGeometry<String> geometry;
+
+    @Before
+    public void setUp() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            renderer = new GCTimesRenderer(new ModelChartImpl());
+            renderer.setSize(200, 100);
+            geometry = new BackgroundGeometry<>(renderer);
+        });
+    }
+
+    private String getOnEdt(Function<ChartParameters, String> computation, boolean inBackground) throws Exception {
+        AtomicReference<String> result = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> result.set(geometry.get(computation, inBackground)));
+        return result.get();
+    }
+
+    private boolean isCurrentOnEdt() throws Exception {
+        AtomicReference<Boolean> result = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> result.set(geometry.isCurrent()));
+        return result.get();
+    }
+
+    private String waitForCurrent(Function<ChartParameters, String> computation) throws Exception {
+        long end = System.currentTimeMillis() + 10000;
+        while (!isCurrentOnEdt() && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        return getOnEdt(computation, true);
+    }
+
+    @Test
+    public void computedSynchronously() throws Exception {
+        assertThat("geometry", getOnEdt(parameters -> "first", false), equalTo("first"));
+        assertThat("current", isCurrentOnEdt(), is(true));
+    }
+
+    @Test
+    public void computedInBackground() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        Function<ChartParameters, String> computation = parameters -> {
+            try {
+                latch.await(10, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "first";
+        };
+
+        assertThat("before computation", getOnEdt(computation, true), nullValue());
+        assertThat("current before computation", isCurrentOnEdt(), is(false));
+        latch.countDown();
+        assertThat("after computation", waitForCurrent(computation), equalTo("first"));
+    }
+
+    @Test
+    public void previousGeometryUntilSwapped() throws Exception {
+        getOnEdt(parameters -> "first", false);
+        SwingUtilities.invokeAndWait(() -> geometry.reset());
+
+        CountDownLatch latch = new CountDownLatch(1);
+        Function<ChartParameters, String> computation = parameters -> {
+            try {
+                latch.await(10, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "second";
+        };
+
+        assertThat("during computation", getOnEdt(computation, true), equalTo("first"));
+        assertThat("current during computation", isCurrentOnEdt(), is(false));
+        latch.countDown();
+        assertThat("after computation", waitForCurrent(computation), equalTo("second"));
+    }
+
+    @Test
+    public void outdatedComputationIsDiscarded() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        Function<ChartParameters, String> outdated = parameters -> {
+            try {
+                latch.await(10, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "outdated";
+        };
+
+        getOnEdt(outdated, true);
+        SwingUtilities.invokeAndWait(() -> geometry.reset());
+        latch.countDown();
+
+        // the renderer is not showing, so the next computation is started by the next paint
+        long end = System.currentTimeMillis() + 10000;
+        String result = getOnEdt(parameters -> "current", true);
+        while (!"current".equals(result) && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+            result = getOnEdt(parameters -> "current", true);
+        }
+        assertThat("result", result, equalTo("current"));
+    }
+
+    @Test
+    public void computationGetsParametersCapturedOnEdt() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<ChartParameters> computedFor = new AtomicReference<>();
+        Function<ChartParameters, String> computation = parameters -> {
+            try {
+                latch.await(10, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            computedFor.set(parameters);
+            return "first";
+        };
+
+        getOnEdt(computation, true);
+        // the chart changes while the computation is running
+        SwingUtilities.invokeAndWait(() -> renderer.setSize(200, 50));
+        latch.countDown();
+        assertThat("after computation", waitForCurrent(computation), equalTo("first"));
+
+        assertThat("height", computedFor.get().getHeight(), is(100));
+        AtomicReference<AffineTransform> transform = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> transform.set(geometry.getTransform(
+                renderer.getModelChart().getScaleFactor(), renderer.getHeight())));
+        assertThat("y scale", transform.get().getScaleY(), is(0.5));
+    }
+
+}
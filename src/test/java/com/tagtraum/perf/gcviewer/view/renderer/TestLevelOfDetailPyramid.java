@@ -0,0 +1,70 @@
+package com.tagtraum.perf.gcviewer.view.renderer;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Tests the class {@link LevelOfDetailPyramid}.
+ */
+public class TestLevelOfDetailPyramid {
+
+    private LevelOfDetailPyramid createPyramid(int size) {
+        LevelOfDetailPyramid pyramid = new LevelOfDetailPyramid();
+        for (int i = 0; i < size; i++) {
+            // saw tooth with a single spike in the middle
+            pyramid.addPoint(i * 0.01, i == size / 2 ? 10000 : i % 100);
+        }
+        return pyramid;
+    }
+
+    @Test
+    public void smallSeriesIsNotAggregated() {
+        LevelOfDetailPyramid pyramid = createPyramid(5);
+        assertThat("level count", pyramid.getLevelCount(), equalTo(0));
+        assertThat("points", pyramid.getPoints(0.001)[0].length, equalTo(5));
+    }
+
+    @Test
+    public void zoomedInReturnsAllPoints() {
+        LevelOfDetailPyramid pyramid = createPyramid(100000);
+        // 1000 pixels per second -> 10 pixels per point
+        double[][] points = pyramid.getPoints(1000);
+        assertThat("points", points[0].length, equalTo(100000));
+        assertThat("level", pyramid.getLevel(1000), equalTo(-1));
+    }
+
+    @Test
+    public void zoomedOutDependsOnPixelWidth() {
+        LevelOfDetailPyramid pyramid = createPyramid(100000);
+        // chart of 1000 seconds drawn 500 pixels wide; buckets are between half a pixel and a pixel wide
+        double[][] points = pyramid.getPoints(0.5);
+        assertThat("points", points[0].length, lessThanOrEqualTo(2 * 4 * 500));
+
+        double[][] wider = pyramid.getPoints(5);
+        assertThat("points", wider[0].length, lessThanOrEqualTo(2 * 4 * 5000));
+    }
+
+    @Test
+    public void extremesAndOrderArePreserved() {
+        LevelOfDetailPyramid pyramid = createPyramid(100000);
+        double[][] points = pyramid.getPoints(0.5);
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        for (int i = 0; i < points[0].length; i++) {
+            min = Math.min(min, points[1][i]);
+            max = Math.max(max, points[1][i]);
+            if (i > 0) {
+                assertThat("x order at " + i, points[0][i - 1], lessThanOrEqualTo(points[0][i]));
+            }
+        }
+
+        assertThat("min", min, equalTo(0.0));
+        assertThat("max", max, equalTo(10000.0));
+        assertThat("first x", points[0][0], equalTo(0.0));
+        assertThat("last x", points[0][points[0].length - 1], equalTo(99999 * 0.01));
+    }
+
+}